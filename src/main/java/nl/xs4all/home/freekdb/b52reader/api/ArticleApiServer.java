@@ -0,0 +1,750 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.api;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+import nl.xs4all.home.freekdb.b52reader.gui.ArticleFilter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Embedded HTTP server with a JSON API for the stored articles, which only accepts connections from localhost. Other
+ * tools can use it to query the database of the reader without opening a second database connection:
+ * <ul>
+ * <li>"GET /api/articles?filter=is:starred&amp;offset=0&amp;limit=100" returns a page of the stored articles (newest
+ * first) that match the filter (see {@link ArticleFilter} for the syntax; a filter with terms that are not
+ * understood is rejected); with "content=text", only articles with stored full text that contains the text (case
+ * insensitive) are returned;</li>
+ * <li>"PUT /api/articles/flags" with a JSON object like {"url": "...", "starred": true, "read": false} updates the
+ * flags of a stored article (flags that are not specified keep their value).</li>
+ * </ul>
+ * The articles are read from the database one by one and written with the Jackson streaming generator, so large pages
+ * are never built in memory. Requests are handled one at a time. To prevent web pages from reaching the API with DNS
+ * rebinding, requests are refused unless their Host header is a loopback name with the port of the API and their
+ * Origin header (if any) is a loopback origin. Flags updates are passed on to an optional
+ * {@link ArticleFlagsListener}, so the application can update the articles it shows.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ArticleApiServer {
+    /**
+     * Path for getting the articles.
+     */
+    private static final String ARTICLES_PATH = "/api/articles";
+
+    /**
+     * Path for updating the flags of an article.
+     */
+    private static final String FLAGS_PATH = "/api/articles/flags";
+
+    /**
+     * HTTP method for getting the articles.
+     */
+    private static final String GET_METHOD = "GET";
+
+    /**
+     * HTTP method for updating the flags of an article.
+     */
+    private static final String PUT_METHOD = "PUT";
+
+    /**
+     * Query parameter with the filter text.
+     */
+    private static final String FILTER_PARAMETER = "filter";
+
+    /**
+     * Query parameter with the text to search for in the stored full text of the articles.
+     */
+    private static final String CONTENT_PARAMETER = "content";
+
+    /**
+     * Query parameter (and response field) with the number of matching articles to skip.
+     */
+    private static final String OFFSET_PARAMETER = "offset";
+
+    /**
+     * Query parameter (and response field) with the maximum number of articles to return.
+     */
+    private static final String LIMIT_PARAMETER = "limit";
+
+    /**
+     * Default maximum number of articles to return.
+     */
+    private static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Largest allowed maximum number of articles to return.
+     */
+    private static final int MAXIMUM_LIMIT = 10_000;
+
+    /**
+     * JSON field with the URL of an article.
+     */
+    private static final String URL_FIELD = "url";
+
+    /**
+     * JSON field with the starred flag of an article.
+     */
+    private static final String STARRED_FIELD = "starred";
+
+    /**
+     * JSON field with the read flag of an article.
+     */
+    private static final String READ_FIELD = "read";
+
+    /**
+     * JSON field with the archived flag of an article.
+     */
+    private static final String ARCHIVED_FIELD = "archived";
+
+    /**
+     * JSON field with an error message.
+     */
+    private static final String ERROR_FIELD = "error";
+
+    /**
+     * Host names that refer to the loopback address, which are accepted in the Host and Origin headers.
+     */
+    private static final List<String> LOOPBACK_HOST_NAMES = Arrays.asList("localhost", "127.0.0.1", "[::1]");
+
+    /**
+     * Error message for requests with an unknown path.
+     */
+    private static final String UNKNOWN_PATH_MESSAGE = "Unknown path.";
+
+    /**
+     * Error message for requests that do not come from a local client.
+     */
+    private static final String FORBIDDEN_MESSAGE = "Only local clients can use this API.";
+
+    /**
+     * Character encoding of the query parameters.
+     */
+    private static final String QUERY_ENCODING = StandardCharsets.UTF_8.name();
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Handler for persistency functionality: storing and retrieving data in the database.
+     */
+    private final PersistencyHandler persistencyHandler;
+
+    /**
+     * The localhost port to listen on (zero selects a free port).
+     */
+    private final int port;
+
+    /**
+     * Factory for the JSON parsers and generators.
+     */
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Listener for the flags updates, or null if no listener is needed.
+     */
+    private final ArticleFlagsListener flagsListener;
+
+    /**
+     * The HTTP server, or null if the API is not running.
+     */
+    private HttpServer httpServer;
+
+    /**
+     * Construct an article API server, which is started with the <code>start</code> method.
+     *
+     * @param persistencyHandler the persistency handler with the stored articles.
+     * @param port               the localhost port to listen on (zero selects a free port).
+     */
+    public ArticleApiServer(final PersistencyHandler persistencyHandler, final int port) {
+        this(persistencyHandler, port, null);
+    }
+
+    /**
+     * Construct an article API server with a listener for the flags updates, which is started with the
+     * <code>start</code> method.
+     *
+     * @param persistencyHandler the persistency handler with the stored articles.
+     * @param port               the localhost port to listen on (zero selects a free port).
+     * @param flagsListener      the listener for the flags updates, or null if no listener is needed.
+     */
+    public ArticleApiServer(final PersistencyHandler persistencyHandler, final int port,
+                            final ArticleFlagsListener flagsListener) {
+        this.persistencyHandler = persistencyHandler;
+        this.port = port;
+        this.jsonFactory = new JsonFactory();
+        this.flagsListener = flagsListener;
+    }
+
+    /**
+     * Start listening for requests on the loopback address.
+     *
+     * @return whether the API is running.
+     */
+    public synchronized boolean start() {
+        if (httpServer == null) {
+            try {
+                httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+                httpServer.createContext(ARTICLES_PATH, this::handleArticlesRequest);
+                httpServer.createContext(FLAGS_PATH, this::handleFlagsRequest);
+
+                // Without an executor, the requests are handled one at a time by the thread of the HTTP server.
+                httpServer.start();
+
+                logger.info("Started the article API at http://{}:{}{}.",
+                            InetAddress.getLoopbackAddress().getHostAddress(), getPort(), ARTICLES_PATH);
+            } catch (final IOException e) {
+                logger.error("Exception while starting the article API on port " + port, e);
+
+                httpServer = null;
+            }
+        }
+
+        return httpServer != null;
+    }
+
+    /**
+     * Stop listening for requests.
+     */
+    public synchronized void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+
+            logger.info("Stopped the article API.");
+        }
+    }
+
+    /**
+     * Get the localhost port the API is listening on.
+     *
+     * @return the port, or -1 if the API is not running.
+     */
+    public synchronized int getPort() {
+        return httpServer != null ? httpServer.getAddress().getPort() : -1;
+    }
+
+    /**
+     * Handle a request for the articles path.
+     *
+     * @param exchange the HTTP request and response.
+     * @throws IOException if an error occurred when writing the response.
+     */
+    private void handleArticlesRequest(final HttpExchange exchange) throws IOException {
+        final long startNanos = System.nanoTime();
+
+        try {
+            if (!isLocalRequest(exchange)) {
+                sendError(exchange, HttpURLConnection.HTTP_FORBIDDEN, FORBIDDEN_MESSAGE);
+            } else if (!ARTICLES_PATH.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, UNKNOWN_PATH_MESSAGE);
+            } else if (!GET_METHOD.equals(exchange.getRequestMethod())) {
+                sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Use GET to get the articles.");
+            } else {
+                try {
+                    sendArticles(exchange);
+                } catch (final IllegalArgumentException e) {
+                    sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST, e.getMessage());
+                }
+            }
+        } finally {
+            exchange.close();
+
+            MetricsRegistry.getGlobal().recordLatencySince("api.articles", startNanos);
+        }
+    }
+
+    /**
+     * Check whether a request comes from a local client: the Host header should be a loopback name with the port of the
+     * API, and the Origin header (which browsers add to cross-origin and modifying requests) should be missing or be a
+     * loopback origin with that port. Since the server only listens on the loopback address, this refuses requests
+     * from web pages whose host name was rebound to the loopback address.
+     *
+     * @param exchange the HTTP request and response.
+     * @return whether the request comes from a local client.
+     */
+    private boolean isLocalRequest(final HttpExchange exchange) {
+        final String portSuffix = ":" + exchange.getLocalAddress().getPort();
+        final String host = exchange.getRequestHeaders().getFirst("Host");
+        final String origin = exchange.getRequestHeaders().getFirst("Origin");
+
+        final boolean localHost = host != null && LOOPBACK_HOST_NAMES.stream()
+            .anyMatch(name -> host.equalsIgnoreCase(name + portSuffix));
+        final boolean localOrigin = origin == null || LOOPBACK_HOST_NAMES.stream()
+            .anyMatch(name -> origin.equalsIgnoreCase("http://" + name + portSuffix));
+
+        return localHost && localOrigin;
+    }
+
+    /**
+     * Send a page of the stored articles that match the filter. The query parameters are checked before the response
+     * is started; after that, the articles are written while they are read from the database.
+     *
+     * @param exchange the HTTP request and response.
+     * @throws IOException if an error occurred when writing the response.
+     */
+    private void sendArticles(final HttpExchange exchange) throws IOException {
+        final Map<String, String> parameters = parseQueryParameters(exchange.getRequestURI().getRawQuery());
+        final Predicate<Article> filter = createFilter(parameters);
+        final int offset = parseNumberParameter(parameters, OFFSET_PARAMETER, 0, Integer.MAX_VALUE);
+        final int limit = parseNumberParameter(parameters, LIMIT_PARAMETER, DEFAULT_LIMIT, MAXIMUM_LIMIT);
+
+        try (JsonGenerator generator = createResponseGenerator(exchange, HttpURLConnection.HTTP_OK)) {
+            generator.writeStartObject();
+            generator.writeNumberField(OFFSET_PARAMETER, offset);
+            generator.writeNumberField(LIMIT_PARAMETER, limit);
+            generator.writeArrayFieldStart("articles");
+
+            final ArticlePageWriter pageWriter = new ArticlePageWriter(generator, filter, offset, limit);
+            final boolean readSuccessfully = persistencyHandler.readStoredArticles(pageWriter);
+
+            generator.writeEndArray();
+            generator.writeBooleanField("hasMore", pageWriter.hasMore());
+
+            if (!readSuccessfully) {
+                generator.writeStringField(ERROR_FIELD, "Error while reading the articles from the database.");
+            }
+
+            generator.writeEndObject();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Create the filter for the articles from the query parameters. When the content parameter is used, the stored
+     * full text of an article is only read (and decompressed) after the article matched the other conditions. Since
+     * reading stops when the page is full, only the content of the articles up to the end of the page is searched.
+     *
+     * @param parameters the query parameters.
+     * @return the filter the articles should match.
+     * @throws IllegalArgumentException if the filter parameter has terms that are not understood.
+     */
+    private Predicate<Article> createFilter(final Map<String, String> parameters) {
+        final ArticleFilter articleFilter = new ArticleFilter(parameters.getOrDefault(FILTER_PARAMETER, ""));
+
+        if (!articleFilter.getErrors().isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", articleFilter.getErrors()));
+        }
+
+        Predicate<Article> filter = articleFilter;
+        final String contentText = parameters.getOrDefault(CONTENT_PARAMETER, "").toLowerCase(Locale.ROOT);
+
+        if (!contentText.isEmpty()) {
+            filter = filter.and(article -> contentContains(article, contentText));
+        }
+
+        return filter;
+    }
+
+    /**
+     * Check whether the stored full text of an article contains a text (case insensitive).
+     *
+     * @param article             the article.
+     * @param lowerCaseSearchText the text to search for (in lower case).
+     * @return whether the article has stored content that contains the text.
+     */
+    private boolean contentContains(final Article article, final String lowerCaseSearchText) {
+        final String content = persistencyHandler.readArticleContent(article.getUrl());
+
+        return content != null && content.toLowerCase(Locale.ROOT).contains(lowerCaseSearchText);
+    }
+
+    /**
+     * Handle a request for the flags path.
+     *
+     * @param exchange the HTTP request and response.
+     * @throws IOException if an error occurred when reading the request or writing the response.
+     */
+    private void handleFlagsRequest(final HttpExchange exchange) throws IOException {
+        final long startNanos = System.nanoTime();
+
+        try {
+            if (!isLocalRequest(exchange)) {
+                sendError(exchange, HttpURLConnection.HTTP_FORBIDDEN, FORBIDDEN_MESSAGE);
+            } else if (!FLAGS_PATH.equals(exchange.getRequestURI().getPath())) {
+                sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, UNKNOWN_PATH_MESSAGE);
+            } else if (!PUT_METHOD.equals(exchange.getRequestMethod())) {
+                sendError(exchange, HttpURLConnection.HTTP_BAD_METHOD, "Use PUT to update the flags.");
+            } else {
+                updateFlags(exchange);
+            }
+        } finally {
+            exchange.close();
+
+            MetricsRegistry.getGlobal().recordLatencySince("api.flags", startNanos);
+        }
+    }
+
+    /**
+     * Update the flags of a stored article, let the flags listener know, and send the result.
+     *
+     * @param exchange the HTTP request and response.
+     * @throws IOException if an error occurred when reading the request or writing the response.
+     */
+    private void updateFlags(final HttpExchange exchange) throws IOException {
+        final FlagsUpdate flagsUpdate = parseFlagsUpdate(exchange.getRequestBody());
+
+        if (flagsUpdate == null) {
+            sendError(exchange, HttpURLConnection.HTTP_BAD_REQUEST,
+                      "Expected a JSON object with a url and at least one of the starred, read, and archived flags.");
+        } else if (persistencyHandler.updateArticleFlags(flagsUpdate.url, flagsUpdate.starred, flagsUpdate.read,
+                                                         flagsUpdate.archived)) {
+            if (flagsListener != null) {
+                flagsListener.articleFlagsUpdated(flagsUpdate.url, flagsUpdate.starred, flagsUpdate.read,
+                                                  flagsUpdate.archived);
+            }
+
+            try (JsonGenerator generator = createResponseGenerator(exchange, HttpURLConnection.HTTP_OK)) {
+                generator.writeStartObject();
+                generator.writeStringField(URL_FIELD, flagsUpdate.url);
+                generator.writeBooleanField("updated", true);
+                generator.writeEndObject();
+            }
+        } else {
+            sendError(exchange, HttpURLConnection.HTTP_NOT_FOUND, "No stored article with this url.");
+        }
+    }
+
+    /**
+     * Parse a flags update from a request body.
+     *
+     * @param requestBody the request body with a JSON object.
+     * @return the flags update, or null if the request body is not a valid flags update.
+     * @throws IOException if an error occurred when reading the request body.
+     */
+    private FlagsUpdate parseFlagsUpdate(final InputStream requestBody) throws IOException {
+        final FlagsUpdate flagsUpdate = new FlagsUpdate();
+        boolean valid;
+
+        try (JsonParser parser = jsonFactory.createParser(requestBody)) {
+            valid = parser.nextToken() == JsonToken.START_OBJECT;
+
+            while (valid && parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken valueToken = parser.nextToken();
+
+                switch (fieldName) {
+                    case URL_FIELD:
+                        flagsUpdate.url = valueToken == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        valid = flagsUpdate.url != null;
+                        break;
+                    case STARRED_FIELD:
+                        flagsUpdate.starred = readFlag(valueToken);
+                        valid = flagsUpdate.starred != null;
+                        break;
+                    case READ_FIELD:
+                        flagsUpdate.read = readFlag(valueToken);
+                        valid = flagsUpdate.read != null;
+                        break;
+                    case ARCHIVED_FIELD:
+                        flagsUpdate.archived = readFlag(valueToken);
+                        valid = flagsUpdate.archived != null;
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+
+            valid = valid && parser.getCurrentToken() == JsonToken.END_OBJECT && flagsUpdate.isComplete();
+        } catch (final JsonProcessingException e) {
+            logger.debug("Invalid JSON in a flags update.", e);
+
+            valid = false;
+        }
+
+        return valid ? flagsUpdate : null;
+    }
+
+    /**
+     * Read a flag value.
+     *
+     * @param valueToken the token with the value.
+     * @return the flag value, or null if the token is not a boolean.
+     */
+    private static Boolean readFlag(final JsonToken valueToken) {
+        final Boolean flag;
+
+        if (valueToken == JsonToken.VALUE_TRUE || valueToken == JsonToken.VALUE_FALSE) {
+            flag = valueToken == JsonToken.VALUE_TRUE;
+        } else {
+            flag = null;
+        }
+
+        return flag;
+    }
+
+    /**
+     * Send an error response.
+     *
+     * @param exchange   the HTTP request and response.
+     * @param statusCode the HTTP status code.
+     * @param message    the error message.
+     * @throws IOException if an error occurred when writing the response.
+     */
+    private void sendError(final HttpExchange exchange, final int statusCode, final String message)
+            throws IOException {
+        try (JsonGenerator generator = createResponseGenerator(exchange, statusCode)) {
+            generator.writeStartObject();
+            generator.writeStringField(ERROR_FIELD, message);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Start a JSON response and create a generator that writes to the response body (and closes it).
+     *
+     * @param exchange   the HTTP request and response.
+     * @param statusCode the HTTP status code.
+     * @return the generator for the response body.
+     * @throws IOException if an error occurred when starting the response.
+     */
+    private JsonGenerator createResponseGenerator(final HttpExchange exchange, final int statusCode)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+
+        // A response length of zero selects chunked transfer encoding, so the body is sent while it is written.
+        exchange.sendResponseHeaders(statusCode, 0);
+
+        return jsonFactory.createGenerator(exchange.getResponseBody(), JsonEncoding.UTF8);
+    }
+
+    /**
+     * Parse the query parameters of a request.
+     *
+     * @param rawQuery the encoded query, or null if the request has no query.
+     * @return the decoded query parameters by name.
+     * @throws UnsupportedEncodingException if UTF-8 is not supported (which should never happen).
+     */
+    static Map<String, String> parseQueryParameters(final String rawQuery) throws UnsupportedEncodingException {
+        final Map<String, String> parameters = new HashMap<>();
+
+        if (rawQuery != null && !rawQuery.isEmpty()) {
+            for (final String parameter : rawQuery.split("&")) {
+                final int separatorIndex = parameter.indexOf('=');
+                final String name = separatorIndex >= 0 ? parameter.substring(0, separatorIndex) : parameter;
+                final String value = separatorIndex >= 0 ? parameter.substring(separatorIndex + 1) : "";
+
+                parameters.put(URLDecoder.decode(name, QUERY_ENCODING), URLDecoder.decode(value, QUERY_ENCODING));
+            }
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Parse a number parameter.
+     *
+     * @param parameters   the query parameters.
+     * @param name         the name of the parameter.
+     * @param defaultValue the value if the parameter is missing.
+     * @param maximumValue the largest allowed value.
+     * @return the number.
+     * @throws IllegalArgumentException if the parameter is not a number between zero and the maximum value.
+     */
+    private static int parseNumberParameter(final Map<String, String> parameters, final String name,
+                                            final int defaultValue, final int maximumValue) {
+        final String text = parameters.get(name);
+        int value = defaultValue;
+
+        if (text != null) {
+            try {
+                value = Integer.parseInt(text);
+            } catch (final NumberFormatException e) {
+                value = -1;
+            }
+
+            if (value < 0 || value > maximumValue) {
+                throw new IllegalArgumentException(String.format("The %s parameter should be a number from 0 to %d.",
+                                                                 name, maximumValue));
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Write an article as a JSON object.
+     *
+     * @param generator the generator to write to.
+     * @param article   the article to write.
+     * @throws IOException if an error occurred when writing the article.
+     */
+    private static void writeArticle(final JsonGenerator generator, final Article article) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(URL_FIELD, article.getUrl());
+        generator.writeStringField("sourceId", article.getSourceId());
+        generator.writeStringField("author", article.getAuthor() != null ? article.getAuthor().getName() : null);
+        generator.writeStringField("title", article.getTitle());
+        generator.writeStringField("dateTime", article.getDateTime() != null
+                                               ? DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(article.getDateTime())
+                                               : null);
+        generator.writeStringField("text", article.getText());
+        generator.writeNumberField("likes", article.getLikes());
+        generator.writeBooleanField(STARRED_FIELD, article.isStarred());
+        generator.writeBooleanField(READ_FIELD, article.isRead());
+        generator.writeBooleanField(ARCHIVED_FIELD, article.isArchived());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Handler for the stored articles that writes the articles of one page that match the filter, and stops reading
+     * when the page is full.
+     */
+    private static final class ArticlePageWriter implements Predicate<Article> {
+        /**
+         * The generator to write the articles to.
+         */
+        private final JsonGenerator generator;
+
+        /**
+         * The filter the articles should match.
+         */
+        private final Predicate<Article> filter;
+
+        /**
+         * The number of matching articles to skip.
+         */
+        private final long offset;
+
+        /**
+         * The number of matching articles after which the page is full.
+         */
+        private final long end;
+
+        /**
+         * The number of matching articles so far.
+         */
+        private long matchCount;
+
+        /**
+         * Whether there are more matching articles after this page.
+         */
+        private boolean more;
+
+        /**
+         * Construct a page writer.
+         *
+         * @param generator the generator to write the articles to.
+         * @param filter    the filter the articles should match.
+         * @param offset    the number of matching articles to skip.
+         * @param limit     the maximum number of articles to write.
+         */
+        private ArticlePageWriter(final JsonGenerator generator, final Predicate<Article> filter, final int offset,
+                                  final int limit) {
+            this.generator = generator;
+            this.filter = filter;
+            this.offset = offset;
+            this.end = (long) offset + limit;
+        }
+
+        /**
+         * Write the article if it matches the filter and is part of the page.
+         *
+         * @param article the article that was read (or null if it could not be read).
+         * @return whether reading should continue.
+         */
+        @Override
+        public boolean test(final Article article) {
+            boolean continueReading = true;
+
+            if (article != null && filter.test(article)) {
+                if (matchCount >= end) {
+                    more = true;
+                    continueReading = false;
+                } else {
+                    if (matchCount >= offset) {
+                        try {
+                            writeArticle(generator, article);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+
+                    matchCount++;
+                }
+            }
+
+            return continueReading;
+        }
+
+        /**
+         * Check whether there are more matching articles after this page.
+         *
+         * @return whether there are more matching articles.
+         */
+        private boolean hasMore() {
+            return more;
+        }
+    }
+
+    /**
+     * Requested update of the flags of an article.
+     */
+    private static final class FlagsUpdate {
+        /**
+         * URL of the article.
+         */
+        private String url;
+
+        /**
+         * New value of the starred flag, or null to keep the stored value.
+         */
+        private Boolean starred;
+
+        /**
+         * New value of the read flag, or null to keep the stored value.
+         */
+        private Boolean read;
+
+        /**
+         * New value of the archived flag, or null to keep the stored value.
+         */
+        private Boolean archived;
+
+        /**
+         * Check whether the URL and at least one flag are specified.
+         *
+         * @return whether the update is complete.
+         */
+        private boolean isComplete() {
+            return url != null && (starred != null || read != null || archived != null);
+        }
+    }
+}
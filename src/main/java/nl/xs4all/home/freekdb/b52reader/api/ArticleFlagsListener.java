@@ -0,0 +1,26 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.api;
+
+/**
+ * A callback interface for the flags updates of the article API, which lets the application update the articles it
+ * holds in memory (and show the new flags).
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public interface ArticleFlagsListener {
+    /**
+     * Handle a flags update of a stored article, which has already been saved in the database. This method is called
+     * on the thread of the HTTP server.
+     *
+     * @param url      URL of the article.
+     * @param starred  whether the user has starred the article, or null if this flag did not change.
+     * @param read     whether the user has marked the article as read, or null if this flag did not change.
+     * @param archived whether the user has archived the article, or null if this flag did not change.
+     */
+    void articleFlagsUpdated(String url, Boolean starred, Boolean read, Boolean archived);
+}
@@ -0,0 +1,10 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+/**
+ * Classes for the local JSON HTTP API, which gives other tools access to the stored articles.
+ */
+package nl.xs4all.home.freekdb.b52reader.api;
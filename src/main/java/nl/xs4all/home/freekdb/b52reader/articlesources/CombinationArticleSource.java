@@ -15,6 +15,9 @@ import java.util.stream.Collectors;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+import nl.xs4all.home.freekdb.b52reader.general.ParallelListProcessor;
+import nl.xs4all.home.freekdb.b52reader.general.PhaseTracer;
 
 /**
  * Special article source that combines articles from multiple sources and sorts them most recent first.
@@ -32,14 +35,49 @@ public class CombinationArticleSource implements ArticleSource {
      */
     private final List<Article> articles;
 
+    /**
+     * List processor for sorting the articles (in parallel for large numbers of articles).
+     */
+    private final ParallelListProcessor listProcessor;
+
+    /**
+     * Tracer for getting the articles per source and sorting them.
+     */
+    private final PhaseTracer phaseTracer;
+
     /**
      * Construct an article source that combines articles from other sources.
      *
      * @param articleSources article sources to combine.
      */
     public CombinationArticleSource(final List<ArticleSource> articleSources) {
+        this(articleSources, new ParallelListProcessor(ParallelListProcessor.DEFAULT_THRESHOLD));
+    }
+
+    /**
+     * Construct an article source that combines articles from other sources.
+     *
+     * @param articleSources article sources to combine.
+     * @param listProcessor  list processor for sorting the articles.
+     */
+    public CombinationArticleSource(final List<ArticleSource> articleSources,
+                                    final ParallelListProcessor listProcessor) {
+        this(articleSources, listProcessor, new PhaseTracer());
+    }
+
+    /**
+     * Construct an article source that combines articles from other sources.
+     *
+     * @param articleSources article sources to combine.
+     * @param listProcessor  list processor for sorting the articles.
+     * @param phaseTracer    tracer for getting the articles per source and sorting them.
+     */
+    public CombinationArticleSource(final List<ArticleSource> articleSources,
+                                    final ParallelListProcessor listProcessor, final PhaseTracer phaseTracer) {
         this.articleSources = articleSources;
         this.articles = new ArrayList<>();
+        this.listProcessor = listProcessor;
+        this.phaseTracer = phaseTracer;
     }
 
     @Override
@@ -58,10 +96,17 @@ public class CombinationArticleSource implements ArticleSource {
         articles.clear();
 
         for (ArticleSource articleSource : articleSources) {
-            articles.addAll(articleSource.getArticles(persistencyHandler, previousArticlesMap, previousAuthorsMap));
+            final long startNanos = System.nanoTime();
+
+            phaseTracer.trace("get articles " + articleSource.getSourceId(), () -> articles.addAll(
+                articleSource.getArticles(persistencyHandler, previousArticlesMap, previousAuthorsMap)
+            ));
+
+            MetricsRegistry.getGlobal().recordLatencySince("fetch." + articleSource.getSourceId(), startNanos);
         }
 
-        articles.sort(Comparator.comparing(Article::getDateTime).reversed());
+        phaseTracer.trace("sort articles",
+                          () -> listProcessor.sort(articles, Comparator.comparing(Article::getDateTime).reversed()));
 
         return articles;
     }
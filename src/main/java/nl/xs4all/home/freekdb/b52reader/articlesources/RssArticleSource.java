@@ -20,6 +20,7 @@ import java.util.Map;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.FlightRecorderEvent;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.apache.logging.log4j.LogManager;
@@ -76,6 +77,7 @@ public class RssArticleSource implements ArticleSource {
     public List<Article> getArticles(final PersistencyHandler persistencyHandler,
                                      final Map<String, Article> previousArticlesMap,
                                      final Map<String, Author> previousAuthorsMap) {
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.RSS_PARSE);
         final List<Article> newArticles = new ArrayList<>();
 
         for (SyndEntry entry : feed.getEntries()) {
@@ -85,6 +87,8 @@ public class RssArticleSource implements ArticleSource {
             }
         }
 
+        event.sourceId(sourceId).url(feedUrl.toString()).rowCount(newArticles.size()).commit();
+
         logger.info("Fetched {} from the {} rss feed.",
                     Utilities.countAndWord(newArticles.size(), "article"),
                     feedName);
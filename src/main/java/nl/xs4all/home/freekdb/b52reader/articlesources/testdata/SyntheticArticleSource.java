@@ -0,0 +1,298 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources.testdata;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.ArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Article source that generates any number of synthetic articles, for load and soak testing without network access.
+ * The articles have a realistic mix: some authors write many more articles than others, titles and texts vary in
+ * length and contain accented characters, the dates are spread over a year (with more recent articles), and a few
+ * articles have many likes.
+ * <p>
+ * Each article is generated from the seed and its index only, so the same configuration always gives the same
+ * articles and articles can be generated in any order (and in parallel) with {@link #streamArticles(Function)}.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class SyntheticArticleSource implements ArticleSource {
+    /**
+     * Default source id for this article source.
+     */
+    public static final String DEFAULT_SOURCE_ID = "synthetic";
+
+    /**
+     * Default number of articles.
+     */
+    public static final int DEFAULT_ARTICLE_COUNT = 10_000;
+
+    /**
+     * Default seed for the random generators.
+     */
+    public static final long DEFAULT_SEED = 52;
+
+    /**
+     * The publication date/time of the most recent possible article (fixed, to make the articles reproducible).
+     */
+    private static final ZonedDateTime LATEST_DATE_TIME = ZonedDateTime.of(2017, 10, 19, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    /**
+     * The number of minutes over which the publication dates are spread (a year).
+     */
+    private static final int DATE_SPREAD_MINUTES = 365 * 24 * 60;
+
+    /**
+     * Number of articles per author on average.
+     */
+    private static final int ARTICLES_PER_AUTHOR = 50;
+
+    /**
+     * Maximum number of authors.
+     */
+    private static final int MAXIMUM_AUTHOR_COUNT = 2000;
+
+    /**
+     * Minimum and maximum number of words in a title.
+     */
+    private static final int[] TITLE_WORD_COUNTS = {3, 12};
+
+    /**
+     * Minimum and maximum number of words in a text.
+     */
+    private static final int[] TEXT_WORD_COUNTS = {15, 400};
+
+    /**
+     * Maximum number of likes (the number of likes has a long tail).
+     */
+    private static final int MAXIMUM_LIKES = 5000;
+
+    /**
+     * Multiplier to derive a different, well distributed seed for each article (the 64-bit golden ratio).
+     */
+    private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Offset for the seeds of authors, to make sure they differ from the seeds of articles.
+     */
+    private static final long AUTHOR_SEED_OFFSET = 0x5DEECE66DL;
+
+    /**
+     * First names for authors.
+     */
+    private static final String[] FIRST_NAMES = {
+        "Cara", "Neil", "Patrick", "Anaïs", "Zoë", "Björn", "François", "Małgorzata", "José", "Chloé", "Søren", "Jan",
+        "Freek", "Ingrid", "Mehmet", "Fatima", "Hélène", "Jürgen"
+    };
+
+    /**
+     * Last names for authors.
+     */
+    private static final String[] LAST_NAMES = {
+        "Santa Maria", "deGrasse Tyson", "Süskind", "Brontë", "de Vries", "Müller", "Ångström", "Núñez", "Dvořák",
+        "Jansen", "Østergaard", "Çelik", "de Bruijn", "Lefèvre", "Nowak", "Bakker"
+    };
+
+    /**
+     * Words for titles and texts (a mix of Dutch and English, with and without accents).
+     */
+    private static final String[] WORDS = {
+        "het", "kabinet", "wil", "meer", "geld", "voor", "onderzoek", "naar", "zeeën", "en", "rivieren", "café",
+        "wetenschap", "ideeën", "over", "enquête", "reünie", "België", "kosmische", "vragen", "sterren", "planeten",
+        "de", "een", "van", "in", "is", "the", "new", "science", "of", "climate", "crème", "brûlée", "naïeve", "data",
+        "universe", "string", "theory", "galaxy", "Zürich", "Curaçao", "coöperatie", "financiële", "ruimte", "tijd"
+    };
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Source id for this article source.
+     */
+    private final String sourceId;
+
+    /**
+     * The number of articles to generate.
+     */
+    private final int articleCount;
+
+    /**
+     * The seed for the random generators.
+     */
+    private final long seed;
+
+    /**
+     * The number of different authors.
+     */
+    private final int authorCount;
+
+    /**
+     * Construct a synthetic article source with the default source id, number of articles, and seed.
+     */
+    public SyntheticArticleSource() {
+        this(DEFAULT_SOURCE_ID, DEFAULT_ARTICLE_COUNT, DEFAULT_SEED);
+    }
+
+    /**
+     * Construct a synthetic article source.
+     *
+     * @param sourceId     the source id for this article source.
+     * @param articleCount the number of articles to generate.
+     * @param seed         the seed for the random generators.
+     */
+    public SyntheticArticleSource(final String sourceId, final int articleCount, final long seed) {
+        this.sourceId = sourceId;
+        this.articleCount = articleCount;
+        this.seed = seed;
+        this.authorCount = Math.max(1, Math.min(MAXIMUM_AUTHOR_COUNT, articleCount / ARTICLES_PER_AUTHOR));
+    }
+
+    @Override
+    public String getSourceId() {
+        return sourceId;
+    }
+
+    /**
+     * Get the number of articles that are generated.
+     *
+     * @return the number of articles that are generated.
+     */
+    public int getArticleCount() {
+        return articleCount;
+    }
+
+    /**
+     * Get the seed for the random generators.
+     *
+     * @return the seed for the random generators.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public List<Article> getArticles(final PersistencyHandler persistencyHandler,
+                                     final Map<String, Article> previousArticlesMap,
+                                     final Map<String, Author> previousAuthorsMap) {
+        final List<Article> articles = streamArticles(persistencyHandler::getOrCreateAuthor)
+            .collect(Collectors.toList());
+
+        if (previousArticlesMap != null) {
+            for (final Article article : articles) {
+                Utilities.copyPreviousDataIfAvailable(article, previousArticlesMap.get(article.getUrl()));
+            }
+        }
+
+        logger.info("Generated {}.", Utilities.countAndWord(articles.size(), "synthetic article"));
+
+        return articles;
+    }
+
+    /**
+     * Generate the articles lazily, so large numbers of articles can be processed without keeping them all in memory.
+     * The stream can be made parallel; each article is the same regardless of the order of generation.
+     *
+     * @param authorLookup function that gets the (canonical) author for a name.
+     * @return the stream of articles.
+     */
+    public Stream<Article> streamArticles(final Function<String, Author> authorLookup) {
+        return LongStream.range(0, articleCount).mapToObj(articleIndex -> createArticle(articleIndex, authorLookup));
+    }
+
+    /**
+     * Generate the article with the specified index.
+     *
+     * @param articleIndex the index of the article.
+     * @param authorLookup function that gets the (canonical) author for a name.
+     * @return the article.
+     */
+    public Article createArticle(final long articleIndex, final Function<String, Author> authorLookup) {
+        final Random random = new Random((seed + articleIndex) * SEED_MULTIPLIER);
+
+        // Squaring a uniform number makes low values more likely: some authors are very productive, most articles
+        // are recent, and most articles have few likes.
+        final int authorIndex = (int) (authorCount * square(random.nextDouble()));
+        final long minutesAgo = (long) (DATE_SPREAD_MINUTES * square(random.nextDouble()));
+        final int likes = (int) (MAXIMUM_LIKES * square(square(random.nextDouble())));
+
+        return Article.builder()
+            .url("https://synthetic.example.org/" + sourceId + "/" + seed + "/article-" + articleIndex)
+            .sourceId(sourceId)
+            .author(authorLookup.apply(getAuthorName(authorIndex)))
+            .title(createSentence(random, TITLE_WORD_COUNTS))
+            .dateTime(LATEST_DATE_TIME.minusMinutes(minutesAgo))
+            .text(createSentence(random, TEXT_WORD_COUNTS))
+            .likes(likes)
+            .recordId((int) (-1 - articleIndex))
+            .build();
+    }
+
+    /**
+     * Get the name of an author, which only depends on the seed and the author index.
+     *
+     * @param authorIndex the index of the author.
+     * @return the name of the author.
+     */
+    private String getAuthorName(final int authorIndex) {
+        final Random random = new Random((seed + authorIndex + AUTHOR_SEED_OFFSET) * SEED_MULTIPLIER);
+
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]
+               + " " + (authorIndex + 1);
+    }
+
+    /**
+     * Create a sentence with a random number of words, where shorter sentences are more likely.
+     *
+     * @param random     the random generator.
+     * @param wordCounts the minimum and maximum number of words.
+     * @return the sentence.
+     */
+    private static String createSentence(final Random random, final int[] wordCounts) {
+        final int wordCount = wordCounts[0] + (int) ((wordCounts[1] - wordCounts[0]) * square(random.nextDouble()));
+        final StringBuilder sentence = new StringBuilder();
+
+        for (int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+            final String word = WORDS[random.nextInt(WORDS.length)];
+
+            if (wordIndex == 0) {
+                sentence.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sentence.append(' ').append(word);
+            }
+        }
+
+        return sentence.append('.').toString();
+    }
+
+    /**
+     * Square a number.
+     *
+     * @param value the number.
+     * @return the square of the number.
+     */
+    private static double square(final double value) {
+        return value * value;
+    }
+}
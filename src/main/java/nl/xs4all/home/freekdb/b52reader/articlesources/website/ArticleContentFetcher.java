@@ -0,0 +1,205 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources.website;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.FlightRecorderEvent;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Background fetcher of the full text of articles: the article pages are fetched by a small pool of low priority
+ * daemon threads, the main text is extracted, and it is stored (compressed) in the database. This makes the articles
+ * readable offline and in the text view. Afterwards, the content that was fetched the longest ago is removed when the
+ * stored content exceeds the maximum size.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ArticleContentFetcher {
+    /**
+     * Maximum number of seconds to wait for the running fetches when stopping.
+     */
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Html helper for fetching the article pages.
+     */
+    private final HtmlHelper htmlHelper;
+
+    /**
+     * Extractor of the main text of the article pages.
+     */
+    private final ContentExtractor contentExtractor;
+
+    /**
+     * Handler for persistency functionality: storing the content in the database.
+     */
+    private final PersistencyHandler persistencyHandler;
+
+    /**
+     * Maximum size of the stored (compressed) content in bytes.
+     */
+    private final long maximumStorageSize;
+
+    /**
+     * Executor with the threads that fetch the article pages.
+     */
+    private final ExecutorService fetchExecutor;
+
+    /**
+     * Whether the fetches that have not started yet should be skipped.
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * Construct a background content fetcher.
+     *
+     * @param htmlHelper         the html helper for fetching the article pages.
+     * @param contentExtractor   the extractor of the main text of the article pages.
+     * @param persistencyHandler the persistency handler for storing the content.
+     * @param threadCount        the number of threads that fetch article pages.
+     * @param maximumStorageSize the maximum size of the stored (compressed) content in bytes.
+     */
+    public ArticleContentFetcher(final HtmlHelper htmlHelper, final ContentExtractor contentExtractor,
+                                 final PersistencyHandler persistencyHandler, final int threadCount,
+                                 final long maximumStorageSize) {
+        this.htmlHelper = htmlHelper;
+        this.contentExtractor = contentExtractor;
+        this.persistencyHandler = persistencyHandler;
+        this.maximumStorageSize = maximumStorageSize;
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        this.fetchExecutor = Executors.newFixedThreadPool(Math.max(1, threadCount), runnable -> {
+            final Thread thread = new Thread(runnable, "article-content-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Fetch and store the content of the articles that have no stored content yet. This method returns immediately;
+     * the fetching is done in the background.
+     *
+     * @param articles the articles to fetch the content of (if it is not stored yet).
+     * @return a future that completes with the number of articles for which content was stored.
+     */
+    public CompletableFuture<Integer> fetchMissingContent(final List<Article> articles) {
+        CompletableFuture<Integer> result = CompletableFuture.completedFuture(0);
+
+        if (!fetchExecutor.isShutdown()) {
+            final Set<String> storedUrls = persistencyHandler.readArticleContentUrls();
+
+            final List<CompletableFuture<Boolean>> fetches = articles.stream()
+                .filter(article -> !storedUrls.contains(article.getUrl()))
+                .map(article -> CompletableFuture.supplyAsync(() -> fetchContent(article), fetchExecutor)
+                    .exceptionally(throwable -> {
+                        logger.warn("Exception while fetching the content of article " + article.getUrl(), throwable);
+                        return false;
+                    }))
+                .collect(Collectors.toList());
+
+            if (!fetches.isEmpty()) {
+                logger.info("Fetching the content of {} articles in the background.", fetches.size());
+
+                result = CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> finishFetches(fetches));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Stop fetching content: the running fetches are finished (so the database can be closed safely afterwards) and
+     * the waiting fetches are skipped.
+     */
+    public void stop() {
+        stopRequested = true;
+        fetchExecutor.shutdown();
+
+        try {
+            if (!fetchExecutor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("The running content fetches did not finish in {} seconds.", STOP_TIMEOUT_SECONDS);
+            }
+        } catch (final InterruptedException e) {
+            logger.error("Interrupted while waiting for the running content fetches to finish.", e);
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fetch, extract, and store the content of an article.
+     *
+     * @param article the article to fetch the content of.
+     * @return whether content was stored.
+     */
+    private boolean fetchContent(final Article article) {
+        boolean result = false;
+
+        if (!stopRequested) {
+            final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.ARTICLE_FETCH);
+            final long startNanos = System.nanoTime();
+            final MetricsRegistry metricsRegistry = MetricsRegistry.getGlobal();
+
+            try {
+                final String content = contentExtractor.extractContent(htmlHelper.getHtmlAsDocument(article.getUrl()));
+
+                event.sourceId(article.getSourceId()).url(article.getUrl()).byteCount(content.length()).commit();
+                metricsRegistry.recordLatencySince("content.fetch", startNanos);
+
+                result = !content.isEmpty()
+                         && persistencyHandler.saveArticleContent(article.getUrl(), article.getSourceId(), content);
+            } catch (final IOException e) {
+                logger.warn("Could not fetch the content of article {}: {}", article.getUrl(), e.getMessage());
+            }
+
+            metricsRegistry.getCounter(result ? "content.fetched" : "content.failures").increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Finish a set of fetches: remove the oldest content if the stored content exceeds the maximum size and count
+     * the successful fetches.
+     *
+     * @param fetches the fetches that have completed.
+     * @return the number of articles for which content was stored.
+     */
+    private int finishFetches(final List<CompletableFuture<Boolean>> fetches) {
+        final long storedSize = persistencyHandler.trimArticleContent(maximumStorageSize);
+        MetricsRegistry.getGlobal().getGauge("content.stored-bytes").set(storedSize);
+
+        final int storedCount = (int) fetches.stream().filter(CompletableFuture::join).count();
+
+        logger.info("Stored the content of {} of {} articles; the content cache uses {} bytes.", storedCount,
+                    fetches.size(), storedSize);
+
+        return storedCount;
+    }
+}
@@ -9,6 +9,7 @@ package nl.xs4all.home.freekdb.b52reader.articlesources.website;
 import java.io.IOException;
 
 import nl.xs4all.home.freekdb.b52reader.browsers.BackgroundBrowsers;
+import nl.xs4all.home.freekdb.b52reader.general.FlightRecorderEvent;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -66,11 +67,13 @@ public class ArticleListFetcher {
     }
 
     /**
-     * Get the Jsoup document with the list of article elements.
+     * Get the Jsoup document with the list of article elements. A flight recorder event is emitted for the fetch (and
+     * for parsing the html content when a background browser is used).
      *
      * @return the Jsoup document with the list of article elements.
      */
     public Document getArticleListDocument() {
+        final FlightRecorderEvent fetchEvent = FlightRecorderEvent.begin(FlightRecorderEvent.Type.ARTICLE_FETCH);
         Document articleListDocument = null;
 
         try {
@@ -78,7 +81,15 @@ public class ArticleListFetcher {
                 final String htmlContent = backgroundBrowsers.getHtmlContent(url);
 
                 if (htmlContent != null) {
+                    fetchEvent.byteCount(htmlContent.length());
+
+                    final FlightRecorderEvent parseEvent = FlightRecorderEvent.begin(
+                        FlightRecorderEvent.Type.HTML_PARSE
+                    );
+
                     articleListDocument = htmlHelper.parseHtml(htmlContent);
+
+                    parseEvent.url(url).byteCount(htmlContent.length()).commit();
                 }
             } else {
                 articleListDocument = htmlHelper.getHtmlAsDocument(url);
@@ -87,6 +98,8 @@ public class ArticleListFetcher {
             logger.error("Exception while fetching list of articles from web site " + url + ".", e);
         }
 
+        fetchEvent.url(url).commit();
+
         return articleListDocument;
     }
 }
@@ -0,0 +1,147 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources.website;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Extractor of the main text of an article page, which skips navigation, scripts, forms, and other page furniture.
+ * Having this method in non static form improves testability.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ContentExtractor {
+    /**
+     * Query for the elements that never contain article text.
+     */
+    private static final String REMOVED_ELEMENTS_QUERY
+        = "script, style, noscript, template, iframe, form, nav, header, footer, aside, button, svg";
+
+    /**
+     * Query for the elements that usually contain the main text of a page.
+     */
+    private static final String CANDIDATE_ELEMENTS_QUERY = "article, [itemprop=articleBody], main, [role=main]";
+
+    /**
+     * Tag name of paragraph elements.
+     */
+    private static final String PARAGRAPH_TAG = "p";
+
+    /**
+     * Tag names of the block elements that are collected as separate parts of the text.
+     */
+    private static final Set<String> BLOCK_TAGS = ImmutableSet.of(PARAGRAPH_TAG, "h1", "h2", "h3", "h4", "h5", "h6",
+                                                                  "li", "blockquote", "pre");
+
+    /**
+     * Separator between the parts of the text.
+     */
+    private static final String PART_SEPARATOR = "\n\n";
+
+    /**
+     * Extract the main text from an html document. Note that the document is modified: elements that never contain
+     * article text are removed.
+     *
+     * @param document the html document.
+     * @return the main text, with parts (like paragraphs and headings) separated by empty lines.
+     */
+    public String extractContent(final Document document) {
+        document.select(REMOVED_ELEMENTS_QUERY).remove();
+
+        final Element contentElement = findContentElement(document);
+
+        final List<String> parts = new ArrayList<>();
+        for (final Element blockElement : contentElement.select(String.join(", ", BLOCK_TAGS))) {
+            final String text = blockElement.text().trim();
+
+            if (blockElement != contentElement && !text.isEmpty() && !hasBlockAncestor(blockElement, contentElement)) {
+                parts.add(text);
+            }
+        }
+
+        return parts.isEmpty() ? contentElement.text().trim() : String.join(PART_SEPARATOR, parts);
+    }
+
+    /**
+     * Find the element that contains the main text: the candidate element (like an article element) with the most
+     * paragraph text, or else the element with the most paragraph text in its direct children, or else the body.
+     *
+     * @param document the html document.
+     * @return the element that contains the main text.
+     */
+    private Element findContentElement(final Document document) {
+        Element contentElement = null;
+        int bestLength = 0;
+
+        for (final Element candidateElement : document.select(CANDIDATE_ELEMENTS_QUERY)) {
+            final int length = getParagraphLength(candidateElement);
+
+            if (length > bestLength) {
+                contentElement = candidateElement;
+                bestLength = length;
+            }
+        }
+
+        if (contentElement == null) {
+            final Map<Element, Integer> parentLengths = new IdentityHashMap<>();
+
+            for (final Element paragraph : document.select(PARAGRAPH_TAG)) {
+                if (paragraph.parent() != null) {
+                    parentLengths.merge(paragraph.parent(), paragraph.text().length(), Integer::sum);
+                }
+            }
+
+            for (final Map.Entry<Element, Integer> parentLength : parentLengths.entrySet()) {
+                if (parentLength.getValue() > bestLength) {
+                    contentElement = parentLength.getKey();
+                    bestLength = parentLength.getValue();
+                }
+            }
+        }
+
+        return contentElement != null ? contentElement : document.body();
+    }
+
+    /**
+     * Determine the total length of the paragraph texts in an element.
+     *
+     * @param element the element to inspect.
+     * @return the total length of the paragraph texts.
+     */
+    private int getParagraphLength(final Element element) {
+        return element.select(PARAGRAPH_TAG).stream().mapToInt(paragraph -> paragraph.text().length()).sum();
+    }
+
+    /**
+     * Check whether a block element is nested in another block element (within the content element), in which case
+     * its text is already part of the text of that other block element.
+     *
+     * @param element        the block element.
+     * @param contentElement the element that contains the main text.
+     * @return whether the block element is nested in another block element.
+     */
+    private boolean hasBlockAncestor(final Element element, final Element contentElement) {
+        boolean result = false;
+        Element ancestor = element.parent();
+
+        while (!result && ancestor != null && ancestor != contentElement) {
+            result = BLOCK_TAGS.contains(ancestor.tagName());
+            ancestor = ancestor.parent();
+        }
+
+        return result;
+    }
+}
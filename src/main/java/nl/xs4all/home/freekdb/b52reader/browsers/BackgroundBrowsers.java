@@ -15,6 +15,8 @@ import java.util.Map;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
+import nl.xs4all.home.freekdb.b52reader.general.FlightRecorderEvent;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -120,6 +122,8 @@ public class BackgroundBrowsers {
      * @param url the url for which the html content should be retrieved.
      */
     private void launchBackgroundBrowser(final String url) {
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.BROWSER_CREATE);
+
         final JWebBrowser webBrowser = (JWebBrowser) browserFactory.createBrowser(
             browser -> updateHtmlContent(url, (JWebBrowser) browser)
         );
@@ -128,6 +132,8 @@ public class BackgroundBrowsers {
         webBrowsers.add(webBrowser);
         backgroundBrowsersPanel.add(webBrowser);
 
+        event.url(url).rowCount(1).commit();
+
         webBrowser.navigate(url);
     }
 
@@ -200,8 +206,14 @@ public class BackgroundBrowsers {
         if (webBrowser != null) {
             try {
                 SwingUtilities.invokeAndWait(() -> {
+                    final FlightRecorderEvent event = FlightRecorderEvent.begin(
+                        FlightRecorderEvent.Type.BROWSER_DISPOSE
+                    );
+
                     webBrowser.disposeNativePeer();
 
+                    event.url(url).rowCount(1).commit();
+
                     URL_TO_WEB_BROWSER.remove(url);
                     webBrowsers.remove(webBrowser);
                     backgroundBrowsersPanel.remove(webBrowser);
@@ -228,8 +240,12 @@ public class BackgroundBrowsers {
      */
     public void closeAllBackgroundBrowsers() {
         if (!webBrowsers.isEmpty()) {
+            final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.BROWSER_DISPOSE);
+
             webBrowsers.forEach(NSPanelComponent::disposeNativePeer);
 
+            event.rowCount(webBrowsers.size()).commit();
+
             logger.debug("Closed all {} background browsers.", webBrowsers.size());
         }
 
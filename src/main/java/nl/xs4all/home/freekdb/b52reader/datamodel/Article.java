@@ -13,26 +13,36 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nullable;
 
+import nl.xs4all.home.freekdb.b52reader.general.NormalizedText;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Class containing all relevant (meta) data about articles.
  * <p>
  * Sonar check S2065 (fields in non-serializable classes should not be "transient") is disabled because by marking the
- * starred, read, and archived fields as transient, these fields are excluded for the equals and hashCode methods.
+ * starred, read, and archived fields as transient, these fields are excluded for the equals and hashCode methods. The
+ * derived fields (normalized title, word counts, and content fingerprint) are transient for the same reason. The
+ * fingerprint is left out of the toString method as well, since it is only used to detect changes.
  *
  * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
  */
 @Data
+@ToString(exclude = "fingerprint")
 @SuppressWarnings("squid:S2065")
 public class Article {
     /**
@@ -40,6 +50,47 @@ public class Article {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Value of the word count fields before the number of words has been determined.
+     */
+    private static final long UNKNOWN_WORD_COUNT = -1;
+
+    /**
+     * Value of the fingerprint field before the fingerprint has been determined. A calculated fingerprint is never
+     * equal to this value.
+     */
+    private static final long UNKNOWN_FINGERPRINT = 0;
+
+    /**
+     * Fingerprint that is used when the calculated fingerprint happens to be equal to the unknown fingerprint.
+     */
+    private static final long ALTERNATIVE_FINGERPRINT = 1;
+
+    /**
+     * Offset basis of the 64-bit FNV-1a hash function that is used for the content fingerprint.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * Prime of the 64-bit FNV-1a hash function that is used for the content fingerprint.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Character (a Unicode noncharacter) that is added to the fingerprint after each field.
+     */
+    private static final char FIELD_SEPARATOR = '\uFFFE';
+
+    /**
+     * Character (a Unicode noncharacter) that is added to the fingerprint for a field without a value.
+     */
+    private static final char NULL_MARKER = '\uFFFF';
+
+    /**
+     * Mask to select the lowest character-sized chunk of a numeric field value.
+     */
+    private static final long CHARACTER_MASK = 0xFFFF;
+
     /**
      * URL where the article can be found.
      */
@@ -62,14 +113,18 @@ public class Article {
     private final String title;
 
     /**
-     * Normalized title which is used for searching.
+     * Normalized title which is used for searching. It is determined when it is needed for the first time.
      */
-    private final String normalizedTitle;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile String normalizedTitle;
 
     /**
-     * Number of words in the title.
+     * Number of words in the title. It is determined when it is needed for the first time.
      */
-    private final long titleWordCount;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile long titleWordCount;
 
     /**
      * Date/time of publication.
@@ -82,15 +137,25 @@ public class Article {
     private final String text;
 
     /**
-     * Number of words in the first part of the article text.
+     * Number of words in the first part of the article text. It is determined when it is needed for the first time.
      */
-    private final long textWordCount;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile long textWordCount;
 
     /**
      * Number of likes for the article.
      */
     private final int likes;
 
+    /**
+     * 64-bit fingerprint of the content fields (url, source id, author name, title, date/time, text, and likes). It
+     * is read from the database or determined when it is needed for the first time.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient volatile long fingerprint;
+
     /**
      * Database record id where this object is stored.
      *
@@ -138,12 +203,12 @@ public class Article {
         this.sourceId = sourceId;
         this.author = author;
         this.title = title;
-        this.normalizedTitle = Utilities.normalize(title);
-        this.titleWordCount = Utilities.estimateWordCount(title);
+        this.titleWordCount = UNKNOWN_WORD_COUNT;
         this.dateTime = dateTime;
         this.text = text;
-        this.textWordCount = Utilities.estimateWordCount(text);
+        this.textWordCount = UNKNOWN_WORD_COUNT;
         this.likes = likes;
+        this.fingerprint = UNKNOWN_FINGERPRINT;
         this.recordId = recordId;
         this.starred = starred;
         this.read = read;
@@ -158,17 +223,42 @@ public class Article {
      * @return the article.
      */
     public static Article createArticleFromDatabase(final ResultSet resultSet, final List<Author> authors) {
+        return createArticleFromDatabase(resultSet,
+                                         authorId -> authors.stream()
+                                             .filter(anAuthor -> anAuthor.getRecordId() == authorId)
+                                             .findFirst()
+                                             .orElse(null),
+                                         UnaryOperator.identity());
+    }
+
+    /**
+     * Create an article based on the database record, with the canonical author and source id from the registry.
+     *
+     * @param resultSet      database record.
+     * @param authorRegistry registry with the known authors.
+     * @return the article.
+     */
+    public static Article createArticleFromDatabase(final ResultSet resultSet, final AuthorRegistry authorRegistry) {
+        return createArticleFromDatabase(resultSet, authorRegistry::findByRecordId, authorRegistry::getSourceId);
+    }
+
+    /**
+     * Create an article based on the database record.
+     *
+     * @param resultSet      database record.
+     * @param authorLookup   function that looks up an author by record id.
+     * @param sourceIdLookup function that gets the canonical source id.
+     * @return the article.
+     */
+    private static Article createArticleFromDatabase(final ResultSet resultSet, final IntFunction<Author> authorLookup,
+                                                     final UnaryOperator<String> sourceIdLookup) {
         Article article = null;
 
         try {
             final String url = resultSet.getString("url");
-            final String sourceId = resultSet.getString("source_id");
+            final String sourceId = sourceIdLookup.apply(resultSet.getString("source_id"));
 
-            final int authorId = resultSet.getInt("author_id");
-            final Author author = authors.stream()
-                    .filter(anAuthor -> anAuthor.getRecordId() == authorId)
-                    .findFirst()
-                    .orElse(null);
+            final Author author = authorLookup.apply(resultSet.getInt("author_id"));
 
             final String title = resultSet.getString("title");
             final Timestamp timestamp = resultSet.getTimestamp("date_time");
@@ -185,6 +275,9 @@ public class Article {
             article.setStarred(resultSet.getBoolean("starred"));
             article.setRead(resultSet.getBoolean("read"));
             article.setArchived(resultSet.getBoolean("archived"));
+
+            // Rows written before the fingerprint column existed have no fingerprint (null is read as zero).
+            article.fingerprint = resultSet.getLong("fingerprint");
         } catch (final SQLException e) {
             logger.error("Exception while creating an article from a database record.", e);
         }
@@ -192,13 +285,170 @@ public class Article {
         return article;
     }
 
+    /**
+     * Get the normalized title which is used for searching. It is determined when it is needed for the first time.
+     * <p>
+     * The derived fields are computed on first access instead of in the constructor, since many articles are
+     * discarded or never searched. Concurrent first accesses may compute the same value more than once, which is
+     * harmless; the volatile fields make sure the value is published safely.
+     *
+     * @return the normalized title.
+     */
+    public String getNormalizedTitle() {
+        String result = normalizedTitle;
+
+        if (result == null && title != null) {
+            result = determineTitleFields().getText();
+        }
+
+        return result;
+    }
+
     /**
      * Get the number of words in the title and the first part of the article text.
      *
      * @return the number of words in the title and the first part of the article text.
      */
     long getWordCount() {
-        return titleWordCount + textWordCount;
+        return getTitleWordCount() + getTextWordCount();
+    }
+
+    /**
+     * Get the number of words in the title. It is determined when it is needed for the first time.
+     *
+     * @return the number of words in the title.
+     */
+    public long getTitleWordCount() {
+        long result = titleWordCount;
+
+        if (result == UNKNOWN_WORD_COUNT) {
+            result = determineTitleFields().getWordCount();
+        }
+
+        return result;
+    }
+
+    /**
+     * Determine the normalized title and the number of words in the title, which are both derived from the title in a
+     * single pass.
+     *
+     * @return the normalized title and the number of words in the title.
+     */
+    private NormalizedText determineTitleFields() {
+        final NormalizedText normalizedText = Utilities.normalizeAndCountWords(title);
+
+        titleWordCount = normalizedText.getWordCount();
+        normalizedTitle = normalizedText.getText();
+
+        return normalizedText;
+    }
+
+    /**
+     * Get the number of words in the first part of the article text. It is determined when it is needed for the first
+     * time.
+     *
+     * @return the number of words in the first part of the article text.
+     */
+    public long getTextWordCount() {
+        long result = textWordCount;
+
+        if (result == UNKNOWN_WORD_COUNT) {
+            result = Utilities.estimateWordCount(text);
+            textWordCount = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the 64-bit fingerprint of the content fields, which can be used to detect changes cheaply. Articles with
+     * equal content fields have equal fingerprints; articles with different content almost always have different
+     * fingerprints. The metadata flags and the record id are not part of the fingerprint.
+     *
+     * @return the 64-bit fingerprint of the content fields.
+     */
+    public long getFingerprint() {
+        long result = fingerprint;
+
+        if (result == UNKNOWN_FINGERPRINT) {
+            result = calculateFingerprint();
+            fingerprint = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Calculate the 64-bit fingerprint of the content fields using the FNV-1a hash function.
+     *
+     * @return the 64-bit fingerprint of the content fields.
+     */
+    private long calculateFingerprint() {
+        long hash = FNV_OFFSET_BASIS;
+
+        hash = addToFingerprint(hash, url);
+        hash = addToFingerprint(hash, sourceId);
+        hash = addToFingerprint(hash, author != null ? author.getName() : null);
+        hash = addToFingerprint(hash, title);
+        hash = dateTime != null
+            ? addToFingerprint(addToFingerprint(hash, dateTime.toEpochSecond()), dateTime.getNano())
+            : addToFingerprint(hash, (String) null);
+        hash = addToFingerprint(hash, text);
+        hash = addToFingerprint(hash, likes);
+
+        return hash != UNKNOWN_FINGERPRINT ? hash : ALTERNATIVE_FINGERPRINT;
+    }
+
+    /**
+     * Add a field value to a fingerprint that is being calculated.
+     *
+     * @param hash  the fingerprint calculated so far.
+     * @param value the field value to add (can be null).
+     * @return the fingerprint including the field value.
+     */
+    private static long addToFingerprint(final long hash, final String value) {
+        long result = hash;
+
+        if (value != null) {
+            for (int index = 0; index < value.length(); index++) {
+                result = (result ^ value.charAt(index)) * FNV_PRIME;
+            }
+        } else {
+            result = (result ^ NULL_MARKER) * FNV_PRIME;
+        }
+
+        return (result ^ FIELD_SEPARATOR) * FNV_PRIME;
+    }
+
+    /**
+     * Add a numeric field value to a fingerprint that is being calculated, in chunks of the size of a character.
+     *
+     * @param hash  the fingerprint calculated so far.
+     * @param value the field value to add.
+     * @return the fingerprint including the field value.
+     */
+    private static long addToFingerprint(final long hash, final long value) {
+        long result = hash;
+
+        for (int shift = 0; shift < Long.SIZE; shift += Character.SIZE) {
+            result = (result ^ ((value >>> shift) & CHARACTER_MASK)) * FNV_PRIME;
+        }
+
+        return (result ^ FIELD_SEPARATOR) * FNV_PRIME;
+    }
+
+    /**
+     * Copy the derived fields (fingerprint, normalized title, and word counts) from a previous version of this article
+     * if the content has not changed, which saves determining these fields again.
+     *
+     * @param previousArticle the previous version of this article.
+     */
+    public void copyDerivedFieldsIfUnchanged(final Article previousArticle) {
+        if (getFingerprint() == previousArticle.getFingerprint()) {
+            normalizedTitle = previousArticle.normalizedTitle;
+            titleWordCount = previousArticle.titleWordCount;
+            textWordCount = previousArticle.textWordCount;
+        }
     }
 
     /**
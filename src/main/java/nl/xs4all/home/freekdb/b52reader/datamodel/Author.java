@@ -8,14 +8,21 @@ package nl.xs4all.home.freekdb.b52reader.datamodel;
 
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 /**
  * Author that writes articles.
+ * <p>
+ * The database record id is assigned in place when a new author is saved (see {@link AuthorRegistry}), so it is
+ * excluded from the equals and hashCode methods: an author is identified by its name.
  *
  * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
  */
 @Data
+@AllArgsConstructor
+@EqualsAndHashCode(exclude = "recordId")
 public class Author {
     /**
      * Full name.
@@ -25,7 +32,7 @@ public class Author {
     /**
      * Database record id where this object is stored.
      */
-    private final Integer recordId;
+    private volatile Integer recordId;
 
     /**
      * Get normalized name (by stripping all accents and converting it to lowercase), for example for filtering.
@@ -0,0 +1,171 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+/**
+ * Registry with one canonical author object per normalized name (see {@link Utilities#normalize(String)}), which is
+ * shared by the article sources and the persistency handler. Source ids read from the database are canonicalized as
+ * well, so all articles of a source share the same string.
+ * <p>
+ * The registry can be used by multiple threads (like article sources that fetch in parallel). Lookups are lock-free;
+ * assigning database record ids is synchronized, since it updates the author objects in place.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class AuthorRegistry {
+    /**
+     * Record id of authors that have not been stored in the database yet.
+     */
+    public static final int UNKNOWN_RECORD_ID = -28;
+
+    /**
+     * Map of normalized names to canonical authors.
+     */
+    private final ConcurrentMap<String, Author> authorsByName;
+
+    /**
+     * Map of database record ids to canonical authors. When the database contains multiple records with the same
+     * normalized name, all their record ids refer to the same author.
+     */
+    private final ConcurrentMap<Integer, Author> authorsByRecordId;
+
+    /**
+     * Map of source ids to canonical source ids.
+     */
+    private final ConcurrentMap<String, String> sourceIds;
+
+    /**
+     * Construct an empty author registry.
+     */
+    public AuthorRegistry() {
+        this.authorsByName = new ConcurrentHashMap<>();
+        this.authorsByRecordId = new ConcurrentHashMap<>();
+        this.sourceIds = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the canonical author with this name, or create (and register) an author that is not stored yet.
+     *
+     * @param name the author's name.
+     * @return the canonical author.
+     */
+    public Author getOrCreate(final String name) {
+        return authorsByName.computeIfAbsent(getKey(name), key -> new Author(name, UNKNOWN_RECORD_ID));
+    }
+
+    /**
+     * Register an author that is stored in the database. If an author with the same normalized name is already
+     * registered, that author is used (and gets this record id if it did not have one yet).
+     *
+     * @param name     the author's name.
+     * @param recordId the database record id.
+     * @return the canonical author.
+     */
+    public Author register(final String name, final int recordId) {
+        final Author author = authorsByName.computeIfAbsent(getKey(name), key -> new Author(name, recordId));
+
+        if (!isStored(author)) {
+            assignRecordId(author, recordId);
+        } else {
+            authorsByRecordId.putIfAbsent(recordId, author);
+        }
+
+        return author;
+    }
+
+    /**
+     * Get the canonical author with this name.
+     *
+     * @param name the author's name.
+     * @return the canonical author or null if no author with this name is registered.
+     */
+    public Author find(final String name) {
+        return name != null ? authorsByName.get(getKey(name)) : null;
+    }
+
+    /**
+     * Get the canonical author with this database record id.
+     *
+     * @param recordId the database record id.
+     * @return the canonical author or null if no author with this record id is registered.
+     */
+    public Author findByRecordId(final int recordId) {
+        return authorsByRecordId.get(recordId);
+    }
+
+    /**
+     * Record the database record id of a (newly stored) author in place.
+     *
+     * @param author   the canonical author.
+     * @param recordId the database record id.
+     */
+    public synchronized void assignRecordId(final Author author, final int recordId) {
+        if (!isStored(author)) {
+            author.setRecordId(recordId);
+        }
+
+        authorsByRecordId.putIfAbsent(recordId, author);
+    }
+
+    /**
+     * Check whether an author has been stored in the database.
+     *
+     * @param author the author to check.
+     * @return whether the author has a database record id.
+     */
+    public static boolean isStored(final Author author) {
+        final Integer recordId = author.getRecordId();
+
+        return recordId != null && recordId != UNKNOWN_RECORD_ID;
+    }
+
+    /**
+     * Get the canonical string for a source id.
+     *
+     * @param sourceId the source id.
+     * @return the canonical source id (or null if the source id is null).
+     */
+    public String getSourceId(final String sourceId) {
+        return sourceId != null ? sourceIds.computeIfAbsent(sourceId, key -> key) : null;
+    }
+
+    /**
+     * Get all registered authors.
+     *
+     * @return a new list with all registered authors.
+     */
+    public List<Author> getAuthors() {
+        return new ArrayList<>(authorsByName.values());
+    }
+
+    /**
+     * Get the number of registered authors.
+     *
+     * @return the number of registered authors.
+     */
+    public int size() {
+        return authorsByName.size();
+    }
+
+    /**
+     * Get the key for an author's name: the normalized name without surrounding spaces. Authors without a name (for
+     * example database records where the name is null) share the empty key.
+     *
+     * @param name the author's name (can be null).
+     * @return the key for the author's name.
+     */
+    private static String getKey(final String name) {
+        return name != null ? Utilities.normalize(name.trim()) : "";
+    }
+}
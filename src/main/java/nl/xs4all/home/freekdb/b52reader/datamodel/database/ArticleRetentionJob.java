@@ -0,0 +1,152 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Background job that applies the retention policy to the database: articles that are read, not starred, and
+ * published more than a configured number of days ago are removed (with their stored content). Starred articles are
+ * always kept. The articles are removed in small chunks by a low priority daemon thread, so the database is never
+ * locked for long and other database work can continue in between. Since fewer articles are read at startup
+ * afterwards, this keeps the startup time from growing with the age of the database.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ArticleRetentionJob {
+    /**
+     * Default maximum number of articles that are removed in one chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * Maximum number of seconds to wait for a running chunk when stopping.
+     */
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Handler for persistency functionality: removing the articles from the database.
+     */
+    private final PersistencyHandler persistencyHandler;
+
+    /**
+     * Number of days after which read articles that are not starred are removed.
+     */
+    private final int retentionDays;
+
+    /**
+     * Maximum number of articles that are removed in one chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Executor with the thread that removes the articles.
+     */
+    private final ExecutorService retentionExecutor;
+
+    /**
+     * Whether the job should stop after the running chunk.
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * Construct an article retention job.
+     *
+     * @param persistencyHandler the persistency handler for removing the articles.
+     * @param retentionDays      the number of days after which read articles that are not starred are removed.
+     * @param chunkSize          the maximum number of articles that are removed in one chunk.
+     */
+    public ArticleRetentionJob(final PersistencyHandler persistencyHandler, final int retentionDays,
+                               final int chunkSize) {
+        this.persistencyHandler = persistencyHandler;
+        this.retentionDays = retentionDays;
+        this.chunkSize = Math.max(1, chunkSize);
+
+        this.retentionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "article-retention");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Remove the old articles in the background. This method returns immediately.
+     *
+     * @return a future that completes with the number of removed articles.
+     */
+    public CompletableFuture<Integer> start() {
+        CompletableFuture<Integer> result = CompletableFuture.completedFuture(0);
+
+        if (!retentionExecutor.isShutdown()) {
+            result = CompletableFuture.supplyAsync(this::removeOldArticles, retentionExecutor);
+        }
+
+        return result;
+    }
+
+    /**
+     * Stop removing articles: the running chunk is finished (so the database can be closed safely afterwards) and no
+     * more chunks are removed.
+     */
+    public void stop() {
+        stopRequested = true;
+        retentionExecutor.shutdown();
+
+        try {
+            if (!retentionExecutor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("The running retention chunk did not finish in {} seconds.", STOP_TIMEOUT_SECONDS);
+            }
+        } catch (final InterruptedException e) {
+            logger.error("Interrupted while waiting for the running retention chunk to finish.", e);
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Remove the old articles chunk by chunk, until there are no more old articles or the job is stopped.
+     *
+     * @return the number of removed articles.
+     */
+    private int removeOldArticles() {
+        final long startNanos = System.nanoTime();
+        final Instant publishedBefore = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+
+        int removedCount = 0;
+        int chunkCount = chunkSize;
+
+        while (chunkCount == chunkSize && !stopRequested) {
+            chunkCount = persistencyHandler.removeOldArticles(publishedBefore, chunkSize);
+            removedCount += chunkCount;
+        }
+
+        final MetricsRegistry metricsRegistry = MetricsRegistry.getGlobal();
+        metricsRegistry.recordLatencySince("retention.run", startNanos);
+        metricsRegistry.getCounter("retention.removed").add(removedCount);
+
+        logger.info("Removed {} read and unstarred articles published more than {} days ago.", removedCount,
+                    retentionDays);
+
+        return removedCount;
+    }
+}
@@ -7,8 +7,11 @@
 package nl.xs4all.home.freekdb.b52reader.datamodel.database;
 
 import java.sql.Connection;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
@@ -53,6 +56,8 @@ public interface PersistencyHandler {
 
     /**
      * Get the previously stored author with the specified name or create a new author object if it does not exist yet.
+     * The same author object is returned for all names with the same normalized name, also when this method is called
+     * from multiple threads.
      *
      * @param name author name.
      * @return previously stored author with the specified name or create a new author object if it does not exist yet.
@@ -60,12 +65,81 @@ public interface PersistencyHandler {
     Author getOrCreateAuthor(String name);
 
     /**
-     * Save all changed and new authors and articles.
+     * Save all changed and new authors and articles. The previously stored authors and articles in memory are updated
+     * with the saved data, so they do not need to be read again before the next save.
      *
      * @param currentArticles current articles in memory.
      */
     void saveAuthorsAndArticles(List<Article> currentArticles);
 
+    /**
+     * Read the stored articles one by one (newest first) directly from the database, without keeping them in memory.
+     * The authors of the articles are looked up in the authors that were read by <code>readAuthorsAndArticles</code>.
+     *
+     * @param articleHandler handler that receives each article and returns whether reading should continue.
+     * @return whether reading was successful.
+     */
+    boolean readStoredArticles(Predicate<Article> articleHandler);
+
+    /**
+     * Update the starred, read, and archived flags of a stored article directly in the database. The previously stored
+     * article in memory (see getStoredArticlesMap) is updated as well.
+     *
+     * @param url      URL of the article.
+     * @param starred  whether the user has starred the article, or null to keep the stored value.
+     * @param read     whether the user has marked the article as read, or null to keep the stored value.
+     * @param archived whether the user has archived the article, or null to keep the stored value.
+     * @return whether a stored article with this URL was updated.
+     */
+    boolean updateArticleFlags(String url, Boolean starred, Boolean read, Boolean archived);
+
+    /**
+     * Read the URLs of the articles with stored content (the main text of the article pages).
+     *
+     * @return the URLs of the articles with stored content.
+     */
+    Set<String> readArticleContentUrls();
+
+    /**
+     * Save (or replace) the content of an article. The content is stored compressed, with a dictionary that is shared
+     * by the articles of the same source (once enough content of that source is stored).
+     *
+     * @param url      URL of the article.
+     * @param sourceId id of the source of the article.
+     * @param content  the content of the article.
+     * @return whether saving was successful.
+     */
+    boolean saveArticleContent(String url, String sourceId, String content);
+
+    /**
+     * Read the stored content of an article.
+     *
+     * @param url URL of the article.
+     * @return the content of the article, or null if no content is stored.
+     */
+    String readArticleContent(String url);
+
+    /**
+     * Remove the content of the articles that were fetched the longest ago, until the stored (compressed) content fits
+     * in the maximum size.
+     *
+     * @param maximumSize the maximum size of the stored content in bytes.
+     * @return the size of the remaining stored content in bytes.
+     */
+    long trimArticleContent(long maximumSize);
+
+    /**
+     * Remove (at most a chunk of) the articles that are read, not starred, and published before a specific moment,
+     * together with their stored content. The removed articles are also removed from the stored articles map, so
+     * articles that are still in memory (like the ones shown in the GUI) are saved again as new articles with their
+     * current flags. When articles were removed, the database is compacted when the connection is closed.
+     *
+     * @param publishedBefore the moment before which the articles to remove were published.
+     * @param maximumCount    the maximum number of articles to remove.
+     * @return the number of removed articles.
+     */
+    int removeOldArticles(Instant publishedBefore, int maximumCount);
+
     /**
      * Close the database connection.
      *
@@ -12,18 +12,29 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.datamodel.AuthorRegistry;
+import nl.xs4all.home.freekdb.b52reader.general.FlightRecorderEvent;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.apache.logging.log4j.LogManager;
@@ -69,6 +80,57 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
      */
     private static final String AUTHOR_NAME = "name";
 
+    /**
+     * Table name for the (compressed) content of the articles.
+     */
+    private static final String ARTICLE_CONTENT_TABLE_NAME = "article_content";
+
+    /**
+     * Column name of the URL field in article content table (in database).
+     */
+    private static final String CONTENT_URL = "url";
+
+    /**
+     * Column name of the compressed content field in article content table (in database).
+     */
+    private static final String CONTENT_DATA = "content";
+
+    /**
+     * Column name of the compressed content size field in article content table (in database).
+     */
+    private static final String CONTENT_STORED_LENGTH = "stored_length";
+
+    /**
+     * Column name of the source id field in article content table (in database).
+     */
+    private static final String CONTENT_SOURCE_ID = "source_id";
+
+    /**
+     * Column name of the field in article content table (in database) that indicates whether the content was
+     * compressed with the dictionary of its source.
+     */
+    private static final String CONTENT_WITH_DICTIONARY = "with_dictionary";
+
+    /**
+     * Table name for the dictionaries (one per source) that are used to compress the content of the articles.
+     */
+    private static final String CONTENT_DICTIONARY_TABLE_NAME = "content_dictionary";
+
+    /**
+     * Column name of the dictionary field in content dictionary table (in database).
+     */
+    private static final String DICTIONARY_DATA = "dictionary";
+
+    /**
+     * Number of stored contents of a source that are used as samples to create the dictionary of that source.
+     */
+    private static final int DICTIONARY_SAMPLE_COUNT = 20;
+
+    /**
+     * Column name of the content fingerprint field in article table (in database).
+     */
+    private static final String ARTICLE_FINGERPRINT = "fingerprint";
+
     /**
      * Logger for this class.
      */
@@ -84,6 +146,11 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
      */
     private Statement statement;
 
+    /**
+     * Registry with the canonical authors, which is shared with the article sources (via getOrCreateAuthor).
+     */
+    private AuthorRegistry authorRegistry = new AuthorRegistry();
+
     /**
      * Authors stored in database.
      */
@@ -95,10 +162,26 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
     private Map<String, Author> storedAuthorsMap;
 
     /**
-     * Map of URLs to articles stored in database.
+     * Map of URLs to articles stored in database. It is synchronized, since the retention job removes the articles it
+     * deletes from a background thread (the URL of an article can be null, which a concurrent map does not support).
      */
     private Map<String, Article> storedArticlesMap;
 
+    /**
+     * Map of source ids to the dictionaries for compressing the content of their articles (read or created lazily).
+     */
+    private final Map<String, byte[]> contentDictionaries = new ConcurrentHashMap<>();
+
+    /**
+     * Source ids for which the sample contents had nothing in common, so no dictionary is created (in this session).
+     */
+    private final Set<String> sourcesWithoutDictionary = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether the database should be compacted when the connection is closed (because articles were removed).
+     */
+    private volatile boolean compactOnClose;
+
     @Override
     public boolean initializeDatabaseConnection(final Connection databaseConnection) {
         boolean result;
@@ -132,9 +215,33 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
                 createTable(String.format(
                     "create table %s (id int auto_increment primary key, url varchar(2800), source_id varchar(42), "
                     + "author_id int not null references %s (id), title varchar(200), date_time timestamp, "
-                    + "text varchar(8128), starred boolean, read boolean, archived boolean, likes int)",
-                    ARTICLE_TABLE_NAME, AUTHOR_TABLE_NAME
+                    + "text varchar(8128), starred boolean, read boolean, archived boolean, likes int, %s bigint)",
+                    ARTICLE_TABLE_NAME, AUTHOR_TABLE_NAME, ARTICLE_FINGERPRINT
                 ), ARTICLE_TABLE_NAME);
+            } else {
+                // Article tables created by earlier versions do not have the fingerprint column yet.
+                statement.execute(String.format("alter table %s add column if not exists %s bigint",
+                                                ARTICLE_TABLE_NAME, ARTICLE_FINGERPRINT));
+            }
+
+            if (!tableExists(ARTICLE_CONTENT_TABLE_NAME)) {
+                createTable(String.format(
+                    "create table %s (%s varchar(2800) primary key, %s varchar(42), %s blob, %s boolean, "
+                    + "text_length int, %s int, fetched timestamp)", ARTICLE_CONTENT_TABLE_NAME, CONTENT_URL,
+                    CONTENT_SOURCE_ID, CONTENT_DATA, CONTENT_WITH_DICTIONARY, CONTENT_STORED_LENGTH
+                ), ARTICLE_CONTENT_TABLE_NAME);
+            } else {
+                // Article content tables created by earlier versions do not have the dictionary columns yet.
+                statement.execute(String.format("alter table %s add column if not exists %s varchar(42)",
+                                                ARTICLE_CONTENT_TABLE_NAME, CONTENT_SOURCE_ID));
+                statement.execute(String.format("alter table %s add column if not exists %s boolean default false",
+                                                ARTICLE_CONTENT_TABLE_NAME, CONTENT_WITH_DICTIONARY));
+            }
+
+            if (!tableExists(CONTENT_DICTIONARY_TABLE_NAME)) {
+                createTable(String.format("create table %s (%s varchar(42) primary key, %s blob)",
+                                          CONTENT_DICTIONARY_TABLE_NAME, CONTENT_SOURCE_ID, DICTIONARY_DATA),
+                            CONTENT_DICTIONARY_TABLE_NAME);
             }
         } catch (final SQLException e) {
             logger.error("Exception while creating the database tables.", e);
@@ -174,11 +281,12 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
     }
 
     @Override
-    public void readAuthorsAndArticles() {
+    public synchronized void readAuthorsAndArticles() {
         try {
+            authorRegistry = new AuthorRegistry();
             storedAuthors = new ArrayList<>();
             storedAuthorsMap = new HashMap<>();
-            storedArticlesMap = new HashMap<>();
+            storedArticlesMap = Collections.synchronizedMap(new HashMap<>());
 
             readObjects(AUTHOR_TABLE_NAME, getAuthorRecordHandler(), AUTHOR_WORD);
             readObjects(ARTICLE_TABLE_NAME, getArticleRecordHandler(), AUTHOR_WORD);
@@ -197,9 +305,13 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
             try {
                 final int id = resultSet.getInt(AUTHOR_ID);
                 final String name = resultSet.getString(AUTHOR_NAME);
-                final Author author = new Author(name, id);
+                final Author author = authorRegistry.register(name, id);
+
+                // Records with the same normalized name share the author of the first record.
+                if (author.getRecordId() == id) {
+                    storedAuthors.add(author);
+                }
 
-                storedAuthors.add(author);
                 storedAuthorsMap.put(name, author);
             } catch (final SQLException e) {
                 logger.error("Exception while reading authors from the database.", e);
@@ -214,7 +326,7 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
      */
     private Consumer<ResultSet> getArticleRecordHandler() {
         return resultSet -> {
-            final Article article = Article.createArticleFromDatabase(resultSet, storedAuthors);
+            final Article article = Article.createArticleFromDatabase(resultSet, authorRegistry);
 
             storedArticlesMap.put(article.getUrl(), article);
         };
@@ -232,9 +344,10 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
             throws SQLException {
         int objectCount = 0;
 
-        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement("select distinct * from ?")) {
-            preparedStatement.setString(1, tableName);
+        // Table names cannot be query parameters, so the (constant) table name is part of the query.
+        final String selectQuery = String.format("select distinct * from %s", tableName);
 
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery)) {
             try (ResultSet authorsResultSet = preparedStatement.executeQuery()) {
                 while (authorsResultSet.next()) {
                     recordHandler.accept(authorsResultSet);
@@ -258,13 +371,11 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
 
     @Override
     public Author getOrCreateAuthor(final String name) {
-        final int impossibleRecordId = -28;
-
-        return storedAuthorsMap.getOrDefault(name, new Author(name, impossibleRecordId));
+        return authorRegistry.getOrCreate(name);
     }
 
     @Override
-    public void saveAuthorsAndArticles(final List<Article> currentArticles) {
+    public synchronized void saveAuthorsAndArticles(final List<Article> currentArticles) {
         final List<Article> newArticles = currentArticles.stream()
             .filter(article -> !storedArticlesMap.containsKey(article.getUrl()))
             .collect(Collectors.toList());
@@ -306,7 +417,7 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
                     preparedStatement.addBatch();
                 }
 
-                final int[] results = preparedStatement.executeBatch();
+                final int[] results = executeBatch(preparedStatement, newAuthors.size());
                 for (int authorIndex = 0; authorIndex < results.length; authorIndex++) {
                     final int result = results[authorIndex];
                     if (result != 1) {
@@ -324,7 +435,8 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
     }
 
     /**
-     * Update the database record ids for the specified authors.
+     * Update the database record ids for the specified authors. The ids are recorded in place, so all articles that
+     * refer to these authors get the ids as well. The updated authors are added to the stored authors.
      *
      * @param authors authors to update the database record id for.
      */
@@ -337,8 +449,14 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
                 final int id = authorsResultSet.getInt(AUTHOR_ID);
                 final String name = authorsResultSet.getString(AUTHOR_NAME);
 
-                if (authorsMap.containsKey(name)) {
-                    authorsMap.put(name, new Author(name, id));
+                final Author author = authorsMap.get(name);
+
+                if (author != null) {
+                    authorRegistry.assignRecordId(author, id);
+
+                    if (storedAuthorsMap.putIfAbsent(name, author) == null) {
+                        storedAuthors.add(author);
+                    }
                 }
             }
         } catch (final SQLException e) {
@@ -355,7 +473,7 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
         final String updateQuery
             = "update " + ARTICLE_TABLE_NAME + " "
               + "set url = ?, source_id = ?, author_id = ?, title = ?, date_time = ?, text = ?, "
-              + "likes = ?, starred = ?, read = ?, archived = ? "
+              + "likes = ?, starred = ?, read = ?, archived = ?, " + ARTICLE_FINGERPRINT + " = ? "
               + "where id = ?";
 
         final List<Article> updateArticles = new ArrayList<>();
@@ -367,12 +485,15 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
                 // Copy the recordId field since this will never match the field of the stored article.
                 existingArticle.setRecordId(storedArticle.getRecordId());
 
-                if (!Objects.equals(existingArticle, storedArticle) || !existingArticle.metadataEquals(storedArticle)) {
+                // Comparing the fingerprints is much cheaper than comparing all content fields (like the full text).
+                if (existingArticle.getFingerprint() != storedArticle.getFingerprint()
+                    || !existingArticle.metadataEquals(storedArticle)) {
                     setParameters(preparedStatement, existingArticle.getUrl(), existingArticle.getSourceId(),
                                   existingArticle.getAuthor() != null ? existingArticle.getAuthor().getRecordId() : null,
                                   existingArticle.getTitle(), Timestamp.from(existingArticle.getDateTime().toInstant()),
                                   existingArticle.getText(), existingArticle.getLikes(), existingArticle.isStarred(),
-                                  existingArticle.isRead(), existingArticle.isArchived(), storedArticle.getRecordId());
+                                  existingArticle.isRead(), existingArticle.isArchived(),
+                                  existingArticle.getFingerprint(), storedArticle.getRecordId());
 
                     preparedStatement.addBatch();
 
@@ -381,6 +502,8 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
             }
 
             executeArticlesUpdate(updateArticles, preparedStatement);
+
+            updateArticles.forEach(article -> storedArticlesMap.put(article.getUrl(), copyStoredArticle(article)));
         } catch (final SQLException e) {
             logger.error("Exception while updating articles in the database.", e);
         }
@@ -400,7 +523,7 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
     private void executeArticlesUpdate(final List<Article> updateArticles, final PreparedStatement preparedStatement)
             throws SQLException {
         if (!updateArticles.isEmpty()) {
-            final int[] results = preparedStatement.executeBatch();
+            final int[] results = executeBatch(preparedStatement, updateArticles.size());
             for (int articleIndex = 0; articleIndex < results.length; articleIndex++) {
                 final int result = results[articleIndex];
                 if (result != 1) {
@@ -411,15 +534,17 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
     }
 
     /**
-     * Save new articles (from memory to database).
+     * Save new articles (from memory to database) and add them to the stored articles.
      *
      * @param newArticles new articles.
      */
     private void saveNewArticles(final List<Article> newArticles) {
         try {
+            final int previousMaximumId = readMaximumArticleId();
+
             final String insertQuery = String.format(
-                "insert into %s (url, source_id, author_id, title, date_time, text, starred, read, archived, likes) "
-                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", ARTICLE_TABLE_NAME);
+                "insert into %s (url, source_id, author_id, title, date_time, text, starred, read, archived, likes, "
+                + "%s) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", ARTICLE_TABLE_NAME, ARTICLE_FINGERPRINT);
 
             try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(insertQuery)) {
                 for (Article newArticle : newArticles) {
@@ -427,12 +552,12 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
                                   newArticle.getAuthor() != null ? newArticle.getAuthor().getRecordId() : null,
                                   newArticle.getTitle(), Timestamp.from(newArticle.getDateTime().toInstant()),
                                   newArticle.getText(), newArticle.isStarred(), newArticle.isRead(),
-                                  newArticle.isArchived(), newArticle.getLikes());
+                                  newArticle.isArchived(), newArticle.getLikes(), newArticle.getFingerprint());
 
                     preparedStatement.addBatch();
                 }
 
-                final int[] results = preparedStatement.executeBatch();
+                final int[] results = executeBatch(preparedStatement, newArticles.size());
                 for (int articleIndex = 0; articleIndex < results.length; articleIndex++) {
                     final int result = results[articleIndex];
                     if (result != 1) {
@@ -443,11 +568,488 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
 
             logger.info("Wrote {} to the database.",
                         Utilities.countAndWord(newArticles.size(), "new article"));
+
+            addNewStoredArticles(newArticles, previousMaximumId);
         } catch (final SQLException e) {
             logger.error("Exception while inserting articles into the database.", e);
         }
     }
 
+    /**
+     * Read the largest record id in the article table.
+     *
+     * @return the largest record id, or zero if the table is empty.
+     * @throws SQLException if a database error occurs.
+     */
+    private int readMaximumArticleId() throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("select max(id) from " + ARTICLE_TABLE_NAME)) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Add the new articles to the stored articles with the record ids they received. Since the record ids are
+     * generated in increasing order, only the records after the previous largest record id are read.
+     *
+     * @param newArticles       new articles that were written to the database.
+     * @param previousMaximumId the largest record id before the new articles were written.
+     * @throws SQLException if a database error occurs.
+     */
+    private void addNewStoredArticles(final List<Article> newArticles, final int previousMaximumId)
+            throws SQLException {
+        final Map<String, Article> newArticlesMap = newArticles.stream()
+            .collect(Collectors.toMap(Article::getUrl, Function.identity(), (first, second) -> first));
+
+        try (PreparedStatement preparedStatement = databaseConnection
+            .prepareStatement("select id, url from " + ARTICLE_TABLE_NAME + " where id > ?")) {
+            preparedStatement.setInt(1, previousMaximumId);
+
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    final Article newArticle = newArticlesMap.get(resultSet.getString("url"));
+
+                    if (newArticle != null) {
+                        newArticle.setRecordId(resultSet.getInt("id"));
+                        storedArticlesMap.put(newArticle.getUrl(), copyStoredArticle(newArticle));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy an article for the stored articles, so later changes to the current article can still be detected by
+     * comparing it with the stored article.
+     *
+     * @param article the article that was saved.
+     * @return a copy of the article.
+     */
+    private static Article copyStoredArticle(final Article article) {
+        final Article storedArticle = Article.builder()
+            .url(article.getUrl())
+            .sourceId(article.getSourceId())
+            .author(article.getAuthor())
+            .title(article.getTitle())
+            .dateTime(article.getDateTime())
+            .text(article.getText())
+            .likes(article.getLikes())
+            .recordId(article.getRecordId())
+            .starred(article.isStarred())
+            .read(article.isRead())
+            .archived(article.isArchived())
+            .build();
+
+        storedArticle.copyDerivedFieldsIfUnchanged(article);
+
+        return storedArticle;
+    }
+
+    @Override
+    public boolean readStoredArticles(final Predicate<Article> articleHandler) {
+        boolean result = true;
+
+        final String selectQuery = String.format("select * from %s order by date_time desc, id desc",
+                                                 ARTICLE_TABLE_NAME);
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery);
+             ResultSet articlesResultSet = preparedStatement.executeQuery()) {
+            boolean continueReading = true;
+
+            while (continueReading && articlesResultSet.next()) {
+                continueReading = articleHandler.test(Article.createArticleFromDatabase(articlesResultSet,
+                                                                                        authorRegistry));
+            }
+        } catch (final SQLException e) {
+            logger.error("Exception while reading articles from the database.", e);
+
+            result = false;
+        }
+
+        return result;
+    }
+
+    @Override
+    public synchronized boolean updateArticleFlags(final String url, final Boolean starred, final Boolean read,
+                                                   final Boolean archived) {
+        boolean result = false;
+
+        final Map<String, Boolean> flags = new LinkedHashMap<>();
+        flags.put("starred", starred);
+        flags.put("read", read);
+        flags.put("archived", archived);
+        flags.values().removeIf(Objects::isNull);
+
+        if (!flags.isEmpty()) {
+            // The column names are constants, so only the flags to change are part of the query.
+            final String updateQuery = "update " + ARTICLE_TABLE_NAME + " set "
+                                       + flags.keySet().stream()
+                                           .map(columnName -> columnName + " = ?")
+                                           .collect(Collectors.joining(", "))
+                                       + " where url = ?";
+
+            try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(updateQuery)) {
+                final List<Object> values = new ArrayList<>(flags.values());
+                values.add(url);
+                setParameters(preparedStatement, values.toArray());
+
+                result = preparedStatement.executeUpdate() > 0;
+            } catch (final SQLException e) {
+                logger.error("Exception while updating the flags of article " + url + " in the database.", e);
+            }
+        }
+
+        final Article storedArticle = result && storedArticlesMap != null ? storedArticlesMap.get(url) : null;
+        if (storedArticle != null) {
+            Utilities.updateArticleFlags(storedArticle, starred, read, archived);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Set<String> readArticleContentUrls() {
+        final Set<String> urls = new HashSet<>();
+
+        final String selectQuery = String.format("select %s from %s", CONTENT_URL, ARTICLE_CONTENT_TABLE_NAME);
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery);
+             ResultSet contentResultSet = preparedStatement.executeQuery()) {
+            while (contentResultSet.next()) {
+                urls.add(contentResultSet.getString(CONTENT_URL));
+            }
+        } catch (final SQLException e) {
+            logger.error("Exception while reading the article content URLs from the database.", e);
+        }
+
+        return urls;
+    }
+
+    @Override
+    public boolean saveArticleContent(final String url, final String sourceId, final String content) {
+        boolean result = false;
+
+        final String mergeQuery = String.format(
+            "merge into %s (%s, %s, %s, %s, text_length, %s, fetched) key (%s) values (?, ?, ?, ?, ?, ?, ?)",
+            ARTICLE_CONTENT_TABLE_NAME, CONTENT_URL, CONTENT_SOURCE_ID, CONTENT_DATA, CONTENT_WITH_DICTIONARY,
+            CONTENT_STORED_LENGTH, CONTENT_URL
+        );
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(mergeQuery)) {
+            final byte[] dictionary = getOrCreateContentDictionary(sourceId);
+            final byte[] compressedContent = TextCompression.compress(content, dictionary);
+
+            setParameters(preparedStatement, url, sourceId, compressedContent, dictionary != null, content.length(),
+                          compressedContent.length, Timestamp.from(Instant.now()));
+
+            result = preparedStatement.executeUpdate() > 0;
+        } catch (final SQLException e) {
+            logger.error("Exception while saving the content of article " + url + " in the database.", e);
+        }
+
+        return result;
+    }
+
+    @Override
+    public String readArticleContent(final String url) {
+        String content = null;
+
+        final String selectQuery = String.format("select %s, %s, %s from %s where %s = ?", CONTENT_SOURCE_ID,
+                                                 CONTENT_DATA, CONTENT_WITH_DICTIONARY, ARTICLE_CONTENT_TABLE_NAME,
+                                                 CONTENT_URL);
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery)) {
+            preparedStatement.setString(1, url);
+
+            try (ResultSet contentResultSet = preparedStatement.executeQuery()) {
+                if (contentResultSet.next()) {
+                    content = decompressContent(contentResultSet);
+                }
+            }
+        } catch (final SQLException | DataFormatException e) {
+            logger.error("Exception while reading the content of article " + url + " from the database.", e);
+        }
+
+        return content;
+    }
+
+    /**
+     * Decompress the content in the current row of a result set, using the dictionary of the source if the content
+     * was compressed with it.
+     *
+     * @param contentResultSet the result set with the source id, content, and with dictionary fields.
+     * @return the decompressed content.
+     * @throws SQLException        if a database error occurs.
+     * @throws DataFormatException if the content is invalid or the dictionary is missing.
+     */
+    private String decompressContent(final ResultSet contentResultSet) throws SQLException, DataFormatException {
+        final byte[] dictionary = contentResultSet.getBoolean(CONTENT_WITH_DICTIONARY)
+            ? readContentDictionary(contentResultSet.getString(CONTENT_SOURCE_ID))
+            : null;
+
+        return TextCompression.decompress(contentResultSet.getBytes(CONTENT_DATA), dictionary);
+    }
+
+    /**
+     * Get the dictionary of a source for compressing content. If the source has no dictionary yet and enough content
+     * of the source is stored, a dictionary is created from that content and stored. The dictionary of a source never
+     * changes after that, so all content compressed with it can still be decompressed.
+     *
+     * @param sourceId the source id.
+     * @return the dictionary of the source, or null if the source has no dictionary (yet).
+     * @throws SQLException if a database error occurs.
+     */
+    private synchronized byte[] getOrCreateContentDictionary(final String sourceId) throws SQLException {
+        byte[] dictionary = null;
+
+        if (sourceId != null) {
+            dictionary = readContentDictionary(sourceId);
+
+            if (dictionary == null && !sourcesWithoutDictionary.contains(sourceId)) {
+                dictionary = createContentDictionary(sourceId);
+            }
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Create and store the dictionary of a source, if enough content of the source is stored to use as samples.
+     *
+     * @param sourceId the source id.
+     * @return the new dictionary of the source, or null if no dictionary was created.
+     * @throws SQLException if a database error occurs.
+     */
+    private byte[] createContentDictionary(final String sourceId) throws SQLException {
+        byte[] dictionary = null;
+        final List<String> samples = readDictionarySamples(sourceId);
+
+        if (samples.size() >= DICTIONARY_SAMPLE_COUNT) {
+            final byte[] newDictionary = TextCompression.createDictionary(samples,
+                                                                          TextCompression.MAXIMUM_DICTIONARY_SIZE);
+
+            if (newDictionary.length > 0) {
+                final String insertQuery = String.format("insert into %s (%s, %s) values (?, ?)",
+                                                         CONTENT_DICTIONARY_TABLE_NAME, CONTENT_SOURCE_ID,
+                                                         DICTIONARY_DATA);
+
+                try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(insertQuery)) {
+                    setParameters(preparedStatement, sourceId, newDictionary);
+                    preparedStatement.executeUpdate();
+                }
+
+                contentDictionaries.put(sourceId, newDictionary);
+                dictionary = newDictionary;
+
+                logger.info("Created a content dictionary of {} bytes for source {}.", newDictionary.length, sourceId);
+            } else {
+                sourcesWithoutDictionary.add(sourceId);
+            }
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Read the dictionary of a source (from memory or from the database).
+     *
+     * @param sourceId the source id.
+     * @return the dictionary of the source, or null if the source has no dictionary.
+     * @throws SQLException if a database error occurs.
+     */
+    private byte[] readContentDictionary(final String sourceId) throws SQLException {
+        byte[] dictionary = contentDictionaries.get(sourceId);
+
+        if (dictionary == null) {
+            final String selectQuery = String.format("select %s from %s where %s = ?", DICTIONARY_DATA,
+                                                     CONTENT_DICTIONARY_TABLE_NAME, CONTENT_SOURCE_ID);
+
+            try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery)) {
+                preparedStatement.setString(1, sourceId);
+
+                try (ResultSet dictionaryResultSet = preparedStatement.executeQuery()) {
+                    if (dictionaryResultSet.next()) {
+                        dictionary = dictionaryResultSet.getBytes(DICTIONARY_DATA);
+                        contentDictionaries.put(sourceId, dictionary);
+                    }
+                }
+            }
+        }
+
+        return dictionary;
+    }
+
+    /**
+     * Read the most recently stored contents of a source (compressed without dictionary) as samples for creating a
+     * dictionary.
+     *
+     * @param sourceId the source id.
+     * @return the sample contents (at most DICTIONARY_SAMPLE_COUNT).
+     * @throws SQLException if a database error occurs.
+     */
+    private List<String> readDictionarySamples(final String sourceId) throws SQLException {
+        final List<String> samples = new ArrayList<>();
+
+        final String selectQuery = String.format(
+            "select %s from %s where %s = ? and %s = false order by fetched desc limit %d", CONTENT_DATA,
+            ARTICLE_CONTENT_TABLE_NAME, CONTENT_SOURCE_ID, CONTENT_WITH_DICTIONARY, DICTIONARY_SAMPLE_COUNT
+        );
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery)) {
+            preparedStatement.setString(1, sourceId);
+
+            try (ResultSet sampleResultSet = preparedStatement.executeQuery()) {
+                while (sampleResultSet.next()) {
+                    samples.add(TextCompression.decompress(sampleResultSet.getBytes(CONTENT_DATA)));
+                }
+            }
+        } catch (final DataFormatException e) {
+            logger.warn("Could not decompress the dictionary samples of source {}: {}", sourceId, e.getMessage());
+        }
+
+        return samples;
+    }
+
+    @Override
+    public long trimArticleContent(final long maximumSize) {
+        long storedSize = 0;
+        boolean full = false;
+        final List<String> removeUrls = new ArrayList<>();
+
+        final String selectQuery = String.format("select %s, %s from %s order by fetched desc", CONTENT_URL,
+                                                 CONTENT_STORED_LENGTH, ARTICLE_CONTENT_TABLE_NAME);
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery);
+             ResultSet contentResultSet = preparedStatement.executeQuery()) {
+            while (contentResultSet.next()) {
+                final int contentSize = contentResultSet.getInt(CONTENT_STORED_LENGTH);
+
+                // Once the maximum size is reached, all older content is removed (also smaller rows that would fit).
+                full = full || storedSize + contentSize > maximumSize;
+
+                if (full) {
+                    removeUrls.add(contentResultSet.getString(CONTENT_URL));
+                } else {
+                    storedSize += contentSize;
+                }
+            }
+
+            if (!removeUrls.isEmpty()) {
+                removeArticleContent(removeUrls);
+            }
+        } catch (final SQLException e) {
+            logger.error("Exception while trimming the article content in the database.", e);
+        }
+
+        return storedSize;
+    }
+
+    @Override
+    public synchronized int removeOldArticles(final Instant publishedBefore, final int maximumCount) {
+        int removedCount = 0;
+        final List<Integer> removeIds = new ArrayList<>();
+        final List<String> removeUrls = new ArrayList<>();
+
+        final String selectQuery = String.format(
+            "select id, url from %s where read = true and (starred = false or starred is null) and date_time < ? "
+            + "limit ?", ARTICLE_TABLE_NAME
+        );
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(selectQuery)) {
+            setParameters(preparedStatement, Timestamp.from(publishedBefore), maximumCount);
+
+            try (ResultSet articleResultSet = preparedStatement.executeQuery()) {
+                while (articleResultSet.next()) {
+                    removeIds.add(articleResultSet.getInt("id"));
+                    removeUrls.add(articleResultSet.getString("url"));
+                }
+            }
+
+            if (!removeIds.isEmpty()) {
+                removeArticleContent(removeUrls);
+                removeArticles(removeIds);
+
+                // Articles in memory (like the ones shown in the GUI) that were removed are saved as new articles.
+                if (storedArticlesMap != null) {
+                    removeUrls.forEach(storedArticlesMap::remove);
+                }
+
+                removedCount = removeIds.size();
+                compactOnClose = true;
+            }
+        } catch (final SQLException e) {
+            logger.error("Exception while removing old articles from the database.", e);
+        }
+
+        return removedCount;
+    }
+
+    /**
+     * Remove articles.
+     *
+     * @param ids record ids of the articles to remove.
+     * @throws SQLException if a database error occurs.
+     */
+    private void removeArticles(final List<Integer> ids) throws SQLException {
+        final String deleteQuery = String.format("delete from %s where id = ?", ARTICLE_TABLE_NAME);
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(deleteQuery)) {
+            for (final int id : ids) {
+                preparedStatement.setInt(1, id);
+                preparedStatement.addBatch();
+            }
+
+            executeBatch(preparedStatement, ids.size());
+        }
+
+        logger.info("Removed {} from the database.", Utilities.countAndWord(ids.size(), ARTICLE_WORD));
+    }
+
+    /**
+     * Remove the content of articles.
+     *
+     * @param urls URLs of the articles to remove the content of.
+     * @throws SQLException if a database error occurs.
+     */
+    private void removeArticleContent(final List<String> urls) throws SQLException {
+        final String deleteQuery = String.format("delete from %s where %s = ?", ARTICLE_CONTENT_TABLE_NAME,
+                                                 CONTENT_URL);
+
+        try (PreparedStatement preparedStatement = databaseConnection.prepareStatement(deleteQuery)) {
+            for (final String url : urls) {
+                preparedStatement.setString(1, url);
+                preparedStatement.addBatch();
+            }
+
+            executeBatch(preparedStatement, urls.size());
+        }
+
+        logger.info("Removed the content of {} from the database.", Utilities.countAndWord(urls.size(), ARTICLE_WORD));
+    }
+
+    /**
+     * Execute a batch of statements, emit a flight recorder event with the number of rows in the batch, and record the
+     * batch size and duration in the metrics registry.
+     *
+     * @param preparedStatement prepared statement to execute the batch of.
+     * @param rowCount          number of rows in the batch.
+     * @return the update counts of the statements in the batch.
+     * @throws SQLException if a database error occurs.
+     */
+    private int[] executeBatch(final PreparedStatement preparedStatement, final int rowCount) throws SQLException {
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.JDBC_BATCH);
+        final long startNanos = System.nanoTime();
+        final int[] results = preparedStatement.executeBatch();
+
+        event.rowCount(rowCount).commit();
+
+        final MetricsRegistry metricsRegistry = MetricsRegistry.getGlobal();
+        metricsRegistry.recordLatencySince("database.batch", startNanos);
+        metricsRegistry.getCounter("database.batches").increment();
+        metricsRegistry.getCounter("database.batch-rows").add(rowCount);
+
+        return results;
+    }
+
     /**
      * Set parameters for specified prepared statement.
      *
@@ -466,6 +1068,13 @@ public class PersistencyHandlerJdbc implements PersistencyHandler {
         boolean result = true;
 
         try {
+            if (compactOnClose) {
+                // H2 can only compact the complete database file while closing it; this also closes the connection.
+                statement.execute("shutdown compact");
+
+                logger.info("Compacted the database.");
+            }
+
             databaseConnection.close();
         } catch (final SQLException e) {
             logger.error("Exception while closing the database connection.", e);
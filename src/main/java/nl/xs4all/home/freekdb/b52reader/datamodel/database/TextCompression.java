@@ -0,0 +1,225 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression of texts (UTF-8 encoded) with the Deflate algorithm, for storing large texts in the database. A preset
+ * dictionary with phrases that are common in similar texts (like the articles of one source) improves the compression
+ * of short texts considerably, since Deflate can refer to the dictionary from the first byte on.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+final class TextCompression {
+    /**
+     * Size of the buffer for compressing and decompressing.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Maximum useful size of a dictionary: the size of the Deflate window.
+     */
+    static final int MAXIMUM_DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * Number of words in the phrases that are candidates for a dictionary (besides single words).
+     */
+    private static final int PHRASE_WORD_COUNT = 3;
+
+    /**
+     * Minimum length of the single words that are candidates for a dictionary.
+     */
+    private static final int MINIMUM_WORD_LENGTH = 4;
+
+    /**
+     * Private constructor to hide the implicit public one, since this class is not meant to be instantiated.
+     */
+    private TextCompression() {
+        // Should not be called.
+    }
+
+    /**
+     * Compress a text.
+     *
+     * @param text the text to compress.
+     * @return the compressed text.
+     */
+    static byte[] compress(final String text) {
+        return compress(text, null);
+    }
+
+    /**
+     * Compress a text with a preset dictionary.
+     *
+     * @param text       the text to compress.
+     * @param dictionary the preset dictionary, or null to compress without a dictionary.
+     * @return the compressed text.
+     */
+    static byte[] compress(final String text, final byte[] dictionary) {
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+
+            final byte[] input = text.getBytes(StandardCharsets.UTF_8);
+            deflater.setInput(input);
+            deflater.finish();
+
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(input.length / 2 + 1);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            while (!deflater.finished()) {
+                outputStream.write(buffer, 0, deflater.deflate(buffer));
+            }
+
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress a text.
+     *
+     * @param compressedText the compressed text.
+     * @return the original text.
+     * @throws DataFormatException if the compressed text is invalid or incomplete.
+     */
+    static String decompress(final byte[] compressedText) throws DataFormatException {
+        return decompress(compressedText, null);
+    }
+
+    /**
+     * Decompress a text that may have been compressed with a preset dictionary.
+     *
+     * @param compressedText the compressed text.
+     * @param dictionary     the preset dictionary that was used for compressing, or null if none was used.
+     * @return the original text.
+     * @throws DataFormatException if the compressed text is invalid or incomplete, or if it needs a dictionary that is
+     *                             not available.
+     */
+    static String decompress(final byte[] compressedText, final byte[] dictionary) throws DataFormatException {
+        final Inflater inflater = new Inflater();
+
+        try {
+            inflater.setInput(compressedText);
+
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(compressedText.length * 2 + 1);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+
+            while (!inflater.finished()) {
+                final int byteCount = inflater.inflate(buffer);
+
+                if (byteCount == 0 && inflater.needsDictionary()) {
+                    if (dictionary == null || inflater.getAdler() != getChecksum(dictionary)) {
+                        throw new DataFormatException("The compressed text needs a different dictionary.");
+                    }
+
+                    inflater.setDictionary(dictionary);
+                } else if (byteCount == 0 && !inflater.finished() && inflater.needsInput()) {
+                    // An empty text also produces no bytes, but it finishes the inflater.
+                    throw new DataFormatException("The compressed text is incomplete.");
+                }
+
+                outputStream.write(buffer, 0, byteCount);
+            }
+
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Determine the Adler-32 checksum of a dictionary, which Deflate uses to identify the dictionary.
+     *
+     * @param dictionary the dictionary.
+     * @return the checksum of the dictionary.
+     */
+    private static int getChecksum(final byte[] dictionary) {
+        final Adler32 checksum = new Adler32();
+        checksum.update(dictionary, 0, dictionary.length);
+
+        return (int) checksum.getValue();
+    }
+
+    /**
+     * Create a dictionary from sample texts: the words and short phrases that occur in at least two samples, with the
+     * most valuable ones (occurrences times length) at the end, since Deflate encodes short distances more cheaply.
+     *
+     * @param samples     the sample texts.
+     * @param maximumSize the maximum size of the dictionary in bytes.
+     * @return the dictionary (UTF-8 encoded), which is empty if the samples have nothing in common.
+     */
+    static byte[] createDictionary(final List<String> samples, final int maximumSize) {
+        final Map<String, Integer> sampleCounts = new HashMap<>();
+
+        for (final String sample : samples) {
+            final List<String> words = Arrays.asList(sample.trim().split("\\s+"));
+            final Set<String> candidates = new HashSet<>();
+
+            for (int wordIndex = 0; wordIndex < words.size(); wordIndex++) {
+                if (words.get(wordIndex).length() >= MINIMUM_WORD_LENGTH) {
+                    candidates.add(words.get(wordIndex));
+                }
+
+                if (wordIndex + PHRASE_WORD_COUNT <= words.size()) {
+                    candidates.add(String.join(" ", words.subList(wordIndex, wordIndex + PHRASE_WORD_COUNT)));
+                }
+            }
+
+            candidates.forEach(candidate -> sampleCounts.merge(candidate, 1, Integer::sum));
+        }
+
+        final List<Map.Entry<String, Integer>> commonCandidates = sampleCounts.entrySet().stream()
+            .filter(sampleCount -> sampleCount.getValue() >= 2)
+            .collect(Collectors.toList());
+
+        final Comparator<Map.Entry<String, Integer>> valueComparator = Comparator.comparingLong(
+            sampleCount -> (long) sampleCount.getValue() * sampleCount.getKey().length()
+        );
+
+        commonCandidates.sort(valueComparator.reversed().thenComparing(Map.Entry::getKey));
+
+        final List<String> selectedCandidates = new ArrayList<>();
+        int dictionarySize = 0;
+
+        for (final Map.Entry<String, Integer> candidate : commonCandidates) {
+            final int candidateSize = candidate.getKey().getBytes(StandardCharsets.UTF_8).length + 1;
+
+            if (dictionarySize + candidateSize <= maximumSize) {
+                selectedCandidates.add(candidate.getKey());
+                dictionarySize += candidateSize;
+            }
+        }
+
+        Collections.reverse(selectedCandidates);
+
+        final StringBuilder dictionary = new StringBuilder(dictionarySize);
+        selectedCandidates.forEach(candidate -> dictionary.append(candidate).append(' '));
+
+        return dictionary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -31,6 +31,7 @@ import java.util.stream.Collectors;
 import nl.xs4all.home.freekdb.b52reader.articlesources.ArticleSource;
 import nl.xs4all.home.freekdb.b52reader.articlesources.RssArticleSource;
 import nl.xs4all.home.freekdb.b52reader.articlesources.nrc.NrcScienceArticleSource;
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
 import nl.xs4all.home.freekdb.b52reader.articlesources.website.ArticleListFetcher;
 import nl.xs4all.home.freekdb.b52reader.articlesources.website.HtmlHelper;
 import nl.xs4all.home.freekdb.b52reader.browsers.BackgroundBrowsers;
@@ -122,6 +123,74 @@ public class Configuration {
      */
     private static final String WINDOWS_CONFIGURATION_KEY = "window-configuration";
 
+    /**
+     * Property key for the minimum number of articles for filtering and sorting in parallel.
+     */
+    private static final String PARALLEL_THRESHOLD_KEY = "parallel-threshold";
+
+    /**
+     * Property key for the file to write the startup timeline to (in JSON format).
+     */
+    private static final String STARTUP_TIMELINE_FILE_KEY = "startup-timeline-file";
+
+    /**
+     * Property key for the dispatch time in milliseconds above which an event on the EDT is considered a stall (zero
+     * disables the EDT watchdog).
+     */
+    private static final String EDT_STALL_THRESHOLD_KEY = "edt-stall-threshold";
+
+    /**
+     * Property key for the file to write the histogram of EDT dispatch latencies to (in JSON format) at shutdown.
+     */
+    private static final String EDT_LATENCY_FILE_KEY = "edt-latency-file";
+
+    /**
+     * Property key for the file to write the metrics to (in JSON format) at shutdown.
+     */
+    private static final String METRICS_FILE_KEY = "metrics-file";
+
+    /**
+     * Property key for the number of minutes between the fetch-and-save cycles in headless mode.
+     */
+    private static final String HEADLESS_FETCH_INTERVAL_KEY = "headless-fetch-interval";
+
+    /**
+     * Default number of minutes between the fetch-and-save cycles in headless mode.
+     */
+    private static final int DEFAULT_HEADLESS_FETCH_INTERVAL = 60;
+
+    /**
+     * Property key for the localhost port of the JSON HTTP API (zero disables the API).
+     */
+    private static final String API_PORT_KEY = "api-port";
+
+    /**
+     * Property key for the number of threads that fetch the full text of articles in the background (zero disables
+     * fetching the full text).
+     */
+    private static final String CONTENT_FETCH_THREADS_KEY = "content-fetch-threads";
+
+    /**
+     * Property key for the maximum size in megabytes of the stored (compressed) full text of articles.
+     */
+    private static final String CONTENT_CACHE_SIZE_KEY = "content-cache-size";
+
+    /**
+     * Default maximum size in megabytes of the stored (compressed) full text of articles.
+     */
+    private static final int DEFAULT_CONTENT_CACHE_SIZE = 100;
+
+    /**
+     * Property key for whether the text view (instead of the browser view) is shown at startup.
+     */
+    private static final String TEXT_VIEW_KEY = "text-view";
+
+    /**
+     * Property key for the number of days after which read articles that are not starred are removed from the
+     * database (zero disables removing articles).
+     */
+    private static final String RETENTION_DAYS_KEY = "retention-days";
+
     /**
      * Default database driver class name to use for storing data.
      */
@@ -166,6 +235,17 @@ public class Configuration {
     @SuppressWarnings("EmptyAlternationBranch")
     private static final String RSS_CONFIGURATION_SEPARATOR = "|";
 
+    /**
+     * Prefix for synthetic article source configuration (followed by the number of articles and optionally the seed).
+     */
+    private static final String SYNTHETIC_CONFIGURATION_PREFIX = "synthetic|";
+
+    /**
+     * Separator for synthetic article source configuration.
+     */
+    @SuppressWarnings("EmptyAlternationBranch")
+    private static final String SYNTHETIC_CONFIGURATION_SEPARATOR = "|";
+
     /**
      * Logger for this class.
      */
@@ -201,6 +281,62 @@ public class Configuration {
      */
     private String databaseUrl;
 
+    /**
+     * Minimum number of articles for filtering and sorting in parallel.
+     */
+    private int parallelThreshold;
+
+    /**
+     * File to write the startup timeline to (in JSON format), or null if the timeline should not be written.
+     */
+    private String startupTimelineFile;
+
+    /**
+     * Dispatch time in milliseconds above which an event on the EDT is considered a stall (zero if the EDT watchdog is
+     * disabled).
+     */
+    private int edtStallThreshold;
+
+    /**
+     * File to write the histogram of EDT dispatch latencies to (in JSON format), or null if it should not be written.
+     */
+    private String edtLatencyFile;
+
+    /**
+     * File to write the metrics to (in JSON format), or null if they should not be written.
+     */
+    private String metricsFile;
+
+    /**
+     * Number of minutes between the fetch-and-save cycles in headless mode.
+     */
+    private int headlessFetchInterval;
+
+    /**
+     * Localhost port of the JSON HTTP API, or zero if the API is disabled.
+     */
+    private int apiPort;
+
+    /**
+     * Number of threads that fetch the full text of articles in the background, or zero if it is not fetched.
+     */
+    private int contentFetchThreads;
+
+    /**
+     * Maximum size in megabytes of the stored (compressed) full text of articles.
+     */
+    private int contentCacheSize;
+
+    /**
+     * Whether the text view (instead of the browser view) is shown at startup.
+     */
+    private boolean textView;
+
+    /**
+     * Number of days after which read articles that are not starred are removed, or zero if they are kept.
+     */
+    private int retentionDays;
+
     /**
      * Background browsers handler.
      */
@@ -229,6 +365,23 @@ public class Configuration {
      */
     public Configuration(final InputStream configurationInputStream, final boolean articleListWithBrowser)
             throws IOException {
+        this(configurationInputStream, articleListWithBrowser, new PhaseTracer());
+    }
+
+    /**
+     * Initialize by reading the configuration data and filling the <code>selectedArticleSources</code> and
+     * <code>allArticleSources</code> lists. Creating the article sources is traced per source, since some sources
+     * (like RSS sources) already access the network while they are being created.
+     *
+     * @param configurationInputStream the input stream that contains the configuration data.
+     * @param articleListWithBrowser   whether to use a background browser for fetching the html with the list of
+     *                                 articles, which is for example necessary when the html page is dynamically
+     *                                 generated.
+     * @param phaseTracer              the tracer for the creation of the article sources.
+     * @throws IOException if an error occurred when reading from the configuration input stream.
+     */
+    public Configuration(final InputStream configurationInputStream, final boolean articleListWithBrowser,
+                         final PhaseTracer phaseTracer) throws IOException {
         final List<String> sourceIds = new ArrayList<>(Arrays.asList("nrc", "test"));
         allArticleSources = new ArrayList<>();
         selectedArticleSources = new ArrayList<>();
@@ -236,6 +389,17 @@ public class Configuration {
         frameBounds = null;
         databaseDriverClassName = DEFAULT_DATABASE_DRIVER_CLASS_NAME;
         databaseUrl = DEFAULT_DATABASE_URL;
+        parallelThreshold = ParallelListProcessor.DEFAULT_THRESHOLD;
+        startupTimelineFile = null;
+        edtStallThreshold = 0;
+        edtLatencyFile = null;
+        metricsFile = null;
+        headlessFetchInterval = DEFAULT_HEADLESS_FETCH_INTERVAL;
+        apiPort = 0;
+        contentFetchThreads = 0;
+        contentCacheSize = DEFAULT_CONTENT_CACHE_SIZE;
+        textView = false;
+        retentionDays = 0;
 
         try {
             final Properties configuration = new Properties();
@@ -246,7 +410,7 @@ public class Configuration {
             sourceIds.clear();
             sourceIds.addAll(Arrays.asList(sourceIdsProperty.split(SOURCE_IDS_SEPARATOR)));
 
-            addConfiguredSources(configuration, articleListWithBrowser);
+            addConfiguredSources(configuration, articleListWithBrowser, phaseTracer);
 
             final String windowConfiguration = configuration.getProperty(WINDOWS_CONFIGURATION_KEY);
 
@@ -266,6 +430,32 @@ public class Configuration {
 
             databaseUrl = configuration.getProperty(DATABASE_URL_KEY, DEFAULT_DATABASE_URL);
 
+            parallelThreshold = parseInteger(configuration.getProperty(PARALLEL_THRESHOLD_KEY),
+                                             ParallelListProcessor.DEFAULT_THRESHOLD, "parallel threshold");
+
+            startupTimelineFile = configuration.getProperty(STARTUP_TIMELINE_FILE_KEY);
+
+            edtStallThreshold = parseInteger(configuration.getProperty(EDT_STALL_THRESHOLD_KEY), 0,
+                                             "EDT stall threshold");
+
+            edtLatencyFile = configuration.getProperty(EDT_LATENCY_FILE_KEY);
+            metricsFile = configuration.getProperty(METRICS_FILE_KEY);
+
+            headlessFetchInterval = parseInteger(configuration.getProperty(HEADLESS_FETCH_INTERVAL_KEY),
+                                                 DEFAULT_HEADLESS_FETCH_INTERVAL, "headless fetch interval");
+
+            apiPort = parseInteger(configuration.getProperty(API_PORT_KEY), 0, "API port");
+
+            contentFetchThreads = parseInteger(configuration.getProperty(CONTENT_FETCH_THREADS_KEY), 0,
+                                               "content fetch threads");
+
+            contentCacheSize = parseInteger(configuration.getProperty(CONTENT_CACHE_SIZE_KEY),
+                                            DEFAULT_CONTENT_CACHE_SIZE, "content cache size");
+
+            textView = Boolean.parseBoolean(configuration.getProperty(TEXT_VIEW_KEY));
+
+            retentionDays = parseInteger(configuration.getProperty(RETENTION_DAYS_KEY), 0, "retention days");
+
             selectedArticleSources = allArticleSources.stream()
                 .filter(articleSource -> sourceIds.contains(articleSource.getSourceId()))
                 .collect(Collectors.toList());
@@ -343,9 +533,15 @@ public class Configuration {
             configuration.setProperty(SOURCE_IDS_KEY, sourceIds);
 
             for (ArticleSource articleSource : allArticleSources) {
-                final String parameters = articleSource instanceof RssArticleSource
-                    ? getRssParameters((RssArticleSource) articleSource)
-                    : articleSource.getClass().getName();
+                final String parameters;
+
+                if (articleSource instanceof RssArticleSource) {
+                    parameters = getRssParameters((RssArticleSource) articleSource);
+                } else if (articleSource instanceof SyntheticArticleSource) {
+                    parameters = getSyntheticParameters((SyntheticArticleSource) articleSource);
+                } else {
+                    parameters = articleSource.getClass().getName();
+                }
 
                 configuration.setProperty(SOURCE_PREFIX + articleSource.getSourceId(), parameters);
             }
@@ -359,6 +555,50 @@ public class Configuration {
             configuration.setProperty(DATABASE_DRIVER_CLASS_NAME_KEY, databaseDriverClassName);
             configuration.setProperty(DATABASE_URL_KEY, databaseUrl);
 
+            if (parallelThreshold != ParallelListProcessor.DEFAULT_THRESHOLD) {
+                configuration.setProperty(PARALLEL_THRESHOLD_KEY, Integer.toString(parallelThreshold));
+            }
+
+            if (startupTimelineFile != null) {
+                configuration.setProperty(STARTUP_TIMELINE_FILE_KEY, startupTimelineFile);
+            }
+
+            if (edtStallThreshold != 0) {
+                configuration.setProperty(EDT_STALL_THRESHOLD_KEY, Integer.toString(edtStallThreshold));
+            }
+
+            if (edtLatencyFile != null) {
+                configuration.setProperty(EDT_LATENCY_FILE_KEY, edtLatencyFile);
+            }
+
+            if (metricsFile != null) {
+                configuration.setProperty(METRICS_FILE_KEY, metricsFile);
+            }
+
+            if (headlessFetchInterval != DEFAULT_HEADLESS_FETCH_INTERVAL) {
+                configuration.setProperty(HEADLESS_FETCH_INTERVAL_KEY, Integer.toString(headlessFetchInterval));
+            }
+
+            if (apiPort != 0) {
+                configuration.setProperty(API_PORT_KEY, Integer.toString(apiPort));
+            }
+
+            if (contentFetchThreads != 0) {
+                configuration.setProperty(CONTENT_FETCH_THREADS_KEY, Integer.toString(contentFetchThreads));
+            }
+
+            if (contentCacheSize != DEFAULT_CONTENT_CACHE_SIZE) {
+                configuration.setProperty(CONTENT_CACHE_SIZE_KEY, Integer.toString(contentCacheSize));
+            }
+
+            if (textView) {
+                configuration.setProperty(TEXT_VIEW_KEY, Boolean.toString(textView));
+            }
+
+            if (retentionDays != 0) {
+                configuration.setProperty(RETENTION_DAYS_KEY, Integer.toString(retentionDays));
+            }
+
             configuration.store(configurationOutputStream, getConfigurationHeader());
         } catch (final IOException e) {
             logger.error("Exception while writing the configuration data.", e);
@@ -489,6 +729,127 @@ public class Configuration {
         return databaseUrl;
     }
 
+    /**
+     * Get the minimum number of articles for filtering and sorting in parallel.
+     *
+     * @return the minimum number of articles for filtering and sorting in parallel.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Get the file to write the startup timeline to (in JSON format).
+     *
+     * @return the file to write the startup timeline to, or null if the timeline should not be written.
+     */
+    public String getStartupTimelineFile() {
+        return startupTimelineFile;
+    }
+
+    /**
+     * Get the dispatch time in milliseconds above which an event on the EDT is considered a stall.
+     *
+     * @return the EDT stall threshold in milliseconds, or zero if the EDT watchdog is disabled.
+     */
+    public int getEdtStallThreshold() {
+        return edtStallThreshold;
+    }
+
+    /**
+     * Get the file to write the histogram of EDT dispatch latencies to (in JSON format).
+     *
+     * @return the file to write the EDT latencies to, or null if they should not be written.
+     */
+    public String getEdtLatencyFile() {
+        return edtLatencyFile;
+    }
+
+    /**
+     * Get the file to write the metrics to (in JSON format) at shutdown.
+     *
+     * @return the file to write the metrics to, or null if they should not be written.
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Get the number of minutes between the fetch-and-save cycles in headless mode.
+     *
+     * @return the number of minutes between the fetch-and-save cycles.
+     */
+    public int getHeadlessFetchInterval() {
+        return headlessFetchInterval;
+    }
+
+    /**
+     * Get the localhost port of the JSON HTTP API.
+     *
+     * @return the localhost port of the JSON HTTP API, or zero if the API is disabled.
+     */
+    public int getApiPort() {
+        return apiPort;
+    }
+
+    /**
+     * Get the number of threads that fetch the full text of articles in the background.
+     *
+     * @return the number of threads that fetch the full text, or zero if it is not fetched.
+     */
+    public int getContentFetchThreads() {
+        return contentFetchThreads;
+    }
+
+    /**
+     * Get the maximum size in megabytes of the stored (compressed) full text of articles.
+     *
+     * @return the maximum size in megabytes of the stored full text.
+     */
+    public int getContentCacheSize() {
+        return contentCacheSize;
+    }
+
+    /**
+     * Get whether the text view (instead of the browser view) is shown at startup.
+     *
+     * @return whether the text view is shown at startup.
+     */
+    public boolean isTextView() {
+        return textView;
+    }
+
+    /**
+     * Get the number of days after which read articles that are not starred are removed from the database.
+     *
+     * @return the number of days after which read and unstarred articles are removed, or zero if they are kept.
+     */
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    /**
+     * Parse a configured integer; the default value is used if it is missing or invalid.
+     *
+     * @param integerText  the configured integer (or null).
+     * @param defaultValue the default value.
+     * @param description  the description of the setting (for logging).
+     * @return the configured integer or the default value.
+     */
+    private int parseInteger(final String integerText, final int defaultValue, final String description) {
+        int result = defaultValue;
+
+        if (integerText != null) {
+            try {
+                result = Integer.parseInt(integerText.trim());
+            } catch (final NumberFormatException e) {
+                logger.error("Invalid " + description + " in the configuration data: " + integerText, e);
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Add the configured article sources to the <code>allArticleSources</code> list.
      *
@@ -496,8 +857,10 @@ public class Configuration {
      * @param articleListWithBrowser whether to use a background browser for fetching the html with the list of
      *                               articles, which is for example necessary when the html page is dynamically
      *                               generated.
+     * @param phaseTracer            the tracer for the creation of the article sources.
      */
-    private void addConfiguredSources(final Properties configuration, final boolean articleListWithBrowser) {
+    private void addConfiguredSources(final Properties configuration, final boolean articleListWithBrowser,
+                                      final PhaseTracer phaseTracer) {
         Collections.list(configuration.propertyNames()).forEach(name -> {
             final String propertyName = (String) name;
 
@@ -505,8 +868,10 @@ public class Configuration {
                 final String sourceId = propertyName.substring(SOURCE_PREFIX.length());
                 final String sourceConfiguration = configuration.getProperty(propertyName);
 
-                final ArticleSource articleSource = createArticleSource(sourceId, sourceConfiguration,
-                                                                        articleListWithBrowser);
+                final ArticleSource articleSource = phaseTracer.trace(
+                    "create source " + sourceId,
+                    () -> createArticleSource(sourceId, sourceConfiguration, articleListWithBrowser)
+                );
 
                 if (articleSource != null) {
                     allArticleSources.add(articleSource);
@@ -537,6 +902,8 @@ public class Configuration {
                 if (configurationItems.length >= minimumRssConfigurationItems) {
                     articleSource = (ArticleSource) constructRssArticleSource(configurationItems, sourceId);
                 }
+            } else if (sourceConfiguration.startsWith(SYNTHETIC_CONFIGURATION_PREFIX)) {
+                articleSource = constructSyntheticArticleSource(sourceConfiguration, sourceId);
             } else {
                 final Class<?> sourceClass = Class.forName(sourceConfiguration);
 
@@ -578,6 +945,7 @@ public class Configuration {
      * @return the new RSS article source.
      */
     private Object constructRssArticleSource(final String[] configurationItems, final String sourceId) {
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.ARTICLE_FETCH);
         Object source = null;
 
         try {
@@ -594,13 +962,19 @@ public class Configuration {
                 ? configurationItems[categoryNameIndex]
                 : null;
 
+            event.url(feedUrl.toString());
+
             final SyndFeed feed = new SyndFeedInput().build(new XmlReader(feedUrl));
 
+            event.rowCount(feed.getEntries().size());
+
             source = new RssArticleSource(sourceId, feed, feedName, defaultAuthorName, feedUrl, categoryName);
         } catch (final FeedException | IOException e) {
             logger.error("Exception while fetching articles from an RSS feed.", e);
         }
 
+        event.sourceId(sourceId).commit();
+
         return source;
     }
 
@@ -623,6 +997,49 @@ public class Configuration {
         return new Rectangle(bounds[xIndex], bounds[yIndex], bounds[widthIndex], bounds[heightIndex]);
     }
 
+    /**
+     * Construct a synthetic article source, with a configuration like "synthetic|100000|52" (the number of articles and
+     * optionally the seed).
+     *
+     * @param sourceConfiguration the source configuration.
+     * @param sourceId            the source id.
+     * @return the synthetic article source or null if the configuration is invalid.
+     */
+    private ArticleSource constructSyntheticArticleSource(final String sourceConfiguration, final String sourceId) {
+        ArticleSource source = null;
+
+        try {
+            final String[] configurationItems = sourceConfiguration.split("\\" + SYNTHETIC_CONFIGURATION_SEPARATOR);
+            final int articleCountIndex = 1;
+            final int seedIndex = 2;
+
+            final int articleCount = configurationItems.length > articleCountIndex
+                ? Integer.parseInt(configurationItems[articleCountIndex].trim())
+                : SyntheticArticleSource.DEFAULT_ARTICLE_COUNT;
+
+            final long seed = configurationItems.length > seedIndex
+                ? Long.parseLong(configurationItems[seedIndex].trim())
+                : SyntheticArticleSource.DEFAULT_SEED;
+
+            source = new SyntheticArticleSource(sourceId, articleCount, seed);
+        } catch (final NumberFormatException e) {
+            logger.error("Invalid configuration for synthetic article source " + sourceId + ".", e);
+        }
+
+        return source;
+    }
+
+    /**
+     * Get the configuration parameters for a synthetic article source.
+     *
+     * @param syntheticSource the synthetic article source.
+     * @return the configuration parameters.
+     */
+    private String getSyntheticParameters(final SyntheticArticleSource syntheticSource) {
+        return SYNTHETIC_CONFIGURATION_PREFIX + syntheticSource.getArticleCount() + SYNTHETIC_CONFIGURATION_SEPARATOR
+               + syntheticSource.getSeed();
+    }
+
     /**
      * Get the configuration parameters for an RSS article source.
      *
@@ -0,0 +1,393 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Custom Java Flight Recorder (JFR) event for an operation of the reader, like fetching articles or saving a batch of
+ * rows in the database. All event types have the same fields: source id, URL, byte count, and row count (fields that
+ * do not apply to an operation are left empty or zero). Usage:
+ * <pre>
+ * final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.ARTICLE_FETCH);
+ * ...
+ * event.url(url).byteCount(html.length()).commit();
+ * </pre>
+ * The application is compiled for Java 8, so the events are created dynamically with the <code>jdk.jfr</code> API
+ * (using reflection) when it is available. On JVMs without JFR, and for event types that are not enabled in the current
+ * recording, a shared disabled event is returned and all methods do nothing.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public final class FlightRecorderEvent {
+    /**
+     * Prefix for the names of the event types.
+     */
+    private static final String EVENT_NAME_PREFIX = "b52reader.";
+
+    /**
+     * Category for the event types (shown in JDK Mission Control).
+     */
+    private static final String EVENT_CATEGORY = "B52 reader";
+
+    /**
+     * Index of the source id field.
+     */
+    private static final int SOURCE_ID_INDEX = 0;
+
+    /**
+     * Index of the URL field.
+     */
+    private static final int URL_INDEX = 1;
+
+    /**
+     * Index of the byte count field.
+     */
+    private static final int BYTE_COUNT_INDEX = 2;
+
+    /**
+     * Index of the row count field.
+     */
+    private static final int ROW_COUNT_INDEX = 3;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Shared event that does nothing, for when JFR is not available or the event type is not enabled.
+     */
+    private static final FlightRecorderEvent DISABLED_EVENT = new FlightRecorderEvent(null);
+
+    /**
+     * Access to the JFR API, or null if it is not available.
+     */
+    private static final JfrAccess JFR_ACCESS = JfrAccess.create();
+
+    /**
+     * The JFR event (an instance of <code>jdk.jfr.Event</code>), or null for the disabled event.
+     */
+    private final Object jfrEvent;
+
+    /**
+     * The types of the events.
+     */
+    public enum Type {
+        /**
+         * Fetching the list of articles (html or RSS) of an article source.
+         */
+        ARTICLE_FETCH("ArticleFetch", "Article Fetch"),
+
+        /**
+         * Parsing html into a document.
+         */
+        HTML_PARSE("HtmlParse", "HTML Parse"),
+
+        /**
+         * Converting the entries of an RSS feed into articles.
+         */
+        RSS_PARSE("RssParse", "RSS Parse"),
+
+        /**
+         * Creating an embedded browser.
+         */
+        BROWSER_CREATE("BrowserCreate", "Browser Create"),
+
+        /**
+         * Disposing embedded browsers.
+         */
+        BROWSER_DISPOSE("BrowserDispose", "Browser Dispose"),
+
+        /**
+         * Executing a batch of JDBC statements.
+         */
+        JDBC_BATCH("JdbcBatch", "JDBC Batch");
+
+        /**
+         * The name of the event type (without prefix).
+         */
+        private final String name;
+
+        /**
+         * The human readable label of the event type.
+         */
+        private final String label;
+
+        /**
+         * Construct an event type.
+         *
+         * @param name  the name of the event type (without prefix).
+         * @param label the human readable label of the event type.
+         */
+        Type(final String name, final String label) {
+            this.name = name;
+            this.label = label;
+        }
+    }
+
+    /**
+     * Construct an event.
+     *
+     * @param jfrEvent the JFR event, or null for the disabled event.
+     */
+    private FlightRecorderEvent(final Object jfrEvent) {
+        this.jfrEvent = jfrEvent;
+    }
+
+    /**
+     * Check whether JFR events can be emitted by this JVM.
+     *
+     * @return whether JFR events can be emitted.
+     */
+    public static boolean isAvailable() {
+        return JFR_ACCESS != null;
+    }
+
+    /**
+     * Begin an event: the duration of the event is measured from now until <code>commit</code> is called.
+     *
+     * @param type the type of the event.
+     * @return the event, which does nothing if JFR is not available or the event type is not enabled.
+     */
+    public static FlightRecorderEvent begin(final Type type) {
+        final Object jfrEvent = JFR_ACCESS != null ? JFR_ACCESS.beginEvent(type) : null;
+
+        return jfrEvent != null ? new FlightRecorderEvent(jfrEvent) : DISABLED_EVENT;
+    }
+
+    /**
+     * Check whether this event will be recorded.
+     *
+     * @return whether this event will be recorded.
+     */
+    public boolean isEnabled() {
+        return jfrEvent != null;
+    }
+
+    /**
+     * Set the source id of the article source.
+     *
+     * @param sourceId the source id.
+     * @return this event.
+     */
+    public FlightRecorderEvent sourceId(final String sourceId) {
+        return set(SOURCE_ID_INDEX, sourceId);
+    }
+
+    /**
+     * Set the URL that is fetched, parsed, or shown.
+     *
+     * @param url the URL.
+     * @return this event.
+     */
+    public FlightRecorderEvent url(final String url) {
+        return set(URL_INDEX, url);
+    }
+
+    /**
+     * Set the number of bytes (or characters) that were processed.
+     *
+     * @param byteCount the number of bytes.
+     * @return this event.
+     */
+    public FlightRecorderEvent byteCount(final long byteCount) {
+        return set(BYTE_COUNT_INDEX, byteCount);
+    }
+
+    /**
+     * Set the number of rows (articles, database records, or browsers) that were processed.
+     *
+     * @param rowCount the number of rows.
+     * @return this event.
+     */
+    public FlightRecorderEvent rowCount(final long rowCount) {
+        return set(ROW_COUNT_INDEX, rowCount);
+    }
+
+    /**
+     * End the event and commit it to the recording.
+     */
+    public void commit() {
+        if (jfrEvent != null) {
+            JFR_ACCESS.commitEvent(jfrEvent);
+        }
+    }
+
+    /**
+     * Set a field of the JFR event.
+     *
+     * @param fieldIndex the index of the field.
+     * @param value      the value of the field.
+     * @return this event.
+     */
+    private FlightRecorderEvent set(final int fieldIndex, final Object value) {
+        if (jfrEvent != null) {
+            JFR_ACCESS.setField(jfrEvent, fieldIndex, value);
+        }
+
+        return this;
+    }
+
+    /**
+     * Reflective access to the <code>jdk.jfr</code> API: an event factory per event type and the methods of
+     * <code>jdk.jfr.Event</code>.
+     */
+    private static final class JfrAccess {
+        /**
+         * The event factories (instances of <code>jdk.jfr.EventFactory</code>), indexed by event type ordinal.
+         */
+        private final List<Object> eventFactories;
+
+        /**
+         * The <code>EventFactory.newEvent</code> method.
+         */
+        private final Method newEventMethod;
+
+        /**
+         * The <code>Event.isEnabled</code> method.
+         */
+        private final Method isEnabledMethod;
+
+        /**
+         * The <code>Event.begin</code> method.
+         */
+        private final Method beginMethod;
+
+        /**
+         * The <code>Event.set</code> method.
+         */
+        private final Method setMethod;
+
+        /**
+         * The <code>Event.commit</code> method (which also ends the event).
+         */
+        private final Method commitMethod;
+
+        /**
+         * Construct the reflective access to the JFR API.
+         *
+         * @param eventFactories the event factories, indexed by event type ordinal.
+         * @param factoryClass   the <code>jdk.jfr.EventFactory</code> class.
+         * @param eventClass     the <code>jdk.jfr.Event</code> class.
+         * @throws ReflectiveOperationException if a method cannot be found.
+         */
+        private JfrAccess(final List<Object> eventFactories, final Class<?> factoryClass, final Class<?> eventClass)
+                throws ReflectiveOperationException {
+            this.eventFactories = eventFactories;
+            this.newEventMethod = factoryClass.getMethod("newEvent");
+            this.isEnabledMethod = eventClass.getMethod("isEnabled");
+            this.beginMethod = eventClass.getMethod("begin");
+            this.setMethod = eventClass.getMethod("set", int.class, Object.class);
+            this.commitMethod = eventClass.getMethod("commit");
+        }
+
+        /**
+         * Create the reflective access to the JFR API and register the event types.
+         *
+         * @return the access to the JFR API, or null if it is not available.
+         */
+        private static JfrAccess create() {
+            JfrAccess jfrAccess = null;
+
+            try {
+                final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                final Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+                final Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+                final Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+
+                final Constructor<?> annotationConstructor = annotationElementClass.getConstructor(Class.class,
+                                                                                                   Object.class);
+                final Constructor<?> fieldConstructor = valueDescriptorClass.getConstructor(Class.class,
+                                                                                            String.class);
+                final Method createMethod = factoryClass.getMethod("create", List.class, List.class);
+
+                final List<Object> fields = Arrays.asList(fieldConstructor.newInstance(String.class, "sourceId"),
+                                                          fieldConstructor.newInstance(String.class, "url"),
+                                                          fieldConstructor.newInstance(long.class, "byteCount"),
+                                                          fieldConstructor.newInstance(long.class, "rowCount"));
+
+                final List<Object> eventFactories = new ArrayList<>();
+
+                for (final Type type : Type.values()) {
+                    final List<Object> annotations = Arrays.asList(
+                        annotationConstructor.newInstance(Class.forName("jdk.jfr.Name"), EVENT_NAME_PREFIX + type.name),
+                        annotationConstructor.newInstance(Class.forName("jdk.jfr.Label"), type.label),
+                        annotationConstructor.newInstance(Class.forName("jdk.jfr.Category"),
+                                                          new String[]{EVENT_CATEGORY})
+                    );
+
+                    eventFactories.add(createMethod.invoke(null, annotations, fields));
+                }
+
+                jfrAccess = new JfrAccess(eventFactories, factoryClass, eventClass);
+            } catch (final ReflectiveOperationException | LinkageError | SecurityException e) {
+                logger.info("Java Flight Recorder events are not available: {}", e.toString());
+            }
+
+            return jfrAccess;
+        }
+
+        /**
+         * Create and begin a JFR event of the specified type, if that type is enabled.
+         *
+         * @param type the type of the event.
+         * @return the JFR event, or null if the type is not enabled.
+         */
+        private Object beginEvent(final Type type) {
+            Object jfrEvent = null;
+
+            try {
+                final Object newEvent = newEventMethod.invoke(eventFactories.get(type.ordinal()));
+
+                if ((Boolean) isEnabledMethod.invoke(newEvent)) {
+                    beginMethod.invoke(newEvent);
+                    jfrEvent = newEvent;
+                }
+            } catch (final ReflectiveOperationException e) {
+                logger.debug("Exception while creating a flight recorder event.", e);
+            }
+
+            return jfrEvent;
+        }
+
+        /**
+         * Set a field of a JFR event.
+         *
+         * @param jfrEvent   the JFR event.
+         * @param fieldIndex the index of the field.
+         * @param value      the value of the field.
+         */
+        private void setField(final Object jfrEvent, final int fieldIndex, final Object value) {
+            try {
+                setMethod.invoke(jfrEvent, fieldIndex, value);
+            } catch (final ReflectiveOperationException e) {
+                logger.debug("Exception while setting a field of a flight recorder event.", e);
+            }
+        }
+
+        /**
+         * End a JFR event and commit it to the recording.
+         *
+         * @param jfrEvent the JFR event.
+         */
+        private void commitEvent(final Object jfrEvent) {
+            try {
+                commitMethod.invoke(jfrEvent);
+            } catch (final ReflectiveOperationException e) {
+                logger.debug("Exception while committing a flight recorder event.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies with buckets that double in size: the first bucket counts latencies below 1 millisecond, the
+ * second bucket latencies from 1 to 2 milliseconds, the third from 2 to 4 milliseconds, etc. The last bucket counts all
+ * latencies of 32 seconds and more. Recording a latency is lock-free, so it is cheap enough to do for every event
+ * (from any thread).
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class LatencyHistogram {
+    /**
+     * Number of buckets: one below 1 millisecond, 15 doubling buckets up to 32 seconds, and one for the rest.
+     */
+    public static final int BUCKET_COUNT = 17;
+
+    /**
+     * Number of nanoseconds in a millisecond.
+     */
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+    /**
+     * Number of latencies per bucket.
+     */
+    private final AtomicLongArray bucketCounts;
+
+    /**
+     * Sum of all latencies in nanoseconds.
+     */
+    private final LongAdder totalNanos;
+
+    /**
+     * Maximum latency in nanoseconds.
+     */
+    private final AtomicLong maximumNanos;
+
+    /**
+     * Construct an empty latency histogram.
+     */
+    public LatencyHistogram() {
+        this.bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+        this.totalNanos = new LongAdder();
+        this.maximumNanos = new AtomicLong();
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param latencyNanos the latency in nanoseconds.
+     */
+    public void record(final long latencyNanos) {
+        final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        final int bucketIndex = Math.min(Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, latencyMillis)),
+                                         BUCKET_COUNT - 1);
+
+        bucketCounts.incrementAndGet(bucketIndex);
+        totalNanos.add(latencyNanos);
+        maximumNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    /**
+     * Get the number of recorded latencies.
+     *
+     * @return the number of recorded latencies.
+     */
+    public long getCount() {
+        long count = 0;
+
+        for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+            count += bucketCounts.get(bucketIndex);
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the number of recorded latencies in a bucket.
+     *
+     * @param bucketIndex the index of the bucket.
+     * @return the number of recorded latencies in the bucket.
+     */
+    public long getBucketCount(final int bucketIndex) {
+        return bucketCounts.get(bucketIndex);
+    }
+
+    /**
+     * Get the (exclusive) upper bound of a bucket in milliseconds.
+     *
+     * @param bucketIndex the index of the bucket.
+     * @return the upper bound of the bucket in milliseconds, or <code>Long.MAX_VALUE</code> for the last bucket.
+     */
+    public static long getBucketUpperBoundMillis(final int bucketIndex) {
+        return bucketIndex < BUCKET_COUNT - 1 ? 1L << bucketIndex : Long.MAX_VALUE;
+    }
+
+    /**
+     * Get the mean latency in nanoseconds.
+     *
+     * @return the mean latency in nanoseconds, or zero if no latencies were recorded.
+     */
+    public long getMeanNanos() {
+        final long count = getCount();
+
+        return count > 0 ? totalNanos.sum() / count : 0;
+    }
+
+    /**
+     * Get the maximum latency in nanoseconds.
+     *
+     * @return the maximum latency in nanoseconds, or zero if no latencies were recorded.
+     */
+    public long getMaximumNanos() {
+        return maximumNanos.get();
+    }
+
+    /**
+     * Create a summary with the number of latencies, the mean and maximum latency, and the non-empty buckets.
+     *
+     * @return the summary.
+     */
+    public String createSummary() {
+        final StringBuilder summary = new StringBuilder(String.format(
+            Locale.ROOT, "count: %d, mean: %.1f ms, maximum: %.1f ms", getCount(), toMilliseconds(getMeanNanos()),
+            toMilliseconds(getMaximumNanos())
+        ));
+
+        for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+            final long bucketCount = bucketCounts.get(bucketIndex);
+
+            if (bucketCount > 0) {
+                summary.append(String.format(Locale.ROOT, "%n%12s ms: %d", getBucketLabel(bucketIndex), bucketCount));
+            }
+        }
+
+        return summary.toString();
+    }
+
+    /**
+     * Write the histogram in JSON format (in UTF-8).
+     *
+     * @param outputStream the output stream to write to (which is not closed).
+     * @throws IOException if an error occurred when writing to the output stream.
+     */
+    public void writeJson(final OutputStream outputStream) throws IOException {
+        final JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            writeJson(generator);
+        }
+    }
+
+    /**
+     * Write the histogram as a JSON object with a generator.
+     *
+     * @param generator the JSON generator to write with.
+     * @throws IOException if an error occurred when writing.
+     */
+    public void writeJson(final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("count", getCount());
+        generator.writeNumberField("meanMilliseconds", toMilliseconds(getMeanNanos()));
+        generator.writeNumberField("maximumMilliseconds", toMilliseconds(getMaximumNanos()));
+        generator.writeArrayFieldStart("buckets");
+
+        for (int bucketIndex = 0; bucketIndex < BUCKET_COUNT; bucketIndex++) {
+            generator.writeStartObject();
+            generator.writeStringField("milliseconds", getBucketLabel(bucketIndex));
+            generator.writeNumberField("count", bucketCounts.get(bucketIndex));
+            generator.writeEndObject();
+        }
+
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Get the label for a bucket, like "2-4" or "32768+".
+     *
+     * @param bucketIndex the index of the bucket.
+     * @return the label for the bucket.
+     */
+    private static String getBucketLabel(final int bucketIndex) {
+        final long lowerBound = bucketIndex > 0 ? getBucketUpperBoundMillis(bucketIndex - 1) : 0;
+
+        return bucketIndex < BUCKET_COUNT - 1
+            ? lowerBound + "-" + getBucketUpperBoundMillis(bucketIndex)
+            : lowerBound + "+";
+    }
+
+    /**
+     * Convert nanoseconds to milliseconds.
+     *
+     * @param nanos the number of nanoseconds.
+     * @return the number of milliseconds.
+     */
+    private static double toMilliseconds(final long nanos) {
+        return nanos / NANOSECONDS_PER_MILLISECOND;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process registry with named metrics: counters (like the number of cache hits), gauges (like the number of live
+ * browsers), and latency histograms (like the time it takes to fetch the articles of a source). Metrics are created
+ * the first time they are requested. Recording a value is lock-free, and callers on hot paths can keep a reference to
+ * a metric to skip the lookup by name.
+ * <p>
+ * For counter pairs named "x.hits" and "x.misses", the summary also shows the hit rate of "x".
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class MetricsRegistry {
+    /**
+     * Suffix for counters with the number of cache hits.
+     */
+    public static final String HITS_SUFFIX = ".hits";
+
+    /**
+     * Suffix for counters with the number of cache misses.
+     */
+    public static final String MISSES_SUFFIX = ".misses";
+
+    /**
+     * Number of percents in one.
+     */
+    private static final double PERCENT = 100.0;
+
+    /**
+     * The registry that is shared by the whole application.
+     */
+    private static final MetricsRegistry GLOBAL_REGISTRY = new MetricsRegistry();
+
+    /**
+     * The counters by name.
+     */
+    private final ConcurrentMap<String, LongAdder> counters;
+
+    /**
+     * The gauges by name.
+     */
+    private final ConcurrentMap<String, AtomicLong> gauges;
+
+    /**
+     * The latency histograms by name.
+     */
+    private final ConcurrentMap<String, LatencyHistogram> histograms;
+
+    /**
+     * Construct an empty metrics registry.
+     */
+    public MetricsRegistry() {
+        this.counters = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the registry that is shared by the whole application.
+     *
+     * @return the global registry.
+     */
+    public static MetricsRegistry getGlobal() {
+        return GLOBAL_REGISTRY;
+    }
+
+    /**
+     * Get a counter, which is created if it does not exist yet.
+     *
+     * @param name the name of the counter.
+     * @return the counter.
+     */
+    public LongAdder getCounter(final String name) {
+        return getOrCreate(counters, name, LongAdder::new);
+    }
+
+    /**
+     * Get a gauge, which is created (with value zero) if it does not exist yet.
+     *
+     * @param name the name of the gauge.
+     * @return the gauge.
+     */
+    public AtomicLong getGauge(final String name) {
+        return getOrCreate(gauges, name, AtomicLong::new);
+    }
+
+    /**
+     * Get a latency histogram, which is created if it does not exist yet.
+     *
+     * @param name the name of the histogram.
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getHistogram(final String name) {
+        return getOrCreate(histograms, name, LatencyHistogram::new);
+    }
+
+    /**
+     * Record the latency of an operation that started at a specific time.
+     *
+     * @param name       the name of the histogram.
+     * @param startNanos the start time of the operation (according to <code>System.nanoTime</code>).
+     */
+    public void recordLatencySince(final String name, final long startNanos) {
+        getHistogram(name).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Create a summary with all metrics, sorted by name.
+     *
+     * @return the summary.
+     */
+    public String createSummary() {
+        final StringBuilder summary = new StringBuilder("counters:");
+        final SortedMap<String, LongAdder> sortedCounters = new TreeMap<>(counters);
+        sortedCounters.forEach((name, counter) -> appendLine(summary, name, counter.sum()));
+
+        summary.append(String.format("%ngauges:"));
+        new TreeMap<>(gauges).forEach((name, gauge) -> appendLine(summary, name, gauge.get()));
+
+        summary.append(String.format("%nhit rates:"));
+        getHitRates(sortedCounters).forEach(
+            (name, hitRate) -> appendLine(summary, name, String.format(Locale.ROOT, "%.1f%%", hitRate * PERCENT))
+        );
+
+        // The buckets of the histograms are indented below their names.
+        final String nestedLineSeparator = System.lineSeparator() + "    ";
+        summary.append(String.format("%nhistograms:"));
+        new TreeMap<>(histograms).forEach((name, histogram) -> appendLine(
+            summary, name, histogram.createSummary().replace(System.lineSeparator(), nestedLineSeparator)
+        ));
+
+        return summary.toString();
+    }
+
+    /**
+     * Write all metrics in JSON format (in UTF-8).
+     *
+     * @param outputStream the output stream to write to (which is not closed).
+     * @throws IOException if an error occurred when writing to the output stream.
+     */
+    public void writeJson(final OutputStream outputStream) throws IOException {
+        final JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+
+            final SortedMap<String, LongAdder> sortedCounters = new TreeMap<>(counters);
+            generator.writeObjectFieldStart("counters");
+            for (final Map.Entry<String, LongAdder> counter : sortedCounters.entrySet()) {
+                generator.writeNumberField(counter.getKey(), counter.getValue().sum());
+            }
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("gauges");
+            for (final Map.Entry<String, AtomicLong> gauge : new TreeMap<>(gauges).entrySet()) {
+                generator.writeNumberField(gauge.getKey(), gauge.getValue().get());
+            }
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("hitRates");
+            for (final Map.Entry<String, Double> hitRate : getHitRates(sortedCounters).entrySet()) {
+                generator.writeNumberField(hitRate.getKey(), hitRate.getValue());
+            }
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("histograms");
+            for (final Map.Entry<String, LatencyHistogram> histogram : new TreeMap<>(histograms).entrySet()) {
+                generator.writeFieldName(histogram.getKey());
+                histogram.getValue().writeJson(generator);
+            }
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Get a metric from a map, or create and add it if it does not exist yet. The lookup of an existing metric does
+     * not lock (unlike <code>computeIfAbsent</code> on Java 8).
+     *
+     * @param metrics the map with metrics.
+     * @param name    the name of the metric.
+     * @param factory the factory that creates a new metric.
+     * @param <M>     the type of the metric.
+     * @return the metric.
+     */
+    private static <M> M getOrCreate(final ConcurrentMap<String, M> metrics, final String name,
+                                     final Supplier<M> factory) {
+        final M metric = metrics.get(name);
+
+        return metric != null ? metric : metrics.computeIfAbsent(name, key -> factory.get());
+    }
+
+    /**
+     * Get the hit rates for all counter pairs named "x.hits" and "x.misses" that have at least one hit or miss.
+     *
+     * @param sortedCounters the counters, sorted by name.
+     * @return the hit rates (between zero and one) by name (the name of the counters without the suffix).
+     */
+    private static SortedMap<String, Double> getHitRates(final SortedMap<String, LongAdder> sortedCounters) {
+        final SortedMap<String, Double> hitRates = new TreeMap<>();
+
+        sortedCounters.forEach((name, counter) -> {
+            if (name.endsWith(HITS_SUFFIX)) {
+                final String baseName = name.substring(0, name.length() - HITS_SUFFIX.length());
+                final LongAdder missesCounter = sortedCounters.get(baseName + MISSES_SUFFIX);
+                final long hits = counter.sum();
+                final long total = hits + (missesCounter != null ? missesCounter.sum() : 0);
+
+                if (total > 0) {
+                    hitRates.put(baseName, (double) hits / total);
+                }
+            }
+        });
+
+        return hitRates;
+    }
+
+    /**
+     * Append an indented line with the name and value of a metric to a summary.
+     *
+     * @param summary the summary to append to.
+     * @param name    the name of the metric.
+     * @param value   the value of the metric.
+     */
+    private static void appendLine(final StringBuilder summary, final String name, final Object value) {
+        summary.append(String.format(Locale.ROOT, "%n  %s: %s", name, value));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+/**
+ * Result of normalizing a text and counting its words in a single pass (see
+ * {@link Utilities#normalizeAndCountWords(String)}). Normalized texts are immutable.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public final class NormalizedText {
+    /**
+     * The normalized version of the text.
+     */
+    private final String text;
+
+    /**
+     * The estimated number of words in the text.
+     */
+    private final int wordCount;
+
+    /**
+     * Construct a normalized text.
+     *
+     * @param text      the normalized version of the text.
+     * @param wordCount the estimated number of words in the text.
+     */
+    NormalizedText(final String text, final int wordCount) {
+        this.text = text;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * Get the normalized version of the text.
+     *
+     * @return the normalized version of the text, or null if the original text was null.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the estimated number of words in the text.
+     *
+     * @return the estimated number of words in the text.
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+}
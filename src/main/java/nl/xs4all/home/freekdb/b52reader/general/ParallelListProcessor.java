@@ -0,0 +1,350 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Filter and sort engine for (potentially very large) lists, like the list with all articles. Lists that are smaller
+ * than the threshold are processed in the calling thread; larger lists are split into chunks that are processed in
+ * parallel by a fork/join pool. Both paths give exactly the same results: filtering keeps the order of the elements
+ * and sorting is stable, since the partial results are merged in order.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ParallelListProcessor {
+    /**
+     * Default minimum list size for processing in parallel. Below this size, the overhead of splitting the work and
+     * merging the results is larger than the gain. The <code>ParallelListProcessorBenchmark</code> class can be used
+     * to find the crossover point for a specific machine.
+     */
+    public static final int DEFAULT_THRESHOLD = 10_000;
+
+    /**
+     * Number of chunks per thread in the pool, which helps to balance the work when some chunks take longer.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Minimum number of elements in a chunk.
+     */
+    private static final int MINIMUM_CHUNK_SIZE = 1024;
+
+    /**
+     * Minimum list size for processing in parallel.
+     */
+    private final int threshold;
+
+    /**
+     * Fork/join pool for processing in parallel.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Construct a list processor that uses the common fork/join pool.
+     *
+     * @param threshold the minimum list size for processing in parallel.
+     */
+    public ParallelListProcessor(final int threshold) {
+        this(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construct a list processor that uses a specific fork/join pool.
+     *
+     * @param threshold the minimum list size for processing in parallel.
+     * @param pool      the fork/join pool for processing in parallel.
+     */
+    public ParallelListProcessor(final int threshold, final ForkJoinPool pool) {
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Get the minimum list size for processing in parallel.
+     *
+     * @return the minimum list size for processing in parallel.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Check whether a list with the specified size will be processed in parallel. This is not done if the pool has
+     * only one thread, since there is nothing to gain then.
+     *
+     * @param size the size of the list.
+     * @return whether the list will be processed in parallel.
+     */
+    public boolean isParallel(final int size) {
+        return size >= threshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Filter a list, while keeping the order of the elements.
+     *
+     * @param elements  the elements to filter.
+     * @param predicate the predicate that elements should match (which is called from multiple threads for large
+     *                  lists).
+     * @param <T>       the type of the elements.
+     * @return a new list with the elements that match the predicate.
+     */
+    public <T> List<T> filter(final List<? extends T> elements, final Predicate<? super T> predicate) {
+        final List<? extends T> randomAccessElements = elements instanceof RandomAccess
+            ? elements
+            : new ArrayList<>(elements);
+
+        final int size = randomAccessElements.size();
+
+        return isParallel(size)
+            ? pool.invoke(new FilterTask<T>(randomAccessElements, predicate, 0, size, getChunkSize(size)))
+            : filterRange(randomAccessElements, predicate, 0, size);
+    }
+
+    /**
+     * Sort a list in place. The sort is stable: equal elements keep their relative order.
+     *
+     * @param elements   the elements to sort.
+     * @param comparator the comparator that determines the order (which is called from multiple threads for large
+     *                   lists).
+     * @param <T>        the type of the elements.
+     */
+    public <T> void sort(final List<T> elements, final Comparator<? super T> comparator) {
+        final int size = elements.size();
+
+        if (isParallel(size)) {
+            @SuppressWarnings("unchecked")
+            final T[] array = (T[]) elements.toArray();
+
+            pool.invoke(new SortTask<>(array, Arrays.copyOf(array, size), 0, size, comparator, getChunkSize(size)));
+
+            final ListIterator<T> iterator = elements.listIterator();
+
+            for (final T element : array) {
+                iterator.next();
+                iterator.set(element);
+            }
+        } else {
+            elements.sort(comparator);
+        }
+    }
+
+    /**
+     * Determine the chunk size for a list: a few chunks for each thread in the pool.
+     *
+     * @param size the size of the list.
+     * @return the chunk size.
+     */
+    private int getChunkSize(final int size) {
+        return Math.max(MINIMUM_CHUNK_SIZE, size / (pool.getParallelism() * CHUNKS_PER_THREAD));
+    }
+
+    /**
+     * Filter a range of a list in the current thread.
+     *
+     * @param elements  the elements to filter.
+     * @param predicate the predicate that elements should match.
+     * @param fromIndex the index of the first element in the range.
+     * @param toIndex   the index after the last element in the range.
+     * @param <T>       the type of the elements.
+     * @return a new list with the elements in the range that match the predicate.
+     */
+    private static <T> List<T> filterRange(final List<? extends T> elements, final Predicate<? super T> predicate,
+                                           final int fromIndex, final int toIndex) {
+        final List<T> result = new ArrayList<>();
+
+        for (int index = fromIndex; index < toIndex; index++) {
+            final T element = elements.get(index);
+
+            if (predicate.test(element)) {
+                result.add(element);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Fork/join task that filters a range of a list by splitting it in two halves and concatenating the results of
+     * both halves in order.
+     *
+     * @param <T> the type of the elements.
+     */
+    private static class FilterTask<T> extends RecursiveTask<List<T>> {
+        /**
+         * The elements to filter.
+         */
+        private final transient List<? extends T> elements;
+
+        /**
+         * The predicate that elements should match.
+         */
+        private final transient Predicate<? super T> predicate;
+
+        /**
+         * The index of the first element in the range.
+         */
+        private final int fromIndex;
+
+        /**
+         * The index after the last element in the range.
+         */
+        private final int toIndex;
+
+        /**
+         * The maximum number of elements that is filtered without splitting the range.
+         */
+        private final int chunkSize;
+
+        /**
+         * Construct a filter task for a range of a list.
+         *
+         * @param elements  the elements to filter.
+         * @param predicate the predicate that elements should match.
+         * @param fromIndex the index of the first element in the range.
+         * @param toIndex   the index after the last element in the range.
+         * @param chunkSize the maximum number of elements that is filtered without splitting the range.
+         */
+        FilterTask(final List<? extends T> elements, final Predicate<? super T> predicate, final int fromIndex,
+                   final int toIndex, final int chunkSize) {
+            this.elements = elements;
+            this.predicate = predicate;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected List<T> compute() {
+            final List<T> result;
+
+            if (toIndex - fromIndex <= chunkSize) {
+                result = filterRange(elements, predicate, fromIndex, toIndex);
+            } else {
+                final int middleIndex = (fromIndex + toIndex) >>> 1;
+                final FilterTask<T> firstHalf = new FilterTask<T>(elements, predicate, fromIndex, middleIndex,
+                                                                  chunkSize);
+
+                firstHalf.fork();
+                final List<T> secondResult = new FilterTask<T>(elements, predicate, middleIndex, toIndex, chunkSize)
+                    .compute();
+
+                result = firstHalf.join();
+                result.addAll(secondResult);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Fork/join task that sorts a range of an array with a merge sort: both halves are sorted in parallel and then
+     * merged, with elements from the first half first when they are equal (to keep the sort stable).
+     *
+     * @param <T> the type of the elements.
+     */
+    private static class SortTask<T> extends RecursiveAction {
+        /**
+         * The elements to sort.
+         */
+        private final transient T[] array;
+
+        /**
+         * Buffer with the same length as the array, which is used for merging.
+         */
+        private final transient T[] buffer;
+
+        /**
+         * The index of the first element in the range.
+         */
+        private final int fromIndex;
+
+        /**
+         * The index after the last element in the range.
+         */
+        private final int toIndex;
+
+        /**
+         * The comparator that determines the order.
+         */
+        private final transient Comparator<? super T> comparator;
+
+        /**
+         * The maximum number of elements that is sorted without splitting the range.
+         */
+        private final int chunkSize;
+
+        /**
+         * Construct a sort task for a range of an array.
+         *
+         * @param array      the elements to sort.
+         * @param buffer     buffer with the same length as the array, which is used for merging.
+         * @param fromIndex  the index of the first element in the range.
+         * @param toIndex    the index after the last element in the range.
+         * @param comparator the comparator that determines the order.
+         * @param chunkSize  the maximum number of elements that is sorted without splitting the range.
+         */
+        SortTask(final T[] array, final T[] buffer, final int fromIndex, final int toIndex,
+                 final Comparator<? super T> comparator, final int chunkSize) {
+            this.array = array;
+            this.buffer = buffer;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.comparator = comparator;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= chunkSize) {
+                Arrays.sort(array, fromIndex, toIndex, comparator);
+            } else {
+                final int middleIndex = (fromIndex + toIndex) >>> 1;
+
+                invokeAll(new SortTask<>(array, buffer, fromIndex, middleIndex, comparator, chunkSize),
+                          new SortTask<>(array, buffer, middleIndex, toIndex, comparator, chunkSize));
+
+                // Merging is only needed if the halves overlap (which is often not the case for sorted input).
+                if (comparator.compare(array[middleIndex - 1], array[middleIndex]) > 0) {
+                    merge(middleIndex);
+                }
+            }
+        }
+
+        /**
+         * Merge the two sorted halves of the range.
+         *
+         * @param middleIndex the index of the first element in the second half.
+         */
+        private void merge(final int middleIndex) {
+            System.arraycopy(array, fromIndex, buffer, fromIndex, toIndex - fromIndex);
+
+            int firstIndex = fromIndex;
+            int secondIndex = middleIndex;
+
+            for (int targetIndex = fromIndex; targetIndex < toIndex; targetIndex++) {
+                if (secondIndex >= toIndex
+                    || firstIndex < middleIndex && comparator.compare(buffer[firstIndex], buffer[secondIndex]) <= 0) {
+                    array[targetIndex] = buffer[firstIndex];
+                    firstIndex++;
+                } else {
+                    array[targetIndex] = buffer[secondIndex];
+                    secondIndex++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Lightweight tracer that records how long the phases of a process (like the startup of the application) take. The
+ * times are measured with a monotonic clock and are relative to the creation of the tracer. Phases can be nested:
+ * a phase that is traced while another phase is running in the same thread gets a higher depth.
+ * <p>
+ * The recorded phases can be logged as a summary table and written as a JSON timeline, which can be compared between
+ * releases.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class PhaseTracer {
+    /**
+     * Number of nanoseconds in a millisecond.
+     */
+    private static final double NANOSECONDS_PER_MILLISECOND = 1_000_000.0;
+
+    /**
+     * Number of spaces to indent nested phases with in the summary.
+     */
+    private static final int INDENT_PER_DEPTH = 2;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Monotonic clock that returns the current time in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The time in nanoseconds (according to the clock) when this tracer was created.
+     */
+    private final long originNanos;
+
+    /**
+     * The phases that have ended.
+     */
+    private final List<Phase> phases;
+
+    /**
+     * The number of running phases per thread, which is the depth of a new phase.
+     */
+    private final ThreadLocal<Integer> runningPhaseCount;
+
+    /**
+     * Construct a phase tracer that uses <code>System.nanoTime</code> as its clock.
+     */
+    public PhaseTracer() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Construct a phase tracer that uses a specific clock.
+     *
+     * @param clock the monotonic clock that returns the current time in nanoseconds.
+     */
+    public PhaseTracer(final LongSupplier clock) {
+        this.clock = clock;
+        this.originNanos = clock.getAsLong();
+        this.phases = new ArrayList<>();
+        this.runningPhaseCount = ThreadLocal.withInitial(() -> 0);
+    }
+
+    /**
+     * Run and trace a phase. The phase is also recorded if it throws an exception.
+     *
+     * @param name  the name of the phase.
+     * @param phase the code of the phase.
+     */
+    public void trace(final String name, final Runnable phase) {
+        trace(name, () -> {
+            phase.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run and trace a phase that produces a result. The phase is also recorded if it throws an exception.
+     *
+     * @param name  the name of the phase.
+     * @param phase the code of the phase.
+     * @param <T>   the type of the result.
+     * @return the result of the phase.
+     */
+    public <T> T trace(final String name, final Supplier<T> phase) {
+        final int depth = runningPhaseCount.get();
+        final long startNanos = clock.getAsLong();
+
+        runningPhaseCount.set(depth + 1);
+
+        try {
+            return phase.get();
+        } finally {
+            runningPhaseCount.set(depth);
+
+            final Phase endedPhase = new Phase(name, depth, startNanos - originNanos, clock.getAsLong() - startNanos);
+
+            synchronized (phases) {
+                phases.add(endedPhase);
+            }
+        }
+    }
+
+    /**
+     * Get the phases that have ended, in the order in which they started (a phase comes before its nested phases).
+     *
+     * @return the phases that have ended.
+     */
+    public List<Phase> getPhases() {
+        final List<Phase> sortedPhases;
+
+        synchronized (phases) {
+            sortedPhases = new ArrayList<>(phases);
+        }
+
+        sortedPhases.sort(Comparator.comparingLong(Phase::getStartNanos).thenComparingInt(Phase::getDepth));
+
+        return sortedPhases;
+    }
+
+    /**
+     * Create a summary table with the start time, duration, and name of all phases that have ended.
+     *
+     * @return the summary table.
+     */
+    public String createSummary() {
+        final StringBuilder summary = new StringBuilder(
+            String.format(Locale.ROOT, "%10s %12s  %s", "start ms", "duration ms", "phase")
+        );
+
+        for (final Phase phase : getPhases()) {
+            final String indent = new String(new char[phase.getDepth() * INDENT_PER_DEPTH]).replace('\0', ' ');
+
+            summary.append(String.format(Locale.ROOT, "%n%10.1f %12.1f  %s%s", toMilliseconds(phase.getStartNanos()),
+                                         toMilliseconds(phase.getDurationNanos()), indent, phase.getName()));
+        }
+
+        return summary.toString();
+    }
+
+    /**
+     * Log the summary table.
+     *
+     * @param title the title for the summary (like "Startup timeline").
+     */
+    public void logSummary(final String title) {
+        logger.info("{}:{}{}", title, System.lineSeparator(), createSummary());
+    }
+
+    /**
+     * Write all phases that have ended as a JSON timeline (in UTF-8).
+     *
+     * @param outputStream the output stream to write to (which is not closed).
+     * @throws IOException if an error occurred when writing to the output stream.
+     */
+    public void writeJson(final OutputStream outputStream) throws IOException {
+        final JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("phases");
+
+            for (final Phase phase : getPhases()) {
+                generator.writeStartObject();
+                generator.writeStringField("name", phase.getName());
+                generator.writeNumberField("depth", phase.getDepth());
+                generator.writeNumberField("startMilliseconds", toMilliseconds(phase.getStartNanos()));
+                generator.writeNumberField("durationMilliseconds", toMilliseconds(phase.getDurationNanos()));
+                generator.writeEndObject();
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Convert nanoseconds to milliseconds.
+     *
+     * @param nanos the number of nanoseconds.
+     * @return the number of milliseconds.
+     */
+    private static double toMilliseconds(final long nanos) {
+        return nanos / NANOSECONDS_PER_MILLISECOND;
+    }
+
+    /**
+     * A phase that has ended, with its start time (relative to the creation of the tracer) and duration.
+     */
+    public static class Phase {
+        /**
+         * The name of the phase.
+         */
+        private final String name;
+
+        /**
+         * The depth of the phase: zero for a top-level phase, one for a phase within a top-level phase, etc.
+         */
+        private final int depth;
+
+        /**
+         * The start time in nanoseconds, relative to the creation of the tracer.
+         */
+        private final long startNanos;
+
+        /**
+         * The duration in nanoseconds.
+         */
+        private final long durationNanos;
+
+        /**
+         * Construct a phase that has ended.
+         *
+         * @param name          the name of the phase.
+         * @param depth         the depth of the phase.
+         * @param startNanos    the start time in nanoseconds, relative to the creation of the tracer.
+         * @param durationNanos the duration in nanoseconds.
+         */
+        Phase(final String name, final int depth, final long startNanos, final long durationNanos) {
+            this.name = name;
+            this.depth = depth;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * Get the name of the phase.
+         *
+         * @return the name of the phase.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get the depth of the phase: zero for a top-level phase, one for a phase within a top-level phase, etc.
+         *
+         * @return the depth of the phase.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Get the start time in nanoseconds, relative to the creation of the tracer.
+         *
+         * @return the start time in nanoseconds.
+         */
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        /**
+         * Get the duration in nanoseconds.
+         *
+         * @return the duration in nanoseconds.
+         */
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
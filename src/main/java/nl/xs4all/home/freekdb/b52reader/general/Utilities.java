@@ -6,6 +6,8 @@
 
 package nl.xs4all.home.freekdb.b52reader.general;
 
+import com.google.common.collect.ImmutableSet;
+
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
@@ -13,6 +15,10 @@ import java.net.URL;
 import java.time.Month;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -38,6 +44,38 @@ public class Utilities {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Icons that have been loaded from resource files, by file name.
+     */
+    private static final Map<String, Icon> ICON_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * First character of the accent folding table (the first character after the ASCII range).
+     */
+    private static final char FIRST_FOLDED_CHARACTER = '\u0080';
+
+    /**
+     * Last character of the accent folding table (the last character of the Latin Extended-B block).
+     */
+    private static final char LAST_FOLDED_CHARACTER = '\u024F';
+
+    /**
+     * Value in the accent folding table for characters that need the full normalization.
+     */
+    private static final char NOT_FOLDABLE = '\u0000';
+
+    /**
+     * Normalized (accent stripped and lowercase) versions of the characters from the first up to and including the
+     * last folded character.
+     */
+    private static final char[] ACCENT_FOLDING_TABLE = createAccentFoldingTable();
+
+    /**
+     * Languages for which <code>String.toLowerCase</code> has special rules, so the accent folding table cannot be
+     * used.
+     */
+    private static final Set<String> SPECIAL_LOWERCASE_LANGUAGES = ImmutableSet.of("az", "lt", "tr");
+
     /**
      * Factory for creating embedded web browser components.
      */
@@ -57,26 +95,165 @@ public class Utilities {
      * @return the normalized version of text.
      */
     public static String normalize(final String text) {
-        return text != null ? StringUtils.stripAccents(text).toLowerCase() : null;
+        return normalizeAndCountWords(text).getText();
     }
 
     /**
-     * Estimate the number of words in a specific text.
+     * Normalize a string (strip all accents and convert it to lowercase) and estimate the number of words in it, in a
+     * single pass over the characters. The results are the same as those of {@link #normalize(String)} and
+     * {@link #estimateWordCount(String)}.
+     * <p>
+     * Texts that only contain ASCII characters and characters from the accent folding table (all Latin characters up
+     * to and including the Latin Extended-B block) are normalized without intermediate objects; a text that is already
+     * normalized is returned as is. For other texts and for languages with special lowercase rules, the full Unicode
+     * normalization is used. Both ways give the same results.
+     *
+     * @param text the text to normalize.
+     * @return the normalized version of text and the number of words.
+     */
+    public static NormalizedText normalizeAndCountWords(final String text) {
+        final NormalizedText result;
+
+        if (text == null) {
+            result = new NormalizedText(null, 0);
+        } else {
+            final WordCounter wordCounter = new WordCounter();
+            char[] normalizedCharacters = null;
+            boolean foldable = !SPECIAL_LOWERCASE_LANGUAGES.contains(Locale.getDefault().getLanguage());
+
+            for (int index = 0; index < text.length(); index++) {
+                final char character = text.charAt(index);
+                wordCounter.add(character);
+
+                if (foldable) {
+                    final char normalizedCharacter = foldCharacter(character);
+
+                    if (normalizedCharacter == NOT_FOLDABLE) {
+                        foldable = false;
+                    } else if (normalizedCharacter != character) {
+                        if (normalizedCharacters == null) {
+                            normalizedCharacters = text.toCharArray();
+                        }
+
+                        normalizedCharacters[index] = normalizedCharacter;
+                    }
+                }
+            }
+
+            final String normalizedText;
+
+            if (!foldable) {
+                normalizedText = normalizeFully(text);
+            } else {
+                normalizedText = normalizedCharacters != null ? new String(normalizedCharacters) : text;
+            }
+
+            result = new NormalizedText(normalizedText, wordCounter.getWordCount());
+        }
+
+        return result;
+    }
+
+    /**
+     * Fold a single character: strip its accent and convert it to lowercase.
+     *
+     * @param character the character to fold.
+     * @return the folded character or {@link #NOT_FOLDABLE} if the character is not in the accent folding table.
+     */
+    private static char foldCharacter(final char character) {
+        final char foldedCharacter;
+
+        if (character < FIRST_FOLDED_CHARACTER) {
+            foldedCharacter = character >= 'A' && character <= 'Z' ? (char) (character + ('a' - 'A')) : character;
+        } else if (character <= LAST_FOLDED_CHARACTER) {
+            foldedCharacter = ACCENT_FOLDING_TABLE[character - FIRST_FOLDED_CHARACTER];
+        } else {
+            foldedCharacter = NOT_FOLDABLE;
+        }
+
+        return foldedCharacter;
+    }
+
+    /**
+     * Normalize a string with the full Unicode normalization: strip all accents and convert it to lowercase.
+     *
+     * @param text the text to normalized.
+     * @return the normalized version of text.
+     */
+    private static String normalizeFully(final String text) {
+        return StringUtils.stripAccents(text).toLowerCase();
+    }
+
+    /**
+     * Create the accent folding table with the normalized version of each non-ASCII character up to and including the
+     * Latin Extended-B block. The table is filled using the full normalization, so both ways give the same results.
+     *
+     * @return the accent folding table.
+     */
+    private static char[] createAccentFoldingTable() {
+        final char[] foldingTable = new char[LAST_FOLDED_CHARACTER - FIRST_FOLDED_CHARACTER + 1];
+
+        for (char character = FIRST_FOLDED_CHARACTER; character <= LAST_FOLDED_CHARACTER; character++) {
+            final String normalizedCharacter = StringUtils.stripAccents(String.valueOf(character))
+                    .toLowerCase(Locale.ROOT);
+
+            foldingTable[character - FIRST_FOLDED_CHARACTER] = normalizedCharacter.length() == 1
+                    ? normalizedCharacter.charAt(0)
+                    : NOT_FOLDABLE;
+        }
+
+        return foldingTable;
+    }
+
+    /**
+     * Estimate the number of words in a specific text. The result is the same as splitting the trimmed text on
+     * whitespace, but the words are counted in a single pass without creating strings or arrays.
      *
      * @param text text to estimate the word count for.
      * @return estimation of number of words in a text.
      */
     public static int estimateWordCount(final String text) {
-        return text == null || text.trim().isEmpty() ? 0 : text.trim().split("\\s+").length;
+        final WordCounter wordCounter = new WordCounter();
+
+        if (text != null) {
+            for (int index = 0; index < text.length(); index++) {
+                wordCounter.add(text.charAt(index));
+            }
+        }
+
+        return wordCounter.getWordCount();
+    }
+
+    /**
+     * Determine whether a character is whitespace, using the same definition as the <code>\s</code> regular
+     * expression character class.
+     *
+     * @param character the character to check.
+     * @return whether the character is whitespace.
+     */
+    private static boolean isWhitespace(final char character) {
+        return character == ' ' || character == '\t' || character == '\n' || character == '\u000B'
+               || character == '\f' || character == '\r';
     }
 
     /**
-     * Get an icon from a specific resource file.
+     * Get an icon from a specific resource file. Icons are loaded once and then shared, so this method can also be
+     * called while painting.
      *
      * @param iconFileName file name of icon resource.
      * @return icon from a resource file.
      */
     public static Icon getIconResource(final String iconFileName) {
+        return ICON_CACHE.computeIfAbsent(iconFileName, Utilities::loadIconResource);
+    }
+
+    /**
+     * Load an icon from a specific resource file.
+     *
+     * @param iconFileName file name of icon resource.
+     * @return icon from a resource file or <code>null</code> if the resource could not be found.
+     */
+    private static Icon loadIconResource(final String iconFileName) {
         final URL iconFileUrl = Utilities.class.getClassLoader().getResource(iconFileName);
 
         return (iconFileUrl != null) ? new ImageIcon(iconFileUrl.getFile()) : null;
@@ -136,7 +313,8 @@ public class Utilities {
     }
 
     /**
-     * If there is previous data available for this article, copy the fields that are managed by the B52 reader.
+     * If there is previous data available for this article, copy the fields that are managed by the B52 reader. If
+     * the content of the article has not changed, the derived fields are copied as well.
      *
      * @param article         the new article.
      * @param previousArticle the previous article (or null if not available).
@@ -146,6 +324,30 @@ public class Utilities {
             article.setStarred(previousArticle.isStarred());
             article.setRead(previousArticle.isRead());
             article.setArchived(previousArticle.isArchived());
+            article.copyDerivedFieldsIfUnchanged(previousArticle);
+        }
+    }
+
+    /**
+     * Update the flags of an article that are managed by the B52 reader.
+     *
+     * @param article  the article to update.
+     * @param starred  whether the user has starred the article, or null to keep the current value.
+     * @param read     whether the user has marked the article as read, or null to keep the current value.
+     * @param archived whether the user has archived the article, or null to keep the current value.
+     */
+    public static void updateArticleFlags(final Article article, final Boolean starred, final Boolean read,
+                                          final Boolean archived) {
+        if (starred != null) {
+            article.setStarred(starred);
+        }
+
+        if (read != null) {
+            article.setRead(read);
+        }
+
+        if (archived != null) {
+            article.setArchived(archived);
         }
     }
 
@@ -166,4 +368,69 @@ public class Utilities {
 
         return browserFactory;
     }
+
+    /**
+     * Counter for the words in a text, which gets the characters one by one. The result is the same as splitting the
+     * trimmed text on whitespace: like <code>String.trim</code>, all characters up to and including the space at both
+     * ends are skipped, and only the characters of the <code>\s</code> regular expression character class separate
+     * words.
+     */
+    private static final class WordCounter {
+        /**
+         * Number of words in the trimmed text so far.
+         */
+        private int wordCount;
+
+        /**
+         * Number of words that start with a control character since the last visible character. These words only
+         * count if a visible character follows, since otherwise they are part of the trimmed end of the text.
+         */
+        private int pendingWordCount;
+
+        /**
+         * Whether a visible character (the start of the trimmed text) has been found.
+         */
+        private boolean started;
+
+        /**
+         * Whether the previous character was whitespace.
+         */
+        private boolean previousWhitespace;
+
+        /**
+         * Add the next character of the text.
+         *
+         * @param character the next character.
+         */
+        private void add(final char character) {
+            if (character > ' ') {
+                if (!started) {
+                    started = true;
+                    wordCount = 1;
+                } else {
+                    wordCount += pendingWordCount + (previousWhitespace ? 1 : 0);
+                    pendingWordCount = 0;
+                }
+
+                previousWhitespace = false;
+            } else if (started) {
+                final boolean whitespace = isWhitespace(character);
+
+                if (!whitespace && previousWhitespace) {
+                    pendingWordCount++;
+                }
+
+                previousWhitespace = whitespace;
+            }
+        }
+
+        /**
+         * Get the number of words in the characters that were added.
+         *
+         * @return the number of words.
+         */
+        private int getWordCount() {
+            return wordCount;
+        }
+    }
 }
@@ -6,11 +6,12 @@
 
 package nl.xs4all.home.freekdb.b52reader.gui;
 
-import java.util.Arrays;
+import java.util.List;
 import java.util.function.Predicate;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
-import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+import nl.xs4all.home.freekdb.b52reader.gui.filter.CompiledQuery;
+import nl.xs4all.home.freekdb.b52reader.gui.filter.QueryCompiler;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -19,122 +20,50 @@ import org.apache.logging.log4j.Logger;
  * Filters articles using a query syntax inspired by Gmail. The following options are supported:
  * <ul>
  * <li>"author:Cara" matches (part of) an author's name (case insensitive);</li>
- * <li>"title:Cosmic" matches (part of) a title (case insensitive);</li>
- * <li>"is:starred" matches starred articles, and "is:" also works with unstarred, read, and unread.</li>
+ * <li>"title:Cosmic" matches (part of) a title (case insensitive), and so does a plain word like "Cosmic";</li>
+ * <li>"source:nrc" matches the source id (case insensitive);</li>
+ * <li>"is:starred" matches starred articles, and "is:" also works with unstarred, read, and unread;</li>
+ * <li>"after:2017-06-28" and "before:2017-06-28" match articles published on or after (or before) a date;</li>
+ * <li>"likes&gt;28" and "likes&lt;28" match articles with more (or fewer) likes.</li>
  * </ul>
  * You can also combine them: "author:Cara is:starred is:read" will show articles by Cara that are starred and read.
+ * Terms can be negated ("-is:read") and groups of terms can be combined with OR ("author:Cara OR author:Neil").
+ * <p>
+ * The filter text is compiled (see {@link QueryCompiler}) into a tree of conditions that tests the cheapest checks
+ * first. Compiled queries are cached, so creating a filter for a recently used filter text is cheap. Terms that are
+ * not understood are left out of the filter and are available from {@link #getErrors()}.
  *
  * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
  */
 public class ArticleFilter implements Predicate<Article> {
-    /**
-     * Prefix for filtering on an author's name (case insensitive).
-     */
-    private static final String AUTHOR_PREFIX = "author:";
-
-    /**
-     * Prefix for filtering on a title (case insensitive).
-     */
-    private static final String TITLE_PREFIX = "title:";
-
-    /**
-     * Prefix for filtering on the article's state: starred or unstarred, and read or unread.
-     */
-    private static final String STATE_PREFIX = "is:";
-
-    /**
-     * Keyword to filter for starred articles.
-     */
-    private static final String STARRED_STATE = "starred";
-
-    /**
-     * Keyword to filter for unstarred articles.
-     */
-    private static final String UNSTARRED_STATE = "unstarred";
-
-    /**
-     * Keyword to filter for read articles.
-     */
-    private static final String READ_STATE = "read";
-
-    /**
-     * Keyword to filter for unread articles.
-     */
-    private static final String UNREAD_STATE = "unread";
-
     /**
      * Logger for this class.
      */
     private static final Logger logger = LogManager.getLogger();
 
     /**
-     * The normalized author name (lower case and accents removed) or null (to match all authors).
-     */
-    private String normalizedAuthorName;
-
-    /**
-     * The normalized title (lower case and accents removed) or null (to match all titles).
+     * The compiled filter query.
      */
-    private String normalizedTitle;
-
-    /**
-     * Whether articles should be starred (true), unstarred (false), or both states are good (null).
-     */
-    private Boolean starred;
-
-    /**
-     * Whether articles should be read (true), unread (false), or both states are good (null).
-     */
-    private Boolean read;
+    private final CompiledQuery compiledQuery;
 
     /**
      * Construct and initialize an article filter.
      *
-     * @param filterText the filter text that will be parsed for one or more filter parts.
+     * @param filterText the filter text that will be compiled into a tree of conditions.
      */
     public ArticleFilter(final String filterText) {
-        Arrays.stream(filterText.split(" ")).forEach(filterPart -> {
-            if (isFilterType(AUTHOR_PREFIX, filterPart)) {
-                normalizedAuthorName = Utilities.normalize(filterPart.substring(AUTHOR_PREFIX.length()));
-                logger.debug("Filter on author: {}", normalizedAuthorName);
-            } else if (isFilterType(TITLE_PREFIX, filterPart)) {
-                normalizedTitle = Utilities.normalize(filterPart.substring(TITLE_PREFIX.length()));
-                logger.debug("Filter on title: {}", normalizedTitle);
-            } else if (isFilterType(STATE_PREFIX, filterPart)) {
-                handleStateFilter(filterPart);
-            } else if (!"".equals(filterPart.trim())) {
-                // Incomplete filter parts will be ignored.
-                logger.debug("Filter not understood: {}", filterPart);
-            }
-        });
-    }
+        this.compiledQuery = QueryCompiler.compile(filterText);
 
-    /**
-     * Check whether this filter part matches the specified type of filter.
-     *
-     * @param typePrefix the type prefix that should be matched (like <code>AUTHOR_PREFIX</code>).
-     * @param filterPart the part of the filter that is being matched.
-     * @return whether this filter part matches the specified type of filter.
-     */
-    private boolean isFilterType(final String typePrefix, final String filterPart) {
-        return filterPart.startsWith(typePrefix) && filterPart.length() > typePrefix.length();
+        logger.debug("Filter condition: {}", compiledQuery.getCondition());
     }
 
     /**
-     * Handle filtering related to the state of the article (starred or read).
+     * Get the error messages for the terms of the filter text that could not be parsed.
      *
-     * @param filterPart the part of the filter related to state.
+     * @return the (unmodifiable) list of error messages, which is empty if the whole filter text was understood.
      */
-    private void handleStateFilter(final String filterPart) {
-        final String state = filterPart.substring(STATE_PREFIX.length()).toLowerCase();
-
-        if (STARRED_STATE.equals(state) || UNSTARRED_STATE.equals(state)) {
-            starred = STARRED_STATE.equals(state);
-        } else if (READ_STATE.equals(state) || UNREAD_STATE.equals(state)) {
-            read = READ_STATE.equals(state);
-        }
-
-        logger.debug("Filter on state: {}", state);
+    public List<String> getErrors() {
+        return compiledQuery.getErrors();
     }
 
     /**
@@ -145,41 +74,6 @@ public class ArticleFilter implements Predicate<Article> {
      */
     @Override
     public boolean test(final Article article) {
-        return isAuthorOk(article) && isTitleOk(article) && isStateOk(article);
-    }
-
-    /**
-     * Test whether a specified article matches the author filter.
-     *
-     * @param article the article to match against the author filter.
-     * @return whether the article matches the author filter.
-     */
-    private boolean isAuthorOk(final Article article) {
-        return normalizedAuthorName == null
-                           || article.getAuthor() == null
-                           || article.getAuthor().getNormalizedName().contains(normalizedAuthorName);
-    }
-
-    /**
-     * Test whether a specified article matches the title filter.
-     *
-     * @param article the article to match against the title filter.
-     * @return whether the article matches the title filter.
-     */
-    private boolean isTitleOk(final Article article) {
-        return normalizedTitle == null
-               || article.getTitle() == null
-               || article.getNormalizedTitle().contains(normalizedTitle);
-    }
-
-    /**
-     * Test whether a specified article matches the state filter.
-     *
-     * @param article the article to match against the state filter.
-     * @return whether the article matches the state filter.
-     */
-    private boolean isStateOk(final Article article) {
-        return (starred == null || starred == article.isStarred())
-               && (read == null || read == article.isRead());
+        return compiledQuery.getCondition().test(article);
     }
 }
@@ -11,7 +11,12 @@ import com.google.common.collect.ImmutableMap;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Font;
+import java.awt.Rectangle;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -21,7 +26,7 @@ import javax.swing.table.TableCellRenderer;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.general.Configuration;
 import nl.xs4all.home.freekdb.b52reader.general.Constants;
-import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
 
 /**
  * Custom renderer for the GUI table that shows each article in a row.
@@ -62,6 +67,40 @@ public class ArticleTableCellRenderer extends JPanel implements TableCellRendere
      */
     private static final int READ_COLUMN_WIDTH = 24;
 
+    /**
+     * Largest number of likes for which the text is created in advance.
+     */
+    private static final int MAXIMUM_PRECOMPUTED_LIKES = 999;
+
+    /**
+     * Texts for the number of likes from zero up to and including the maximum precomputed number of likes.
+     */
+    private static final String[] LIKES_TEXTS = IntStream.rangeClosed(0, MAXIMUM_PRECOMPUTED_LIKES)
+            .mapToObj(likes -> "+" + likes)
+            .toArray(String[]::new);
+
+    /**
+     * Maximum number of formatted date/time texts that are cached.
+     */
+    private static final int MAXIMUM_DATE_TIME_TEXT_COUNT = 1024;
+
+    /**
+     * Name of the date/time text cache in the metrics registry.
+     */
+    private static final String DATE_TIME_CACHE_METRIC_NAME = "date-time-text-cache";
+
+    /**
+     * Counter for date/time texts that were found in the cache.
+     */
+    private static final LongAdder DATE_TIME_CACHE_HITS
+        = MetricsRegistry.getGlobal().getCounter(DATE_TIME_CACHE_METRIC_NAME + MetricsRegistry.HITS_SUFFIX);
+
+    /**
+     * Counter for date/time texts that had to be formatted.
+     */
+    private static final LongAdder DATE_TIME_CACHE_MISSES
+        = MetricsRegistry.getGlobal().getCounter(DATE_TIME_CACHE_METRIC_NAME + MetricsRegistry.MISSES_SUFFIX);
+
     /**
      * Default background color for this renderer.
      */
@@ -112,6 +151,11 @@ public class ArticleTableCellRenderer extends JPanel implements TableCellRendere
      */
     private final transient Configuration configuration;
 
+    /**
+     * Cache with formatted date/time texts, which removes the least recently used texts when it becomes too large.
+     */
+    private final transient Map<ZonedDateTime, String> dateTimeTexts;
+
     /**
      * Construct a GUI table cell renderer for articles.
      *
@@ -121,6 +165,7 @@ public class ArticleTableCellRenderer extends JPanel implements TableCellRendere
         super(null);
 
         this.configuration = configuration;
+        this.dateTimeTexts = createDateTimeTextCache();
 
         // Note: layout has currently been done without layout managers.
 
@@ -144,6 +189,22 @@ public class ArticleTableCellRenderer extends JPanel implements TableCellRendere
         positionAndAddBottomComponent();
     }
 
+    /**
+     * Create the least recently used cache for formatted date/time texts.
+     *
+     * @return the cache for formatted date/time texts.
+     */
+    private static Map<ZonedDateTime, String> createDateTimeTextCache() {
+        final float loadFactor = 0.75f;
+
+        return new LinkedHashMap<ZonedDateTime, String>(MAXIMUM_DATE_TIME_TEXT_COUNT, loadFactor, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ZonedDateTime, String> eldestEntry) {
+                return size() > MAXIMUM_DATE_TIME_TEXT_COUNT;
+            }
+        };
+    }
+
     /**
      * Position the top components and add them to the renderer.
      */
@@ -212,25 +273,93 @@ public class ArticleTableCellRenderer extends JPanel implements TableCellRendere
 
         this.setBackground(isSelected ? configuration.getNiceLightBlue() : getBackgroundColor(article.getSourceId()));
 
-        final String iconFileName = "32x32-" + (article.isStarred() ? "Full_Star_Yellow" : "Empty_Star") + ".png";
-        starredLabel.setIcon(Utilities.getIconResource(iconFileName));
+        starredLabel.setIcon(article.isStarred() ? Constants.STARRED_ICON : Constants.UNSTARRED_ICON);
 
         readLabel.setVisible(!article.isRead());
         readLabel.setText(article.isRead() ? "R" : "U");
 
         titleLabel.setText(article.getTitle());
-        likesLabel.setText("+" + article.getLikes());
+        likesLabel.setText(getLikesText(article.getLikes()));
         authorLabel.setText(article.getAuthor() != null ? article.getAuthor().getName() : "");
-
-        dateTimeLabel.setText(article.getDateTime() != null
-                                      ? configuration.getDateTimeFormatLonger().format(article.getDateTime())
-                                      : "");
-
+        dateTimeLabel.setText(getDateTimeText(article.getDateTime()));
         textLabel.setText(article.getText());
 
         return this;
     }
 
+    /**
+     * Get the text for a number of likes. The texts for common numbers of likes are created only once.
+     *
+     * @param likes the number of likes.
+     * @return the text for the number of likes.
+     */
+    private static String getLikesText(final int likes) {
+        return likes >= 0 && likes < LIKES_TEXTS.length ? LIKES_TEXTS[likes] : "+" + likes;
+    }
+
+    /**
+     * Get the formatted text for a date/time. Recently used texts are cached, so repainting the visible rows does not
+     * format the same date/times over and over again.
+     *
+     * @param dateTime the date/time to format (can be <code>null</code>).
+     * @return the formatted text for the date/time, or an empty string if the date/time is <code>null</code>.
+     */
+    private String getDateTimeText(final ZonedDateTime dateTime) {
+        String dateTimeText = "";
+
+        if (dateTime != null) {
+            dateTimeText = dateTimeTexts.get(dateTime);
+
+            if (dateTimeText == null) {
+                DATE_TIME_CACHE_MISSES.increment();
+                dateTimeText = configuration.getDateTimeFormatLonger().format(dateTime);
+                dateTimeTexts.put(dateTime, dateTimeText);
+            } else {
+                DATE_TIME_CACHE_HITS.increment();
+            }
+        }
+
+        return dateTimeText;
+    }
+
+    // The methods below are overridden for performance reasons, like in the DefaultTableCellRenderer class: this
+    // component is only used as a rubber stamp, so it does not need to be revalidated or repainted by itself.
+
+    @Override
+    public void invalidate() {
+        // Not needed for a renderer.
+    }
+
+    @Override
+    public void validate() {
+        // Not needed for a renderer.
+    }
+
+    @Override
+    public void revalidate() {
+        // Not needed for a renderer.
+    }
+
+    @Override
+    public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+        // Not needed for a renderer.
+    }
+
+    @Override
+    public void repaint(final Rectangle rectangle) {
+        // Not needed for a renderer.
+    }
+
+    @Override
+    public void repaint() {
+        // Not needed for a renderer.
+    }
+
+    @Override
+    protected void firePropertyChange(final String propertyName, final Object oldValue, final Object newValue) {
+        // Not needed for a renderer.
+    }
+
     /**
      * Get the background color that is configured for the specified source id.
      *
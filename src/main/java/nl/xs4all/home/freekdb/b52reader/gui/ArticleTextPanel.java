@@ -0,0 +1,125 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Insets;
+
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
+/**
+ * Panel that shows the stored full text of an article, as a lightweight alternative to an embedded browser. This text
+ * view also works offline, since the full text is fetched in the background and stored in the database.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ArticleTextPanel extends JPanel {
+    /**
+     * Margin around the text in pixels.
+     */
+    private static final int TEXT_MARGIN = 12;
+
+    /**
+     * Separator between the parts of the text.
+     */
+    private static final String PART_SEPARATOR = "\n\n";
+
+    /**
+     * Message that is shown when the full text of an article is not stored (yet).
+     */
+    private static final String NOT_FETCHED_MESSAGE = "(The full text of this article has not been fetched yet.)";
+
+    /**
+     * Message that is shown while the full text of an article is being read from the database.
+     */
+    private static final String LOADING_MESSAGE = "(Loading the full text of this article...)";
+
+    /**
+     * Text area with the text of the article.
+     */
+    private final JTextArea articleTextArea;
+
+    /**
+     * Construct an article text panel.
+     */
+    public ArticleTextPanel() {
+        super(new BorderLayout());
+
+        this.articleTextArea = new JTextArea();
+        this.articleTextArea.setEditable(false);
+        this.articleTextArea.setLineWrap(true);
+        this.articleTextArea.setWrapStyleWord(true);
+        this.articleTextArea.setMargin(new Insets(TEXT_MARGIN, TEXT_MARGIN, TEXT_MARGIN, TEXT_MARGIN));
+
+        add(new JScrollPane(articleTextArea), BorderLayout.CENTER);
+    }
+
+    /**
+     * Show the text of an article: the title and URL, followed by the full text if it is available, or else by the
+     * short text from the article source.
+     *
+     * @param article the article to show.
+     * @param content the full text of the article, or null if it is not available.
+     */
+    public void showArticle(final Article article, final String content) {
+        showText(article, content, NOT_FETCHED_MESSAGE);
+    }
+
+    /**
+     * Show an article while its full text is being read in the background: the title and URL, followed by the short
+     * text from the article source.
+     *
+     * @param article the article to show.
+     */
+    public void showLoadingArticle(final Article article) {
+        showText(article, null, LOADING_MESSAGE);
+    }
+
+    /**
+     * Show the text of an article: the title and URL, followed by the full text if it is available, or else by the
+     * short text from the article source and a message.
+     *
+     * @param article        the article to show.
+     * @param content        the full text of the article, or null if it is not available.
+     * @param missingMessage the message that is shown when the full text is not available.
+     */
+    private void showText(final Article article, final String content, final String missingMessage) {
+        final StringBuilder text = new StringBuilder();
+
+        if (article.getTitle() != null) {
+            text.append(article.getTitle()).append('\n');
+        }
+
+        text.append(article.getUrl()).append(PART_SEPARATOR);
+
+        if (content != null) {
+            text.append(content);
+        } else {
+            if (article.getText() != null && !article.getText().isEmpty()) {
+                text.append(article.getText()).append(PART_SEPARATOR);
+            }
+
+            text.append(missingMessage);
+        }
+
+        articleTextArea.setText(text.toString());
+        articleTextArea.setCaretPosition(0);
+    }
+
+    /**
+     * Get the article text that is currently shown.
+     *
+     * @return the article text.
+     */
+    String getArticleText() {
+        return articleTextArea.getText();
+    }
+}
@@ -6,23 +6,58 @@
 
 package nl.xs4all.home.freekdb.b52reader.gui;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 
 /**
  * Table model optimized for displaying articles. This class is used by the GUI table.
+ * <p>
+ * When the articles are changed, the model fires events for the rows that were inserted, deleted, or updated, so the
+ * table can keep its columns, renderers, row sorter, and selection.
  *
  * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
  */
 public class ArticlesTableModel extends AbstractTableModel {
+    /**
+     * Maximum number of row insert and delete events for a change of articles. If more events would be needed, a single
+     * data changed event is fired instead, which is cheaper for the table than handling many separate events.
+     */
+    private static final int MAXIMUM_ROW_EVENT_COUNT = 100;
+
+    /**
+     * Bit in the article state for the starred flag.
+     */
+    private static final int STARRED_STATE = 1;
+
+    /**
+     * Bit in the article state for the read flag.
+     */
+    private static final int READ_STATE = 2;
+
+    /**
+     * Bit in the article state for the archived flag.
+     */
+    private static final int ARCHIVED_STATE = 4;
+
     /**
      * Current articles that will be shown in the GUI table.
      */
     private transient List<Article> articles;
 
+    /**
+     * States (starred, read, and archived flags) of the current articles when they were set. Since articles are
+     * modified in place when these flags are toggled, the states are needed to detect these changes.
+     */
+    private transient int[] articleStates;
+
     /**
      * Construct a table model for showing articles.
      *
@@ -30,17 +65,186 @@ public class ArticlesTableModel extends AbstractTableModel {
      */
     public ArticlesTableModel(final List<Article> articles) {
         this.articles = articles;
+        this.articleStates = getArticleStates(articles);
     }
 
     /**
-     * Change the articles to show in the GUI table.
+     * Change the articles to show in the GUI table. The old and new articles are compared (with the URL as the key)
+     * to fire events for the rows that were inserted, deleted, or updated. Both lists are expected to be in the same
+     * order (like two filtered views of the same list); if they are not, a data changed event is fired.
      *
      * @param articles articles to show in the GUI table.
      */
     public void setArticles(final List<Article> articles) {
+        final List<TableModelEvent> updateEvents = new ArrayList<>();
+        final List<TableModelEvent> rowEvents = calculateRowEvents(articles, updateEvents);
+
+        final boolean fireRowEvents = rowEvents != null && rowEvents.size() <= MAXIMUM_ROW_EVENT_COUNT;
+
+        if (fireRowEvents) {
+            applyRowEvents(articles, rowEvents);
+        }
+
         this.articles = articles;
+        this.articleStates = getArticleStates(articles);
+
+        if (fireRowEvents) {
+            updateEvents.forEach(this::fireTableChanged);
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * Calculate the insert and delete events needed to change the current articles into the new articles, by merging
+     * both lists. The rows of these events are based on the intermediate lists: the events should be fired in order.
+     *
+     * @param newArticles  the new articles.
+     * @param updateEvents list to add the update events to (with rows in the new articles).
+     * @return the insert and delete events or null if the lists have duplicate URLs or a different order.
+     */
+    private List<TableModelEvent> calculateRowEvents(final List<Article> newArticles,
+                                                     final List<TableModelEvent> updateEvents) {
+        final Set<String> previousUrls = getUrls(articles);
+        final Set<String> newUrls = getUrls(newArticles);
+        final List<TableModelEvent> rowEvents = new ArrayList<>();
+
+        boolean sameOrder = previousUrls.size() == articles.size() && newUrls.size() == newArticles.size();
+        int previousIndex = 0;
+        int newIndex = 0;
+
+        // Stop when there are too many events, since a data changed event will be fired anyway.
+        while (sameOrder && rowEvents.size() <= MAXIMUM_ROW_EVENT_COUNT
+               && (previousIndex < articles.size() || newIndex < newArticles.size())) {
+            final Article previousArticle = previousIndex < articles.size() ? articles.get(previousIndex) : null;
+            final Article newArticle = newIndex < newArticles.size() ? newArticles.get(newIndex) : null;
+
+            if (previousArticle != null && newArticle != null
+                && Objects.equals(previousArticle.getUrl(), newArticle.getUrl())) {
+                if (isChanged(previousArticle, articleStates[previousIndex], newArticle)) {
+                    addRowEvent(updateEvents, newIndex, TableModelEvent.UPDATE);
+                }
+
+                previousIndex++;
+                newIndex++;
+            } else if (previousArticle != null && !newUrls.contains(previousArticle.getUrl())) {
+                // All rows before newIndex are final, so the deleted row is at newIndex.
+                addRowEvent(rowEvents, newIndex, TableModelEvent.DELETE);
+                previousIndex++;
+            } else if (newArticle != null && !previousUrls.contains(newArticle.getUrl())) {
+                addRowEvent(rowEvents, newIndex, TableModelEvent.INSERT);
+                newIndex++;
+            } else {
+                sameOrder = false;
+            }
+        }
+
+        return sameOrder ? rowEvents : null;
+    }
+
+    /**
+     * Add an event for a row, or extend the last event if it has the same type and the row is adjacent.
+     *
+     * @param events   the events so far.
+     * @param rowIndex the row index.
+     * @param type     the type of event.
+     */
+    private void addRowEvent(final List<TableModelEvent> events, final int rowIndex, final int type) {
+        final TableModelEvent lastEvent = events.isEmpty() ? null : events.get(events.size() - 1);
 
-        fireTableStructureChanged();
+        // Consecutive deletes all happen at the same row, since the rows below move up.
+        final boolean adjacent = lastEvent != null && lastEvent.getType() == type
+                                 && (type == TableModelEvent.DELETE
+                                     ? lastEvent.getFirstRow() == rowIndex
+                                     : lastEvent.getLastRow() + 1 == rowIndex);
+
+        if (adjacent) {
+            events.set(events.size() - 1, new TableModelEvent(this, lastEvent.getFirstRow(), lastEvent.getLastRow() + 1,
+                                                              TableModelEvent.ALL_COLUMNS, type));
+        } else {
+            events.add(new TableModelEvent(this, rowIndex, rowIndex, TableModelEvent.ALL_COLUMNS, type));
+        }
+    }
+
+    /**
+     * Apply the insert and delete events one by one to a working copy of the articles and fire each event, so the
+     * row count of the model matches each event (which the row sorter of the table checks).
+     *
+     * @param newArticles the new articles.
+     * @param rowEvents   the insert and delete events.
+     */
+    private void applyRowEvents(final List<Article> newArticles, final List<TableModelEvent> rowEvents) {
+        final List<Article> workingArticles = new ArrayList<>(articles);
+        articles = workingArticles;
+
+        for (final TableModelEvent rowEvent : rowEvents) {
+            final int firstRow = rowEvent.getFirstRow();
+            final int endRow = rowEvent.getLastRow() + 1;
+
+            if (rowEvent.getType() == TableModelEvent.INSERT) {
+                workingArticles.addAll(firstRow, newArticles.subList(firstRow, endRow));
+            } else {
+                workingArticles.subList(firstRow, endRow).clear();
+            }
+
+            fireTableChanged(rowEvent);
+        }
+    }
+
+    /**
+     * Determine whether an article with the same URL has changed: either its flags or its content.
+     *
+     * @param previousArticle the previous article.
+     * @param previousState   the state of the previous article when it was set.
+     * @param newArticle      the new article.
+     * @return whether the article has changed.
+     */
+    private static boolean isChanged(final Article previousArticle, final int previousState,
+                                     final Article newArticle) {
+        return previousState != getArticleState(newArticle)
+               || previousArticle != newArticle && previousArticle.getFingerprint() != newArticle.getFingerprint();
+    }
+
+    /**
+     * Get the URLs of the articles.
+     *
+     * @param articles the articles.
+     * @return the URLs of the articles.
+     */
+    private static Set<String> getUrls(final List<Article> articles) {
+        final Set<String> urls = new HashSet<>(articles.size() * 2);
+
+        articles.forEach(article -> urls.add(article.getUrl()));
+
+        return urls;
+    }
+
+    /**
+     * Get the states (starred, read, and archived flags) of the articles.
+     *
+     * @param articles the articles.
+     * @return the states of the articles.
+     */
+    private static int[] getArticleStates(final List<Article> articles) {
+        final int[] states = new int[articles.size()];
+
+        for (int articleIndex = 0; articleIndex < states.length; articleIndex++) {
+            states[articleIndex] = getArticleState(articles.get(articleIndex));
+        }
+
+        return states;
+    }
+
+    /**
+     * Get the state (starred, read, and archived flags) of an article.
+     *
+     * @param article the article.
+     * @return the state of the article.
+     */
+    private static int getArticleState(final Article article) {
+        return (article.isStarred() ? STARRED_STATE : 0)
+               | (article.isRead() ? READ_STATE : 0)
+               | (article.isArchived() ? ARCHIVED_STATE : 0);
     }
 
     @Override
@@ -0,0 +1,168 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Panel that shows the metrics from a metrics registry. While the panel is visible, the metrics are refreshed every
+ * second. The metrics can also be dumped to a JSON file.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class DiagnosticsPanel extends JPanel {
+    /**
+     * Number of milliseconds between refreshes of the metrics.
+     */
+    private static final int REFRESH_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Number of rows of the metrics text area.
+     */
+    private static final int TEXT_ROWS = 20;
+
+    /**
+     * Number of columns of the metrics text area.
+     */
+    private static final int TEXT_COLUMNS = 48;
+
+    /**
+     * Default name of the file to dump the metrics to.
+     */
+    private static final String DEFAULT_DUMP_FILE_NAME = "b52-reader-metrics.json";
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The registry with the metrics to show.
+     */
+    private final transient MetricsRegistry metricsRegistry;
+
+    /**
+     * Text area with the metrics summary.
+     */
+    private final JTextArea metricsTextArea;
+
+    /**
+     * Timer that refreshes the metrics while the panel is visible.
+     */
+    private final Timer refreshTimer;
+
+    /**
+     * Construct a diagnostics panel, which is initially invisible.
+     *
+     * @param metricsRegistry the registry with the metrics to show.
+     */
+    public DiagnosticsPanel(final MetricsRegistry metricsRegistry) {
+        super(new BorderLayout());
+
+        this.metricsRegistry = metricsRegistry;
+
+        this.metricsTextArea = new JTextArea(TEXT_ROWS, TEXT_COLUMNS);
+        this.metricsTextArea.setEditable(false);
+        this.metricsTextArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, metricsTextArea.getFont().getSize()));
+
+        final JButton dumpButton = new JButton("Dump to file...");
+        dumpButton.addActionListener(actionEvent -> chooseFileAndDumpMetrics());
+
+        final JPanel buttonPanel = new JPanel();
+        buttonPanel.add(dumpButton);
+
+        add(new JScrollPane(metricsTextArea), BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        this.refreshTimer = new Timer(REFRESH_INTERVAL_MILLIS, actionEvent -> refreshMetrics());
+
+        setVisible(false);
+    }
+
+    /**
+     * Show or hide the panel. The metrics are only refreshed while the panel is visible.
+     *
+     * @param visible whether the panel should be visible.
+     */
+    @Override
+    public void setVisible(final boolean visible) {
+        super.setVisible(visible);
+
+        if (visible) {
+            refreshMetrics();
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+    }
+
+    /**
+     * Get the metrics text that is currently shown.
+     *
+     * @return the metrics text.
+     */
+    String getMetricsText() {
+        return metricsTextArea.getText();
+    }
+
+    /**
+     * Refresh the metrics text with the current metrics.
+     */
+    void refreshMetrics() {
+        metricsTextArea.setText(metricsRegistry.createSummary());
+    }
+
+    /**
+     * Dump the metrics in JSON format to a file.
+     *
+     * @param file the file to write to.
+     * @return whether the metrics were written successfully.
+     */
+    boolean dumpMetrics(final File file) {
+        boolean result = false;
+
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            metricsRegistry.writeJson(outputStream);
+            result = true;
+
+            logger.info("Wrote the metrics to {}.", file);
+        } catch (final IOException e) {
+            logger.error("Exception while writing the metrics to " + file, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Let the user choose a file and dump the metrics to it.
+     */
+    private void chooseFileAndDumpMetrics() {
+        final JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File(DEFAULT_DUMP_FILE_NAME));
+
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            dumpMetrics(fileChooser.getSelectedFile());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import nl.xs4all.home.freekdb.b52reader.general.LatencyHistogram;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Watchdog for the event dispatch thread (EDT). It replaces the system event queue with a queue that measures how long
+ * each event takes to dispatch and records the dispatch latencies in a histogram. A separate thread checks regularly
+ * whether the current event is taking longer than the threshold; if so, the stack of the EDT is captured and logged
+ * once for that event, which shows what the EDT is stuck on while the user experiences a freeze.
+ * <p>
+ * When an event starts a nested event loop (like a modal dialog), the EDT stays responsive; the outer event is then
+ * not measured any further.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class EdtWatchdog {
+    /**
+     * Value for the dispatch start time when no event is being dispatched.
+     */
+    private static final long IDLE = Long.MIN_VALUE;
+
+    /**
+     * Number of checks per threshold period, which determines how soon after the threshold a stall is detected.
+     */
+    private static final int CHECKS_PER_THRESHOLD = 4;
+
+    /**
+     * Minimum number of milliseconds between checks.
+     */
+    private static final long MINIMUM_CHECK_INTERVAL_MILLIS = 10;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Dispatch time in nanoseconds above which an event is considered a stall.
+     */
+    private final long thresholdNanos;
+
+    /**
+     * Histogram with the dispatch latencies of all measured events.
+     */
+    private final LatencyHistogram histogram;
+
+    /**
+     * Number of events that took longer than the threshold.
+     */
+    private final AtomicLong stallCount;
+
+    /**
+     * Event queue that measures the dispatch times.
+     */
+    private final MonitoringEventQueue eventQueue;
+
+    /**
+     * Start time in nanoseconds of the event that is currently being dispatched, or <code>IDLE</code>.
+     */
+    private volatile long dispatchStartNanos;
+
+    /**
+     * The thread that dispatches the events (the EDT).
+     */
+    private volatile Thread dispatchThread;
+
+    /**
+     * Start time of the last event for which the stack was captured (only used by the checking thread).
+     */
+    private long capturedStartNanos;
+
+    /**
+     * Executor that checks for stalls, or null if the watchdog is not running.
+     */
+    private ScheduledExecutorService checkExecutor;
+
+    /**
+     * Construct an EDT watchdog, which is started with the <code>start</code> method.
+     *
+     * @param thresholdMillis the dispatch time in milliseconds above which an event is considered a stall.
+     */
+    public EdtWatchdog(final long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.histogram = new LatencyHistogram();
+        this.stallCount = new AtomicLong();
+        this.eventQueue = new MonitoringEventQueue();
+        this.dispatchStartNanos = IDLE;
+        this.capturedStartNanos = IDLE;
+    }
+
+    /**
+     * Start measuring the events and checking for stalls.
+     */
+    public void start() {
+        start(Math.max(MINIMUM_CHECK_INTERVAL_MILLIS,
+                       TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / CHECKS_PER_THRESHOLD));
+    }
+
+    /**
+     * Start measuring the events and checking for stalls with a specific interval.
+     *
+     * @param checkIntervalMillis the number of milliseconds between checks.
+     */
+    synchronized void start(final long checkIntervalMillis) {
+        if (checkExecutor == null) {
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(eventQueue);
+
+            checkExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "edt-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            checkExecutor.scheduleWithFixedDelay(this::checkForStall, checkIntervalMillis, checkIntervalMillis,
+                                                 TimeUnit.MILLISECONDS);
+
+            logger.info("Started the EDT watchdog with a threshold of {} ms.",
+                        TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+        }
+    }
+
+    /**
+     * Stop measuring the events and checking for stalls. The histogram keeps the recorded latencies.
+     */
+    public synchronized void stop() {
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+            checkExecutor = null;
+
+            eventQueue.uninstall();
+
+            logger.info("Stopped the EDT watchdog; dispatch latencies: {}", histogram.createSummary());
+        }
+    }
+
+    /**
+     * Get the histogram with the dispatch latencies of all measured events.
+     *
+     * @return the histogram with the dispatch latencies.
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Get the number of events that took longer than the threshold.
+     *
+     * @return the number of events that took longer than the threshold.
+     */
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    /**
+     * Check whether the current event takes longer than the threshold, and if so, log the stack of the EDT (once per
+     * event).
+     *
+     * @return whether a stack was captured.
+     */
+    boolean checkForStall() {
+        final long startNanos = dispatchStartNanos;
+        final Thread thread = dispatchThread;
+        final boolean stalled = startNanos != IDLE && startNanos != capturedStartNanos && thread != null
+                                && System.nanoTime() - startNanos > thresholdNanos;
+
+        if (stalled) {
+            capturedStartNanos = startNanos;
+
+            final StringBuilder stackTrace = new StringBuilder();
+            for (final StackTraceElement element : thread.getStackTrace()) {
+                stackTrace.append(System.lineSeparator()).append("\tat ").append(element);
+            }
+
+            logger.warn("The EDT has been busy for more than {} ms with one event; stack of {}:{}",
+                        TimeUnit.NANOSECONDS.toMillis(thresholdNanos), thread.getName(), stackTrace);
+        }
+
+        return stalled;
+    }
+
+    /**
+     * Record the dispatch time of an event that was not interrupted by a nested event loop.
+     *
+     * @param event         the event.
+     * @param dispatchNanos the dispatch time in nanoseconds.
+     */
+    private void recordDispatch(final AWTEvent event, final long dispatchNanos) {
+        histogram.record(dispatchNanos);
+
+        if (dispatchNanos > thresholdNanos) {
+            stallCount.incrementAndGet();
+
+            logger.warn("Dispatching an event took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(dispatchNanos), event);
+        }
+    }
+
+    /**
+     * Event queue that measures how long each event takes to dispatch.
+     */
+    private class MonitoringEventQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(final AWTEvent event) {
+            final long startNanos = System.nanoTime();
+
+            dispatchThread = Thread.currentThread();
+            dispatchStartNanos = startNanos;
+
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                // A nested event loop resets the start time to idle when its events are done.
+                if (dispatchStartNanos == startNanos) {
+                    recordDispatch(event, System.nanoTime() - startNanos);
+                }
+
+                dispatchStartNanos = IDLE;
+            }
+        }
+
+        /**
+         * Remove this event queue, so the previous event queue handles the events again.
+         */
+        void uninstall() {
+            pop();
+        }
+    }
+}
@@ -7,16 +7,19 @@
 package nl.xs4all.home.freekdb.b52reader.gui;
 
 import java.awt.BorderLayout;
+import java.awt.CardLayout;
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import javax.swing.Icon;
 import javax.swing.JFrame;
@@ -25,8 +28,10 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.JToggleButton;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.WindowConstants;
 import javax.swing.event.DocumentEvent;
@@ -37,6 +42,9 @@ import javax.swing.table.TableModel;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+import nl.xs4all.home.freekdb.b52reader.general.ParallelListProcessor;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 import nl.xs4all.home.freekdb.b52reader.gui.multispan.SpanArticleTableCellRenderer;
 import nl.xs4all.home.freekdb.b52reader.gui.multispan.SpanCellTable;
 import nl.xs4all.home.freekdb.b52reader.gui.multispan.SpanCellTableModel;
@@ -58,6 +66,28 @@ public class MainGui {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Name of the card with the embedded browsers in the view panel.
+     */
+    private static final String BROWSERS_CARD = "browsers";
+
+    /**
+     * Name of the card with the article text in the view panel.
+     */
+    private static final String TEXT_CARD = "text";
+
+    /**
+     * Column names of the span table.
+     */
+    private static final List<String> SPAN_COLUMN_NAMES
+        = Arrays.asList("fetched", "starred", "read", "title", "author", "date/time");
+
+    /**
+     * Column classes of the span table.
+     */
+    private static final List<Class<?>> SPAN_COLUMN_CLASSES
+        = Arrays.asList(String.class, Icon.class, String.class, String.class, Author.class, String.class);
+
     /**
      * Handler for the callback functions of the main program.
      */
@@ -73,6 +103,17 @@ public class MainGui {
      */
     private List<Article> filteredArticles;
 
+    /**
+     * Map of URLs to indices in <code>filteredArticles</code>, which is maintained together with the filtered articles
+     * to find the row of an article without searching the list.
+     */
+    private Map<String, Integer> filteredArticleIndices;
+
+    /**
+     * Whether the articles in the table model are being updated.
+     */
+    private boolean updatingArticles;
+
     /**
      * Selected article (from the article table).
      */
@@ -104,6 +145,11 @@ public class MainGui {
      */
     private JTextField filterTextField;
 
+    /**
+     * Default text color of the filter field, which is used when the filter text has no errors.
+     */
+    private Color filterTextColor;
+
     /**
      * Table showing all (filtered) articles.
      */
@@ -119,11 +165,36 @@ public class MainGui {
      */
     private ManyBrowsersPanel manyBrowsersPanel;
 
+    /**
+     * Panel with the metrics of the application, which can be shown and hidden with the diagnostics button.
+     */
+    private DiagnosticsPanel diagnosticsPanel;
+
+    /**
+     * Panel with the stored full text of the selected article (the text view).
+     */
+    private ArticleTextPanel articleTextPanel;
+
+    /**
+     * Panel with a card layout that shows either the embedded browsers or the article text.
+     */
+    private JPanel viewPanel;
+
+    /**
+     * Whether the text view (instead of the browser view) is shown.
+     */
+    private boolean textView;
+
     /**
      * Configuration object with data from the configuration file.
      */
     private Configuration configuration;
 
+    /**
+     * List processor for filtering the articles (in parallel for large numbers of articles).
+     */
+    private ParallelListProcessor listProcessor;
+
     /**
      * Construct the main GUI object: set the main callbacks handler.
      *
@@ -159,6 +230,7 @@ public class MainGui {
         this.frame.setVisible(true);
 
         this.configuration = configuration;
+        this.listProcessor = new ParallelListProcessor(configuration.getParallelThreshold());
     }
 
     /**
@@ -177,12 +249,14 @@ public class MainGui {
      */
     public void initializeGui(final List<Article> articles) {
         this.currentArticles = articles;
-        this.filteredArticles = articles;
+        setFilteredArticles(articles);
 
         // Start a background timer to initialize and load some browsers in the background.
         backgroundBrowserCount = 0;
         backgroundArticleIndex = 1;
 
+        manyBrowsersPanel.addBrowserLoadedListener(this::handleBrowserLoaded);
+
         final Timer backgroundTasksTimer
             = new Timer(configuration.getBackgroundTimerDelay(), actionEvent -> handleBackgroundTasks());
 
@@ -196,11 +270,41 @@ public class MainGui {
         SwingUtilities.invokeLater(this::finishGuiInitialization);
     }
 
+    /**
+     * Update the flags of a current article (for example after the flags were changed through the article API) and
+     * show the new flags. Make sure to call this method from the EDT (event dispatch thread).
+     *
+     * @param url      URL of the article.
+     * @param starred  whether the user has starred the article, or null to keep the current value.
+     * @param read     whether the user has marked the article as read, or null to keep the current value.
+     * @param archived whether the user has archived the article, or null to keep the current value.
+     */
+    public void updateArticleFlags(final String url, final Boolean starred, final Boolean read,
+                                   final Boolean archived) {
+        final Article article = currentArticles != null
+            ? currentArticles.stream().filter(currentArticle -> currentArticle.getUrl().equals(url))
+                .findFirst().orElse(null)
+            : null;
+
+        if (article != null) {
+            Utilities.updateArticleFlags(article, starred, read, archived);
+
+            // The flags can change whether the article matches the filter, like they do when clicking in the table.
+            if (table != null) {
+                filterAndShowArticles();
+            }
+        }
+    }
+
     /**
      * Finish the initialization of the GUI. Make sure to call this method from the EDT (event dispatch thread), since
      * some of the  actions need to be performed from the EDT (like showing the first browser when creating the table).
      */
     private void finishGuiInitialization() {
+        diagnosticsPanel = new DiagnosticsPanel(MetricsRegistry.getGlobal());
+        articleTextPanel = new ArticleTextPanel();
+        textView = configuration.isTextView();
+
         final JPanel northPanel = new JPanel(new BorderLayout());
         northPanel.add(createFilterPanel(), BorderLayout.NORTH);
 
@@ -213,7 +317,13 @@ public class MainGui {
         northPanel.add(scrollPane, BorderLayout.CENTER);
 
         frame.getContentPane().add(northPanel, BorderLayout.NORTH);
-        frame.getContentPane().add(manyBrowsersPanel, BorderLayout.CENTER);
+        viewPanel = new JPanel(new CardLayout());
+        viewPanel.add(manyBrowsersPanel, BROWSERS_CARD);
+        viewPanel.add(articleTextPanel, TEXT_CARD);
+        ((CardLayout) viewPanel.getLayout()).show(viewPanel, textView ? TEXT_CARD : BROWSERS_CARD);
+
+        frame.getContentPane().add(viewPanel, BorderLayout.CENTER);
+        frame.getContentPane().add(diagnosticsPanel, BorderLayout.EAST);
 
         frame.addWindowListener(new WindowAdapter() {
             @Override
@@ -226,7 +336,8 @@ public class MainGui {
     }
 
     /**
-     * Create the panel with the filter field (for filtering articles).
+     * Create the panel with the filter field (for filtering articles), the button to switch between the browser view
+     * and the text view, and the button to show or hide the diagnostics.
      *
      * @return the panel with the filter field.
      */
@@ -236,6 +347,7 @@ public class MainGui {
 
         final int filterWidthInColumns = 64;
         filterTextField = new JTextField("", filterWidthInColumns);
+        filterTextColor = filterTextField.getForeground();
 
         filterTextField.getDocument().addDocumentListener(new DocumentListener() {
             @Override
@@ -256,26 +368,80 @@ public class MainGui {
 
         filterPanel.add(filterTextField);
 
+        final JToggleButton diagnosticsButton = new JToggleButton("Diagnostics");
+        diagnosticsButton.addActionListener(actionEvent -> {
+            diagnosticsPanel.setVisible(diagnosticsButton.isSelected());
+            frame.getContentPane().revalidate();
+        });
+
+        filterPanel.add(diagnosticsButton);
+
+        final JToggleButton textViewButton = new JToggleButton("Text view", textView);
+        textViewButton.addActionListener(actionEvent -> setTextView(textViewButton.isSelected()));
+
+        filterPanel.add(textViewButton);
+
         return filterPanel;
     }
 
+    /**
+     * Switch between the browser view and the text view, and show the selected article in the new view.
+     *
+     * @param textView whether the text view should be shown.
+     */
+    private void setTextView(final boolean textView) {
+        this.textView = textView;
+
+        ((CardLayout) viewPanel.getLayout()).show(viewPanel, textView ? TEXT_CARD : BROWSERS_CARD);
+
+        final int selectedArticleIndex = getFilteredArticleIndex(selectedArticle);
+        if (selectedArticleIndex != -1) {
+            selectArticle(selectedArticle, selectedArticleIndex);
+        }
+    }
+
+    /**
+     * Show the errors in the filter text: terms that are not understood turn the filter text red and are listed in the
+     * tool tip of the filter field. The articles are still filtered with the other terms, since terms are often
+     * incomplete while they are being typed.
+     *
+     * @param errors the error messages for the terms of the filter text that could not be parsed.
+     */
+    private void showFilterErrors(final List<String> errors) {
+        filterTextField.setForeground(errors.isEmpty() ? filterTextColor : Color.RED);
+        filterTextField.setToolTipText(errors.isEmpty() ? null : String.join("; ", errors));
+    }
+
     /**
      * Filter the articles and update the GUI.
      */
     private void filterAndShowArticles() {
         final Article previouslySelectedArticle = selectedArticle;
 
-        filteredArticles = currentArticles.stream()
-            .filter(new ArticleFilter(filterTextField.getText()))
-            .filter(article -> !article.isArchived())
-            .collect(Collectors.toList());
+        final long startNanos = System.nanoTime();
+        final ArticleFilter articleFilter = new ArticleFilter(filterTextField.getText());
+        showFilterErrors(articleFilter.getErrors());
+
+        setFilteredArticles(listProcessor.filter(currentArticles,
+                                                 articleFilter.and(article -> !article.isArchived())));
+
+        MetricsRegistry.getGlobal().recordLatencySince("filter", startNanos);
 
         if (configuration.useSpanTable()) {
-            tableModel = createSpanTableModel(filteredArticles);
-            table.setModel(tableModel);
-            setTableColumnWidths(table);
+            // The columns are unchanged, so the span table model only fires a data changed event.
+            setSpanTableData((SpanCellTableModel) tableModel, filteredArticles);
         } else {
-            ((ArticlesTableModel) tableModel).setArticles(filteredArticles);
+            // The table model fires row events with rows that refer to intermediate lists, so selection changes are
+            // ignored until the model is up to date. The selection is restored below.
+            updatingArticles = true;
+
+            try {
+                ((ArticlesTableModel) tableModel).setArticles(filteredArticles);
+            } finally {
+                updatingArticles = false;
+            }
+
+            table.clearSelection();
         }
 
         updateFrameTitle(filteredArticles.isEmpty() ? -1 : 0);
@@ -283,9 +449,10 @@ public class MainGui {
         if (!filteredArticles.isEmpty()) {
             boolean selectFirstArticle = true;
 
-            final int previousIndex = filteredArticles.indexOf(previouslySelectedArticle);
+            final int previousIndex = getFilteredArticleIndex(previouslySelectedArticle);
             if (previousIndex != -1) {
-                table.getSelectionModel().setSelectionInterval(previousIndex, previousIndex);
+                final int previousRow = table.convertRowIndexToView(previousIndex * getRowsPerArticle());
+                table.getSelectionModel().setSelectionInterval(previousRow, previousRow);
                 selectFirstArticle = false;
             }
 
@@ -295,6 +462,35 @@ public class MainGui {
         }
     }
 
+    /**
+     * Set the filtered articles and update the map of URLs to indices in the filtered articles.
+     *
+     * @param articles the filtered articles.
+     */
+    private void setFilteredArticles(final List<Article> articles) {
+        final Map<String, Integer> articleIndices = new HashMap<>(articles.size() * 2);
+
+        for (int articleIndex = 0; articleIndex < articles.size(); articleIndex++) {
+            // Keep the first index for duplicate URLs, like a search from the start of the list would.
+            articleIndices.putIfAbsent(articles.get(articleIndex).getUrl(), articleIndex);
+        }
+
+        filteredArticles = articles;
+        filteredArticleIndices = articleIndices;
+    }
+
+    /**
+     * Get the index of an article in the filtered articles.
+     *
+     * @param article the article to look for (can be null).
+     * @return the index of the article in the filtered articles or -1 if it is not there.
+     */
+    int getFilteredArticleIndex(final Article article) {
+        final Integer articleIndex = article != null ? filteredArticleIndices.get(article.getUrl()) : null;
+
+        return articleIndex != null ? articleIndex : -1;
+    }
+
     /**
      * Update frame title to show application name, version, selected article (one based), and filtered article count.
      *
@@ -339,7 +535,7 @@ public class MainGui {
         customRendererTable.getSelectionModel().addListSelectionListener(listSelectionEvent -> {
             final int selectedArticleIndex = getSelectedArticleIndex();
 
-            if (selectedArticleIndex >= 0 && !listSelectionEvent.getValueIsAdjusting()) {
+            if (selectedArticleIndex >= 0 && !listSelectionEvent.getValueIsAdjusting() && !updatingArticles) {
                 final Article article = filteredArticles.get(selectedArticleIndex);
                 selectArticle(article, selectedArticleIndex);
             }
@@ -408,25 +604,24 @@ public class MainGui {
      * @return the GUI span table model.
      */
     private TableModel createSpanTableModel(final List<Article> articles) {
-        final List<String> columnNames = Arrays.asList("fetched", "starred", "read", "title", "author", "date/time");
-
-        final List<Class<?>> columnClasses = Arrays.asList(
-            String.class, Icon.class, String.class, String.class, Author.class, String.class
-        );
+        final SpanCellTableModel spanTableModel = new SpanCellTableModel(articles, SPAN_COLUMN_NAMES.size(),
+                                                                         configuration);
 
-        final int[] columnIndices2 = {3, 4, 5};
+        setSpanTableData(spanTableModel, articles);
 
-        // todo: Base the ArticleSpanTableModel/SpanCellTableModel on AbstractTableModel (like the ArticlesTableModel)?
-        final SpanCellTableModel spanTableModel = new SpanCellTableModel(articles, columnNames.size(), configuration);
+        return spanTableModel;
+    }
 
+    /**
+     * Set the columns and the (filtered) articles of the span table model.
+     *
+     * @param spanTableModel the span table model.
+     * @param articles       the (filtered) articles to put in the table model.
+     */
+    private void setSpanTableData(final SpanCellTableModel spanTableModel, final List<Article> articles) {
         final Predicate<Article> isFetched = article -> manyBrowsersPanel.hasBrowserForUrl(article.getUrl());
-        spanTableModel.setColumnsAndData(columnNames, columnClasses, articles, isFetched);
 
-        for (int rowIndex = 1; rowIndex < 2 * articles.size(); rowIndex += 2) {
-            spanTableModel.getTableSpans().combine(new int[]{rowIndex}, columnIndices2);
-        }
-
-        return spanTableModel;
+        spanTableModel.setColumnsAndData(SPAN_COLUMN_NAMES, SPAN_COLUMN_CLASSES, articles, isFetched);
     }
 
     /**
@@ -479,13 +674,23 @@ public class MainGui {
     private int getSelectedArticleIndex() {
         int selectedArticleIndex = -1;
 
-        if (table.getSelectedRow() != -1) {
-            selectedArticleIndex = table.getSelectedRow() / (tableModel instanceof SpanCellTableModel ? 2 : 1);
+        final int selectedRow = table.getSelectedRow();
+        if (selectedRow != -1) {
+            selectedArticleIndex = table.convertRowIndexToModel(selectedRow) / getRowsPerArticle();
         }
 
         return selectedArticleIndex;
     }
 
+    /**
+     * Get the number of table rows that are used for each article: two for span cell tables and one otherwise.
+     *
+     * @return the number of table rows that are used for each article.
+     */
+    private int getRowsPerArticle() {
+        return tableModel instanceof SpanCellTableModel ? 2 : 1;
+    }
+
     /**
      * Get the column index corresponding to a mouse click event.
      *
@@ -505,7 +710,8 @@ public class MainGui {
     }
 
     /**
-     * Select a specific article and show the embedded browser with that article.
+     * Select a specific article and show the embedded browser with that article (or the text of the article in the
+     * text view).
      *
      * @param article      the article to select.
      * @param articleIndex the index of the article (to show in the window title).
@@ -515,17 +721,56 @@ public class MainGui {
 
         selectedArticle = article;
 
-        manyBrowsersPanel.showBrowser(selectedArticle.getUrl(), true);
+        if (textView) {
+            showArticleText(selectedArticle);
+        } else {
+            manyBrowsersPanel.showBrowser(selectedArticle.getUrl(), true);
+        }
+    }
+
+    /**
+     * Show the text of an article in the text view. The full text is read from the database (and decompressed) in the
+     * background, so the event dispatch thread is not blocked; it is shown if the article is still selected then.
+     *
+     * @param article the article to show.
+     */
+    private void showArticleText(final Article article) {
+        articleTextPanel.showLoadingArticle(article);
+
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return mainCallbacks.getArticleContent(article);
+            }
+
+            @Override
+            protected void done() {
+                if (textView && article == selectedArticle) {
+                    try {
+                        articleTextPanel.showArticle(article, get());
+                    } catch (final InterruptedException e) {
+                        logger.error("Interrupted while reading the content of article " + article.getUrl(), e);
+
+                        Thread.currentThread().interrupt();
+                    } catch (final ExecutionException e) {
+                        logger.error("Exception while reading the content of article " + article.getUrl(), e);
+
+                        articleTextPanel.showArticle(article, null);
+                    }
+                }
+            }
+        }.execute();
     }
 
     /**
      * Handle background tasks: create an embedded browser (if we do not have created the maximum number of browsers
-     * yet).
+     * yet). The fetched column is updated when the browser has loaded its page (see handleBrowserLoaded). No browsers
+     * are created in the text view, which keeps that view lightweight.
      */
     private void handleBackgroundTasks() {
         logger.debug("Handle background tasks.");
 
-        if (backgroundBrowserCount < configuration.getBackgroundBrowserMaxCount()
+        if (!textView && backgroundBrowserCount < configuration.getBackgroundBrowserMaxCount()
             && backgroundArticleIndex < currentArticles.size()) {
 
             final String url = currentArticles.get(backgroundArticleIndex).getUrl();
@@ -538,29 +783,18 @@ public class MainGui {
 
             backgroundArticleIndex++;
         }
-
-        if (configuration.useSpanTable()) {
-            logger.debug("Check fetched status for {} rows.", tableModel.getRowCount() / 2);
-
-            for (int rowIndex = 0; rowIndex < tableModel.getRowCount() / 2; rowIndex++) {
-                if (fetchedShouldBeSet(rowIndex)) {
-                    logger.debug("Set column 0 for row {} to fetched.", rowIndex);
-                    tableModel.setValueAt(configuration.getFetchedValue(), rowIndex * 2, 0);
-                }
-            }
-        }
     }
 
     /**
-     * Check whether the fetched value should be set for this row: there is a browser for the URL and the fetched cell
-     * is empty.
+     * Handle a browser that has loaded its page: let the span table model know that the fetched cell of the article
+     * with this URL may have changed.
      *
-     * @param rowIndex the row index for which to check.
-     * @return whether the fetched value should be set
+     * @param url the URL of the page that was loaded.
      */
-    private boolean fetchedShouldBeSet(final int rowIndex) {
-        return manyBrowsersPanel.hasBrowserForUrl(currentArticles.get(rowIndex).getUrl())
-               && Objects.equals(tableModel.getValueAt(rowIndex * 2, 0), "");
+    private void handleBrowserLoaded(final String url) {
+        if (tableModel instanceof SpanCellTableModel) {
+            ((SpanCellTableModel) tableModel).fireFetchedChanged(url);
+        }
     }
 
     /**
@@ -13,10 +13,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import javax.swing.JPanel;
 
 import nl.xs4all.home.freekdb.b52reader.browsers.BrowserFactory;
+import nl.xs4all.home.freekdb.b52reader.general.FlightRecorderEvent;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.apache.logging.log4j.LogManager;
@@ -36,6 +41,11 @@ public class ManyBrowsersPanel extends JPanel {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Gauge with the number of live embedded browsers.
+     */
+    private static final AtomicLong LIVE_BROWSERS = MetricsRegistry.getGlobal().getGauge("browsers.live");
+
     /**
      * The browser factory for creating embedded browsers.
      */
@@ -56,6 +66,11 @@ public class ManyBrowsersPanel extends JPanel {
      */
     private List<JWebBrowser> webBrowsers;
 
+    /**
+     * Listeners that are notified with the URL when a browser has loaded its page.
+     */
+    private final List<Consumer<String>> browserLoadedListeners;
+
     /**
      * Construct a {@link ManyBrowsersPanel} object, which can handle multiple browsers and show one of them.
      *
@@ -68,6 +83,16 @@ public class ManyBrowsersPanel extends JPanel {
         this.browserPanels = new ArrayList<>();
         this.urlToBrowserPanels = new HashMap<>();
         this.webBrowsers = new ArrayList<>();
+        this.browserLoadedListeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Add a listener that is notified with the URL when a browser has loaded its page.
+     *
+     * @param browserLoadedListener the listener to add.
+     */
+    void addBrowserLoadedListener(final Consumer<String> browserLoadedListener) {
+        browserLoadedListeners.add(browserLoadedListener);
     }
 
     /**
@@ -101,6 +126,7 @@ public class ManyBrowsersPanel extends JPanel {
 
             final JWebBrowser webBrowser = createWebBrowser(url);
             webBrowsers.add(webBrowser);
+            LIVE_BROWSERS.set(webBrowsers.size());
 
             final JPanel browserPanel = new JPanel(new BorderLayout());
             browserPanel.add(webBrowser, BorderLayout.CENTER);
@@ -124,12 +150,16 @@ public class ManyBrowsersPanel extends JPanel {
      */
     void disposeAllBrowsers() {
         final long start = System.currentTimeMillis();
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.BROWSER_DISPOSE);
 
         webBrowsers.forEach(NSPanelComponent::disposeNativePeer);
 
         final int browserCount = webBrowsers.size();
 
+        event.rowCount(browserCount).commit();
+
         webBrowsers.clear();
+        LIVE_BROWSERS.set(0);
         urlToBrowserPanels.clear();
         browserPanels.clear();
 
@@ -147,7 +177,11 @@ public class ManyBrowsersPanel extends JPanel {
      * @return the embedded web browser.
      */
     private JWebBrowser createWebBrowser(final String url) {
-        final JWebBrowser webBrowser = (JWebBrowser) browserFactory.createBrowser(browser -> logPageLoaded(url));
+        final FlightRecorderEvent event = FlightRecorderEvent.begin(FlightRecorderEvent.Type.BROWSER_CREATE);
+
+        final JWebBrowser webBrowser = (JWebBrowser) browserFactory.createBrowser(browser -> handlePageLoaded(url));
+
+        event.url(url).rowCount(1).commit();
 
         webBrowser.navigate(url);
 
@@ -155,12 +189,14 @@ public class ManyBrowsersPanel extends JPanel {
     }
 
     /**
-     * Log when the page is loaded.
+     * Log when the page is loaded and notify the browser loaded listeners.
      *
      * @param url the URL to go to.
      */
-    private void logPageLoaded(final String url) {
+    private void handlePageLoaded(final String url) {
         logger.trace("[{}] Page loaded.", url.substring(url.lastIndexOf('/') + 1));
+
+        browserLoadedListeners.forEach(listener -> listener.accept(url));
     }
 
     /**
@@ -0,0 +1,68 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of compiling a filter query: the tree of filter conditions and the errors for the terms that could not be
+ * parsed. The condition only contains the valid terms, so callers can decide whether to filter anyway (like the GUI,
+ * while the query is being typed) or to reject the query. Compiled queries are immutable.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public final class CompiledQuery {
+    /**
+     * The tree of filter conditions for the valid terms.
+     */
+    private final FilterCondition condition;
+
+    /**
+     * The error messages for the terms that could not be parsed.
+     */
+    private final List<String> errors;
+
+    /**
+     * Construct a compiled query.
+     *
+     * @param condition the tree of filter conditions for the valid terms.
+     * @param errors    the error messages for the terms that could not be parsed.
+     */
+    CompiledQuery(final FilterCondition condition, final List<String> errors) {
+        this.condition = condition;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    /**
+     * Get the tree of filter conditions for the valid terms.
+     *
+     * @return the tree of filter conditions.
+     */
+    public FilterCondition getCondition() {
+        return condition;
+    }
+
+    /**
+     * Get the error messages for the terms that could not be parsed.
+     *
+     * @return the (unmodifiable) list of error messages, which is empty if the whole query was understood.
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Check whether some terms of the query could not be parsed.
+     *
+     * @return whether the query has errors.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
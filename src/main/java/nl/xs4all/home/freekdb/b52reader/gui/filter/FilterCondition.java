@@ -0,0 +1,32 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
+/**
+ * Condition in a compiled filter query, which can be tested against articles. Conditions are immutable, so they can
+ * be cached and shared between threads.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public interface FilterCondition {
+    /**
+     * Test whether an article matches this condition.
+     *
+     * @param article the article to test.
+     * @return whether the article matches this condition.
+     */
+    boolean test(Article article);
+
+    /**
+     * Get the estimated cost of testing this condition, which is used to test cheap conditions first.
+     *
+     * @return the estimated cost of testing this condition.
+     */
+    int getCost();
+}
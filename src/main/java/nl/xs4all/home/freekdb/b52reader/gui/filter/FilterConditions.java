@@ -0,0 +1,639 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
+/**
+ * Factory methods for filter conditions. The <code>and</code> and <code>or</code> methods optimize the condition tree:
+ * nested conditions of the same kind are flattened and the child conditions are ordered by their estimated cost, so
+ * cheap checks (like the flag bits) run before expensive checks (like substring matches) and can short-circuit them.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public final class FilterConditions {
+    /**
+     * Estimated cost of checking a flag (starred or read).
+     */
+    private static final int FLAG_COST = 1;
+
+    /**
+     * Estimated cost of comparing the number of likes.
+     */
+    private static final int LIKES_COST = 2;
+
+    /**
+     * Estimated cost of comparing the date/time of publication.
+     */
+    private static final int DATE_COST = 3;
+
+    /**
+     * Estimated cost of comparing the (short) source id.
+     */
+    private static final int SOURCE_COST = 4;
+
+    /**
+     * Estimated cost of searching in the normalized author name.
+     */
+    private static final int AUTHOR_COST = 8;
+
+    /**
+     * Estimated cost of searching in the normalized title.
+     */
+    private static final int TITLE_COST = 10;
+
+    /**
+     * Condition that matches all articles.
+     */
+    private static final FilterCondition ALWAYS = new AlwaysCondition();
+
+    /**
+     * Private constructor to hide the implicit public one, since this class only has static methods.
+     */
+    private FilterConditions() {
+    }
+
+    /**
+     * Get the condition that matches all articles.
+     *
+     * @return the condition that matches all articles.
+     */
+    public static FilterCondition always() {
+        return ALWAYS;
+    }
+
+    /**
+     * Create a condition that matches starred (or unstarred) articles.
+     *
+     * @param starred whether the articles should be starred.
+     * @return the condition.
+     */
+    public static FilterCondition starred(final boolean starred) {
+        return new FlagCondition(false, starred);
+    }
+
+    /**
+     * Create a condition that matches read (or unread) articles.
+     *
+     * @param read whether the articles should be read.
+     * @return the condition.
+     */
+    public static FilterCondition read(final boolean read) {
+        return new FlagCondition(true, read);
+    }
+
+    /**
+     * Create a condition that matches articles with more (or fewer) likes than the specified number.
+     *
+     * @param likes       the number of likes to compare with.
+     * @param greaterThan whether the number of likes should be greater (true) or less (false).
+     * @return the condition.
+     */
+    public static FilterCondition likes(final int likes, final boolean greaterThan) {
+        return new LikesCondition(likes, greaterThan);
+    }
+
+    /**
+     * Create a condition that matches articles published at or after (or before) the specified moment. Articles
+     * without a date/time do not match.
+     *
+     * @param epochSecond the moment to compare with (as epoch seconds).
+     * @param after       whether articles should be published at or after (true) or before (false) the moment.
+     * @return the condition.
+     */
+    public static FilterCondition published(final long epochSecond, final boolean after) {
+        return new DateCondition(epochSecond, after);
+    }
+
+    /**
+     * Create a condition that matches articles from a source (case insensitive).
+     *
+     * @param sourceId the source id.
+     * @return the condition.
+     */
+    public static FilterCondition source(final String sourceId) {
+        return new SourceCondition(sourceId);
+    }
+
+    /**
+     * Create a condition that matches (part of) the normalized author name. Articles without an author match as well.
+     *
+     * @param normalizedName the normalized (part of the) author name.
+     * @return the condition.
+     */
+    public static FilterCondition author(final String normalizedName) {
+        return new AuthorCondition(normalizedName);
+    }
+
+    /**
+     * Create a condition that matches (part of) the normalized title. Articles without a title match as well.
+     *
+     * @param normalizedTitle the normalized (part of the) title.
+     * @return the condition.
+     */
+    public static FilterCondition title(final String normalizedTitle) {
+        return new TitleCondition(normalizedTitle);
+    }
+
+    /**
+     * Create a condition that matches the articles that do not match the specified condition.
+     *
+     * @param condition the condition to negate.
+     * @return the negated condition.
+     */
+    public static FilterCondition not(final FilterCondition condition) {
+        return condition instanceof NotCondition ? ((NotCondition) condition).condition : new NotCondition(condition);
+    }
+
+    /**
+     * Create a condition that matches the articles that match all specified conditions, with the cheapest conditions
+     * tested first.
+     *
+     * @param conditions the conditions that should all match.
+     * @return the combined condition.
+     */
+    public static FilterCondition and(final List<FilterCondition> conditions) {
+        final List<FilterCondition> children = new ArrayList<>();
+
+        for (final FilterCondition condition : conditions) {
+            if (condition instanceof AndCondition) {
+                children.addAll(Arrays.asList(((AndCondition) condition).children));
+            } else if (condition != ALWAYS) {
+                children.add(condition);
+            }
+        }
+
+        return combine(children, true);
+    }
+
+    /**
+     * Create a condition that matches the articles that match at least one of the specified conditions, with the
+     * cheapest conditions tested first.
+     *
+     * @param conditions the conditions of which at least one should match.
+     * @return the combined condition.
+     */
+    public static FilterCondition or(final List<FilterCondition> conditions) {
+        final List<FilterCondition> children = new ArrayList<>();
+        boolean alwaysMatches = conditions.isEmpty();
+
+        for (final FilterCondition condition : conditions) {
+            if (condition instanceof OrCondition) {
+                children.addAll(Arrays.asList(((OrCondition) condition).children));
+            } else if (condition == ALWAYS) {
+                alwaysMatches = true;
+            } else {
+                children.add(condition);
+            }
+        }
+
+        return alwaysMatches ? ALWAYS : combine(children, false);
+    }
+
+    /**
+     * Combine child conditions, ordered by their estimated cost (the sort is stable, so the query order is kept for
+     * conditions with the same cost).
+     *
+     * @param children the child conditions.
+     * @param and      whether all (true) or at least one (false) of the children should match.
+     * @return the combined condition.
+     */
+    private static FilterCondition combine(final List<FilterCondition> children, final boolean and) {
+        final FilterCondition result;
+
+        children.sort(Comparator.comparingInt(FilterCondition::getCost));
+
+        if (children.isEmpty()) {
+            result = ALWAYS;
+        } else if (children.size() == 1) {
+            result = children.get(0);
+        } else {
+            final FilterCondition[] childArray = children.toArray(new FilterCondition[0]);
+            result = and ? new AndCondition(childArray) : new OrCondition(childArray);
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the sum of the estimated costs of conditions.
+     *
+     * @param conditions the conditions.
+     * @return the sum of the estimated costs.
+     */
+    private static int sumCosts(final FilterCondition[] conditions) {
+        return Arrays.stream(conditions).mapToInt(FilterCondition::getCost).sum();
+    }
+
+    /**
+     * Get a text representation of combined conditions.
+     *
+     * @param conditions the conditions.
+     * @param separator  the separator between the conditions.
+     * @return the text representation.
+     */
+    private static String join(final FilterCondition[] conditions, final String separator) {
+        return Arrays.stream(conditions).map(Object::toString).collect(Collectors.joining(separator, "(", ")"));
+    }
+
+    /**
+     * Condition that matches all articles.
+     */
+    private static final class AlwaysCondition implements FilterCondition {
+        @Override
+        public boolean test(final Article article) {
+            return true;
+        }
+
+        @Override
+        public int getCost() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "";
+        }
+    }
+
+    /**
+     * Condition on the starred or the read flag.
+     */
+    private static final class FlagCondition implements FilterCondition {
+        /**
+         * Whether the read flag (true) or the starred flag (false) is checked.
+         */
+        private final boolean readFlag;
+
+        /**
+         * The expected value of the flag.
+         */
+        private final boolean expected;
+
+        /**
+         * Construct a flag condition.
+         *
+         * @param readFlag whether the read flag (true) or the starred flag (false) is checked.
+         * @param expected the expected value of the flag.
+         */
+        private FlagCondition(final boolean readFlag, final boolean expected) {
+            this.readFlag = readFlag;
+            this.expected = expected;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return (readFlag ? article.isRead() : article.isStarred()) == expected;
+        }
+
+        @Override
+        public int getCost() {
+            return FLAG_COST;
+        }
+
+        @Override
+        public String toString() {
+            return "is:" + (expected ? "" : "un") + (readFlag ? "read" : "starred");
+        }
+    }
+
+    /**
+     * Condition on the number of likes.
+     */
+    private static final class LikesCondition implements FilterCondition {
+        /**
+         * The number of likes to compare with.
+         */
+        private final int likes;
+
+        /**
+         * Whether the number of likes should be greater (true) or less (false).
+         */
+        private final boolean greaterThan;
+
+        /**
+         * Construct a likes condition.
+         *
+         * @param likes       the number of likes to compare with.
+         * @param greaterThan whether the number of likes should be greater (true) or less (false).
+         */
+        private LikesCondition(final int likes, final boolean greaterThan) {
+            this.likes = likes;
+            this.greaterThan = greaterThan;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return matches(article.getLikes());
+        }
+
+        /**
+         * Compare a number of likes.
+         *
+         * @param articleLikes the number of likes of an article.
+         * @return whether the number of likes matches.
+         */
+        private boolean matches(final int articleLikes) {
+            return greaterThan ? articleLikes > likes : articleLikes < likes;
+        }
+
+        @Override
+        public int getCost() {
+            return LIKES_COST;
+        }
+
+        @Override
+        public String toString() {
+            return "likes" + (greaterThan ? ">" : "<") + likes;
+        }
+    }
+
+    /**
+     * Condition on the date/time of publication.
+     */
+    private static final class DateCondition implements FilterCondition {
+        /**
+         * The moment to compare with (as epoch seconds).
+         */
+        private final long epochSecond;
+
+        /**
+         * Whether articles should be published at or after (true) or before (false) the moment.
+         */
+        private final boolean after;
+
+        /**
+         * Construct a date condition.
+         *
+         * @param epochSecond the moment to compare with (as epoch seconds).
+         * @param after       whether articles should be published at or after (true) or before (false) the moment.
+         */
+        private DateCondition(final long epochSecond, final boolean after) {
+            this.epochSecond = epochSecond;
+            this.after = after;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return article.getDateTime() != null && matches(article.getDateTime().toEpochSecond());
+        }
+
+        /**
+         * Compare a date/time of publication.
+         *
+         * @param articleEpochSecond the date/time of publication of an article (as epoch seconds).
+         * @return whether the date/time of publication matches.
+         */
+        private boolean matches(final long articleEpochSecond) {
+            return after ? articleEpochSecond >= epochSecond : articleEpochSecond < epochSecond;
+        }
+
+        @Override
+        public int getCost() {
+            return DATE_COST;
+        }
+
+        @Override
+        public String toString() {
+            return (after ? "after:" : "before:") + epochSecond;
+        }
+    }
+
+    /**
+     * Condition on the source id.
+     */
+    private static final class SourceCondition implements FilterCondition {
+        /**
+         * The source id.
+         */
+        private final String sourceId;
+
+        /**
+         * Construct a source condition.
+         *
+         * @param sourceId the source id.
+         */
+        private SourceCondition(final String sourceId) {
+            this.sourceId = sourceId;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return sourceId.equalsIgnoreCase(article.getSourceId());
+        }
+
+        @Override
+        public int getCost() {
+            return SOURCE_COST;
+        }
+
+        @Override
+        public String toString() {
+            return "source:" + sourceId;
+        }
+    }
+
+    /**
+     * Condition on the normalized author name.
+     */
+    private static final class AuthorCondition implements FilterCondition {
+        /**
+         * The normalized (part of the) author name.
+         */
+        private final String normalizedName;
+
+        /**
+         * Construct an author condition.
+         *
+         * @param normalizedName the normalized (part of the) author name.
+         */
+        private AuthorCondition(final String normalizedName) {
+            this.normalizedName = normalizedName;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return article.getAuthor() == null || article.getAuthor().getNormalizedName().contains(normalizedName);
+        }
+
+        @Override
+        public int getCost() {
+            return AUTHOR_COST;
+        }
+
+        @Override
+        public String toString() {
+            return "author:" + normalizedName;
+        }
+    }
+
+    /**
+     * Condition on the normalized title.
+     */
+    private static final class TitleCondition implements FilterCondition {
+        /**
+         * The normalized (part of the) title.
+         */
+        private final String normalizedTitle;
+
+        /**
+         * Construct a title condition.
+         *
+         * @param normalizedTitle the normalized (part of the) title.
+         */
+        private TitleCondition(final String normalizedTitle) {
+            this.normalizedTitle = normalizedTitle;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return article.getTitle() == null || article.getNormalizedTitle().contains(normalizedTitle);
+        }
+
+        @Override
+        public int getCost() {
+            return TITLE_COST;
+        }
+
+        @Override
+        public String toString() {
+            return "title:" + normalizedTitle;
+        }
+    }
+
+    /**
+     * Condition that negates another condition.
+     */
+    private static final class NotCondition implements FilterCondition {
+        /**
+         * The condition to negate.
+         */
+        private final FilterCondition condition;
+
+        /**
+         * Construct a negated condition.
+         *
+         * @param condition the condition to negate.
+         */
+        private NotCondition(final FilterCondition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            return !condition.test(article);
+        }
+
+        @Override
+        public int getCost() {
+            return condition.getCost();
+        }
+
+        @Override
+        public String toString() {
+            return "-" + condition;
+        }
+    }
+
+    /**
+     * Condition that matches if all child conditions match.
+     */
+    private static final class AndCondition implements FilterCondition {
+        /**
+         * The child conditions, ordered by estimated cost.
+         */
+        private final FilterCondition[] children;
+
+        /**
+         * The sum of the estimated costs of the child conditions.
+         */
+        private final int cost;
+
+        /**
+         * Construct a condition that matches if all child conditions match.
+         *
+         * @param children the child conditions, ordered by estimated cost.
+         */
+        private AndCondition(final FilterCondition[] children) {
+            this.children = children;
+            this.cost = sumCosts(children);
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            boolean result = true;
+
+            for (int childIndex = 0; childIndex < children.length && result; childIndex++) {
+                result = children[childIndex].test(article);
+            }
+
+            return result;
+        }
+
+        @Override
+        public int getCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return join(children, " ");
+        }
+    }
+
+    /**
+     * Condition that matches if at least one of the child conditions matches.
+     */
+    private static final class OrCondition implements FilterCondition {
+        /**
+         * The child conditions, ordered by estimated cost.
+         */
+        private final FilterCondition[] children;
+
+        /**
+         * The sum of the estimated costs of the child conditions.
+         */
+        private final int cost;
+
+        /**
+         * Construct a condition that matches if at least one of the child conditions matches.
+         *
+         * @param children the child conditions, ordered by estimated cost.
+         */
+        private OrCondition(final FilterCondition[] children) {
+            this.children = children;
+            this.cost = sumCosts(children);
+        }
+
+        @Override
+        public boolean test(final Article article) {
+            boolean result = false;
+
+            for (int childIndex = 0; childIndex < children.length && !result; childIndex++) {
+                result = children[childIndex].test(article);
+            }
+
+            return result;
+        }
+
+        @Override
+        public int getCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return join(children, " OR ");
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+/**
+ * Compiler for filter queries, which produces optimized trees of filter conditions. A query consists of terms that are
+ * separated by spaces; all terms should match, unless groups of terms are separated by <code>OR</code>. A term can be
+ * negated by putting a minus sign in front of it. The following terms are supported:
+ * <ul>
+ * <li>"author:Cara" matches (part of) an author's name (case insensitive);</li>
+ * <li>"title:Cosmic" matches (part of) a title (case insensitive);</li>
+ * <li>"source:nrc" matches the source id (case insensitive);</li>
+ * <li>"is:starred" matches starred articles, and "is:" also works with unstarred, read, and unread;</li>
+ * <li>"after:2017-06-28" and "before:2017-06-28" match articles published on or after (or before) a date (UTC);</li>
+ * <li>"likes&gt;28" and "likes&lt;28" match articles with more (or fewer) likes.</li>
+ * </ul>
+ * A plain word without a prefix (like "Cosmic") is a title filter, so "Cosmic queries" matches titles that contain
+ * both words (in any order) and is the same query as "title:Cosmic title:queries". Words are normalized like titles
+ * (case and accents are ignored), so "creme" also matches "Crème".
+ * <p>
+ * Incomplete or invalid terms (which are common while a query is being typed) are left out of the condition, and are
+ * reported as errors in the {@link CompiledQuery}: the GUI filters with the valid terms and shows the errors, while
+ * the article API rejects queries with errors.
+ * <p>
+ * Compiled queries are cached by their text, since the same queries are compiled again and again while the user is
+ * editing the filter.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public final class QueryCompiler {
+    /**
+     * Keyword that separates alternatives.
+     */
+    private static final String OR_KEYWORD = "OR";
+
+    /**
+     * Prefix for negating a term.
+     */
+    private static final String NOT_PREFIX = "-";
+
+    /**
+     * Prefix for filtering on an author's name (case insensitive).
+     */
+    private static final String AUTHOR_PREFIX = "author:";
+
+    /**
+     * Prefix for filtering on a title (case insensitive).
+     */
+    private static final String TITLE_PREFIX = "title:";
+
+    /**
+     * Prefix for filtering on a source id (case insensitive).
+     */
+    private static final String SOURCE_PREFIX = "source:";
+
+    /**
+     * Prefix for filtering on the article's state: starred or unstarred, and read or unread.
+     */
+    private static final String STATE_PREFIX = "is:";
+
+    /**
+     * Prefix for filtering on articles published on or after a date.
+     */
+    private static final String AFTER_PREFIX = "after:";
+
+    /**
+     * Prefix for filtering on articles published before a date.
+     */
+    private static final String BEFORE_PREFIX = "before:";
+
+    /**
+     * Prefix for filtering on articles with more likes than a number.
+     */
+    private static final String MORE_LIKES_PREFIX = "likes>";
+
+    /**
+     * Prefix for filtering on articles with fewer likes than a number.
+     */
+    private static final String FEWER_LIKES_PREFIX = "likes<";
+
+    /**
+     * Keyword to filter for starred articles.
+     */
+    private static final String STARRED_STATE = "starred";
+
+    /**
+     * Keyword to filter for unstarred articles.
+     */
+    private static final String UNSTARRED_STATE = "unstarred";
+
+    /**
+     * Keyword to filter for read articles.
+     */
+    private static final String READ_STATE = "read";
+
+    /**
+     * Keyword to filter for unread articles.
+     */
+    private static final String UNREAD_STATE = "unread";
+
+    /**
+     * Maximum number of compiled queries in the cache.
+     */
+    private static final int MAXIMUM_CACHE_SIZE = 256;
+
+    /**
+     * Cache with the most recently used compiled queries.
+     */
+    private static final Map<String, CompiledQuery> COMPILED_QUERIES = Collections.synchronizedMap(createCache());
+
+    /**
+     * Name of the cache in the metrics registry.
+     */
+    private static final String CACHE_METRIC_NAME = "query-cache";
+
+    /**
+     * Counter for queries that were found in the cache.
+     */
+    private static final LongAdder CACHE_HITS
+        = MetricsRegistry.getGlobal().getCounter(CACHE_METRIC_NAME + MetricsRegistry.HITS_SUFFIX);
+
+    /**
+     * Counter for queries that had to be compiled.
+     */
+    private static final LongAdder CACHE_MISSES
+        = MetricsRegistry.getGlobal().getCounter(CACHE_METRIC_NAME + MetricsRegistry.MISSES_SUFFIX);
+
+    /**
+     * Private constructor to hide the implicit public one, since this class only has static methods.
+     */
+    private QueryCompiler() {
+    }
+
+    /**
+     * Create the least recently used cache for compiled queries.
+     *
+     * @return the cache for compiled queries.
+     */
+    private static Map<String, CompiledQuery> createCache() {
+        final float loadFactor = 0.75f;
+
+        return new LinkedHashMap<String, CompiledQuery>(MAXIMUM_CACHE_SIZE, loadFactor, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompiledQuery> eldestEntry) {
+                return size() > MAXIMUM_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Compile a query, or get the compiled query from the cache.
+     *
+     * @param query the query text.
+     * @return the compiled query, with the errors for the terms that could not be parsed.
+     */
+    public static CompiledQuery compile(final String query) {
+        CompiledQuery compiledQuery = COMPILED_QUERIES.get(query);
+
+        if (compiledQuery != null) {
+            CACHE_HITS.increment();
+        } else {
+            CACHE_MISSES.increment();
+            compiledQuery = COMPILED_QUERIES.computeIfAbsent(query, QueryCompiler::parseQuery);
+        }
+
+        return compiledQuery;
+    }
+
+    /**
+     * Parse a query into an optimized tree of filter conditions.
+     *
+     * @param query the query text.
+     * @return the optimized tree of filter conditions, with the errors for the terms that could not be parsed.
+     */
+    static CompiledQuery parseQuery(final String query) {
+        final List<FilterCondition> alternatives = new ArrayList<>();
+        final List<String> errors = new ArrayList<>();
+        List<FilterCondition> terms = new ArrayList<>();
+
+        for (final String token : query.trim().split("\\s+")) {
+            if (OR_KEYWORD.equals(token)) {
+                addAlternative(alternatives, terms);
+                terms = new ArrayList<>();
+            } else {
+                final FilterCondition term = parseTerm(token);
+
+                if (term != null) {
+                    terms.add(term);
+                } else if (!token.isEmpty()) {
+                    errors.add("Filter term not understood: " + token);
+                }
+            }
+        }
+
+        addAlternative(alternatives, terms);
+
+        return new CompiledQuery(FilterConditions.or(alternatives), errors);
+    }
+
+    /**
+     * Add an alternative (a group of terms that should all match) if it has at least one term. Empty alternatives are
+     * skipped, so a query that starts or ends with <code>OR</code> (while it is being typed) still filters.
+     *
+     * @param alternatives the alternatives so far.
+     * @param terms        the terms of the alternative.
+     */
+    private static void addAlternative(final List<FilterCondition> alternatives, final List<FilterCondition> terms) {
+        if (!terms.isEmpty()) {
+            alternatives.add(FilterConditions.and(terms));
+        }
+    }
+
+    /**
+     * Parse a term, which can be negated.
+     *
+     * @param token the text of the term.
+     * @return the filter condition or null if the term is incomplete or invalid.
+     */
+    private static FilterCondition parseTerm(final String token) {
+        final FilterCondition result;
+
+        if (token.startsWith(NOT_PREFIX)) {
+            final FilterCondition condition = parsePositiveTerm(token.substring(NOT_PREFIX.length()));
+            result = condition != null ? FilterConditions.not(condition) : null;
+        } else {
+            result = parsePositiveTerm(token);
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a term without negation.
+     *
+     * @param token the text of the term.
+     * @return the filter condition or null if the term is incomplete or invalid.
+     */
+    private static FilterCondition parsePositiveTerm(final String token) {
+        FilterCondition result = null;
+
+        if (hasValue(AUTHOR_PREFIX, token)) {
+            result = FilterConditions.author(Utilities.normalize(getValue(AUTHOR_PREFIX, token)));
+        } else if (hasValue(TITLE_PREFIX, token)) {
+            result = FilterConditions.title(Utilities.normalize(getValue(TITLE_PREFIX, token)));
+        } else if (hasValue(SOURCE_PREFIX, token)) {
+            result = FilterConditions.source(getValue(SOURCE_PREFIX, token));
+        } else if (hasValue(STATE_PREFIX, token)) {
+            result = parseState(getValue(STATE_PREFIX, token).toLowerCase(Locale.ROOT));
+        } else if (hasValue(AFTER_PREFIX, token) || hasValue(BEFORE_PREFIX, token)) {
+            result = parseDate(token);
+        } else if (hasValue(MORE_LIKES_PREFIX, token) || hasValue(FEWER_LIKES_PREFIX, token)) {
+            result = parseLikes(token);
+        } else if (isWord(token)) {
+            result = FilterConditions.title(Utilities.normalize(token));
+        }
+
+        return result;
+    }
+
+    /**
+     * Check whether a token is a plain word (which matches titles), instead of an incomplete term like "author:" or
+     * "likes&gt;".
+     *
+     * @param token the text of the term.
+     * @return whether the token is a plain word.
+     */
+    private static boolean isWord(final String token) {
+        return !token.isEmpty() && !token.contains(":") && !token.startsWith(NOT_PREFIX)
+               && !token.startsWith(MORE_LIKES_PREFIX) && !token.startsWith(FEWER_LIKES_PREFIX);
+    }
+
+    /**
+     * Check whether a token starts with the specified prefix and has a value after the prefix.
+     *
+     * @param prefix the prefix that should be matched (like <code>AUTHOR_PREFIX</code>).
+     * @param token  the text of the term.
+     * @return whether the token starts with the prefix and has a value.
+     */
+    private static boolean hasValue(final String prefix, final String token) {
+        return token.startsWith(prefix) && token.length() > prefix.length();
+    }
+
+    /**
+     * Get the value after the prefix of a token.
+     *
+     * @param prefix the prefix of the token.
+     * @param token  the text of the term.
+     * @return the value after the prefix.
+     */
+    private static String getValue(final String prefix, final String token) {
+        return token.substring(prefix.length());
+    }
+
+    /**
+     * Parse a state term (starred, unstarred, read, or unread).
+     *
+     * @param state the state in lower case.
+     * @return the filter condition or null if the state is unknown.
+     */
+    private static FilterCondition parseState(final String state) {
+        FilterCondition result = null;
+
+        if (STARRED_STATE.equals(state) || UNSTARRED_STATE.equals(state)) {
+            result = FilterConditions.starred(STARRED_STATE.equals(state));
+        } else if (READ_STATE.equals(state) || UNREAD_STATE.equals(state)) {
+            result = FilterConditions.read(READ_STATE.equals(state));
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a date term (after or before a date in ISO format, like 2017-06-28).
+     *
+     * @param token the text of the term.
+     * @return the filter condition or null if the date is invalid.
+     */
+    private static FilterCondition parseDate(final String token) {
+        final boolean after = token.startsWith(AFTER_PREFIX);
+        final String dateText = getValue(after ? AFTER_PREFIX : BEFORE_PREFIX, token);
+
+        FilterCondition result;
+        try {
+            final long epochSecond = LocalDate.parse(dateText).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+            result = FilterConditions.published(epochSecond, after);
+        } catch (final DateTimeParseException e) {
+            result = null;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse a likes term (more or fewer likes than a number).
+     *
+     * @param token the text of the term.
+     * @return the filter condition or null if the number is invalid.
+     */
+    private static FilterCondition parseLikes(final String token) {
+        final boolean greaterThan = token.startsWith(MORE_LIKES_PREFIX);
+        final String likesText = getValue(greaterThan ? MORE_LIKES_PREFIX : FEWER_LIKES_PREFIX, token);
+
+        FilterCondition result;
+        try {
+            result = FilterConditions.likes(Integer.parseInt(likesText), greaterThan);
+        } catch (final NumberFormatException e) {
+            result = null;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,10 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+/**
+ * Classes for compiling filter queries into trees of article conditions.
+ */
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
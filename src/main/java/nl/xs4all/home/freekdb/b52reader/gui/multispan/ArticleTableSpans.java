@@ -0,0 +1,134 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.multispan;
+
+import java.awt.Dimension;
+
+import javax.swing.table.TableModel;
+
+/**
+ * Implementation of the <code>TableSpans</code> interface for tables that show each article in two rows. In the second
+ * row of each article, the cells from a specific column up to and including the last column are combined.
+ * <p>
+ * The spans are derived from the row and column counts of the table model, so nothing is stored per row or per cell.
+ * Since the layout is fixed, the methods that change the size or combine cells do nothing.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class ArticleTableSpans implements TableSpans {
+    /**
+     * Table model that determines the number of rows and columns.
+     */
+    private final TableModel tableModel;
+
+    /**
+     * Index of the first column that is combined in the second row of each article.
+     */
+    private final int firstCombinedColumnIndex;
+
+    /**
+     * Construct an <code>ArticleTableSpans</code> object.
+     *
+     * @param tableModel               table model that determines the number of rows and columns.
+     * @param firstCombinedColumnIndex index of the first column that is combined in the second row of each article.
+     */
+    ArticleTableSpans(final TableModel tableModel, final int firstCombinedColumnIndex) {
+        this.tableModel = tableModel;
+        this.firstCombinedColumnIndex = firstCombinedColumnIndex;
+    }
+
+    @Override
+    public void setSize(final Dimension size) {
+        // The size is determined by the table model.
+    }
+
+    @Override
+    public void addColumn() {
+        // The number of columns is determined by the table model.
+    }
+
+    @Override
+    public void addRow() {
+        // The number of rows is determined by the table model.
+    }
+
+    @Override
+    public void insertRow(final int rowIndex) {
+        // The number of rows is determined by the table model.
+    }
+
+    @Override
+    public boolean isVisible(final int rowIndex, final int columnIndex) {
+        return !isOutOfBounds(rowIndex, columnIndex)
+               && !(isCombinedRow(rowIndex) && columnIndex > firstCombinedColumnIndex);
+    }
+
+    @Override
+    public SpanCounts getSpan(final int rowIndex, final int columnIndex) {
+        return new SpanCounts(getRowSpanNumber(rowIndex, columnIndex), getColumnSpanNumber(rowIndex, columnIndex));
+    }
+
+    @Override
+    public int getRowSpanNumber(final int rowIndex, final int columnIndex) {
+        return isCombinedCell(rowIndex, columnIndex) && columnIndex > firstCombinedColumnIndex ? 0 : 1;
+    }
+
+    @Override
+    public int getColumnSpanNumber(final int rowIndex, final int columnIndex) {
+        final int columnSpanNumber;
+
+        if (!isCombinedCell(rowIndex, columnIndex)) {
+            columnSpanNumber = 1;
+        } else if (columnIndex == firstCombinedColumnIndex) {
+            columnSpanNumber = tableModel.getColumnCount() - firstCombinedColumnIndex;
+        } else {
+            columnSpanNumber = firstCombinedColumnIndex - columnIndex;
+        }
+
+        return columnSpanNumber;
+    }
+
+    @Override
+    public void combine(final int[] rowIndices, final int[] columnIndices) {
+        // The combined cells are determined by the article layout.
+    }
+
+    /**
+     * Determine whether the specified position is a cell that is part of a combined rectangle.
+     *
+     * @param rowIndex    row index.
+     * @param columnIndex column index.
+     * @return whether the specified position is part of a combined rectangle.
+     */
+    private boolean isCombinedCell(final int rowIndex, final int columnIndex) {
+        return !isOutOfBounds(rowIndex, columnIndex) && isCombinedRow(rowIndex)
+               && columnIndex >= firstCombinedColumnIndex;
+    }
+
+    /**
+     * Determine whether the specified row is the second row of an article, which contains combined cells.
+     *
+     * @param rowIndex row index.
+     * @return whether the specified row contains combined cells.
+     */
+    private boolean isCombinedRow(final int rowIndex) {
+        return rowIndex % SpanCellTableModel.ROWS_PER_ARTICLE == 1
+               && firstCombinedColumnIndex < tableModel.getColumnCount() - 1;
+    }
+
+    /**
+     * Determine whether the specified position is outside the bounds of the GUI table.
+     *
+     * @param rowIndex    row index.
+     * @param columnIndex column index.
+     * @return whether the specified position is outside the bounds of the GUI table.
+     */
+    private boolean isOutOfBounds(final int rowIndex, final int columnIndex) {
+        return rowIndex < 0 || rowIndex >= tableModel.getRowCount()
+               || columnIndex < 0 || columnIndex >= tableModel.getColumnCount();
+    }
+}
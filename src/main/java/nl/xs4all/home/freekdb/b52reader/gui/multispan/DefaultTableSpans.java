@@ -21,11 +21,25 @@ import java.util.Arrays;
 
 /**
  * Default implementation of the <code>TableSpans</code> interface.
+ * <p>
+ * The span numbers of all cells are packed in a single <code>int</code> array (two numbers per cell, row by row). The
+ * numbers are stored minus one, so a zero-filled array represents a table without combined cells, and the array grows
+ * with spare capacity when rows are added or inserted.
  *
  * @author <a href="mailto:unknown@unknown.org">Nobuo Tamemasa</a>
  * @version 1.0 11/22/98
  */
 public class DefaultTableSpans implements TableSpans {
+    /**
+     * Number of span numbers stored for each cell: the row span number and the column span number.
+     */
+    private static final int NUMBERS_PER_CELL = 2;
+
+    /**
+     * Minimum number of rows for which space is allocated.
+     */
+    private static final int MINIMUM_ROW_CAPACITY = 16;
+
     //
     // !!!! CAUTION !!!!!
     // these values must be synchronized to Table data
@@ -44,8 +58,12 @@ public class DefaultTableSpans implements TableSpans {
      * number is one for cells that are not combined. For a group of cells that are combined, the top left cell contains
      * span numbers equal to the number of rows and columns in the group, while the other cells have span numbers
      * smaller than or equal to zero.
+     * <p>
+     * The span numbers are stored minus one: for cell (rowIndex, columnIndex), the row span number minus one is at
+     * index <code>2 * (rowIndex * columnCount + columnIndex)</code> and the column span number minus one at the next
+     * index.
      */
-    private SpanCounts[][] span;
+    private int[] spanNumbers;
 
     /**
      * Construct a <code>DefaultTableSpans</code> object.
@@ -60,13 +78,23 @@ public class DefaultTableSpans implements TableSpans {
     @Override
     public boolean isVisible(final int rowIndex, final int columnIndex) {
         return !isOutOfBounds(rowIndex, columnIndex)
-               && span[rowIndex][columnIndex].getRowSpanNumber() >= 1
-               && span[rowIndex][columnIndex].getColumnSpanNumber() >= 1;
+               && spanNumbers[getIndex(rowIndex, columnIndex)] >= 0
+               && spanNumbers[getIndex(rowIndex, columnIndex) + 1] >= 0;
     }
 
     @Override
     public SpanCounts getSpan(final int rowIndex, final int columnIndex) {
-        return !isOutOfBounds(rowIndex, columnIndex) ? span[rowIndex][columnIndex] : new SpanCounts();
+        return new SpanCounts(getRowSpanNumber(rowIndex, columnIndex), getColumnSpanNumber(rowIndex, columnIndex));
+    }
+
+    @Override
+    public int getRowSpanNumber(final int rowIndex, final int columnIndex) {
+        return !isOutOfBounds(rowIndex, columnIndex) ? spanNumbers[getIndex(rowIndex, columnIndex)] + 1 : 1;
+    }
+
+    @Override
+    public int getColumnSpanNumber(final int rowIndex, final int columnIndex) {
+        return !isOutOfBounds(rowIndex, columnIndex) ? spanNumbers[getIndex(rowIndex, columnIndex) + 1] + 1 : 1;
     }
 
     @Override
@@ -111,9 +139,11 @@ public class DefaultTableSpans implements TableSpans {
     private boolean isValidCombinationArea(final int startRowIndex, final int startColumnIndex,
                                            final int combinationRowCount, final int combinationColumnCount) {
         for (int rowIndex = 0; rowIndex < combinationRowCount; rowIndex++) {
-            for (int columnIndex = 0; columnIndex < combinationColumnCount; columnIndex++) {
-                if (span[startRowIndex + rowIndex][startColumnIndex + columnIndex].getRowSpanNumber() != 1
-                    || span[startRowIndex + rowIndex][startColumnIndex + columnIndex].getColumnSpanNumber() != 1) {
+            final int startIndex = getIndex(startRowIndex + rowIndex, startColumnIndex);
+            final int endIndex = startIndex + NUMBERS_PER_CELL * combinationColumnCount;
+
+            for (int index = startIndex; index < endIndex; index++) {
+                if (spanNumbers[index] != 0) {
                     return false;
                 }
             }
@@ -132,8 +162,10 @@ public class DefaultTableSpans implements TableSpans {
      */
     private void setSpanCellNumbers(final int cellRowIndex, final int cellColumnIndex, final int rowSpanNumber,
                                     final int columnSpanNumber) {
-        span[cellRowIndex][cellColumnIndex].setRowSpanNumber(rowSpanNumber);
-        span[cellRowIndex][cellColumnIndex].setColumnSpanNumber(columnSpanNumber);
+        final int index = getIndex(cellRowIndex, cellColumnIndex);
+
+        spanNumbers[index] = rowSpanNumber - 1;
+        spanNumbers[index + 1] = columnSpanNumber - 1;
     }
 
     @Override
@@ -141,61 +173,76 @@ public class DefaultTableSpans implements TableSpans {
         columnCount = size.width;
         rowCount = size.height;
 
-        span = new SpanCounts[rowCount][columnCount];
-
-        for (int rowIndex = 0; rowIndex < span.length; rowIndex++) {
-            for (int columnIndex = 0; columnIndex < span[rowIndex].length; columnIndex++) {
-                span[rowIndex][columnIndex] = new SpanCounts();
-            }
-        }
+        spanNumbers = new int[getRowSize() * Math.max(rowCount, MINIMUM_ROW_CAPACITY)];
     }
 
     @Override
     public void addColumn() {
-        final SpanCounts[][] oldSpan = span;
-        final int currentRowCount = oldSpan.length;
-        final int oldColumnCount = oldSpan[0].length;
+        final int oldRowSize = getRowSize();
+
+        columnCount++;
 
-        span = new SpanCounts[currentRowCount][oldColumnCount + 1];
+        final int[] oldSpanNumbers = spanNumbers;
+        final int newRowSize = getRowSize();
+        spanNumbers = new int[newRowSize * Math.max(rowCount, MINIMUM_ROW_CAPACITY)];
 
-        for (int rowIndex = 0; rowIndex < currentRowCount; rowIndex++) {
-            span[rowIndex] = Arrays.copyOf(oldSpan[rowIndex], oldColumnCount + 1);
-            span[rowIndex][oldColumnCount] = new SpanCounts();
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            System.arraycopy(oldSpanNumbers, rowIndex * oldRowSize, spanNumbers, rowIndex * newRowSize, oldRowSize);
         }
     }
 
     @Override
     public void addRow() {
-        final SpanCounts[][] oldSpan = span;
-        final int oldRowCount = oldSpan.length;
-        final int currentColumnCount = oldSpan[0].length;
+        insertRow(rowCount);
+    }
 
-        span = new SpanCounts[oldRowCount + 1][currentColumnCount];
+    @Override
+    public void insertRow(final int rowIndex) {
+        final int rowSize = getRowSize();
 
-        System.arraycopy(oldSpan, 0, span, 0, oldRowCount);
+        ensureRowCapacity(rowCount + 1);
 
-        for (int columnIndex = 0; columnIndex < currentColumnCount; columnIndex++) {
-            span[oldRowCount][columnIndex] = new SpanCounts();
-        }
+        final int startIndex = rowIndex * rowSize;
+        System.arraycopy(spanNumbers, startIndex, spanNumbers, startIndex + rowSize, (rowCount - rowIndex) * rowSize);
+        Arrays.fill(spanNumbers, startIndex, startIndex + rowSize, 0);
+
+        rowCount++;
     }
 
-    @Override
-    public void insertRow(final int rowIndex) {
-        final SpanCounts[][] oldSpan = span;
-        final int oldRowCount = oldSpan.length;
-        final int currentColumnCount = oldSpan[0].length;
+    /**
+     * Make sure the span numbers array has room for at least the specified number of rows. When the array has to grow,
+     * its capacity is doubled, so adding many rows takes amortized constant time per row.
+     *
+     * @param minimumRowCount the minimum number of rows.
+     */
+    private void ensureRowCapacity(final int minimumRowCount) {
+        final int rowSize = getRowSize();
 
-        span = new SpanCounts[oldRowCount + 1][currentColumnCount];
+        if (rowSize > 0 && spanNumbers.length < minimumRowCount * rowSize) {
+            final int rowCapacity = Math.max(minimumRowCount, 2 * (spanNumbers.length / rowSize));
 
-        if (rowIndex > 0) {
-            System.arraycopy(oldSpan, 0, span, 0, rowIndex);
+            spanNumbers = Arrays.copyOf(spanNumbers, rowCapacity * rowSize);
         }
+    }
 
-        System.arraycopy(oldSpan, 0, span, rowIndex + 1, oldRowCount - rowIndex);
+    /**
+     * Get the number of array elements used for each row.
+     *
+     * @return the number of array elements used for each row.
+     */
+    private int getRowSize() {
+        return NUMBERS_PER_CELL * columnCount;
+    }
 
-        for (int columnIndex = 0; columnIndex < currentColumnCount; columnIndex++) {
-            span[rowIndex][columnIndex] = new SpanCounts();
-        }
+    /**
+     * Get the array index of the row span number for the specified position.
+     *
+     * @param rowIndex    row index.
+     * @param columnIndex column index.
+     * @return the array index of the row span number (the column span number follows at the next index).
+     */
+    private int getIndex(final int rowIndex, final int columnIndex) {
+        return NUMBERS_PER_CELL * (rowIndex * columnCount + columnIndex);
     }
 
     /**
@@ -217,7 +264,18 @@ public class DefaultTableSpans implements TableSpans {
      * @return whether any of the specified positions is outside the bounds of the GUI table.
      */
     private boolean isOutOfBounds(final int[] rowIndices, final int[] columnIndices) {
-        return Arrays.stream(rowIndices).anyMatch(rowIndex -> rowIndex < 0 || rowIndex >= rowCount)
-               || Arrays.stream(columnIndices).anyMatch(columnIndex -> columnIndex < 0 || columnIndex >= columnCount);
+        for (final int rowIndex : rowIndices) {
+            if (rowIndex < 0 || rowIndex >= rowCount) {
+                return true;
+            }
+        }
+
+        for (final int columnIndex : columnIndices) {
+            if (columnIndex < 0 || columnIndex >= columnCount) {
+                return true;
+            }
+        }
+
+        return false;
     }
 }
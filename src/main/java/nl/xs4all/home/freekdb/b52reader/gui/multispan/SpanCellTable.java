@@ -19,13 +19,14 @@ package nl.xs4all.home.freekdb.b52reader.gui.multispan;
 import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.Enumeration;
 
 import javax.annotation.Nonnull;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
+import javax.swing.event.ChangeEvent;
 import javax.swing.event.ListSelectionEvent;
-import javax.swing.table.TableColumn;
+import javax.swing.event.TableColumnModelEvent;
+import javax.swing.table.TableColumnModel;
 import javax.swing.table.TableModel;
 
 /**
@@ -40,6 +41,12 @@ public class SpanCellTable extends JTable {
      */
     private SpanCellTableModel tableModel;
 
+    /**
+     * Cached x coordinates where the columns start (followed by the total width), or <code>null</code> if they have to
+     * be determined again.
+     */
+    private transient int[] columnOffsets;
+
     /**
      * Construct a span cell GUI table.
      *
@@ -63,70 +70,98 @@ public class SpanCellTable extends JTable {
         if ((row < 0) || (column < 0) || (row >= getRowCount()) || (column >= getColumnCount())) {
             return super.getCellRect(row, column, includeSpacing);
         } else {
-            final Rectangle cellRect = new Rectangle();
             final TableSpans tableSpans = tableModel.getTableSpans();
-            final SpanCounts spanCounts = tableSpans.getSpan(row, column);
 
-            // Adjust row and column for spanned cells.
+            // Adjust row and column for spanned cells: they share the rectangle of the first cell of their area.
             int adjustedRowIndex = row;
             int adjustedColumnIndex = column;
             if (!tableSpans.isVisible(adjustedRowIndex, adjustedColumnIndex)) {
-                adjustedRowIndex += spanCounts.getRowSpanNumber();
-                adjustedColumnIndex += spanCounts.getColumnSpanNumber();
+                adjustedRowIndex += tableSpans.getRowSpanNumber(row, column);
+                adjustedColumnIndex += tableSpans.getColumnSpanNumber(row, column);
             }
 
-            final int columnMargin = getColumnModel().getColumnMargin();
+            final int rowSpanNumber = tableSpans.getRowSpanNumber(adjustedRowIndex, adjustedColumnIndex);
+            final int columnSpanNumber = tableSpans.getColumnSpanNumber(adjustedRowIndex, adjustedColumnIndex);
+
+            final int[] offsets = getColumnOffsets();
+            final int endColumnIndex = Math.min(adjustedColumnIndex + Math.max(columnSpanNumber, 1),
+                                                offsets.length - 1);
+
             final int cellHeight = rowHeight + rowMargin;
-            cellRect.y = adjustedRowIndex * cellHeight;
-            cellRect.height = spanCounts.getRowSpanNumber() * cellHeight;
+            final Rectangle cellRect = new Rectangle(offsets[adjustedColumnIndex], adjustedRowIndex * cellHeight,
+                                                     offsets[endColumnIndex] - offsets[adjustedColumnIndex],
+                                                     rowSpanNumber * cellHeight);
+
+            if (!includeSpacing) {
+                // Exclude spacing margins.
+                final Dimension spacing = getIntercellSpacing();
 
-            determineCellRectWidthAndX(cellRect, columnMargin, adjustedColumnIndex, spanCounts, includeSpacing);
+                cellRect.setBounds(cellRect.x + spacing.width / 2, cellRect.y + spacing.height / 2,
+                                   cellRect.width - spacing.width, cellRect.height - spacing.height);
+            }
 
             return cellRect;
         }
     }
 
     /**
-     * Determine the width and x coordinate for the specific cell rect.
+     * Get the x coordinates where the columns start. The last element contains the total width of all columns. The
+     * offsets are cached until the columns or their widths change.
      *
-     * @param cellRect            cell rect being constructed.
-     * @param columnMargin        width between cells.
-     * @param adjustedColumnIndex column index adjusted for spanned cells.
-     * @param spanCounts          span counts for the rectangle that dictates the width.
-     * @param includeSpacing      whether to include the intercell spacing.
+     * @return the x coordinates where the columns start, followed by the total width.
      */
-    private void determineCellRectWidthAndX(final Rectangle cellRect, final int columnMargin,
-                                            final int adjustedColumnIndex, final SpanCounts spanCounts,
-                                            final boolean includeSpacing) {
-        final Enumeration columnEnumeration = getColumnModel().getColumns();
-        int columnIndex = 0;
-
-        // First determine cellRect.x and the start value for cellRect.width.
-        while (columnEnumeration.hasMoreElements()) {
-            final TableColumn tableColumn = (TableColumn) columnEnumeration.nextElement();
-            cellRect.width = tableColumn.getWidth() + columnMargin;
-
-            if (columnIndex == adjustedColumnIndex) {
-                break;
+    private int[] getColumnOffsets() {
+        if (columnOffsets == null) {
+            final TableColumnModel columnModel = getColumnModel();
+            final int columnMargin = columnModel.getColumnMargin();
+            final int columnCount = columnModel.getColumnCount();
+            final int[] offsets = new int[columnCount + 1];
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                final int columnWidth = columnModel.getColumn(columnIndex).getWidth() + columnMargin;
+                offsets[columnIndex + 1] = offsets[columnIndex] + columnWidth;
             }
 
-            cellRect.x += cellRect.width;
-            columnIndex++;
+            columnOffsets = offsets;
         }
 
-        // Now determine the total cellRect.width by including all spanned columns.
-        for (int spanColumnIndex = 0; spanColumnIndex < spanCounts.getColumnSpanNumber() - 1; spanColumnIndex++) {
-            final TableColumn tableColumn = (TableColumn) columnEnumeration.nextElement();
-            cellRect.width += tableColumn.getWidth() + columnMargin;
-        }
+        return columnOffsets;
+    }
 
-        if (!includeSpacing) {
-            // Exclude spacing margins.
-            final Dimension spacing = getIntercellSpacing();
+    @Override
+    public void setColumnModel(final TableColumnModel columnModel) {
+        super.setColumnModel(columnModel);
 
-            cellRect.setBounds(cellRect.x + spacing.width / 2, cellRect.y + spacing.height / 2,
-                               cellRect.width - spacing.width, cellRect.height - spacing.height);
-        }
+        columnOffsets = null;
+    }
+
+    @Override
+    public void columnAdded(final TableColumnModelEvent columnModelEvent) {
+        columnOffsets = null;
+
+        super.columnAdded(columnModelEvent);
+    }
+
+    @Override
+    public void columnRemoved(final TableColumnModelEvent columnModelEvent) {
+        columnOffsets = null;
+
+        super.columnRemoved(columnModelEvent);
+    }
+
+    @Override
+    public void columnMoved(final TableColumnModelEvent columnModelEvent) {
+        columnOffsets = null;
+
+        super.columnMoved(columnModelEvent);
+    }
+
+    @Override
+    public void columnMarginChanged(final ChangeEvent changeEvent) {
+        // This event is also fired when the width of a column changes.
+        columnOffsets = null;
+
+        super.columnMarginChanged(changeEvent);
     }
 
     @Override
@@ -153,11 +188,10 @@ public class SpanCellTable extends JTable {
         if ((row >= 0) && (row < getRowCount())) {
             final int column = getColumnModel().getColumnIndexAtX(point.x);
             final TableSpans tableSpans = tableModel.getTableSpans();
-            final SpanCounts spanCounts = tableSpans.getSpan(row, column);
             final boolean visible = tableSpans.isVisible(row, column);
 
-            spanCountsPoint.setColumnSpanNumber(column + (visible ? 0 : spanCounts.getColumnSpanNumber()));
-            spanCountsPoint.setRowSpanNumber(row + (visible ? 0 : spanCounts.getRowSpanNumber()));
+            spanCountsPoint.setColumnSpanNumber(column + (visible ? 0 : tableSpans.getColumnSpanNumber(row, column)));
+            spanCountsPoint.setRowSpanNumber(row + (visible ? 0 : tableSpans.getRowSpanNumber(row, column)));
         }
 
         return spanCountsPoint;
@@ -16,50 +16,106 @@
 
 package nl.xs4all.home.freekdb.b52reader.gui.multispan;
 
-import java.util.Arrays;
-import java.util.Enumeration;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Predicate;
 
 import javax.swing.event.TableModelEvent;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.AbstractTableModel;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.general.Configuration;
 import nl.xs4all.home.freekdb.b52reader.general.Constants;
 
-// todo: Base the ArticleSpanTableModel/SpanCellTableModel on AbstractTableModel (like the ArticlesTableModel)?
-
-// todo: Contents should be adjusted -> change dataVector or let getValueAt use the list of articles.
-
 /**
  * Specialized table model for the <code>SpanCellTable</code> class.
+ * <p>
+ * Each article is shown in two rows: the first row contains the fetched, starred, and read flags, the title, the
+ * author, and the date/time; the second row contains the text, which spans the title, author, and date/time columns.
+ * All cell values are computed from the list of articles when they are requested, so no row data is stored.
  *
  * @author <a href="mailto:unknown@unknown.org">Nobuo Tamemasa</a>
  * @version 1.0 11/22/98
  */
-public class SpanCellTableModel extends DefaultTableModel {
+public class SpanCellTableModel extends AbstractTableModel {
+    /**
+     * Number of table rows used for each article.
+     */
+    static final int ROWS_PER_ARTICLE = 2;
+
+    /**
+     * Column index of the fetched flag (first row of an article).
+     */
+    static final int FETCHED_COLUMN_INDEX = 0;
+
+    /**
+     * Column index of the starred flag (first row of an article).
+     */
+    static final int STARRED_COLUMN_INDEX = 1;
+
+    /**
+     * Column index of the read flag (first row of an article).
+     */
+    static final int READ_COLUMN_INDEX = 2;
+
+    /**
+     * Column index of the title (first row of an article) and of the text (second row of an article).
+     */
+    static final int TITLE_AND_TEXT_COLUMN_INDEX = 3;
+
+    /**
+     * Column index of the author name (first row of an article).
+     */
+    static final int AUTHOR_COLUMN_INDEX = 4;
+
+    /**
+     * Column index of the date/time (first row of an article).
+     */
+    static final int DATE_TIME_COLUMN_INDEX = 5;
+
     /**
      * Configuration object.
      */
     private final transient Configuration configuration;
 
     /**
-     * Column classes for this model.
+     * Number of columns that is used until column names are set.
      */
-    private List<Class<?>> columnClasses;
+    private final int initialColumnCount;
+
+    /**
+     * Table spans for this model (and the related span cell GUI table), which are derived from the article layout.
+     */
+    private final transient TableSpans tableSpans;
 
     /**
-     * Table spans for this model (and the related span cell GUI table).
+     * Column names for this model.
      */
-    private transient TableSpans tableSpans;
+    private List<String> columnNames;
+
+    /**
+     * Column classes for this model.
+     */
+    private List<Class<?>> columnClasses;
 
     /**
      * Articles to be shown.
      */
     private transient List<Article> articles;
 
+    /**
+     * Predicate that can determine whether an article is already fetched or not.
+     */
+    private transient Predicate<Article> isFetched;
+
+    /**
+     * Article indices by URL, which is created when it is needed for the first time after the articles are set.
+     */
+    private transient Map<String, Integer> urlToArticleIndex;
+
     /**
      * Construct a model for a span cell GUI table.
      *
@@ -69,20 +125,10 @@ public class SpanCellTableModel extends DefaultTableModel {
      */
     public SpanCellTableModel(final List<Article> articles, final int columnCount, final Configuration configuration) {
         this.articles = articles;
+        this.initialColumnCount = columnCount;
         this.configuration = configuration;
-
-        final int rowCount = 2 * articles.size();
-
-        @SuppressWarnings("squid:S1149")
-        final Vector names = new Vector(columnCount);
-
-        names.setSize(columnCount);
-        setColumnIdentifiers(names);
-
-        dataVector = new Vector();
-        setRowCount(rowCount);
-
-        tableSpans = new DefaultTableSpans(rowCount, columnCount);
+        this.isFetched = article -> false;
+        this.tableSpans = new ArticleTableSpans(this, TITLE_AND_TEXT_COLUMN_INDEX);
     }
 
     /**
@@ -94,13 +140,30 @@ public class SpanCellTableModel extends DefaultTableModel {
         return tableSpans;
     }
 
+    @Override
+    public int getRowCount() {
+        return articles != null ? ROWS_PER_ARTICLE * articles.size() : 0;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames != null ? columnNames.size() : initialColumnCount;
+    }
+
+    @Override
+    public String getColumnName(final int columnIndex) {
+        return columnNames != null ? columnNames.get(columnIndex) : super.getColumnName(columnIndex);
+    }
+
     @Override
     public Class<?> getColumnClass(final int columnIndex) {
-        return columnClasses.get(columnIndex);
+        return columnClasses != null ? columnClasses.get(columnIndex) : Object.class;
     }
 
     /**
-     * Set the column names, column classes, and the articles to be shown.
+     * Set the column names, column classes, and the articles to be shown. When the column names and classes are
+     * unchanged (like when the articles are filtered again), only a data changed event is fired, so the GUI table keeps
+     * its columns (and their widths); otherwise, a structure changed event is fired.
      *
      * @param columnNames   column names.
      * @param columnClasses column classes.
@@ -109,134 +172,120 @@ public class SpanCellTableModel extends DefaultTableModel {
      */
     public void setColumnsAndData(final List<String> columnNames, final List<Class<?>> columnClasses,
                                   final List<Article> articles, final Predicate<Article> isFetched) {
-        // Code modified to prevent stack overflow. See http://stackoverflow.com/a/21977825/1694043 for more information.
-        // setColumnIdentifiers(columnNames)
-        this.columnIdentifiers = listToVector(columnNames);
-        this.columnClasses = columnClasses;
-        this.articles = articles;
+        final boolean columnsChanged = !Objects.equals(this.columnNames, columnNames)
+                                       || !Objects.equals(this.columnClasses, columnClasses);
 
-        @SuppressWarnings("squid:S1149")
-        final Vector<Vector<Object>> newDataVector = new Vector<>();
+        this.columnNames = columnNames;
+        this.columnClasses = columnClasses;
+        this.articles = articles != null ? articles : Collections.emptyList();
+        this.isFetched = isFetched != null ? isFetched : article -> false;
+        this.urlToArticleIndex = null;
 
-        if (articles != null) {
-            articles.forEach(article -> {
-                newDataVector.add(createArticleVector(article, isFetched));
-                newDataVector.add(listToVector(Arrays.asList("", "", "", article.getText())));
-            });
+        if (columnsChanged) {
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
         }
+    }
 
-        dataVector = newDataVector;
+    @Override
+    public Object getValueAt(final int rowIndex, final int columnIndex) {
+        // Integer division rounds towards zero, so row index -1 would otherwise refer to the first article.
+        final Article article = rowIndex >= 0 ? getArticle(rowIndex / ROWS_PER_ARTICLE) : null;
 
-        tableSpans = new DefaultTableSpans(dataVector.size(), columnIdentifiers != null ? columnIdentifiers.size() : 0);
+        final Object value;
 
-        newRowsAdded(new TableModelEvent(this, 0, getRowCount() - 1,
-                                         TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
-    }
+        if (article == null || columnIndex < 0 || columnIndex >= getColumnCount()) {
+            value = null;
+        } else if (rowIndex % ROWS_PER_ARTICLE == 0) {
+            value = getArticleValue(article, columnIndex);
+        } else {
+            value = columnIndex == TITLE_AND_TEXT_COLUMN_INDEX ? article.getText() : "";
+        }
 
-    /**
-     * Create a vector with article data to be shown in the GUI table columns.
-     *
-     * @param article   article to be shown.
-     * @param isFetched predicate that can determine whether an article is already fetched or not.
-     * @return vector with article data to be shown in the GUI table columns.
-     */
-    private Vector<Object> createArticleVector(final Article article, final Predicate<Article> isFetched) {
-        return listToVector(Arrays.asList(
-            isFetched.test(article) ? configuration.getFetchedValue() : "",
-            article.isStarred() ? Constants.STARRED_ICON : Constants.UNSTARRED_ICON,
-            article.isRead() ? "" : "unread",
-            article.getTitle(),
-            article.getAuthor() != null ? article.getAuthor().getName() : "",
-            article.getDateTime() != null
-                ? configuration.getDateTimeFormatLonger().format(article.getDateTime())
-                : ""
-        ));
+        return value;
     }
 
     /**
-     * Convert a list to a vector.
+     * Get the value for a specific column in the first row of an article.
      *
-     * @param list the list to convert.
-     * @param <T>  the type of the list items.
-     * @return the vector with the same items as are in the list.
+     * @param article     article to be shown.
+     * @param columnIndex column index.
+     * @return the value for the specified column.
      */
-    @SuppressWarnings("squid:S1149")
-    private <T> Vector<T> listToVector(final List<T> list) {
-        return list != null ? new Vector<>(list) : null;
-    }
-
-    @Override
-    public void addColumn(final Object columnName, final Vector columnData) {
-        if (columnName == null) {
-            throw new IllegalArgumentException("addColumn: column name is null");
+    private Object getArticleValue(final Article article, final int columnIndex) {
+        final Object value;
+
+        switch (columnIndex) {
+            case FETCHED_COLUMN_INDEX:
+                value = isFetched.test(article) ? configuration.getFetchedValue() : "";
+                break;
+
+            case STARRED_COLUMN_INDEX:
+                value = article.isStarred() ? Constants.STARRED_ICON : Constants.UNSTARRED_ICON;
+                break;
+
+            case READ_COLUMN_INDEX:
+                value = article.isRead() ? "" : "unread";
+                break;
+
+            case TITLE_AND_TEXT_COLUMN_INDEX:
+                value = article.getTitle();
+                break;
+
+            case AUTHOR_COLUMN_INDEX:
+                value = article.getAuthor() != null ? article.getAuthor().getName() : "";
+                break;
+
+            case DATE_TIME_COLUMN_INDEX:
+                value = article.getDateTime() != null
+                    ? configuration.getDateTimeFormatLonger().format(article.getDateTime())
+                    : "";
+                break;
+
+            default:
+                value = null;
+                break;
         }
 
-        //noinspection unchecked
-        columnIdentifiers.addElement(columnName);
-
-        int index = 0;
-        final Enumeration enumeration = dataVector.elements();
+        return value;
+    }
 
-        while (enumeration.hasMoreElements()) {
-            final Object value = (columnData != null && index < columnData.size()) ? columnData.elementAt(index) : null;
+    /**
+     * Notify the listeners that the fetched cell may have changed for the article with the specified URL. Only the
+     * first row of that article is affected.
+     *
+     * @param url the URL of the article.
+     */
+    public void fireFetchedChanged(final String url) {
+        final Integer articleIndex = getUrlToArticleIndex().get(url);
 
-            //noinspection unchecked
-            ((Vector) enumeration.nextElement()).addElement(value);
+        if (articleIndex != null) {
+            final int rowIndex = ROWS_PER_ARTICLE * articleIndex;
 
-            index++;
+            fireTableChanged(new TableModelEvent(this, rowIndex, rowIndex, FETCHED_COLUMN_INDEX));
         }
-
-        tableSpans.addColumn();
-
-        fireTableStructureChanged();
     }
 
-    @Override
-    public void addRow(final Vector rowData) {
-        @SuppressWarnings("squid:S1149")
-        final Vector newData;
-
-        if (rowData == null) {
-            newData = new Vector(getColumnCount());
-        } else {
-            rowData.setSize(getColumnCount());
-            newData = rowData;
-        }
-
-        //noinspection unchecked
-        dataVector.addElement(newData);
-        //noinspection unchecked
-        dataVector.addElement(new Vector(getColumnCount()));
-
-        tableSpans.addRow();
-        tableSpans.addRow();
-
-        newRowsAdded(new TableModelEvent(this, getRowCount() - 2, getRowCount() - 1,
-                                         TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
-    }
+    /**
+     * Get the map with article indices by URL. The map is created when it is needed for the first time after the
+     * articles are set.
+     *
+     * @return the map with article indices by URL.
+     */
+    private Map<String, Integer> getUrlToArticleIndex() {
+        if (urlToArticleIndex == null) {
+            final List<Article> currentArticles = articles != null ? articles : Collections.emptyList();
+            final Map<String, Integer> articleIndices = new HashMap<>(2 * currentArticles.size());
 
-    @Override
-    public void insertRow(final int rowIndex, final Vector rowData) {
-        @SuppressWarnings("squid:S1149")
-        final Vector newData;
+            for (int articleIndex = 0; articleIndex < currentArticles.size(); articleIndex++) {
+                articleIndices.putIfAbsent(currentArticles.get(articleIndex).getUrl(), articleIndex);
+            }
 
-        if (rowData == null) {
-            newData = new Vector(getColumnCount());
-        } else {
-            rowData.setSize(getColumnCount());
-            newData = rowData;
+            urlToArticleIndex = articleIndices;
         }
 
-        //noinspection unchecked
-        dataVector.insertElementAt(newData, rowIndex);
-        //noinspection unchecked
-        dataVector.insertElementAt(new Vector(getColumnCount()), rowIndex + 1);
-
-        tableSpans.insertRow(rowIndex);
-        tableSpans.insertRow(rowIndex + 1);
-
-        newRowsAdded(new TableModelEvent(this, rowIndex, rowIndex + 1,
-                                         TableModelEvent.ALL_COLUMNS, TableModelEvent.INSERT));
+        return urlToArticleIndex;
     }
 
     /**
@@ -19,15 +19,18 @@ package nl.xs4all.home.freekdb.b52reader.gui.multispan;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics;
-import java.awt.Point;
 import java.awt.Rectangle;
 
 import javax.swing.JComponent;
 import javax.swing.plaf.basic.BasicTableUI;
 import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
 
 /**
  * Look and feel for the <code>SpanCellTable</code> class.
+ * <p>
+ * Only the rows and columns that intersect the clip bounds are painted, so the cost of a repaint depends on the size
+ * of the visible area and not on the size of the table.
  *
  * @author <a href="mailto:unknown@unknown.org">Nobuo Tamemasa</a>
  * @version 1.0 11/26/98
@@ -38,55 +41,56 @@ public class SpanCellTableUI extends BasicTableUI {
         final Rectangle oldClipBounds = graphics.getClipBounds();
 
         final Rectangle clipBounds = new Rectangle(oldClipBounds);
-        final int tableWidth = table.getColumnModel().getTotalColumnWidth();
-        clipBounds.width = Math.min(clipBounds.width, tableWidth);
+        final TableColumnModel columnModel = table.getColumnModel();
+        clipBounds.width = Math.min(clipBounds.width, columnModel.getTotalColumnWidth());
 
         graphics.setClip(clipBounds);
 
-        final int firstRowIndex = table.rowAtPoint(new Point(0, clipBounds.y));
-        final int lastRowIndex = table.getRowCount() - 1;
+        final int rowCount = table.getRowCount();
+        final int columnCount = table.getColumnCount();
 
-        final Rectangle rowRect = new Rectangle(0, 0, tableWidth, table.getRowHeight() + table.getRowMargin());
-        rowRect.y = firstRowIndex * rowRect.height;
+        if (rowCount > 0 && columnCount > 0) {
+            final int cellHeight = table.getRowHeight() + table.getRowMargin();
+            final int firstRowIndex = Math.max(0, clipBounds.y / cellHeight);
+            final int lastRowIndex = Math.min(rowCount - 1, (clipBounds.y + clipBounds.height - 1) / cellHeight);
 
-        for (int rowIndex = firstRowIndex; rowIndex <= lastRowIndex; rowIndex++) {
-            if (rowRect.intersects(clipBounds)) {
-                paintTableRow(graphics, rowIndex);
-            }
+            final int firstColumnIndex = Math.max(0, columnModel.getColumnIndexAtX(clipBounds.x));
+            final int lastColumnAtX = columnModel.getColumnIndexAtX(clipBounds.x + clipBounds.width - 1);
+            final int lastColumnIndex = lastColumnAtX != -1 ? lastColumnAtX : columnCount - 1;
 
-            rowRect.y += rowRect.height;
+            for (int rowIndex = firstRowIndex; rowIndex <= lastRowIndex; rowIndex++) {
+                paintTableRow(graphics, rowIndex, firstRowIndex, firstColumnIndex, lastColumnIndex);
+            }
         }
 
         graphics.setClip(oldClipBounds);
     }
 
     /**
-     * Paint a row of the GUI table.
+     * Paint the visible part of a row of the GUI table. A combined rectangle is painted only once: for the first of
+     * its cells that is inside the painted area.
      *
-     * @param graphics the <code>Graphics</code> context in which to paint.
-     * @param rowIndex the row index to paint.
+     * @param graphics         the <code>Graphics</code> context in which to paint.
+     * @param rowIndex         the row index to paint.
+     * @param firstRowIndex    index of the first row that is painted.
+     * @param firstColumnIndex index of the first column that is painted.
+     * @param lastColumnIndex  index of the last column that is painted.
      */
-    private void paintTableRow(final Graphics graphics, final int rowIndex) {
-        final Rectangle clipBounds = graphics.getClipBounds();
-        boolean drawn = false;
-
+    private void paintTableRow(final Graphics graphics, final int rowIndex, final int firstRowIndex,
+                               final int firstColumnIndex, final int lastColumnIndex) {
         final SpanCellTableModel tableModel = (SpanCellTableModel) table.getModel();
         final TableSpans tableSpans = tableModel.getTableSpans();
-        final int columnCount = table.getColumnCount();
-
-        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-            final Rectangle cellRect = table.getCellRect(rowIndex, columnIndex, true);
 
+        for (int columnIndex = firstColumnIndex; columnIndex <= lastColumnIndex; columnIndex++) {
             final boolean visible = tableSpans.isVisible(rowIndex, columnIndex);
-            final SpanCounts spanCounts = tableSpans.getSpan(rowIndex, columnIndex);
-            final int cellRow = rowIndex + (visible ? 0 : spanCounts.getRowSpanNumber());
-            final int cellColumn = columnIndex + (visible ? 0 : spanCounts.getColumnSpanNumber());
-
-            if (cellRect.intersects(clipBounds)) {
-                drawn = true;
-                paintTableCell(graphics, cellRect, cellRow, cellColumn);
-            } else if (drawn) {
-                break;
+            final int cellRow = visible ? rowIndex : rowIndex + tableSpans.getRowSpanNumber(rowIndex, columnIndex);
+            final int cellColumn = visible
+                ? columnIndex
+                : columnIndex + tableSpans.getColumnSpanNumber(rowIndex, columnIndex);
+
+            if (rowIndex == Math.max(cellRow, firstRowIndex)
+                && columnIndex == Math.max(cellColumn, firstColumnIndex)) {
+                paintTableCell(graphics, table.getCellRect(rowIndex, columnIndex, true), cellRow, cellColumn);
             }
         }
     }
@@ -67,6 +67,29 @@ public interface TableSpans {
      */
     SpanCounts getSpan(int rowIndex, int columnIndex);
 
+    /**
+     * Get the row span number for a cell at a specified row and column index, without creating a span counts object.
+     *
+     * @param rowIndex    row index.
+     * @param columnIndex column index.
+     * @return row span number for a cell at a specified row and column index.
+     */
+    default int getRowSpanNumber(final int rowIndex, final int columnIndex) {
+        return getSpan(rowIndex, columnIndex).getRowSpanNumber();
+    }
+
+    /**
+     * Get the column span number for a cell at a specified row and column index, without creating a span counts
+     * object.
+     *
+     * @param rowIndex    row index.
+     * @param columnIndex column index.
+     * @return column span number for a cell at a specified row and column index.
+     */
+    default int getColumnSpanNumber(final int rowIndex, final int columnIndex) {
+        return getSpan(rowIndex, columnIndex).getColumnSpanNumber();
+    }
+
     /**
      * Combine cells at specified row and column indices into a span rectangle. Note: all cells should not yet be part
      * of a span rectangle and all indices are assumed to be adjacent numbers.
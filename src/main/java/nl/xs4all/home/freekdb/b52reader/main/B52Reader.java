@@ -7,6 +7,7 @@
 package nl.xs4all.home.freekdb.b52reader.main;
 
 import java.net.URL;
+import java.util.Arrays;
 
 import nl.xs4all.home.freekdb.b52reader.browsers.EmbeddedBrowserType;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandlerJdbc;
@@ -25,10 +26,18 @@ import chrriis.dj.nativeswing.swtimpl.NativeInterface;
  * The b52-reader main class which creates the application and launches it.
  * <p>
  * mvn exec:java -Dexec.mainClass="nl.xs4all.home.freekdb.b52reader.main.B52Reader"
+ * <p>
+ * With the <code>--headless</code> argument, the GUI is not started; instead, the articles are fetched and saved in
+ * the database periodically (see {@link HeadlessAggregator}).
  *
  * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
  */
 public class B52Reader {
+    /**
+     * Command-line argument to run the headless aggregator instead of the GUI application.
+     */
+    private static final String HEADLESS_ARGUMENT = "--headless";
+
     /**
      * Private constructor to hide the implicit public one, since this class is not meant to be instantiated.
      */
@@ -39,9 +48,33 @@ public class B52Reader {
     /**
      * The main method that starts the application and takes care of some library initialization.
      *
-     * @param arguments the (currently unused) command-line parameters.
+     * @param arguments the command-line parameters: <code>--headless</code> runs the headless aggregator.
      */
     public static void main(final String[] arguments) {
+        if (Arrays.asList(arguments).contains(HEADLESS_ARGUMENT)) {
+            runHeadlessAggregator();
+        } else {
+            runGuiApplication();
+        }
+    }
+
+    /**
+     * Run the headless aggregator, which keeps running until the JVM is shut down.
+     */
+    private static void runHeadlessAggregator() {
+        final URL configurationUrl = B52Reader.class.getClassLoader().getResource(Constants.CONFIGURATION_FILE_NAME);
+        final HeadlessAggregator headlessAggregator = new HeadlessAggregator(configurationUrl,
+                                                                             new PersistencyHandlerJdbc());
+
+        if (headlessAggregator.initialize()) {
+            headlessAggregator.start();
+        }
+    }
+
+    /**
+     * Create and launch the GUI application.
+     */
+    private static void runGuiApplication() {
         if (Constants.EMBEDDED_BROWSER_TYPE == EmbeddedBrowserType.EMBEDDED_BROWSER_DJ_NATIVE_SWING) {
             Utilities.ignoreStandardErrorStream();
 
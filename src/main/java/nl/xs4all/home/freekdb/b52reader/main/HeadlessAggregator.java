@@ -0,0 +1,368 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.main;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import nl.xs4all.home.freekdb.b52reader.api.ArticleApiServer;
+import nl.xs4all.home.freekdb.b52reader.articlesources.CombinationArticleSource;
+import nl.xs4all.home.freekdb.b52reader.articlesources.website.ArticleContentFetcher;
+import nl.xs4all.home.freekdb.b52reader.articlesources.website.ContentExtractor;
+import nl.xs4all.home.freekdb.b52reader.articlesources.website.HtmlHelper;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.ArticleRetentionJob;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+import nl.xs4all.home.freekdb.b52reader.general.ParallelListProcessor;
+import nl.xs4all.home.freekdb.b52reader.general.PhaseTracer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Headless aggregator that keeps the database fresh without a GUI: it runs scheduled cycles that fetch the articles
+ * from the selected article sources and save them in the database. No frame, background browsers, or event dispatch
+ * thread are used, so it can run on a server. The throughput and memory statistics are logged after each cycle.
+ *
+ * @author <a href="mailto:fdbdbr@gmail.com">Freek de Bruijn</a>
+ */
+public class HeadlessAggregator {
+    /**
+     * Number of bytes in a megabyte.
+     */
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    /**
+     * Number of nanoseconds in a second.
+     */
+    private static final double NANOSECONDS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * Maximum number of seconds to wait for a running cycle when stopping.
+     */
+    private static final long STOP_TIMEOUT_SECONDS = 60;
+
+    /**
+     * Logger for this class.
+     */
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * URL pointing to the configuration data.
+     */
+    private final URL configurationUrl;
+
+    /**
+     * Handler for persistency functionality: storing and retrieving data in the database.
+     */
+    private final PersistencyHandler persistencyHandler;
+
+    /**
+     * Configuration object with data from the configuration file (read again for every cycle after the first).
+     */
+    private Configuration configuration;
+
+    /**
+     * Number of cycles that have been run.
+     */
+    private int cycleCount;
+
+    /**
+     * Executor that runs the cycles, or null if the aggregator is not running.
+     */
+    private ScheduledExecutorService cycleExecutor;
+
+    /**
+     * Server for the local JSON HTTP API, or null if it is disabled or the aggregator is not running.
+     */
+    private ArticleApiServer apiServer;
+
+    /**
+     * Background fetcher of the full text of articles, or null if it is disabled or the aggregator is not running. It
+     * is used by the thread that runs the cycles.
+     */
+    private volatile ArticleContentFetcher contentFetcher;
+
+    /**
+     * Background job that removes old articles from the database, or null if it is disabled or the aggregator is not
+     * running. It is used by the thread that runs the cycles.
+     */
+    private volatile ArticleRetentionJob retentionJob;
+
+    /**
+     * Construct a headless aggregator and inject the configuration URL & persistency handler.
+     *
+     * @param configurationUrl   the URL pointing to the configuration data.
+     * @param persistencyHandler the persistency handler that should be used.
+     */
+    HeadlessAggregator(final URL configurationUrl, final PersistencyHandler persistencyHandler) {
+        this.configurationUrl = configurationUrl;
+        this.persistencyHandler = persistencyHandler;
+    }
+
+    /**
+     * Read the configuration and initialize the database connection and tables.
+     *
+     * @return whether the initialization was successful.
+     */
+    boolean initialize() {
+        configuration = readConfiguration();
+
+        return configuration != null && initializeDatabase();
+    }
+
+    /**
+     * Start running the fetch-and-save cycles: the first cycle runs immediately and the next cycles run with the
+     * configured interval between them. The local JSON HTTP API and the background fetching of the full text of
+     * articles are started as well if they are configured. The cycles are stopped (and the database is closed) when
+     * the JVM shuts down.
+     */
+    synchronized void start() {
+        if (cycleExecutor == null) {
+            final long intervalMinutes = Math.max(1, configuration.getHeadlessFetchInterval());
+
+            if (configuration.getApiPort() > 0) {
+                apiServer = new ArticleApiServer(persistencyHandler, configuration.getApiPort());
+                apiServer.start();
+            }
+
+            if (configuration.getContentFetchThreads() > 0) {
+                contentFetcher = new ArticleContentFetcher(new HtmlHelper(), new ContentExtractor(), persistencyHandler,
+                                                           configuration.getContentFetchThreads(),
+                                                           configuration.getContentCacheSize() * BYTES_PER_MEGABYTE);
+            }
+
+            if (configuration.getRetentionDays() > 0) {
+                retentionJob = new ArticleRetentionJob(persistencyHandler, configuration.getRetentionDays(),
+                                                       ArticleRetentionJob.DEFAULT_CHUNK_SIZE);
+            }
+
+            // The cycles are scheduled last, so the first cycle already uses the content fetcher and retention job.
+            cycleExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> new Thread(runnable, "headless-aggregator")
+            );
+
+            cycleExecutor.scheduleWithFixedDelay(this::runScheduledCycle, 0, intervalMinutes, TimeUnit.MINUTES);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "headless-aggregator-shutdown"));
+
+            logger.info("Started the headless aggregator with {} minutes between cycles.", intervalMinutes);
+        }
+    }
+
+    /**
+     * Stop running cycles (waiting for a running cycle to finish), stop the API, the fetching of the full text of
+     * articles, and the removing of old articles, and close the database connection.
+     */
+    synchronized void stop() {
+        if (cycleExecutor != null) {
+            cycleExecutor.shutdown();
+
+            // A running cycle waits for the retention job, so that job is stopped first (after its running chunk).
+            if (retentionJob != null) {
+                retentionJob.stop();
+            }
+
+            try {
+                if (!cycleExecutor.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    logger.warn("The running cycle did not finish in {} seconds.", STOP_TIMEOUT_SECONDS);
+                }
+            } catch (final InterruptedException e) {
+                logger.error("Interrupted while waiting for the running cycle to finish.", e);
+
+                Thread.currentThread().interrupt();
+            }
+
+            cycleExecutor = null;
+
+            if (apiServer != null) {
+                apiServer.stop();
+                apiServer = null;
+            }
+
+            if (contentFetcher != null) {
+                contentFetcher.stop();
+                contentFetcher = null;
+            }
+
+            retentionJob = null;
+
+            if (persistencyHandler.closeDatabaseConnection()) {
+                logger.info("Stopped the headless aggregator after {} cycles.", cycleCount);
+            }
+        }
+    }
+
+    /**
+     * Run one fetch-and-save cycle: get the articles from the selected article sources, save them in the database,
+     * start fetching the full text of new articles in the background and remove old articles (if this is configured),
+     * and log the throughput and memory statistics.
+     *
+     * @return the articles that were fetched, or null if the configuration could not be read.
+     */
+    List<Article> runCycle() {
+        final long startNanos = System.nanoTime();
+
+        // The article sources are created (and RSS feeds are fetched) when the configuration is read, so it is read
+        // again for every cycle after the first.
+        final Configuration cycleConfiguration = cycleCount == 0 ? configuration : readConfiguration();
+
+        List<Article> articles = null;
+
+        if (cycleConfiguration != null) {
+            // The stored articles were read once at initialization and are kept up to date by the saves since then.
+            final Map<String, Article> storedArticlesMap = persistencyHandler.getStoredArticlesMap();
+            final ParallelListProcessor listProcessor
+                = new ParallelListProcessor(cycleConfiguration.getParallelThreshold());
+
+            articles = new CombinationArticleSource(cycleConfiguration.getSelectedArticleSources(), listProcessor,
+                                                    new PhaseTracer())
+                .getArticles(persistencyHandler, storedArticlesMap, persistencyHandler.getStoredAuthorsMap());
+
+            final long newArticleCount = articles.stream()
+                .filter(article -> !storedArticlesMap.containsKey(article.getUrl()))
+                .count();
+
+            persistencyHandler.saveAuthorsAndArticles(articles);
+
+            if (contentFetcher != null) {
+                contentFetcher.fetchMissingContent(articles);
+            }
+
+            if (retentionJob != null) {
+                // Waiting for the job keeps it from running at the same time as the next cycle, which uses the same
+                // database connection. The removed articles are dropped from the stored articles as well.
+                retentionJob.start().join();
+            }
+
+            final long durationNanos = System.nanoTime() - startNanos;
+            final MetricsRegistry metricsRegistry = MetricsRegistry.getGlobal();
+            metricsRegistry.getHistogram("headless.cycle").record(durationNanos);
+            metricsRegistry.getCounter("headless.articles").add(articles.size());
+            metricsRegistry.getCounter("headless.new-articles").add(newArticleCount);
+
+            logger.info("Cycle {}: {}", cycleCount + 1, createCycleStatistics(articles.size(), newArticleCount,
+                                                                               durationNanos));
+        }
+
+        cycleCount++;
+
+        return articles;
+    }
+
+    /**
+     * Get the number of cycles that have been run.
+     *
+     * @return the number of cycles.
+     */
+    int getCycleCount() {
+        return cycleCount;
+    }
+
+    /**
+     * Run a scheduled cycle. Exceptions are logged, since they would otherwise cancel all following cycles.
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private void runScheduledCycle() {
+        try {
+            runCycle();
+        } catch (final RuntimeException e) {
+            logger.error("Exception while running a fetch-and-save cycle.", e);
+        }
+    }
+
+    /**
+     * Read the configuration from the configuration file.
+     *
+     * @return the configuration object, or null if it could not be read.
+     */
+    private Configuration readConfiguration() {
+        Configuration headlessConfiguration = null;
+
+        if (configurationUrl != null) {
+            try (InputStream configurationInputStream = new FileInputStream(configurationUrl.getFile())) {
+                headlessConfiguration = new Configuration(configurationInputStream, false, new PhaseTracer());
+            } catch (final IOException e) {
+                logger.error("Exception while reading the configuration file " + configurationUrl, e);
+            }
+        }
+
+        return headlessConfiguration;
+    }
+
+    /**
+     * Initialize the database connection, create the tables if needed, and read the stored authors and articles.
+     *
+     * @return whether the database initialization was successful.
+     */
+    private boolean initializeDatabase() {
+        boolean result = false;
+
+        try {
+            Class.forName(configuration.getDatabaseDriverClassName());
+            final Connection databaseConnection = DriverManager.getConnection(configuration.getDatabaseUrl(), "b52",
+                                                                              "reader");
+
+            if (persistencyHandler.initializeDatabaseConnection(databaseConnection)) {
+                persistencyHandler.createTablesIfNeeded();
+                persistencyHandler.readAuthorsAndArticles();
+                result = true;
+            }
+        } catch (final ClassNotFoundException | SQLException e) {
+            logger.error("Exception while initializing the database connection.", e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Create the statistics of a cycle: the number of articles, the throughput, the heap usage, and the garbage
+     * collections so far.
+     *
+     * @param articleCount    the number of articles that were fetched.
+     * @param newArticleCount the number of articles that were new.
+     * @param durationNanos   the duration of the cycle in nanoseconds.
+     * @return the statistics of the cycle.
+     */
+    static String createCycleStatistics(final int articleCount, final long newArticleCount,
+                                        final long durationNanos) {
+        final Runtime runtime = Runtime.getRuntime();
+        final double durationSeconds = durationNanos / NANOSECONDS_PER_SECOND;
+        final double articlesPerSecond = durationSeconds > 0 ? articleCount / durationSeconds : 0;
+
+        long collectionCount = 0;
+        long collectionMillis = 0;
+
+        for (final GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectionCount += Math.max(0, collector.getCollectionCount());
+            collectionMillis += Math.max(0, collector.getCollectionTime());
+        }
+
+        return String.format(Locale.ROOT,
+                             "%d articles (%d new) in %.1f s (%.1f articles/s); heap: %d MB used, %d MB committed, "
+                             + "%d MB max; gc: %d collections, %d ms",
+                             articleCount, newArticleCount, durationSeconds, articlesPerSecond,
+                             (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MEGABYTE,
+                             runtime.totalMemory() / BYTES_PER_MEGABYTE, runtime.maxMemory() / BYTES_PER_MEGABYTE,
+                             collectionCount, collectionMillis);
+    }
+}
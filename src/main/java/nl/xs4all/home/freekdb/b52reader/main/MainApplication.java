@@ -21,15 +21,25 @@ import java.util.List;
 import java.util.Map;
 
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
+import nl.xs4all.home.freekdb.b52reader.api.ArticleApiServer;
 import nl.xs4all.home.freekdb.b52reader.articlesources.ArticleSource;
 import nl.xs4all.home.freekdb.b52reader.articlesources.CombinationArticleSource;
+import nl.xs4all.home.freekdb.b52reader.articlesources.website.ArticleContentFetcher;
+import nl.xs4all.home.freekdb.b52reader.articlesources.website.ContentExtractor;
+import nl.xs4all.home.freekdb.b52reader.articlesources.website.HtmlHelper;
 import nl.xs4all.home.freekdb.b52reader.browsers.BackgroundBrowsers;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.ArticleRetentionJob;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
 import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+import nl.xs4all.home.freekdb.b52reader.general.ParallelListProcessor;
+import nl.xs4all.home.freekdb.b52reader.general.PhaseTracer;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+import nl.xs4all.home.freekdb.b52reader.gui.EdtWatchdog;
 import nl.xs4all.home.freekdb.b52reader.gui.MainGui;
 
 import org.apache.logging.log4j.LogManager;
@@ -46,6 +56,11 @@ public class MainApplication implements MainCallbacks {
      */
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Number of bytes in a megabyte.
+     */
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
     /**
      * Main GUI object.
      */
@@ -61,6 +76,11 @@ public class MainApplication implements MainCallbacks {
      */
     private final PersistencyHandler persistencyHandler;
 
+    /**
+     * Tracer for the startup phases.
+     */
+    private final PhaseTracer phaseTracer;
+
     /**
      * Configuration object with data from the configuration file.
      */
@@ -76,6 +96,26 @@ public class MainApplication implements MainCallbacks {
      */
     private BackgroundBrowsers backgroundBrowsers;
 
+    /**
+     * Watchdog for the event dispatch thread, or null if it is disabled.
+     */
+    private EdtWatchdog edtWatchdog;
+
+    /**
+     * Server for the local JSON HTTP API, or null if it is disabled.
+     */
+    private ArticleApiServer apiServer;
+
+    /**
+     * Background fetcher of the full text of articles, or null if it is disabled.
+     */
+    private ArticleContentFetcher contentFetcher;
+
+    /**
+     * Background job that removes old articles from the database, or null if it is disabled.
+     */
+    private ArticleRetentionJob retentionJob;
+
     /**
      * Construct a main application object and inject the main gui, configuration URL & persistency handler.
      *
@@ -84,30 +124,92 @@ public class MainApplication implements MainCallbacks {
      * @param persistencyHandler the persistency handler that should be used.
      */
     MainApplication(final MainGui mainGui, final URL configurationUrl, final PersistencyHandler persistencyHandler) {
+        this(mainGui, configurationUrl, persistencyHandler, new PhaseTracer());
+    }
+
+    /**
+     * Construct a main application object and inject the main gui, configuration URL, persistency handler & tracer for
+     * the startup phases.
+     *
+     * @param mainGui            the main GUI object.
+     * @param configurationUrl   the URL pointing to the configuration data.
+     * @param persistencyHandler the persistency handler that should be used.
+     * @param phaseTracer        the tracer for the startup phases.
+     */
+    MainApplication(final MainGui mainGui, final URL configurationUrl, final PersistencyHandler persistencyHandler,
+                    final PhaseTracer phaseTracer) {
         this.mainGui = mainGui;
         this.persistencyHandler = persistencyHandler;
         this.configurationUrl = configurationUrl;
+        this.phaseTracer = phaseTracer;
 
         this.mainGui.setMainCallbacks(this);
     }
 
     /**
-     * Initialize and show enough of the application to fetch articles, possibly using background browsers.
+     * Get the tracer for the startup phases.
+     *
+     * @return the tracer for the startup phases.
+     */
+    PhaseTracer getPhaseTracer() {
+        return phaseTracer;
+    }
+
+    /**
+     * Initialize and show enough of the application to fetch articles, possibly using background browsers. The
+     * startup phases are traced and a summary is logged afterwards.
      */
     void createAndLaunchApplication() {
-        configuration = initializeConfiguration();
+        configuration = phaseTracer.trace("initialize configuration", this::initializeConfiguration);
+
+        if (configuration != null && configuration.getEdtStallThreshold() > 0) {
+            edtWatchdog = new EdtWatchdog(configuration.getEdtStallThreshold());
+            edtWatchdog.start();
+        }
 
-        if (configuration != null && initializeDatabase()) {
-            mainGui.initializeBackgroundBrowsersPanel(new JFrame(), configuration);
+        if (configuration != null && phaseTracer.trace("initialize database", this::initializeDatabase)) {
+            if (configuration.getApiPort() > 0) {
+                // Flags changed through the API are shown by the GUI (and saved with its articles at shutdown).
+                apiServer = new ArticleApiServer(persistencyHandler, configuration.getApiPort(),
+                                                 (url, starred, read, archived) -> SwingUtilities.invokeLater(
+                                                     () -> mainGui.updateArticleFlags(url, starred, read, archived)));
+                apiServer.start();
+            }
+
+            phaseTracer.trace("initialize background browsers", () -> {
+                mainGui.initializeBackgroundBrowsersPanel(new JFrame(), configuration);
+
+                backgroundBrowsers = new BackgroundBrowsers(Utilities.getBrowserFactory(),
+                                                            mainGui.getBackgroundBrowsersPanel());
 
-            backgroundBrowsers = new BackgroundBrowsers(Utilities.getBrowserFactory(),
-                                                        mainGui.getBackgroundBrowsersPanel());
+                configuration.injectBackgroundBrowsers(backgroundBrowsers);
+            });
 
-            configuration.injectBackgroundBrowsers(backgroundBrowsers);
+            currentArticles = phaseTracer.trace("get articles",
+                                                () -> getArticles(configuration.getSelectedArticleSources()));
+
+            if (configuration.getContentFetchThreads() > 0) {
+                contentFetcher = new ArticleContentFetcher(new HtmlHelper(), new ContentExtractor(), persistencyHandler,
+                                                           configuration.getContentFetchThreads(),
+                                                           configuration.getContentCacheSize() * BYTES_PER_MEGABYTE);
+
+                contentFetcher.fetchMissingContent(currentArticles);
+            }
 
-            currentArticles = getArticles(configuration.getSelectedArticleSources());
+            phaseTracer.trace("initialize gui", () -> mainGui.initializeGui(currentArticles));
 
-            mainGui.initializeGui(currentArticles);
+            if (configuration.getRetentionDays() > 0) {
+                // The removed articles are no longer read at the next startup.
+                retentionJob = new ArticleRetentionJob(persistencyHandler, configuration.getRetentionDays(),
+                                                       ArticleRetentionJob.DEFAULT_CHUNK_SIZE);
+                retentionJob.start();
+            }
+        }
+
+        phaseTracer.logSummary("Startup timeline");
+
+        if (configuration != null && configuration.getStartupTimelineFile() != null) {
+            writeStartupTimeline(configuration.getStartupTimelineFile());
         }
     }
 
@@ -125,7 +227,7 @@ public class MainApplication implements MainCallbacks {
             if (configurationUrl != null) {
                 final InputStream configurationInputStream = new FileInputStream(configurationUrl.getFile());
 
-                applicationConfiguration = new Configuration(configurationInputStream);
+                applicationConfiguration = new Configuration(configurationInputStream, false, phaseTracer);
             }
         } catch (final IOException e) {
             logger.error("Exception while reading the configuration file " + configurationUrl, e);
@@ -148,8 +250,8 @@ public class MainApplication implements MainCallbacks {
             final Connection databaseConnection = DriverManager.getConnection(databaseUrl, "b52", "reader");
 
             if (persistencyHandler.initializeDatabaseConnection(databaseConnection)) {
-                persistencyHandler.createTablesIfNeeded();
-                persistencyHandler.readAuthorsAndArticles();
+                phaseTracer.trace("create tables", persistencyHandler::createTablesIfNeeded);
+                phaseTracer.trace("read authors and articles", persistencyHandler::readAuthorsAndArticles);
             } else {
                 result = false;
             }
@@ -172,8 +274,34 @@ public class MainApplication implements MainCallbacks {
         final Map<String, Article> storedArticlesMap = persistencyHandler.getStoredArticlesMap();
         final Map<String, Author> storedAuthorsMap = persistencyHandler.getStoredAuthorsMap();
 
-        return new CombinationArticleSource(articleSources).getArticles(persistencyHandler, storedArticlesMap,
-                                                                        storedAuthorsMap);
+        final ParallelListProcessor listProcessor = new ParallelListProcessor(configuration.getParallelThreshold());
+
+        return new CombinationArticleSource(articleSources, listProcessor, phaseTracer)
+            .getArticles(persistencyHandler, storedArticlesMap, storedAuthorsMap);
+    }
+
+    /**
+     * Get the watchdog for the event dispatch thread.
+     *
+     * @return the watchdog for the event dispatch thread, or null if it is disabled.
+     */
+    EdtWatchdog getEdtWatchdog() {
+        return edtWatchdog;
+    }
+
+    /**
+     * Write the startup timeline in JSON format, so it can be compared with the timelines of other releases.
+     *
+     * @param timelineFile the file to write the startup timeline to.
+     */
+    private void writeStartupTimeline(final String timelineFile) {
+        try (OutputStream timelineOutputStream = new FileOutputStream(timelineFile)) {
+            phaseTracer.writeJson(timelineOutputStream);
+
+            logger.info("Wrote the startup timeline to {}.", timelineFile);
+        } catch (final IOException e) {
+            logger.error("Exception while writing the startup timeline to " + timelineFile, e);
+        }
     }
 
     /**
@@ -205,8 +333,24 @@ public class MainApplication implements MainCallbacks {
         }
 
         if (result) {
+            stopEdtWatchdog();
+
+            if (apiServer != null) {
+                apiServer.stop();
+            }
+
+            if (contentFetcher != null) {
+                contentFetcher.stop();
+            }
+
+            if (retentionJob != null) {
+                retentionJob.stop();
+            }
+
             saveDataAndCloseDatabase();
 
+            writeMetrics();
+
             if (backgroundBrowsers != null) {
                 backgroundBrowsers.closeAllBackgroundBrowsers();
             }
@@ -215,6 +359,54 @@ public class MainApplication implements MainCallbacks {
         return result;
     }
 
+    /**
+     * Get the stored full text of an article (for the text view).
+     *
+     * @param article the article to get the full text of.
+     * @return the full text of the article, or null if it is not stored (yet).
+     */
+    @Override
+    public String getArticleContent(final Article article) {
+        return persistencyHandler.readArticleContent(article.getUrl());
+    }
+
+    /**
+     * Write the metrics of the application (if this is configured).
+     */
+    private void writeMetrics() {
+        final String metricsFile = configuration.getMetricsFile();
+
+        if (metricsFile != null) {
+            try (OutputStream metricsOutputStream = new FileOutputStream(metricsFile)) {
+                MetricsRegistry.getGlobal().writeJson(metricsOutputStream);
+
+                logger.info("Wrote the metrics to {}.", metricsFile);
+            } catch (final IOException e) {
+                logger.error("Exception while writing the metrics to " + metricsFile, e);
+            }
+        }
+    }
+
+    /**
+     * Stop the watchdog for the event dispatch thread (if it is enabled) and write the histogram of dispatch latencies
+     * (if this is configured).
+     */
+    private void stopEdtWatchdog() {
+        if (edtWatchdog != null) {
+            edtWatchdog.stop();
+
+            final String latencyFile = configuration.getEdtLatencyFile();
+
+            if (latencyFile != null) {
+                try (OutputStream latencyOutputStream = new FileOutputStream(latencyFile)) {
+                    edtWatchdog.getHistogram().writeJson(latencyOutputStream);
+                } catch (final IOException e) {
+                    logger.error("Exception while writing the EDT latencies to " + latencyFile, e);
+                }
+            }
+        }
+    }
+
     /**
      * Save all data and close the database connection.
      */
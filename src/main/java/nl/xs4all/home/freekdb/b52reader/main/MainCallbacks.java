@@ -8,6 +8,8 @@ package nl.xs4all.home.freekdb.b52reader.main;
 
 import java.awt.Rectangle;
 
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
 /**
  * A callback interface for methods called from the GUI and implemented by the main application class (B52Reader).
  *
@@ -22,4 +24,12 @@ public interface MainCallbacks {
      * @return whether the shutdown was done successfully.
      */
     boolean shutdownApplication(int frameExtendedState, Rectangle frameBounds);
+
+    /**
+     * Get the stored full text of an article (for the text view).
+     *
+     * @param article the article to get the full text of.
+     * @return the full text of the article, or null if it is not stored (yet).
+     */
+    String getArticleContent(Article article);
 }
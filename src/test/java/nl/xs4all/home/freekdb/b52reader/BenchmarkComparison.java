@@ -0,0 +1,81 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare two JMH result files in JSON format (like a baseline and the latest run) and print the relative change of
+ * each benchmark score. Changes above the threshold (10% by default) are marked as regressions or improvements. All
+ * benchmarks in this project measure the average time, so a higher score is worse.
+ * <p>
+ * Usage: BenchmarkComparison &lt;baseline json&gt; &lt;current json&gt; [threshold percentage]
+ */
+public class BenchmarkComparison {
+    private static final double DEFAULT_THRESHOLD_PERCENTAGE = 10.0;
+
+    public static void main(String[] arguments) throws IOException {
+        if (arguments.length < 2) {
+            System.out.println("Usage: BenchmarkComparison <baseline json> <current json> [threshold percentage]");
+        } else {
+            double threshold = arguments.length > 2 ? Double.parseDouble(arguments[2]) : DEFAULT_THRESHOLD_PERCENTAGE;
+            Map<String, JsonNode> baselineResults = readResults(new File(arguments[0]));
+            Map<String, JsonNode> currentResults = readResults(new File(arguments[1]));
+            int regressionCount = 0;
+
+            for (Map.Entry<String, JsonNode> currentEntry : currentResults.entrySet()) {
+                JsonNode currentMetric = currentEntry.getValue();
+                JsonNode baselineMetric = baselineResults.get(currentEntry.getKey());
+                String unit = currentMetric.get("scoreUnit").asText();
+                double currentScore = currentMetric.get("score").asDouble();
+
+                if (baselineMetric == null) {
+                    System.out.printf("%-100s %12.3f %-8s (new)%n", currentEntry.getKey(), currentScore, unit);
+                } else {
+                    double baselineScore = baselineMetric.get("score").asDouble();
+                    double change = 100.0 * (currentScore - baselineScore) / baselineScore;
+                    String verdict = change > threshold ? "REGRESSION" : change < -threshold ? "improvement" : "";
+
+                    System.out.printf("%-100s %12.3f %-8s %+7.1f%% %s%n", currentEntry.getKey(), currentScore, unit,
+                                      change, verdict);
+
+                    regressionCount += change > threshold ? 1 : 0;
+                }
+            }
+
+            System.out.printf("%d regression(s) above %.1f%%.%n", regressionCount, threshold);
+        }
+    }
+
+    /**
+     * Read a JMH result file and map the benchmark names (with parameters) to their primary metrics.
+     */
+    private static Map<String, JsonNode> readResults(File resultFile) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+
+        for (JsonNode result : new ObjectMapper().readTree(resultFile)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+
+            if (params != null) {
+                params.fields().forEachRemaining(
+                    param -> key.append(" ").append(param.getKey()).append("=").append(param.getValue().asText())
+                );
+            }
+
+            results.put(key.toString(), result.get("primaryMetric"));
+        }
+
+        return results;
+    }
+}
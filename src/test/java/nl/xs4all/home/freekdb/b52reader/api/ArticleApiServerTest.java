@@ -0,0 +1,335 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArticleApiServerTest {
+    private static final int ARTICLE_COUNT = 25;
+
+    private PersistencyHandler mockPersistencyHandler;
+    private ArticleApiServer apiServer;
+    private int readArticleCount;
+
+    @Before
+    public void setUp() {
+        List<Article> storedArticles = new ArrayList<>();
+        Author author = new Author("Cara Santa Maria", 28);
+
+        for (int articleIndex = 0; articleIndex < ARTICLE_COUNT; articleIndex++) {
+            Article article = Article.builder().url("url" + articleIndex).sourceId("test").author(author)
+                .title((articleIndex % 2 == 0 ? "Even" : "Odd") + " title " + articleIndex)
+                .dateTime(Utilities.createDate(2017, Month.JUNE, 1 + articleIndex)).text("text").likes(articleIndex)
+                .build();
+
+            article.setStarred(articleIndex % 5 == 0);
+            storedArticles.add(article);
+        }
+
+        mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Mockito.when(mockPersistencyHandler.readStoredArticles(Mockito.any())).thenAnswer(invocation -> {
+            Predicate<Article> articleHandler = invocation.getArgument(0);
+            readArticleCount = 0;
+
+            for (Article article : storedArticles) {
+                readArticleCount++;
+
+                if (!articleHandler.test(article)) {
+                    break;
+                }
+            }
+
+            return true;
+        });
+
+        apiServer = new ArticleApiServer(mockPersistencyHandler, 0);
+        assertTrue(apiServer.start());
+    }
+
+    @After
+    public void tearDown() {
+        apiServer.stop();
+    }
+
+    @Test
+    public void testGetArticles() throws IOException {
+        HttpURLConnection connection = openConnection("/api/articles");
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        assertEquals("application/json; charset=utf-8", connection.getContentType());
+
+        JsonNode rootNode = readJson(connection);
+        JsonNode articlesNode = rootNode.get("articles");
+
+        assertEquals(ARTICLE_COUNT, articlesNode.size());
+        assertFalse(rootNode.get("hasMore").asBoolean());
+
+        JsonNode firstArticleNode = articlesNode.get(0);
+        assertEquals("url0", firstArticleNode.get("url").asText());
+        assertEquals("Cara Santa Maria", firstArticleNode.get("author").asText());
+        assertEquals("Even title 0", firstArticleNode.get("title").asText());
+        assertEquals("2017-06-01T00:00:00Z", firstArticleNode.get("dateTime").asText());
+        assertTrue(firstArticleNode.get("starred").asBoolean());
+        assertFalse(firstArticleNode.get("read").asBoolean());
+    }
+
+    @Test
+    public void testGetArticlesWithFilterAndPaging() throws IOException {
+        HttpURLConnection connection = openConnection("/api/articles?filter=title%3AOdd&offset=2&limit=3");
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+
+        JsonNode rootNode = readJson(connection);
+        List<String> urls = new ArrayList<>();
+        rootNode.get("articles").forEach(articleNode -> urls.add(articleNode.get("url").asText()));
+
+        assertEquals(2, rootNode.get("offset").asInt());
+        assertEquals(3, rootNode.get("limit").asInt());
+        assertEquals(Arrays.asList("url5", "url7", "url9"), urls);
+        assertTrue(rootNode.get("hasMore").asBoolean());
+
+        // Reading stops at the first matching article after the page.
+        assertEquals(12, readArticleCount);
+    }
+
+    @Test
+    public void testGetArticlesWithContentSearch() throws IOException {
+        Mockito.when(mockPersistencyHandler.readArticleContent("url2")).thenReturn("An article about a Black Hole.");
+        Mockito.when(mockPersistencyHandler.readArticleContent("url3")).thenReturn("Another black hole.");
+        Mockito.when(mockPersistencyHandler.readArticleContent("url4")).thenReturn("An article about stars.");
+        Mockito.when(mockPersistencyHandler.readArticleContent("url8")).thenReturn("More black holes.");
+
+        HttpURLConnection connection = openConnection("/api/articles?filter=title%3AEven&content=black+hole");
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+
+        List<String> urls = new ArrayList<>();
+        readJson(connection).get("articles").forEach(articleNode -> urls.add(articleNode.get("url").asText()));
+
+        assertEquals(Arrays.asList("url2", "url8"), urls);
+
+        // The content is only read for the articles that match the filter.
+        Mockito.verify(mockPersistencyHandler, Mockito.never()).readArticleContent("url3");
+    }
+
+    @Test
+    public void testGetArticlesWithContentSearchStopsAfterPage() throws IOException {
+        Mockito.when(mockPersistencyHandler.readArticleContent("url2")).thenReturn("An article about a black hole.");
+        Mockito.when(mockPersistencyHandler.readArticleContent("url8")).thenReturn("More black holes.");
+
+        HttpURLConnection connection = openConnection("/api/articles?filter=title%3AEven&content=black+hole&limit=1");
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+
+        JsonNode rootNode = readJson(connection);
+        assertEquals(1, rootNode.get("articles").size());
+        assertEquals("url2", rootNode.get("articles").get(0).get("url").asText());
+        assertTrue(rootNode.get("hasMore").asBoolean());
+
+        // Reading (and searching the content) stops at the first matching article after the page.
+        Mockito.verify(mockPersistencyHandler).readArticleContent("url8");
+        Mockito.verify(mockPersistencyHandler, Mockito.never()).readArticleContent("url10");
+    }
+
+    @Test
+    public void testGetArticlesWithInvalidLimit() throws IOException {
+        HttpURLConnection connection = openConnection("/api/articles?limit=many");
+
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, connection.getResponseCode());
+        assertTrue(readJson(connection).get("error").asText().contains("limit"));
+        Mockito.verify(mockPersistencyHandler, Mockito.never()).readStoredArticles(Mockito.any());
+    }
+
+    @Test
+    public void testGetArticlesWithInvalidFilter() throws IOException {
+        HttpURLConnection connection = openConnection("/api/articles?filter=is%3Astarred+likes%3Cmany+is%3Anonsense");
+
+        assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, connection.getResponseCode());
+        assertEquals("Filter term not understood: likes<many; Filter term not understood: is:nonsense",
+                     readJson(connection).get("error").asText());
+        Mockito.verify(mockPersistencyHandler, Mockito.never()).readStoredArticles(Mockito.any());
+    }
+
+    @Test
+    public void testUnknownPathAndMethod() throws IOException {
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND, openConnection("/api/articles/unknown").getResponseCode());
+
+        HttpURLConnection connection = openConnection("/api/articles");
+        connection.setRequestMethod("DELETE");
+        assertEquals(HttpURLConnection.HTTP_BAD_METHOD, connection.getResponseCode());
+    }
+
+    @Test
+    public void testUpdateFlags() throws IOException {
+        Mockito.when(mockPersistencyHandler.updateArticleFlags("url3", true, null, false)).thenReturn(true);
+
+        HttpURLConnection connection = putFlags("{\"url\": \"url3\", \"starred\": true, \"archived\": false, "
+                                                + "\"comment\": {\"ignored\": [1, 2]}}");
+
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        assertTrue(readJson(connection).get("updated").asBoolean());
+        Mockito.verify(mockPersistencyHandler).updateArticleFlags("url3", true, null, false);
+    }
+
+    @Test
+    public void testUpdateFlagsNotifiesListener() throws IOException {
+        apiServer.stop();
+
+        ArticleFlagsListener mockFlagsListener = Mockito.mock(ArticleFlagsListener.class);
+        apiServer = new ArticleApiServer(mockPersistencyHandler, 0, mockFlagsListener);
+        assertTrue(apiServer.start());
+
+        Mockito.when(mockPersistencyHandler.updateArticleFlags("url3", null, true, null)).thenReturn(true);
+
+        assertEquals(HttpURLConnection.HTTP_OK, putFlags("{\"url\": \"url3\", \"read\": true}").getResponseCode());
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND,
+                     putFlags("{\"url\": \"unknown\", \"read\": true}").getResponseCode());
+
+        Mockito.verify(mockFlagsListener).articleFlagsUpdated("url3", null, true, null);
+        Mockito.verifyNoMoreInteractions(mockFlagsListener);
+    }
+
+    @Test
+    public void testUpdateFlagsUnknownArticle() throws IOException {
+        HttpURLConnection connection = putFlags("{\"url\": \"unknown\", \"read\": true}");
+
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND, connection.getResponseCode());
+    }
+
+    @Test
+    public void testUpdateFlagsInvalidRequests() throws IOException {
+        String[] invalidRequests = {"{\"url\": \"url3\"}", "{\"starred\": true}", "{\"url\": \"url3\", \"read\": 1}",
+                                    "[\"url3\"]", "not json"};
+
+        for (String invalidRequest : invalidRequests) {
+            assertEquals(invalidRequest, HttpURLConnection.HTTP_BAD_REQUEST,
+                         putFlags(invalidRequest).getResponseCode());
+        }
+
+        Mockito.verify(mockPersistencyHandler, Mockito.never())
+            .updateArticleFlags(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testRejectForeignHostAndOrigin() throws IOException {
+        String localHost = "localhost:" + apiServer.getPort();
+
+        assertEquals(HttpURLConnection.HTTP_OK, sendRawRequest("GET /api/articles", localHost, null));
+        assertEquals(HttpURLConnection.HTTP_OK,
+                     sendRawRequest("GET /api/articles", localHost, "http://127.0.0.1:" + apiServer.getPort()));
+
+        // A web page whose host name was rebound to the loopback address sends its own host name and origin.
+        assertEquals(HttpURLConnection.HTTP_FORBIDDEN,
+                     sendRawRequest("GET /api/articles", "attacker.example:" + apiServer.getPort(), null));
+        assertEquals(HttpURLConnection.HTTP_FORBIDDEN, sendRawRequest("GET /api/articles", "localhost", null));
+        assertEquals(HttpURLConnection.HTTP_FORBIDDEN, sendRawRequest("GET /api/articles", null, null));
+        assertEquals(HttpURLConnection.HTTP_FORBIDDEN,
+                     sendRawRequest("PUT /api/articles/flags", localHost, "http://attacker.example"));
+
+        Mockito.verify(mockPersistencyHandler, Mockito.times(2)).readStoredArticles(Mockito.any());
+        Mockito.verify(mockPersistencyHandler, Mockito.never())
+            .updateArticleFlags(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void testStartAndStop() {
+        assertTrue(apiServer.getPort() > 0);
+        assertTrue(apiServer.start());
+
+        apiServer.stop();
+        assertEquals(-1, apiServer.getPort());
+    }
+
+    @Test
+    public void testParseQueryParameters() throws IOException {
+        Map<String, String> parameters
+            = ArticleApiServer.parseQueryParameters("filter=author%3ACara+is%3Aread&limit");
+
+        assertEquals("author:Cara is:read", parameters.get("filter"));
+        assertEquals("", parameters.get("limit"));
+        assertTrue(ArticleApiServer.parseQueryParameters(null).isEmpty());
+    }
+
+    private HttpURLConnection openConnection(String path) throws IOException {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+
+        return (HttpURLConnection) new URL("http", host, apiServer.getPort(), path).openConnection();
+    }
+
+    private HttpURLConnection putFlags(String requestBody) throws IOException {
+        HttpURLConnection connection = openConnection("/api/articles/flags");
+        connection.setRequestMethod("PUT");
+        connection.setDoOutput(true);
+
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            outputStream.write(requestBody.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return connection;
+    }
+
+    private int sendRawRequest(String requestLine, String host, String origin) throws IOException {
+        String body = "{\"url\": \"url3\", \"read\": true}";
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), apiServer.getPort())) {
+            StringBuilder request = new StringBuilder(requestLine).append(" HTTP/1.1\r\n");
+            if (host != null) {
+                request.append("Host: ").append(host).append("\r\n");
+            }
+            if (origin != null) {
+                request.append("Origin: ").append(origin).append("\r\n");
+            }
+            request.append("Content-Length: ").append(body.length()).append("\r\n");
+            request.append("Connection: close\r\n\r\n").append(body);
+
+            socket.getOutputStream().write(request.toString().getBytes(StandardCharsets.UTF_8));
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                             StandardCharsets.UTF_8));
+
+            // The status line looks like "HTTP/1.1 403 Forbidden".
+            return Integer.parseInt(reader.readLine().split(" ")[1]);
+        }
+    }
+
+    private JsonNode readJson(HttpURLConnection connection) throws IOException {
+        boolean successful = connection.getResponseCode() < HttpURLConnection.HTTP_BAD_REQUEST;
+
+        try (InputStream inputStream = successful ? connection.getInputStream() : connection.getErrorStream()) {
+            return new ObjectMapper().readTree(inputStream);
+        }
+    }
+}
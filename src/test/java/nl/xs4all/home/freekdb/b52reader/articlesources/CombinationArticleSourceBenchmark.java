@@ -0,0 +1,97 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.datamodel.AuthorRegistry;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link CombinationArticleSource#getArticles}: combining the articles of several sources and
+ * sorting them most recent first. The sources return synthetic articles, so no network access is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CombinationArticleSourceBenchmark {
+    @Param({"2", "8"})
+    private int sourceCount;
+
+    @Param({"10000", "100000", "1000000"})
+    private int articleCount;
+
+    private CombinationArticleSource combinationArticleSource;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CombinationArticleSourceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+        List<ArticleSource> articleSources = new ArrayList<>();
+
+        for (int sourceIndex = 0; sourceIndex < sourceCount; sourceIndex++) {
+            String sourceId = "source-" + sourceIndex;
+            List<Article> articles = new SyntheticArticleSource(sourceId, articleCount / sourceCount, sourceIndex)
+                .streamArticles(authorRegistry::getOrCreate)
+                .collect(Collectors.toList());
+
+            articleSources.add(createArticleSource(sourceId, articles));
+        }
+
+        combinationArticleSource = new CombinationArticleSource(articleSources);
+    }
+
+    @Benchmark
+    public List<Article> getArticles() {
+        return combinationArticleSource.getArticles(null, null, null);
+    }
+
+    private ArticleSource createArticleSource(String sourceId, List<Article> articles) {
+        return new ArticleSource() {
+            @Override
+            public String getSourceId() {
+                return sourceId;
+            }
+
+            @Override
+            public List<Article> getArticles(PersistencyHandler persistencyHandler,
+                                             Map<String, Article> previousArticlesMap,
+                                             Map<String, Author> previousAuthorsMap) {
+                return articles;
+            }
+        };
+    }
+}
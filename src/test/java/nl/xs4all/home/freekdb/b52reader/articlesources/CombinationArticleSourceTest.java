@@ -11,10 +11,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.ParallelListProcessor;
+import nl.xs4all.home.freekdb.b52reader.general.PhaseTracer;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.junit.Test;
@@ -56,6 +60,51 @@ public class CombinationArticleSourceTest {
         assertEquals(articleCount1 + articleCount2, articles.size());
     }
 
+    @Test
+    public void testGetArticlesSortedInParallel() {
+        Author testAuthor = new Author("Test Author", 6);
+        ArticleSource articleSource1 = createTestArticleSource("test-source-1", 28, testAuthor);
+        ArticleSource articleSource2 = createTestArticleSource("test-source-2", 6, testAuthor);
+        List<ArticleSource> articleSources = Arrays.asList(articleSource1, articleSource2);
+
+        ParallelListProcessor listProcessor = new ParallelListProcessor(0, new ForkJoinPool(2));
+        CombinationArticleSource combinationArticleSource = new CombinationArticleSource(articleSources,
+                                                                                         listProcessor);
+
+        List<Article> articles = combinationArticleSource.getArticles(Mockito.mock(PersistencyHandler.class),
+                                                                      null, null);
+
+        assertEquals(34, articles.size());
+        assertEquals(Utilities.createDate(2017, Month.JUNE, 28), articles.get(0).getDateTime());
+
+        // Articles with the same date keep the order of the sources.
+        assertEquals("test-source-1", articles.get(22).getSourceId());
+        assertEquals("test-source-2", articles.get(23).getSourceId());
+        assertEquals(Utilities.createDate(2017, Month.JUNE, 6), articles.get(22).getDateTime());
+        assertEquals(Utilities.createDate(2017, Month.JUNE, 6), articles.get(23).getDateTime());
+    }
+
+    @Test
+    public void testGetArticlesTracesSources() {
+        Author testAuthor = new Author("Test Author", 6);
+        List<ArticleSource> articleSources = Arrays.asList(createTestArticleSource("test-source-1", 2, testAuthor),
+                                                           createTestArticleSource("test-source-2", 4, testAuthor));
+
+        PhaseTracer phaseTracer = new PhaseTracer();
+        CombinationArticleSource combinationArticleSource = new CombinationArticleSource(
+            articleSources, new ParallelListProcessor(ParallelListProcessor.DEFAULT_THRESHOLD), phaseTracer
+        );
+
+        combinationArticleSource.getArticles(Mockito.mock(PersistencyHandler.class), null, null);
+
+        List<String> phaseNames = phaseTracer.getPhases().stream()
+            .map(PhaseTracer.Phase::getName)
+            .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("get articles test-source-1", "get articles test-source-2", "sort articles"),
+                     phaseNames);
+    }
+
     private ArticleSource createTestArticleSource(String sourceId, int articleCount, Author testAuthor) {
         List<Article> articles = new ArrayList<>();
 
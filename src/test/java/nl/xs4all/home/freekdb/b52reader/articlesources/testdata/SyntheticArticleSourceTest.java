@@ -0,0 +1,136 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources.testdata;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.AuthorRegistry;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link SyntheticArticleSource} class.
+ */
+public class SyntheticArticleSourceTest {
+    @Test
+    public void testDefaults() {
+        SyntheticArticleSource articleSource = new SyntheticArticleSource();
+
+        assertEquals("synthetic", articleSource.getSourceId());
+        assertEquals(10_000, articleSource.getArticleCount());
+        assertEquals(52, articleSource.getSeed());
+    }
+
+    @Test
+    public void testSameSeedGivesSameArticles() {
+        List<Article> articles1 = createArticles(new SyntheticArticleSource("soak", 500, 6));
+        List<Article> articles2 = createArticles(new SyntheticArticleSource("soak", 500, 6));
+        List<Article> otherArticles = createArticles(new SyntheticArticleSource("soak", 500, 28));
+
+        assertEquals(500, articles1.size());
+        assertEquals(articles1.toString(), articles2.toString());
+        assertNotEquals(articles1.get(0).getTitle(), otherArticles.get(0).getTitle());
+    }
+
+    @Test
+    public void testParallelStreamGivesSameArticles() {
+        SyntheticArticleSource articleSource = new SyntheticArticleSource("soak", 5000, 52);
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+
+        List<Article> parallelArticles = articleSource.streamArticles(authorRegistry::getOrCreate).parallel()
+            .collect(Collectors.toList());
+
+        assertEquals(createArticles(articleSource).toString(), parallelArticles.toString());
+    }
+
+    @Test
+    public void testStreamIsLazy() {
+        SyntheticArticleSource articleSource = new SyntheticArticleSource("soak", Integer.MAX_VALUE, 52);
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+
+        List<Article> articles = articleSource.streamArticles(authorRegistry::getOrCreate).limit(3)
+            .collect(Collectors.toList());
+
+        assertEquals(3, articles.size());
+        assertEquals(articleSource.createArticle(2, authorRegistry::getOrCreate).toString(),
+                     articles.get(2).toString());
+    }
+
+    @Test
+    public void testRealisticMix() {
+        List<Article> articles = createArticles(new SyntheticArticleSource("soak", 10_000, 52));
+
+        ZonedDateTime latestDateTime = ZonedDateTime.of(2017, 10, 19, 12, 0, 0, 0, ZoneOffset.UTC);
+        long authorCount = articles.stream().map(Article::getAuthor).distinct().count();
+        long accentCount = articles.stream().filter(article -> !article.getNormalizedTitle().equals(
+            article.getTitle().toLowerCase())).count();
+
+        assertEquals(200, authorCount);
+        assertTrue(accentCount > 0);
+        assertTrue(articles.stream().anyMatch(article -> article.getLikes() > 1000));
+        assertTrue(articles.stream().anyMatch(article -> article.getTitle().split(" ").length > 8));
+
+        for (Article article : articles) {
+            assertEquals("soak", article.getSourceId());
+            assertFalse(article.getDateTime().isAfter(latestDateTime));
+            assertTrue(article.getDateTime().isAfter(latestDateTime.minusYears(1).minusDays(1)));
+            assertTrue(article.getText().endsWith("."));
+        }
+    }
+
+    @Test
+    public void testGetArticlesUsesCanonicalAuthors() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+        Mockito.when(mockPersistencyHandler.getOrCreateAuthor(Mockito.anyString()))
+            .thenAnswer(invocation -> authorRegistry.getOrCreate(invocation.getArgument(0)));
+
+        List<Article> articles = new SyntheticArticleSource("soak", 1000, 52).getArticles(mockPersistencyHandler,
+                                                                                          null, null);
+
+        for (Article article : articles) {
+            assertSame(authorRegistry.find(article.getAuthor().getName()), article.getAuthor());
+        }
+    }
+
+    @Test
+    public void testGetArticlesCopiesPreviousData() {
+        SyntheticArticleSource articleSource = new SyntheticArticleSource("soak", 10, 52);
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Article previousArticle = articleSource.createArticle(3, name -> null);
+        previousArticle.setStarred(true);
+        previousArticle.setRead(true);
+
+        Map<String, Article> previousArticlesMap = new HashMap<>();
+        previousArticlesMap.put(previousArticle.getUrl(), previousArticle);
+
+        List<Article> articles = articleSource.getArticles(mockPersistencyHandler, previousArticlesMap, null);
+
+        assertTrue(articles.get(3).isStarred());
+        assertTrue(articles.get(3).isRead());
+        assertFalse(articles.get(4).isStarred());
+    }
+
+    private List<Article> createArticles(SyntheticArticleSource articleSource) {
+        return articleSource.streamArticles(new AuthorRegistry()::getOrCreate).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources.website;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+
+import org.jsoup.Jsoup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link ArticleContentFetcher} class.
+ */
+public class ArticleContentFetcherTest {
+    private HtmlHelper mockHtmlHelper;
+    private PersistencyHandler mockPersistencyHandler;
+    private ArticleContentFetcher contentFetcher;
+
+    @Before
+    public void setUp() throws IOException {
+        mockHtmlHelper = Mockito.mock(HtmlHelper.class);
+        mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Mockito.when(mockHtmlHelper.getHtmlAsDocument(Mockito.anyString())).thenAnswer(
+            invocation -> Jsoup.parse("<html><body><article><p>Content of " + invocation.getArgument(0)
+                                      + ".</p></article></body></html>")
+        );
+
+        Mockito.when(mockPersistencyHandler.readArticleContentUrls()).thenReturn(Collections.singleton("url1"));
+        Mockito.when(mockPersistencyHandler.saveArticleContent(Mockito.anyString(), Mockito.anyString(),
+                                                               Mockito.anyString()))
+            .thenReturn(true);
+        Mockito.when(mockPersistencyHandler.trimArticleContent(Mockito.anyLong())).thenReturn(28L);
+
+        contentFetcher = new ArticleContentFetcher(mockHtmlHelper, new ContentExtractor(), mockPersistencyHandler, 2,
+                                                   1024);
+    }
+
+    @After
+    public void tearDown() {
+        contentFetcher.stop();
+    }
+
+    @Test
+    public void testFetchMissingContent() throws InterruptedException, ExecutionException, TimeoutException,
+                                                 IOException {
+        List<Article> articles = Arrays.asList(createArticle("url1"), createArticle("url2"), createArticle("url3"));
+
+        assertEquals(2, (int) contentFetcher.fetchMissingContent(articles).get(10, TimeUnit.SECONDS));
+
+        Mockito.verify(mockHtmlHelper, Mockito.never()).getHtmlAsDocument("url1");
+        Mockito.verify(mockPersistencyHandler).saveArticleContent("url2", "test", "Content of url2.");
+        Mockito.verify(mockPersistencyHandler).saveArticleContent("url3", "test", "Content of url3.");
+        Mockito.verify(mockPersistencyHandler).trimArticleContent(1024);
+    }
+
+    @Test
+    public void testFetchMissingContentWithFailures() throws InterruptedException, ExecutionException,
+                                                             TimeoutException, IOException {
+        Mockito.when(mockHtmlHelper.getHtmlAsDocument("url2")).thenThrow(new IOException("Not found."));
+        Mockito.when(mockHtmlHelper.getHtmlAsDocument("url3")).thenThrow(new IllegalArgumentException("Bad URL."));
+
+        List<Article> articles = Arrays.asList(createArticle("url2"), createArticle("url3"), createArticle("url4"));
+
+        assertEquals(1, (int) contentFetcher.fetchMissingContent(articles).get(10, TimeUnit.SECONDS));
+
+        Mockito.verify(mockPersistencyHandler).saveArticleContent("url4", "test", "Content of url4.");
+        Mockito.verify(mockPersistencyHandler, Mockito.times(1))
+            .saveArticleContent(Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testFetchMissingContentWithoutMissingArticles() throws InterruptedException, ExecutionException {
+        assertEquals(0, (int) contentFetcher.fetchMissingContent(Collections.singletonList(createArticle("url1")))
+            .get());
+
+        Mockito.verify(mockPersistencyHandler, Mockito.never()).trimArticleContent(Mockito.anyLong());
+    }
+
+    @Test
+    public void testStopFinishesRunningFetch() throws InterruptedException, IOException {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+
+        Mockito.when(mockHtmlHelper.getHtmlAsDocument("url2")).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            Thread.sleep(200);
+            return Jsoup.parse("<html><body><article><p>Content of url2.</p></article></body></html>");
+        });
+
+        ArticleContentFetcher singleThreadFetcher = new ArticleContentFetcher(mockHtmlHelper, new ContentExtractor(),
+                                                                              mockPersistencyHandler, 1, 1024);
+        singleThreadFetcher.fetchMissingContent(Arrays.asList(createArticle("url2"), createArticle("url3")));
+
+        assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+        singleThreadFetcher.stop();
+
+        // The running fetch is stored before stop returns; the waiting fetch is skipped.
+        Mockito.verify(mockPersistencyHandler).saveArticleContent("url2", "test", "Content of url2.");
+        Mockito.verify(mockHtmlHelper, Mockito.never()).getHtmlAsDocument("url3");
+    }
+
+    private Article createArticle(String url) {
+        return Article.builder().url(url).sourceId("test").title("Title").build();
+    }
+}
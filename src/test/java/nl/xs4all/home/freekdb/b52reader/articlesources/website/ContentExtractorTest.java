@@ -0,0 +1,48 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.articlesources.website;
+
+import org.jsoup.Jsoup;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the {@link ContentExtractor} class.
+ */
+public class ContentExtractorTest {
+    @Test
+    public void testExtractContentFromArticleElement() {
+        String html = "<html><head><script>var tracking = true;</script></head><body>"
+                      + "<nav><p>Home | News | Sports</p></nav>"
+                      + "<article><h1>Title</h1><p>First paragraph.</p><script>ignored();</script>"
+                      + "<blockquote><p>Quoted text.</p></blockquote><ul><li>Item one</li><li>Item two</li></ul>"
+                      + "<form><p>Subscribe to our newsletter.</p></form><p>Last paragraph.</p></article>"
+                      + "<footer><p>Copyright notice with a long text that should never be part of the content.</p>"
+                      + "</footer></body></html>";
+
+        assertEquals("Title\n\nFirst paragraph.\n\nQuoted text.\n\nItem one\n\nItem two\n\nLast paragraph.",
+                     new ContentExtractor().extractContent(Jsoup.parse(html)));
+    }
+
+    @Test
+    public void testExtractContentFromParagraphParent() {
+        String html = "<html><body><div class=\"sidebar\"><p>Short.</p></div>"
+                      + "<div class=\"story\"><p>The first paragraph of the story.</p>"
+                      + "<p>The second paragraph of the story.</p></div></body></html>";
+
+        assertEquals("The first paragraph of the story.\n\nThe second paragraph of the story.",
+                     new ContentExtractor().extractContent(Jsoup.parse(html)));
+    }
+
+    @Test
+    public void testExtractContentWithoutParagraphs() {
+        String html = "<html><body><div>Just some <b>text</b>.</div><aside>Related links</aside></body></html>";
+
+        assertEquals("Just some text.", new ContentExtractor().extractContent(Jsoup.parse(html)));
+    }
+}
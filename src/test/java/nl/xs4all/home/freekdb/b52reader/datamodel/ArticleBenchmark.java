@@ -0,0 +1,87 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for creating {@link Article} objects, like the article sources do when they fetch articles and
+ * merge them with the previously known articles, and like the persistency handler does when it loads articles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArticleBenchmark {
+    private static final int ARTICLE_COUNT = 10_000;
+
+    private Map<String, Article> previousArticlesMap;
+    private ZonedDateTime dateTime;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ArticleBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dateTime = ZonedDateTime.now();
+        previousArticlesMap = new HashMap<>();
+
+        for (int articleIndex = 0; articleIndex < ARTICLE_COUNT; articleIndex++) {
+            Article article = createArticle(articleIndex);
+            previousArticlesMap.put(article.getUrl(), article);
+        }
+    }
+
+    @Benchmark
+    public void fetchAndMerge(Blackhole blackhole) {
+        for (int articleIndex = 0; articleIndex < ARTICLE_COUNT; articleIndex++) {
+            Article article = createArticle(articleIndex);
+            blackhole.consume(previousArticlesMap.getOrDefault(article.getUrl(), article));
+        }
+    }
+
+    @Benchmark
+    public void createAndSearch(Blackhole blackhole) {
+        for (int articleIndex = 0; articleIndex < ARTICLE_COUNT; articleIndex++) {
+            Article article = createArticle(articleIndex);
+            blackhole.consume(article.getNormalizedTitle().contains("wetenschap"));
+        }
+    }
+
+    private Article createArticle(int articleIndex) {
+        return Article.builder()
+                .url("https://www.nrc.nl/nieuws/2017/10/19/artikel-" + articleIndex)
+                .sourceId("nrc")
+                .title("Nieuwe ideeën over wetenschap en de zeeën, deel " + articleIndex)
+                .dateTime(dateTime)
+                .text("De eerste alinea van het artikel, met een paar woorden over het onderwerp van het artikel.")
+                .likes(articleIndex % 100)
+                .build();
+    }
+}
@@ -13,7 +13,10 @@ import java.time.Month;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
@@ -22,7 +25,9 @@ import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class ArticleTest {
@@ -122,6 +127,99 @@ public class ArticleTest {
         assertEquals(archived, article.isArchived());
     }
 
+    @Test
+    public void testDerivedFieldsAreComputedLazily() throws InterruptedException {
+        Article article1 = Article.builder().url("url").sourceId("test").title("Één Titel").text("a b c").build();
+        Article article2 = Article.builder().url("url").sourceId("test").title("Één Titel").text("a b c").build();
+
+        assertEquals("een titel", article1.getNormalizedTitle());
+
+        // Computing the derived fields of one article does not affect equals and hashCode.
+        assertEquals(article1, article2);
+        assertEquals(article1.hashCode(), article2.hashCode());
+
+        List<Thread> threads = new ArrayList<>();
+        List<Long> wordCounts = Collections.synchronizedList(new ArrayList<>());
+        for (int threadIndex = 0; threadIndex < 4; threadIndex++) {
+            threads.add(new Thread(() -> wordCounts.add(article2.getWordCount())));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(Collections.nCopies(4, 5L), wordCounts);
+        assertEquals("een titel", article2.getNormalizedTitle());
+        assertNull(Article.builder().url("url").build().getNormalizedTitle());
+    }
+
+    @Test
+    public void testFingerprint() {
+        ZonedDateTime date = Utilities.createDate(2017, Month.JUNE, 28);
+        Author author = new Author("Cara Santa Maria", 28);
+        Article article = Article.builder().url("url").sourceId("test").author(author).title("Title").dateTime(date)
+                .text("text").likes(1024).recordId(6)
+                .build();
+
+        Article sameContent = Article.builder().url("url").sourceId("test").author(new Author("Cara Santa Maria", 2))
+                .title("Title").dateTime(date).text("text").likes(1024).recordId(-1).starred(true)
+                .build();
+
+        assertEquals(article.getFingerprint(), sameContent.getFingerprint());
+        assertNotEquals(0L, article.getFingerprint());
+
+        List<Article> changedArticles = Arrays.asList(
+                Article.builder().url("url").sourceId("test").author(author).title("Title").dateTime(date)
+                        .text("text!").likes(1024).build(),
+                Article.builder().url("url").sourceId("test").author(author).title("Title").dateTime(date.plusNanos(1))
+                        .text("text").likes(1024).build(),
+                Article.builder().url("url").sourceId("test").author(author).title("Title").dateTime(date)
+                        .text("text").likes(1025).build(),
+                Article.builder().url("url").sourceId("test").title("Title").dateTime(date).text("text").likes(1024)
+                        .build(),
+                Article.builder().url("url").sourceId("test").author(author).title("Titlet").dateTime(date)
+                        .text("ext").likes(1024).build(),
+                Article.builder().url("url").sourceId("test").author(author).title("Title").dateTime(date)
+                        .text("").likes(1024).build(),
+                Article.builder().url("url").sourceId("test").author(author).title("Title").dateTime(date)
+                        .likes(1024).build()
+        );
+
+        Set<Long> fingerprints = new HashSet<>();
+        fingerprints.add(article.getFingerprint());
+        changedArticles.forEach(changedArticle -> fingerprints.add(changedArticle.getFingerprint()));
+
+        assertEquals(1 + changedArticles.size(), fingerprints.size());
+    }
+
+    @Test
+    public void testCreateArticleFromDatabaseWithFingerprint() throws SQLException {
+        ZonedDateTime date = Utilities.createDate(2000, Month.JANUARY, 1);
+        ResultSet mockResultSet = prepareResultSet(-1, date);
+        Mockito.when(mockResultSet.getLong("fingerprint")).thenReturn(496L);
+
+        assertEquals(496L, Article.createArticleFromDatabase(mockResultSet, new ArrayList<>()).getFingerprint());
+    }
+
+    @Test
+    public void testCopyDerivedFieldsIfUnchanged() {
+        Article previousArticle = Article.builder().url("url").sourceId("test").title("Één Titel").text("a b c")
+                .build();
+        assertEquals("een titel", previousArticle.getNormalizedTitle());
+
+        Article article = Article.builder().url("url").sourceId("test").title("Één Titel").text("a b c").build();
+        article.copyDerivedFieldsIfUnchanged(previousArticle);
+        assertSame(previousArticle.getNormalizedTitle(), article.getNormalizedTitle());
+
+        Article changedArticle = Article.builder().url("url").sourceId("test").title("Twee").text("a b c").build();
+        changedArticle.copyDerivedFieldsIfUnchanged(previousArticle);
+        assertEquals("twee", changedArticle.getNormalizedTitle());
+    }
+
     @Test
     public void testMetadataEquals() {
         Article article1 = Article.builder().url("url").sourceId("test").title("Title").text("text").likes(1024)
@@ -0,0 +1,138 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link AuthorRegistry} class.
+ */
+public class AuthorRegistryTest {
+    @Test
+    public void testGetOrCreate() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+
+        Author author = authorRegistry.getOrCreate("Patrick Süskind");
+
+        assertEquals("Patrick Süskind", author.getName());
+        assertEquals(AuthorRegistry.UNKNOWN_RECORD_ID, author.getRecordId().intValue());
+        assertFalse(AuthorRegistry.isStored(author));
+
+        assertSame(author, authorRegistry.getOrCreate("Patrick Süskind"));
+        assertSame(author, authorRegistry.getOrCreate(" patrick suskind "));
+        assertSame(author, authorRegistry.find("PATRICK SÜSKIND"));
+        assertNull(authorRegistry.find("Cara Santa Maria"));
+        assertNull(authorRegistry.find(null));
+        assertEquals(1, authorRegistry.size());
+    }
+
+    @Test
+    public void testRegister() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+
+        Author fetchedAuthor = authorRegistry.getOrCreate("Cara Santa Maria");
+        Author storedAuthor = authorRegistry.register("Cara Santa Maria", 6);
+        Author duplicateAuthor = authorRegistry.register("cara santa maria", 28);
+
+        assertSame(fetchedAuthor, storedAuthor);
+        assertSame(fetchedAuthor, duplicateAuthor);
+        assertEquals(6, fetchedAuthor.getRecordId().intValue());
+        assertTrue(AuthorRegistry.isStored(fetchedAuthor));
+
+        assertSame(fetchedAuthor, authorRegistry.findByRecordId(6));
+        assertSame(fetchedAuthor, authorRegistry.findByRecordId(28));
+        assertNull(authorRegistry.findByRecordId(496));
+        assertEquals(1, authorRegistry.getAuthors().size());
+    }
+
+    @Test
+    public void testRegisterWithoutName() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+
+        Author author = authorRegistry.register(null, 6);
+
+        assertNull(author.getName());
+        assertEquals(6, author.getRecordId().intValue());
+        assertSame(author, authorRegistry.register(null, 28));
+        assertSame(author, authorRegistry.getOrCreate(null));
+        assertSame(author, authorRegistry.findByRecordId(28));
+        assertNull(authorRegistry.find(null));
+        assertEquals(1, authorRegistry.size());
+    }
+
+    @Test
+    public void testAssignRecordId() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+        Author author = authorRegistry.getOrCreate("Neil deGrasse Tyson");
+        Article article = Article.builder().url("url").author(author).build();
+
+        authorRegistry.assignRecordId(author, 1024);
+        assertEquals(1024, article.getAuthor().getRecordId().intValue());
+        assertSame(author, authorRegistry.findByRecordId(1024));
+
+        // The record id of a stored author does not change.
+        authorRegistry.assignRecordId(author, 2048);
+        assertEquals(1024, author.getRecordId().intValue());
+    }
+
+    @Test
+    public void testGetSourceId() {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+        String sourceId = authorRegistry.getSourceId("nrc");
+
+        assertSame(sourceId, authorRegistry.getSourceId(new String(new char[]{'n', 'r', 'c'})));
+        assertNull(authorRegistry.getSourceId(null));
+    }
+
+    @Test
+    public void testConcurrentGetOrCreate() throws Exception {
+        AuthorRegistry authorRegistry = new AuthorRegistry();
+        int threadCount = 8;
+        int authorCount = 1000;
+
+        List<Callable<List<Author>>> fetchers = new ArrayList<>();
+        for (int threadIndex = 0; threadIndex < threadCount; threadIndex++) {
+            fetchers.add(() -> {
+                List<Author> authors = new ArrayList<>();
+                for (int authorIndex = 0; authorIndex < authorCount; authorIndex++) {
+                    authors.add(authorRegistry.getOrCreate("Author " + authorIndex));
+                }
+                return authors;
+            });
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<List<Author>>> results = executorService.invokeAll(fetchers);
+            List<Author> firstAuthors = results.get(0).get();
+
+            for (Future<List<Author>> result : results) {
+                List<Author> authors = result.get();
+                for (int authorIndex = 0; authorIndex < authorCount; authorIndex++) {
+                    assertSame(firstAuthors.get(authorIndex), authors.get(authorIndex));
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(authorCount, authorRegistry.size());
+    }
+}
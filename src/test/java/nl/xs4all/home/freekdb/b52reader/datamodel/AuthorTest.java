@@ -22,12 +22,22 @@ public class AuthorTest {
         assertEquals(6, author.getRecordId().intValue());
 
         assertEquals("Author(name=Freek, recordId=6)", author.toString());
+
+        author.setRecordId(28);
+        assertEquals(28, author.getRecordId().intValue());
+    }
+
+    @Test
+    public void testEqualsIgnoresRecordId() {
+        assertEquals(new Author("Freek", 6), new Author("Freek", 28));
+        assertEquals(new Author("Freek", 6).hashCode(), new Author("Freek", 28).hashCode());
     }
 
     @Test
     public void testEqualsAndHashCode() {
         EqualsVerifier.forClass(Author.class)
                 .withRedefinedSubclass(AuthorSubclass.class)
+                .withIgnoredFields("recordId")
                 .verify();
     }
 
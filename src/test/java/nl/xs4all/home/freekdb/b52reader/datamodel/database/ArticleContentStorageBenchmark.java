@@ -0,0 +1,203 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the storage of the full text of articles with an in-memory H2 database and synthetic content
+ * (the text of synthetic articles surrounded by boilerplate of their source). Three layouts are compared: plain text in
+ * a clob column, Deflate compression without a dictionary, and Deflate compression with a dictionary per source (see
+ * {@link PersistencyHandlerJdbc#saveArticleContent}). The benchmarks measure the time to load the content of all
+ * articles and to search it; the size of the stored content for each layout is printed during the setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArticleContentStorageBenchmark {
+    private static final String DATABASE_URL = "jdbc:h2:mem:";
+    private static final int SOURCE_COUNT = 5;
+    private static final int ARTICLES_PER_SOURCE = 200;
+    private static final String SEARCH_TEXT = "galaxy";
+
+    @Param({"plain", "deflate", "dictionary"})
+    private String layout;
+
+    private Connection databaseConnection;
+    private PersistencyHandlerJdbc persistencyHandler;
+    private List<String> urls;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ArticleContentStorageBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        databaseConnection = DriverManager.getConnection(DATABASE_URL);
+
+        persistencyHandler = new PersistencyHandlerJdbc();
+        persistencyHandler.initializeDatabaseConnection(databaseConnection);
+        persistencyHandler.createTablesIfNeeded();
+
+        if ("plain".equals(layout)) {
+            try (Statement statement = databaseConnection.createStatement()) {
+                statement.execute("create table plain_content (url varchar(2800) primary key, content clob)");
+            }
+        }
+
+        urls = new ArrayList<>();
+        long storedSize = 0;
+
+        for (int sourceIndex = 0; sourceIndex < SOURCE_COUNT; sourceIndex++) {
+            String sourceId = "source" + sourceIndex;
+            SyntheticArticleSource articleSource = new SyntheticArticleSource(sourceId, ARTICLES_PER_SOURCE,
+                                                                              sourceIndex);
+
+            for (int articleIndex = 0; articleIndex < ARTICLES_PER_SOURCE; articleIndex++) {
+                Article article = articleSource.createArticle(articleIndex, name -> new Author(name, 0));
+                String content = createContent(sourceId, article);
+
+                storedSize += saveContent(article.getUrl(), sourceId, content);
+                urls.add(article.getUrl());
+            }
+        }
+
+        System.out.println();
+        System.out.println("Stored content size with layout " + layout + ": " + storedSize + " bytes.");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        databaseConnection.close();
+    }
+
+    @Benchmark
+    public void loadAllContent(Blackhole blackhole) throws SQLException {
+        if ("plain".equals(layout)) {
+            try (PreparedStatement preparedStatement = databaseConnection
+                .prepareStatement("select content from plain_content where url = ?")) {
+                for (String url : urls) {
+                    preparedStatement.setString(1, url);
+
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        if (resultSet.next()) {
+                            blackhole.consume(resultSet.getString("content"));
+                        }
+                    }
+                }
+            }
+        } else {
+            urls.forEach(url -> blackhole.consume(persistencyHandler.readArticleContent(url)));
+        }
+    }
+
+    @Benchmark
+    public void searchContent(Blackhole blackhole) throws SQLException {
+        if ("plain".equals(layout)) {
+            List<String> matchingUrls = new ArrayList<>();
+
+            try (PreparedStatement preparedStatement = databaseConnection
+                .prepareStatement("select url from plain_content where lower(content) like ?")) {
+                preparedStatement.setString(1, "%" + SEARCH_TEXT + "%");
+
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        matchingUrls.add(resultSet.getString("url"));
+                    }
+                }
+            }
+
+            blackhole.consume(matchingUrls);
+        } else {
+            // Like the API, the content is read and decompressed one article at a time.
+            blackhole.consume(urls.stream()
+                                  .filter(url -> contentContains(url, SEARCH_TEXT))
+                                  .collect(Collectors.toList()));
+        }
+    }
+
+    private boolean contentContains(String url, String searchText) {
+        String content = persistencyHandler.readArticleContent(url);
+
+        return content != null && content.toLowerCase(Locale.ROOT).contains(searchText);
+    }
+
+    private String createContent(String sourceId, Article article) {
+        // Article pages of one source share a lot of text, like navigation, bylines, and subscription prompts.
+        return "Home | News | Science | Technology | Opinion\n\n" + sourceId + " - " + article.getTitle() + "\n\n"
+               + "By " + article.getAuthor().getName() + " for " + sourceId + ".\n\n" + article.getText() + "\n\n"
+               + "Subscribe to the " + sourceId + " newsletter to get the latest stories in your inbox every "
+               + "morning. Follow " + sourceId + " on social media and share this article with your friends.\n\n"
+               + "Copyright " + sourceId + ". All rights reserved. Read our privacy policy and terms of use.";
+    }
+
+    private long saveContent(String url, String sourceId, String content) throws SQLException {
+        long storedSize;
+
+        if ("plain".equals(layout)) {
+            try (PreparedStatement preparedStatement = databaseConnection
+                .prepareStatement("insert into plain_content (url, content) values (?, ?)")) {
+                preparedStatement.setString(1, url);
+                preparedStatement.setString(2, content);
+                preparedStatement.executeUpdate();
+            }
+
+            storedSize = content.getBytes(StandardCharsets.UTF_8).length;
+        } else {
+            // Without a source id, no dictionary is created for the content.
+            persistencyHandler.saveArticleContent(url, "dictionary".equals(layout) ? sourceId : null, content);
+
+            try (PreparedStatement preparedStatement = databaseConnection
+                .prepareStatement("select stored_length from article_content where url = ?")) {
+                preparedStatement.setString(1, url);
+
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    resultSet.next();
+                    storedSize = resultSet.getInt("stored_length");
+                }
+            }
+        }
+
+        return storedSize;
+    }
+}
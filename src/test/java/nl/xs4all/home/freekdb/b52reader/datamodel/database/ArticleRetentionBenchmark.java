@@ -0,0 +1,116 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark for the effect of the retention policy on startup: reading the authors and articles (the "read
+ * authors and articles" phase of the startup timeline) from an in-memory H2 database with a year of synthetic articles,
+ * of which three in four are read. The retention policy is applied during the setup with different numbers of days
+ * (zero keeps all articles); the number of remaining articles is printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArticleRetentionBenchmark {
+    private static final String DATABASE_URL = "jdbc:h2:mem:";
+
+    /**
+     * The publication date/time of the most recent synthetic article, which is used as the current date/time.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2017, 10, 19, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Param({"0", "90", "30"})
+    private int retentionDays;
+
+    private Connection databaseConnection;
+    private PersistencyHandlerJdbc persistencyHandler;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ArticleRetentionBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        databaseConnection = DriverManager.getConnection(DATABASE_URL);
+
+        persistencyHandler = new PersistencyHandlerJdbc();
+        persistencyHandler.initializeDatabaseConnection(databaseConnection);
+        persistencyHandler.createTablesIfNeeded();
+        persistencyHandler.readAuthorsAndArticles();
+
+        List<Article> articles = new SyntheticArticleSource().streamArticles(persistencyHandler::getOrCreateAuthor)
+            .collect(Collectors.toList());
+        persistencyHandler.saveAuthorsAndArticles(articles);
+
+        try (Statement statement = databaseConnection.createStatement()) {
+            statement.execute("update article set read = true where mod(id, 4) <> 0");
+        }
+
+        if (retentionDays > 0) {
+            Instant publishedBefore = NOW.minusDays(retentionDays).toInstant();
+            int chunkSize = ArticleRetentionJob.DEFAULT_CHUNK_SIZE;
+            int chunkCount;
+
+            do {
+                chunkCount = persistencyHandler.removeOldArticles(publishedBefore, chunkSize);
+            } while (chunkCount == chunkSize);
+        }
+
+        persistencyHandler.readAuthorsAndArticles();
+
+        System.out.println();
+        System.out.println("Articles with " + retentionDays + " retention days: "
+                           + persistencyHandler.getStoredArticlesMap().size() + " of " + articles.size() + ".");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        databaseConnection.close();
+    }
+
+    @Benchmark
+    public void readAuthorsAndArticles(Blackhole blackhole) {
+        persistencyHandler.readAuthorsAndArticles();
+
+        blackhole.consume(persistencyHandler.getStoredArticlesMap());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link ArticleRetentionJob} class.
+ */
+public class ArticleRetentionJobTest {
+    private PersistencyHandler mockPersistencyHandler;
+
+    @Before
+    public void setUp() {
+        mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+    }
+
+    @Test
+    public void testRemoveOldArticlesInChunks() throws InterruptedException, ExecutionException, TimeoutException {
+        Mockito.when(mockPersistencyHandler.removeOldArticles(Mockito.any(), Mockito.eq(3))).thenReturn(3, 3, 1);
+
+        ArticleRetentionJob retentionJob = new ArticleRetentionJob(mockPersistencyHandler, 30, 3);
+        Instant expectedPublishedBefore = Instant.now().minus(30, ChronoUnit.DAYS);
+
+        assertEquals(7, (int) retentionJob.start().get(10, TimeUnit.SECONDS));
+
+        ArgumentCaptor<Instant> publishedBeforeCaptor = ArgumentCaptor.forClass(Instant.class);
+        Mockito.verify(mockPersistencyHandler, Mockito.times(3))
+            .removeOldArticles(publishedBeforeCaptor.capture(), Mockito.eq(3));
+
+        // All chunks use the same moment.
+        assertEquals(1, publishedBeforeCaptor.getAllValues().stream().distinct().count());
+        Duration difference = Duration.between(expectedPublishedBefore, publishedBeforeCaptor.getValue());
+        assertTrue(Math.abs(difference.getSeconds()) < 60);
+
+        retentionJob.stop();
+    }
+
+    @Test
+    public void testRemoveOldArticlesWithoutOldArticles() throws InterruptedException, ExecutionException,
+                                                                  TimeoutException {
+        ArticleRetentionJob retentionJob = new ArticleRetentionJob(mockPersistencyHandler, 30, 500);
+
+        assertEquals(0, (int) retentionJob.start().get(10, TimeUnit.SECONDS));
+        Mockito.verify(mockPersistencyHandler, Mockito.times(1)).removeOldArticles(Mockito.any(), Mockito.eq(500));
+
+        retentionJob.stop();
+    }
+
+    @Test
+    public void testStartAfterStop() throws InterruptedException, ExecutionException {
+        ArticleRetentionJob retentionJob = new ArticleRetentionJob(mockPersistencyHandler, 30, 500);
+        retentionJob.stop();
+
+        assertEquals(0, (int) retentionJob.start().get());
+        Mockito.verify(mockPersistencyHandler, Mockito.never()).removeOldArticles(Mockito.any(), Mockito.anyInt());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link PersistencyHandlerJdbc#saveAuthorsAndArticles} with an in-memory H2 database and
+ * synthetic articles: saving new articles into an empty database, saving fetched articles that did not change (which
+ * should skip all updates), and saving fetched articles of which one in ten was starred or unstarred.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PersistencyHandlerJdbcBenchmark {
+    private static final String DATABASE_URL = "jdbc:h2:mem:";
+    private static final SyntheticArticleSource ARTICLE_SOURCE = new SyntheticArticleSource();
+
+    private Connection databaseConnection;
+    private PersistencyHandlerJdbc persistencyHandler;
+    private List<Article> unchangedArticles;
+    private List<Article> changedArticles;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PersistencyHandlerJdbcBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        // Each connection to an unnamed in-memory database gets its own database.
+        databaseConnection = DriverManager.getConnection(DATABASE_URL);
+
+        PersistencyHandlerJdbc initialPersistencyHandler = createPersistencyHandler(databaseConnection);
+        initialPersistencyHandler.saveAuthorsAndArticles(createArticles(initialPersistencyHandler));
+
+        persistencyHandler = createPersistencyHandler(databaseConnection);
+        unchangedArticles = createArticles(persistencyHandler);
+        changedArticles = createArticles(persistencyHandler);
+
+        for (int articleIndex = 0; articleIndex < changedArticles.size(); articleIndex += 10) {
+            Article article = changedArticles.get(articleIndex);
+            article.setStarred(!article.isStarred());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        databaseConnection.close();
+    }
+
+    @Benchmark
+    public void saveUnchangedArticles() {
+        persistencyHandler.saveAuthorsAndArticles(unchangedArticles);
+    }
+
+    @Benchmark
+    public void saveChangedArticles() {
+        persistencyHandler.saveAuthorsAndArticles(changedArticles);
+    }
+
+    @Benchmark
+    public void saveNewArticles(EmptyDatabase emptyDatabase) {
+        emptyDatabase.persistencyHandler.saveAuthorsAndArticles(emptyDatabase.newArticles);
+    }
+
+    /**
+     * State with a new, empty database for each invocation (saving articles twice would only update them).
+     */
+    @State(Scope.Thread)
+    public static class EmptyDatabase {
+        private Connection databaseConnection;
+        private PersistencyHandlerJdbc persistencyHandler;
+        private List<Article> newArticles;
+
+        @Setup(Level.Invocation)
+        public void setUp() throws SQLException {
+            databaseConnection = DriverManager.getConnection(DATABASE_URL);
+            persistencyHandler = createPersistencyHandler(databaseConnection);
+            newArticles = createArticles(persistencyHandler);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws SQLException {
+            databaseConnection.close();
+        }
+    }
+
+    private static PersistencyHandlerJdbc createPersistencyHandler(Connection databaseConnection) {
+        PersistencyHandlerJdbc persistencyHandler = new PersistencyHandlerJdbc();
+
+        persistencyHandler.initializeDatabaseConnection(databaseConnection);
+        persistencyHandler.createTablesIfNeeded();
+        persistencyHandler.readAuthorsAndArticles();
+
+        return persistencyHandler;
+    }
+
+    private static List<Article> createArticles(PersistencyHandler persistencyHandler) {
+        // Fetched articles refer to the canonical authors, like the article sources do.
+        return ARTICLE_SOURCE.streamArticles(persistencyHandler::getOrCreateAuthor).collect(Collectors.toList());
+    }
+}
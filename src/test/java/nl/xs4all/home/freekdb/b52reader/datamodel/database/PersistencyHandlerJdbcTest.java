@@ -10,11 +10,13 @@ import com.google.common.collect.ImmutableSet;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.Month;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -22,6 +24,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -33,11 +36,16 @@ import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.invocation.Invocation;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class PersistencyHandlerJdbcTest {
@@ -92,12 +100,36 @@ public class PersistencyHandlerJdbcTest {
         persistencyHandler.createTablesIfNeeded();
 
         Collection<Invocation> statementInvocations = Mockito.mockingDetails(mockStatement).getInvocations();
-        assertEquals(2, statementInvocations.size());
+        assertEquals(4, statementInvocations.size());
 
-        Set<String> expectedTables = ImmutableSet.of("article", "author");
+        Set<String> expectedTables = ImmutableSet.of("article", "article_content", "author", "content_dictionary");
         assertEquals(expectedTables, getCreatedTables(statementInvocations, expectedTables));
     }
 
+    @Test
+    public void testCreateTablesIfNeededExistingTables() throws SQLException {
+        DatabaseMetaData mockDatabaseMetaData = Mockito.mock(DatabaseMetaData.class);
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+
+        Mockito.when(mockDatabaseConnection.getMetaData()).thenReturn(mockDatabaseMetaData);
+        Mockito.when(mockResultSet.next()).thenReturn(true);
+
+        Mockito.when(mockDatabaseMetaData.getTables(Mockito.isNull(), Mockito.isNull(),
+                                                    Mockito.anyString(), Mockito.isNull()))
+            .thenReturn(mockResultSet);
+
+        assertTrue(persistencyHandler.initializeDatabaseConnection(mockDatabaseConnection));
+
+        persistencyHandler.createTablesIfNeeded();
+
+        Mockito.verify(mockStatement).execute("alter table article add column if not exists fingerprint bigint");
+        Mockito.verify(mockStatement)
+            .execute("alter table article_content add column if not exists source_id varchar(42)");
+        Mockito.verify(mockStatement)
+            .execute("alter table article_content add column if not exists with_dictionary boolean default false");
+        Mockito.verifyNoMoreInteractions(mockStatement);
+    }
+
     private Set<String> getCreatedTables(Collection<Invocation> statementInvocations, Set<String> expectedTables) {
         Set<String> createdTables = new HashSet<>();
 
@@ -136,6 +168,36 @@ public class PersistencyHandlerJdbcTest {
         persistencyHandler.readAuthorsAndArticles();
 
         assertEquals(author, persistencyHandler.getOrCreateAuthor(author.getName()));
+        assertSame(persistencyHandler.getStoredAuthorsMap().get(author.getName()),
+                   persistencyHandler.getOrCreateAuthor(author.getName()));
+
+        Author newAuthor = persistencyHandler.getOrCreateAuthor("Patrick Süskind");
+        assertSame(newAuthor, persistencyHandler.getOrCreateAuthor("Patrick Süskind"));
+    }
+
+    @Test
+    public void testSaveAuthorsAndArticlesRecordsAuthorIds() throws SQLException {
+        createConnectionAndRelatedMocks();
+        Mockito.when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{1});
+
+        persistencyHandler.readAuthorsAndArticles();
+
+        Author newAuthor = persistencyHandler.getOrCreateAuthor("Patrick Süskind");
+        Article newArticle = Article.builder().url("url2").sourceId("source-id").author(newAuthor).title("title")
+            .dateTime(Utilities.createDate(2017, Month.JUNE, 28)).text("text")
+            .build();
+
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockStatement.executeQuery(Mockito.anyString())).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, false);
+        Mockito.when(mockResultSet.getInt(Mockito.anyString())).thenReturn(496);
+        Mockito.when(mockResultSet.getString(Mockito.anyString())).thenReturn("Patrick Süskind");
+
+        persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(newArticle));
+
+        assertEquals(496, newAuthor.getRecordId().intValue());
+        assertSame(newAuthor, persistencyHandler.getStoredAuthorsMap().get("Patrick Süskind"));
+        assertTrue(getInvocations("setObject").stream().anyMatch(invocation -> invocation.toString().contains("496")));
     }
 
     @Test
@@ -202,8 +264,8 @@ public class PersistencyHandlerJdbcTest {
             List<Invocation> setStringInvocations = getInvocations("setString");
 
             final int factor = expectedValueExecuteBatch ? 1 : unexpectedValueExecuteBatch ? 2 : 3;
-            assertEquals(3 * factor, setStringInvocations.size());
-            assertEquals(21 * factor, getInvocations("setObject").size());
+            assertEquals(factor, setStringInvocations.size());
+            assertEquals(23 * factor, getInvocations("setObject").size());
 
             Optional<Invocation> optionalAuthorInvocation = setStringInvocations.stream()
                 .filter(invocation -> invocation.toString().contains("1") && invocation.toString().contains("Patrick"))
@@ -214,6 +276,316 @@ public class PersistencyHandlerJdbcTest {
         }
     }
 
+    @Test
+    public void testSaveUnchangedArticleSkipsUpdate() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        Mockito.when(mockStatement.executeQuery(Mockito.anyString())).thenReturn(Mockito.mock(ResultSet.class));
+        Mockito.when(mockPreparedStatement.executeBatch()).thenReturn(new int[]{1});
+
+        persistencyHandler.readAuthorsAndArticles();
+
+        Article fetchedArticle = Article.builder().url(article.getUrl()).sourceId(article.getSourceId())
+            .author(article.getAuthor()).title(article.getTitle()).dateTime(article.getDateTime())
+            .text(article.getText()).likes(article.getLikes()).recordId(-1)
+            .build();
+
+        persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(fetchedArticle));
+
+        assertEquals(0, getInvocations("setObject").size());
+        assertEquals(article.getRecordId(), fetchedArticle.getRecordId());
+
+        fetchedArticle.setStarred(true);
+        persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(fetchedArticle));
+
+        assertEquals(12, getInvocations("setObject").size());
+    }
+
+    @Test
+    public void testReadStoredArticles() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        persistencyHandler.readAuthorsAndArticles();
+
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, true, true, false);
+        Mockito.when(mockResultSet.getInt(Mockito.anyString())).thenReturn(author.getRecordId());
+        Mockito.when(mockResultSet.getString(Mockito.anyString())).thenReturn("stored");
+        Mockito.when(mockResultSet.getTimestamp(Mockito.anyString()))
+            .thenReturn(Timestamp.from(article.getDateTime().toInstant()));
+
+        List<Article> readArticles = new ArrayList<>();
+
+        assertTrue(persistencyHandler.readStoredArticles(readArticle -> readArticles.add(readArticle)
+                                                                        && readArticles.size() < 2));
+
+        assertEquals(2, readArticles.size());
+        assertEquals("stored", readArticles.get(0).getUrl());
+        assertEquals(author, readArticles.get(0).getAuthor());
+        Mockito.verify(mockDatabaseConnection)
+            .prepareStatement("select * from article order by date_time desc, id desc");
+    }
+
+    @Test
+    public void testReadStoredArticlesWithException() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        Mockito.when(mockDatabaseConnection.prepareStatement(Mockito.anyString()))
+            .thenThrow(new SQLException("Prepare statement failed."));
+
+        assertFalse(persistencyHandler.readStoredArticles(readArticle -> true));
+    }
+
+    @Test
+    public void testUpdateArticleFlags() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        Mockito.when(mockPreparedStatement.executeUpdate()).thenReturn(1, 0);
+
+        assertTrue(persistencyHandler.updateArticleFlags("url", true, null, false));
+        Mockito.verify(mockDatabaseConnection)
+            .prepareStatement("update article set starred = ?, archived = ? where url = ?");
+        Mockito.verify(mockPreparedStatement).setObject(1, true);
+        Mockito.verify(mockPreparedStatement).setObject(2, false);
+        Mockito.verify(mockPreparedStatement).setObject(3, "url");
+
+        assertFalse(persistencyHandler.updateArticleFlags("unknown", null, true, null));
+        assertFalse(persistencyHandler.updateArticleFlags("url", null, null, null));
+        Mockito.verify(mockPreparedStatement, Mockito.times(2)).executeUpdate();
+    }
+
+    @Test
+    public void testSaveAndReadArticleContent() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        Mockito.when(mockPreparedStatement.executeUpdate()).thenReturn(1);
+
+        // The source has no dictionary yet and not enough stored content to create one.
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(false);
+
+        String content = "Article content.\n\nSecond paragraph.";
+        assertTrue(persistencyHandler.saveArticleContent("url", "test", content));
+
+        ArgumentCaptor<byte[]> compressedContentCaptor = ArgumentCaptor.forClass(byte[].class);
+        Mockito.verify(mockPreparedStatement).setObject(Mockito.eq(3), compressedContentCaptor.capture());
+        Mockito.verify(mockPreparedStatement).setObject(4, false);
+        Mockito.verify(mockPreparedStatement).setObject(5, content.length());
+
+        Mockito.when(mockResultSet.next()).thenReturn(true, false);
+        Mockito.when(mockResultSet.getBytes("content")).thenReturn(compressedContentCaptor.getValue());
+
+        assertEquals(content, persistencyHandler.readArticleContent("url"));
+        assertNull(persistencyHandler.readArticleContent("unknown"));
+    }
+
+    @Test
+    public void testSaveArticleContentCreatesDictionary() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        Mockito.when(mockPreparedStatement.executeUpdate()).thenReturn(1);
+
+        String boilerplate = "Subscribe to our newsletter for the latest science news and analysis. ";
+        List<byte[]> samples = new ArrayList<>();
+        for (int sampleIndex = 0; sampleIndex < 20; sampleIndex++) {
+            samples.add(TextCompression.compress("Sample article number " + sampleIndex + ". " + boilerplate));
+        }
+
+        ResultSet mockDictionaryResultSet = Mockito.mock(ResultSet.class);
+        ResultSet mockSampleResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockDictionaryResultSet, mockSampleResultSet);
+        Iterator<byte[]> sampleIterator = samples.iterator();
+        Mockito.when(mockSampleResultSet.next()).thenAnswer(invocation -> sampleIterator.hasNext());
+        Mockito.when(mockSampleResultSet.getBytes("content")).thenAnswer(invocation -> sampleIterator.next());
+
+        String content = "A new article. " + boilerplate;
+        assertTrue(persistencyHandler.saveArticleContent("url", "test", content));
+
+        Mockito.verify(mockDatabaseConnection)
+            .prepareStatement("insert into content_dictionary (source_id, dictionary) values (?, ?)");
+        ArgumentCaptor<byte[]> compressedContentCaptor = ArgumentCaptor.forClass(byte[].class);
+        Mockito.verify(mockPreparedStatement).setObject(Mockito.eq(3), compressedContentCaptor.capture());
+        Mockito.verify(mockPreparedStatement).setObject(4, true);
+
+        // The dictionary is cached, so reading the content does not query the content dictionary table.
+        ResultSet mockContentResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockContentResultSet);
+        Mockito.when(mockContentResultSet.next()).thenReturn(true, false);
+        Mockito.when(mockContentResultSet.getString("source_id")).thenReturn("test");
+        Mockito.when(mockContentResultSet.getBytes("content")).thenReturn(compressedContentCaptor.getValue());
+        Mockito.when(mockContentResultSet.getBoolean("with_dictionary")).thenReturn(true);
+
+        assertEquals(content, persistencyHandler.readArticleContent("url"));
+    }
+
+    @Test
+    public void testReadArticleContentUrls() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, true, false);
+        Mockito.when(mockResultSet.getString("url")).thenReturn("url1", "url2");
+
+        assertEquals(ImmutableSet.of("url1", "url2"), persistencyHandler.readArticleContentUrls());
+    }
+
+    @Test
+    public void testTrimArticleContent() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, true, true, false);
+        Mockito.when(mockResultSet.getInt("stored_length")).thenReturn(40, 50, 30);
+        Mockito.when(mockResultSet.getString("url")).thenReturn("url2", "url3");
+
+        // The oldest content is removed as well, although it would still fit.
+        assertEquals(40, persistencyHandler.trimArticleContent(80));
+
+        Mockito.verify(mockDatabaseConnection).prepareStatement("delete from article_content where url = ?");
+        Mockito.verify(mockPreparedStatement).setString(1, "url2");
+        Mockito.verify(mockPreparedStatement).setString(1, "url3");
+        Mockito.verify(mockPreparedStatement).executeBatch();
+    }
+
+    @Test
+    public void testRemoveOldArticles() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+        Mockito.when(mockResultSet.next()).thenReturn(true, true, false);
+        Mockito.when(mockResultSet.getInt("id")).thenReturn(6, 28);
+        Mockito.when(mockResultSet.getString("url")).thenReturn("url6", "url28");
+
+        Instant publishedBefore = Instant.parse("2017-06-27T00:00:00Z");
+        assertEquals(2, persistencyHandler.removeOldArticles(publishedBefore, 100));
+
+        Mockito.verify(mockPreparedStatement).setObject(1, Timestamp.from(publishedBefore));
+        Mockito.verify(mockPreparedStatement).setObject(2, 100);
+        Mockito.verify(mockDatabaseConnection).prepareStatement("delete from article_content where url = ?");
+        Mockito.verify(mockPreparedStatement).setString(1, "url28");
+        Mockito.verify(mockDatabaseConnection).prepareStatement("delete from article where id = ?");
+        Mockito.verify(mockPreparedStatement).setInt(1, 28);
+        Mockito.verify(mockPreparedStatement, Mockito.times(2)).executeBatch();
+
+        // The database is compacted when it is closed, since articles were removed.
+        assertTrue(persistencyHandler.closeDatabaseConnection());
+        Mockito.verify(mockStatement).execute("shutdown compact");
+    }
+
+    @Test
+    public void testRemoveOldArticlesWithoutOldArticles() throws SQLException {
+        createConnectionAndRelatedMocks();
+
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(mockPreparedStatement.executeQuery()).thenReturn(mockResultSet);
+
+        assertEquals(0, persistencyHandler.removeOldArticles(Instant.now(), 100));
+        Mockito.verify(mockPreparedStatement, Mockito.never()).executeBatch();
+
+        assertTrue(persistencyHandler.closeDatabaseConnection());
+        Mockito.verify(mockStatement, Mockito.never()).execute("shutdown compact");
+    }
+
+    @Test
+    public void testSaveAuthorsAndArticlesAfterRemoveOldArticles() throws SQLException {
+        try (Connection databaseConnection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            persistencyHandler.initializeDatabaseConnection(databaseConnection);
+            persistencyHandler.createTablesIfNeeded();
+            persistencyHandler.readAuthorsAndArticles();
+
+            Author author = persistencyHandler.getOrCreateAuthor("Cara Santa Maria");
+            ZonedDateTime dateTime = Utilities.createDate(2017, Month.JUNE, 27);
+            Article oldArticle = Article.builder().url("url-old").sourceId("test").author(author).title("Old")
+                .dateTime(dateTime).read(true).build();
+            Article otherArticle = Article.builder().url("url-other").sourceId("test").author(author).title("Other")
+                .dateTime(dateTime).read(true).build();
+
+            persistencyHandler.saveAuthorsAndArticles(Arrays.asList(oldArticle, otherArticle));
+            persistencyHandler.readAuthorsAndArticles();
+
+            // The old article is still shown in this session when the retention job removes it.
+            List<Article> currentArticles = Collections.singletonList(
+                persistencyHandler.getStoredArticlesMap().get("url-old")
+            );
+
+            Instant publishedBefore = dateTime.plusDays(1).toInstant();
+            assertEquals(2, persistencyHandler.removeOldArticles(publishedBefore, 100));
+            assertFalse(persistencyHandler.getStoredArticlesMap().containsKey("url-old"));
+
+            // The flag change of this session is saved, instead of updating a record that no longer exists.
+            currentArticles.get(0).setStarred(true);
+            persistencyHandler.saveAuthorsAndArticles(currentArticles);
+
+            persistencyHandler.readAuthorsAndArticles();
+            assertEquals(ImmutableSet.of("url-old"), persistencyHandler.getStoredArticlesMap().keySet());
+            assertTrue(persistencyHandler.getStoredArticlesMap().get("url-old").isStarred());
+        }
+    }
+
+    @Test
+    public void testUpdateArticleFlagsUpdatesStoredArticle() throws SQLException {
+        try (Connection databaseConnection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            persistencyHandler.initializeDatabaseConnection(databaseConnection);
+            persistencyHandler.createTablesIfNeeded();
+            persistencyHandler.readAuthorsAndArticles();
+
+            Author author = persistencyHandler.getOrCreateAuthor("Cara Santa Maria");
+            Article article = Article.builder().url("url").sourceId("test").author(author).title("Title")
+                .dateTime(Utilities.createDate(2017, Month.JUNE, 27)).build();
+
+            persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(article));
+            persistencyHandler.readAuthorsAndArticles();
+
+            assertTrue(persistencyHandler.updateArticleFlags("url", true, null, null));
+
+            Article storedArticle = persistencyHandler.getStoredArticlesMap().get("url");
+            assertTrue(storedArticle.isStarred());
+            assertFalse(storedArticle.isRead());
+
+            // Saving an article with the same flags does not undo the update.
+            article.setStarred(true);
+            persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(article));
+            persistencyHandler.readAuthorsAndArticles();
+            assertTrue(persistencyHandler.getStoredArticlesMap().get("url").isStarred());
+        }
+    }
+
+    @Test
+    public void testSaveAuthorsAndArticlesUpdatesStoredArticles() throws SQLException {
+        try (Connection databaseConnection = DriverManager.getConnection("jdbc:h2:mem:")) {
+            persistencyHandler.initializeDatabaseConnection(databaseConnection);
+            persistencyHandler.createTablesIfNeeded();
+            persistencyHandler.readAuthorsAndArticles();
+
+            Author author = persistencyHandler.getOrCreateAuthor("Cara Santa Maria");
+            Article article = Article.builder().url("url").sourceId("test").author(author).title("Title")
+                .dateTime(Utilities.createDate(2017, Month.JUNE, 27)).build();
+
+            // The saved article is stored without reading the database again, with the record id it received.
+            persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(article));
+
+            Article storedArticle = persistencyHandler.getStoredArticlesMap().get("url");
+            assertNotNull(storedArticle);
+            assertNotSame(article, storedArticle);
+            assertTrue(storedArticle.getRecordId() > 0);
+            assertEquals(storedArticle.getRecordId(), article.getRecordId());
+
+            // A later change is detected and saved as an update instead of a second record.
+            article.setRead(true);
+            persistencyHandler.saveAuthorsAndArticles(Collections.singletonList(article));
+            assertTrue(persistencyHandler.getStoredArticlesMap().get("url").isRead());
+
+            persistencyHandler.readAuthorsAndArticles();
+            assertEquals(1, persistencyHandler.getStoredArticlesMap().size());
+            assertTrue(persistencyHandler.getStoredArticlesMap().get("url").isRead());
+        }
+    }
+
     private List<Invocation> getInvocations(final String methodName) {
         return Mockito.mockingDetails(mockPreparedStatement)
                     .getInvocations().stream().filter(invocation -> invocation.toString().contains(methodName))
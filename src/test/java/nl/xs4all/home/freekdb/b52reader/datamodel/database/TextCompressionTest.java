@@ -0,0 +1,92 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.datamodel.database;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link TextCompression} class.
+ */
+public class TextCompressionTest {
+    @Test
+    public void testCompressAndDecompress() throws DataFormatException {
+        String text = String.join("\n\n", Collections.nCopies(200, "Ein Stück Text mit Umlauten: äöü — and more."));
+        byte[] compressedText = TextCompression.compress(text);
+
+        assertTrue(compressedText.length < text.length() / 10);
+        assertEquals(text, TextCompression.decompress(compressedText));
+    }
+
+    @Test
+    public void testCompressAndDecompressEmptyText() throws DataFormatException {
+        assertEquals("", TextCompression.decompress(TextCompression.compress("")));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testDecompressIncompleteText() throws DataFormatException {
+        byte[] compressedText = TextCompression.compress("Some text that will be truncated after compression.");
+
+        TextCompression.decompress(Arrays.copyOf(compressedText, compressedText.length / 2));
+    }
+
+    @Test
+    public void testCompressAndDecompressWithDictionary() throws DataFormatException {
+        String boilerplate = "Follow us on social media and subscribe to our newsletter for more stories like this.";
+        byte[] dictionary = boilerplate.getBytes(StandardCharsets.UTF_8);
+        String text = "A short article. " + boilerplate;
+
+        byte[] compressedText = TextCompression.compress(text, dictionary);
+
+        assertTrue(compressedText.length < TextCompression.compress(text).length / 2);
+        assertEquals(text, TextCompression.decompress(compressedText, dictionary));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testDecompressWithoutDictionary() throws DataFormatException {
+        byte[] dictionary = "some dictionary words".getBytes(StandardCharsets.UTF_8);
+
+        TextCompression.decompress(TextCompression.compress("some words", dictionary));
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testDecompressWithDifferentDictionary() throws DataFormatException {
+        byte[] dictionary = "some dictionary words".getBytes(StandardCharsets.UTF_8);
+        byte[] otherDictionary = "other dictionary words".getBytes(StandardCharsets.UTF_8);
+
+        TextCompression.decompress(TextCompression.compress("some words", dictionary), otherDictionary);
+    }
+
+    @Test
+    public void testCreateDictionary() {
+        List<String> samples = Arrays.asList("First story. Read more science news",
+                                             "Second story. Read more science news",
+                                             "Unique words only");
+
+        // The most valuable candidates come last: the phrases with the longest words.
+        assertEquals("news more Read story. science story. Read more more science news Read more science ",
+                     new String(TextCompression.createDictionary(samples, 1024), StandardCharsets.UTF_8));
+        assertEquals("Read more science ",
+                     new String(TextCompression.createDictionary(samples, 20), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCreateDictionaryWithoutCommonWords() {
+        List<String> samples = Arrays.asList("First one", "Second two");
+
+        assertArrayEquals(new byte[0], TextCompression.createDictionary(samples, 1024));
+    }
+}
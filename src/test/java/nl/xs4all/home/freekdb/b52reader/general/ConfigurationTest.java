@@ -24,6 +24,7 @@ import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
 import nl.xs4all.home.freekdb.b52reader.articlesources.ArticleSource;
 import nl.xs4all.home.freekdb.b52reader.articlesources.nrc.NrcScienceArticleSource;
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
 
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -201,4 +202,173 @@ public class ConfigurationTest {
         assertEquals(1000, configuration.getBackgroundTimerDelay());
         assertEquals("fetched", configuration.getFetchedValue());
     }
+
+    @Test
+    public void testParallelThreshold() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertEquals(ParallelListProcessor.DEFAULT_THRESHOLD, defaultConfiguration.getParallelThreshold());
+
+        byte[] invalidConfigurationBytes = "parallel-threshold = many".getBytes("UTF-8");
+        Configuration invalidConfiguration = new Configuration(new ByteArrayInputStream(invalidConfigurationBytes));
+        assertEquals(ParallelListProcessor.DEFAULT_THRESHOLD, invalidConfiguration.getParallelThreshold());
+
+        byte[] configurationBytes = "source-ids = test\nparallel-threshold = 528".getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals(528, configuration.getParallelThreshold());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("parallel-threshold=528"));
+    }
+
+    @Test
+    public void testSyntheticArticleSources() throws IOException {
+        byte[] configurationBytes = ("source-ids = soak,default,invalid\n" +
+                                     "source-soak = synthetic|100000|28\n" +
+                                     "source-default = synthetic|\n" +
+                                     "source-invalid = synthetic|many").getBytes("UTF-8");
+
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        List<ArticleSource> articleSources = configuration.getSelectedArticleSources();
+
+        assertEquals(2, articleSources.size());
+
+        for (ArticleSource articleSource : articleSources) {
+            SyntheticArticleSource syntheticSource = (SyntheticArticleSource) articleSource;
+            boolean soak = "soak".equals(syntheticSource.getSourceId());
+
+            assertEquals(soak ? 100000 : SyntheticArticleSource.DEFAULT_ARTICLE_COUNT,
+                         syntheticSource.getArticleCount());
+            assertEquals(soak ? 28 : SyntheticArticleSource.DEFAULT_SEED, syntheticSource.getSeed());
+        }
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("source-soak=synthetic|100000|28"));
+        assertTrue(configurationOutputStream.toString().contains("source-default=synthetic|10000|52"));
+    }
+
+    @Test
+    public void testStartupTimeline() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertNull(defaultConfiguration.getStartupTimelineFile());
+
+        byte[] configurationBytes = ("source-ids = test\n" +
+                                     "source-test = nl.xs4all.home.freekdb.b52reader.articlesources.testdata." +
+                                     "TestDataArticleSource\n" +
+                                     "startup-timeline-file = startup-timeline.json").getBytes("UTF-8");
+
+        PhaseTracer phaseTracer = new PhaseTracer();
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes), false,
+                                                        phaseTracer);
+
+        assertEquals("startup-timeline.json", configuration.getStartupTimelineFile());
+        assertEquals(1, phaseTracer.getPhases().size());
+        assertEquals("create source test", phaseTracer.getPhases().get(0).getName());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("startup-timeline-file=startup-timeline.json"));
+    }
+
+    @Test
+    public void testEdtWatchdogSettings() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertEquals(0, defaultConfiguration.getEdtStallThreshold());
+        assertNull(defaultConfiguration.getEdtLatencyFile());
+
+        byte[] invalidConfigurationBytes = "edt-stall-threshold = long".getBytes("UTF-8");
+        Configuration invalidConfiguration = new Configuration(new ByteArrayInputStream(invalidConfigurationBytes));
+        assertEquals(0, invalidConfiguration.getEdtStallThreshold());
+
+        byte[] configurationBytes = ("source-ids = test\n" +
+                                     "edt-stall-threshold = 250\n" +
+                                     "edt-latency-file = edt-latencies.json").getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals(250, configuration.getEdtStallThreshold());
+        assertEquals("edt-latencies.json", configuration.getEdtLatencyFile());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("edt-stall-threshold=250"));
+        assertTrue(configurationOutputStream.toString().contains("edt-latency-file=edt-latencies.json"));
+    }
+
+    @Test
+    public void testMetricsFile() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertNull(defaultConfiguration.getMetricsFile());
+
+        byte[] configurationBytes = "source-ids = test\nmetrics-file = metrics.json".getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals("metrics.json", configuration.getMetricsFile());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("metrics-file=metrics.json"));
+    }
+
+    @Test
+    public void testHeadlessFetchInterval() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertEquals(60, defaultConfiguration.getHeadlessFetchInterval());
+
+        byte[] configurationBytes = "source-ids = test\nheadless-fetch-interval = 15".getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals(15, configuration.getHeadlessFetchInterval());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("headless-fetch-interval=15"));
+    }
+
+    @Test
+    public void testApiPort() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertEquals(0, defaultConfiguration.getApiPort());
+
+        byte[] configurationBytes = "source-ids = test\napi-port = 8052".getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals(8052, configuration.getApiPort());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("api-port=8052"));
+    }
+
+    @Test
+    public void testContentFetchSettings() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertEquals(0, defaultConfiguration.getContentFetchThreads());
+        assertEquals(100, defaultConfiguration.getContentCacheSize());
+        assertFalse(defaultConfiguration.isTextView());
+
+        byte[] configurationBytes = ("source-ids = test\ncontent-fetch-threads = 3\ncontent-cache-size = 25\n"
+                                     + "text-view = true").getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals(3, configuration.getContentFetchThreads());
+        assertEquals(25, configuration.getContentCacheSize());
+        assertTrue(configuration.isTextView());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        String writtenConfiguration = configurationOutputStream.toString();
+        assertTrue(writtenConfiguration.contains("content-fetch-threads=3"));
+        assertTrue(writtenConfiguration.contains("content-cache-size=25"));
+        assertTrue(writtenConfiguration.contains("text-view=true"));
+    }
+
+    @Test
+    public void testRetentionDays() throws IOException {
+        Configuration defaultConfiguration = new Configuration(new ByteArrayInputStream("".getBytes("UTF-8")));
+        assertEquals(0, defaultConfiguration.getRetentionDays());
+
+        byte[] configurationBytes = "source-ids = test\nretention-days = 90".getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationBytes));
+        assertEquals(90, configuration.getRetentionDays());
+
+        OutputStream configurationOutputStream = new ByteArrayOutputStream();
+        assertTrue(configuration.writeConfiguration(configurationOutputStream, Frame.NORMAL, null));
+        assertTrue(configurationOutputStream.toString().contains("retention-days=90"));
+    }
 }
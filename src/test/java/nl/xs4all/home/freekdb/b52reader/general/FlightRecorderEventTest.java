@@ -0,0 +1,37 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for the {@link FlightRecorderEvent} class.
+ */
+public class FlightRecorderEventTest {
+    @Test
+    public void testEmitEvents() {
+        // Whether or not the JVM supports flight recorder events, emitting them should never fail.
+        for (FlightRecorderEvent.Type type : FlightRecorderEvent.Type.values()) {
+            FlightRecorderEvent event = FlightRecorderEvent.begin(type);
+
+            assertSame(event, event.sourceId("test").url("https://test.org").byteCount(528).rowCount(6));
+            event.commit();
+        }
+    }
+
+    @Test
+    public void testDisabledEventIsShared() {
+        // Only applies when no recording is running that enables these event types.
+        Assume.assumeFalse(FlightRecorderEvent.begin(FlightRecorderEvent.Type.JDBC_BATCH).isEnabled());
+
+        assertSame(FlightRecorderEvent.begin(FlightRecorderEvent.Type.JDBC_BATCH),
+                   FlightRecorderEvent.begin(FlightRecorderEvent.Type.HTML_PARSE));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the {@link LatencyHistogram} class.
+ */
+public class LatencyHistogramTest {
+    @Test
+    public void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(528));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(4));
+        histogram.record(TimeUnit.SECONDS.toNanos(60));
+
+        assertEquals(5, histogram.getCount());
+        assertEquals(1, histogram.getBucketCount(0));
+        assertEquals(1, histogram.getBucketCount(1));
+        assertEquals(1, histogram.getBucketCount(2));
+        assertEquals(1, histogram.getBucketCount(3));
+        assertEquals(1, histogram.getBucketCount(LatencyHistogram.BUCKET_COUNT - 1));
+        assertEquals(TimeUnit.SECONDS.toNanos(60), histogram.getMaximumNanos());
+
+        assertEquals(1, LatencyHistogram.getBucketUpperBoundMillis(0));
+        assertEquals(4, LatencyHistogram.getBucketUpperBoundMillis(2));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getBucketUpperBoundMillis(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testConcurrentRecording() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        IntStream.range(0, 100_000).parallel()
+            .forEach(index -> histogram.record(TimeUnit.MILLISECONDS.toNanos(index % 8)));
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(12_500, histogram.getBucketCount(0));
+        assertEquals(50_000, histogram.getBucketCount(3));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(7), histogram.getMaximumNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(3500), histogram.getMeanNanos());
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals("count: 0, mean: 0.0 ms, maximum: 0.0 ms", histogram.createSummary());
+    }
+
+    @Test
+    public void testCreateSummary() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(40_000));
+
+        String expectedSummary = String.format("count: 2, mean: 20001.0 ms, maximum: 40000.0 ms%n" +
+                                               "         2-4 ms: 1%n" +
+                                               "      32768+ ms: 1");
+
+        assertEquals(expectedSummary, histogram.createSummary());
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(6));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        histogram.writeJson(outputStream);
+
+        JsonNode histogramNode = new ObjectMapper().readTree(outputStream.toByteArray());
+
+        assertEquals(1, histogramNode.get("count").asLong());
+        assertEquals(6.0, histogramNode.get("maximumMilliseconds").asDouble(), 1e-9);
+        assertEquals(LatencyHistogram.BUCKET_COUNT, histogramNode.get("buckets").size());
+        assertEquals("4-8", histogramNode.get("buckets").get(3).get("milliseconds").asText());
+        assertEquals(1, histogramNode.get("buckets").get(3).get("count").asLong());
+    }
+}
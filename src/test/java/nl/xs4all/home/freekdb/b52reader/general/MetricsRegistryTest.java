@@ -0,0 +1,103 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link MetricsRegistry} class.
+ */
+public class MetricsRegistryTest {
+    @Test
+    public void testMetricsAreCreatedOnce() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+        assertSame(metricsRegistry.getCounter("counter"), metricsRegistry.getCounter("counter"));
+        assertSame(metricsRegistry.getGauge("gauge"), metricsRegistry.getGauge("gauge"));
+        assertSame(metricsRegistry.getHistogram("histogram"), metricsRegistry.getHistogram("histogram"));
+        assertNotNull(MetricsRegistry.getGlobal());
+    }
+
+    @Test
+    public void testConcurrentCounting() throws InterruptedException {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int threadIndex = 0; threadIndex < 4; threadIndex++) {
+            threads.add(new Thread(() -> {
+                for (int count = 0; count < 10_000; count++) {
+                    metricsRegistry.getCounter("events").increment();
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, metricsRegistry.getCounter("events").sum());
+    }
+
+    @Test
+    public void testCreateSummary() {
+        MetricsRegistry metricsRegistry = createMetricsRegistry();
+
+        String summary = metricsRegistry.createSummary();
+
+        assertTrue(summary.contains("query-cache.hits: 3"));
+        assertTrue(summary.contains("browsers.live: 6"));
+        assertTrue(summary.contains("query-cache: 75.0%"));
+        assertTrue(summary.contains("fetch.test: count: 2"));
+        assertTrue(summary.indexOf("database.batches") < summary.indexOf("query-cache.hits"));
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        MetricsRegistry metricsRegistry = createMetricsRegistry();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        metricsRegistry.writeJson(outputStream);
+
+        JsonNode rootNode = new ObjectMapper().readTree(outputStream.toByteArray());
+
+        assertEquals(1, rootNode.get("counters").get("query-cache.misses").asLong());
+        assertEquals(6, rootNode.get("gauges").get("browsers.live").asLong());
+        assertEquals(0.75, rootNode.get("hitRates").get("query-cache").asDouble(), 1e-9);
+        assertEquals(2, rootNode.get("histograms").get("fetch.test").get("count").asLong());
+    }
+
+    private MetricsRegistry createMetricsRegistry() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+        metricsRegistry.getCounter("query-cache.hits").add(3);
+        metricsRegistry.getCounter("query-cache.misses").increment();
+        metricsRegistry.getCounter("database.batches").increment();
+        metricsRegistry.getGauge("browsers.live").set(6);
+        metricsRegistry.getHistogram("fetch.test").record(TimeUnit.MILLISECONDS.toNanos(5));
+        metricsRegistry.recordLatencySince("fetch.test", System.nanoTime());
+
+        return metricsRegistry;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.gui.ArticleFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for filtering and sorting articles with the {@link ParallelListProcessor} class, sequentially and
+ * in parallel with different numbers of threads. Comparing the sequential and parallel scores per article count shows
+ * the crossover point (which is a good value for the parallel threshold) and comparing the parallel scores per
+ * thread count shows the speedup by core count. Thread counts above the number of available cores only add overhead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelListProcessorBenchmark {
+    @Param({"1000", "5000", "10000", "50000", "100000", "500000"})
+    private int articleCount;
+
+    @Param({"2", "4", "8"})
+    private int threadCount;
+
+    private List<Article> articles;
+    private Predicate<Article> filter;
+    private Comparator<Article> comparator;
+    private ForkJoinPool pool;
+    private ParallelListProcessor sequentialProcessor;
+    private ParallelListProcessor parallelProcessor;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ParallelListProcessorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ZonedDateTime dateTime = ZonedDateTime.now();
+        Random random = new Random(528);
+
+        articles = new ArrayList<>();
+
+        for (int articleIndex = 0; articleIndex < articleCount; articleIndex++) {
+            articles.add(Article.builder()
+                             .url("https://www.nrc.nl/nieuws/2017/10/19/artikel-" + articleIndex)
+                             .sourceId(articleIndex % 2 == 0 ? "nrc" : "test")
+                             .title("Nieuwe ideeën over " + (articleIndex % 7 == 0 ? "wetenschap" : "de zee")
+                                    + ", deel " + articleIndex)
+                             .dateTime(dateTime.minusMinutes(random.nextInt(articleCount)))
+                             .read(articleIndex % 3 == 0)
+                             .archived(articleIndex % 11 == 0)
+                             .build());
+        }
+
+        // Initialize the lazily normalized titles, like they are after the first filter in the application.
+        articles.forEach(Article::getNormalizedTitle);
+
+        Predicate<Article> articleFilter = new ArticleFilter("source:nrc wetenschap -is:read");
+        filter = articleFilter.and(article -> !article.isArchived());
+        comparator = Comparator.comparing(Article::getDateTime).reversed();
+
+        pool = new ForkJoinPool(threadCount);
+        sequentialProcessor = new ParallelListProcessor(Integer.MAX_VALUE, pool);
+        parallelProcessor = new ParallelListProcessor(0, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Article> filterSequential() {
+        return sequentialProcessor.filter(articles, filter);
+    }
+
+    @Benchmark
+    public List<Article> filterParallel() {
+        return parallelProcessor.filter(articles, filter);
+    }
+
+    // The sort benchmarks include copying the list, since sorting is done in place.
+
+    @Benchmark
+    public List<Article> sortSequential() {
+        List<Article> sortedArticles = new ArrayList<>(articles);
+        sequentialProcessor.sort(sortedArticles, comparator);
+        return sortedArticles;
+    }
+
+    @Benchmark
+    public List<Article> sortParallel() {
+        List<Article> sortedArticles = new ArrayList<>(articles);
+        parallelProcessor.sort(sortedArticles, comparator);
+        return sortedArticles;
+    }
+}
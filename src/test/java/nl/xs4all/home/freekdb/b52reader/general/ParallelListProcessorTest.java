@@ -0,0 +1,108 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link ParallelListProcessor} class.
+ */
+public class ParallelListProcessorTest {
+    private static final int ELEMENT_COUNT = 100_000;
+
+    private ForkJoinPool pool;
+    private List<int[]> elements;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        elements = new ArrayList<>();
+
+        Random random = new Random(528);
+
+        // Each element has a key with many duplicates and a unique sequence number to check the stability of sorts.
+        for (int elementIndex = 0; elementIndex < ELEMENT_COUNT; elementIndex++) {
+            elements.add(new int[]{random.nextInt(1000), elementIndex});
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testIsParallel() {
+        ParallelListProcessor listProcessor = new ParallelListProcessor(1000, pool);
+
+        assertEquals(1000, listProcessor.getThreshold());
+        assertFalse(listProcessor.isParallel(999));
+        assertTrue(listProcessor.isParallel(1000));
+
+        assertFalse(new ParallelListProcessor(0, new ForkJoinPool(1)).isParallel(ELEMENT_COUNT));
+    }
+
+    @Test
+    public void testFilterKeepsOrder() {
+        Predicate<int[]> predicate = element -> element[0] % 3 == 0;
+        List<int[]> expectedElements = elements.stream().filter(predicate).collect(Collectors.toList());
+
+        assertEquals(expectedElements, new ParallelListProcessor(0, pool).filter(elements, predicate));
+        assertEquals(expectedElements, new ParallelListProcessor(Integer.MAX_VALUE, pool).filter(elements, predicate));
+        assertEquals(expectedElements, new ParallelListProcessor(0, pool).filter(new LinkedList<>(elements),
+                                                                                  predicate));
+    }
+
+    @Test
+    public void testFilterSmallList() {
+        List<String> words = new ArrayList<>();
+        words.add("cosmic");
+        words.add("queries");
+
+        assertEquals(words.subList(0, 1), new ParallelListProcessor(0, pool).filter(words, "cosmic"::equals));
+    }
+
+    @Test
+    public void testSortIsStable() {
+        Comparator<int[]> comparator = Comparator.comparingInt(element -> element[0]);
+
+        List<int[]> expectedElements = new ArrayList<>(elements);
+        expectedElements.sort(comparator);
+
+        List<int[]> parallelElements = new ArrayList<>(elements);
+        new ParallelListProcessor(0, pool).sort(parallelElements, comparator);
+        assertEquals(expectedElements, parallelElements);
+
+        List<int[]> linkedElements = new LinkedList<>(elements);
+        new ParallelListProcessor(0, pool).sort(linkedElements, comparator.reversed());
+        expectedElements.sort(comparator.reversed());
+        assertEquals(expectedElements, linkedElements);
+    }
+
+    @Test
+    public void testSortSortedList() {
+        List<int[]> sortedElements = new ArrayList<>(elements);
+        new ParallelListProcessor(0, pool).sort(sortedElements, Comparator.comparingInt(element -> element[1]));
+
+        assertEquals(elements, sortedElements);
+    }
+}
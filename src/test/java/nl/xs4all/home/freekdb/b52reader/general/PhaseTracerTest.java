@@ -0,0 +1,122 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.general;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the {@link PhaseTracer} class.
+ */
+public class PhaseTracerTest {
+    private static final long TICK_NANOS = 1_500_000;
+
+    @Test
+    public void testNestedPhases() {
+        PhaseTracer phaseTracer = createPhaseTracer();
+
+        String result = phaseTracer.trace("outer", () -> {
+            phaseTracer.trace("inner", () -> { });
+            return "result";
+        });
+
+        List<PhaseTracer.Phase> phases = phaseTracer.getPhases();
+
+        assertEquals("result", result);
+        assertEquals(2, phases.size());
+        assertPhase("outer", 0, TICK_NANOS, 3 * TICK_NANOS, phases.get(0));
+        assertPhase("inner", 1, 2 * TICK_NANOS, TICK_NANOS, phases.get(1));
+    }
+
+    @Test
+    public void testPhaseWithException() {
+        PhaseTracer phaseTracer = createPhaseTracer();
+
+        try {
+            phaseTracer.trace("failing", () -> {
+                throw new IllegalStateException("Failing phase.");
+            });
+
+            fail("Expected an IllegalStateException.");
+        } catch (IllegalStateException e) {
+            assertEquals(1, phaseTracer.getPhases().size());
+        }
+
+        phaseTracer.trace("next", () -> { });
+
+        assertEquals(0, phaseTracer.getPhases().get(1).getDepth());
+    }
+
+    @Test
+    public void testCreateSummary() {
+        PhaseTracer phaseTracer = createPhaseTracer();
+
+        phaseTracer.trace("database", () -> phaseTracer.trace("read articles", () -> { }));
+        phaseTracer.logSummary("Test timeline");
+
+        String expectedSummary = String.format("  start ms  duration ms  phase%n" +
+                                               "       1.5          4.5  database%n" +
+                                               "       3.0          1.5    read articles");
+
+        assertEquals(expectedSummary, phaseTracer.createSummary());
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        PhaseTracer phaseTracer = createPhaseTracer();
+
+        phaseTracer.trace("configuration", () -> phaseTracer.trace("create source test", () -> { }));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        phaseTracer.writeJson(outputStream);
+
+        JsonNode phasesNode = new ObjectMapper().readTree(outputStream.toByteArray()).get("phases");
+
+        assertEquals(2, phasesNode.size());
+        assertEquals("configuration", phasesNode.get(0).get("name").asText());
+        assertEquals(4.5, phasesNode.get(0).get("durationMilliseconds").asDouble(), 1e-9);
+        assertEquals("create source test", phasesNode.get(1).get("name").asText());
+        assertEquals(1, phasesNode.get(1).get("depth").asInt());
+        assertEquals(3.0, phasesNode.get(1).get("startMilliseconds").asDouble(), 1e-9);
+    }
+
+    @Test
+    public void testSystemClock() {
+        PhaseTracer phaseTracer = new PhaseTracer();
+
+        phaseTracer.trace("phase", () -> { });
+
+        PhaseTracer.Phase phase = phaseTracer.getPhases().get(0);
+        assertTrue(phase.getStartNanos() >= 0);
+        assertTrue(phase.getDurationNanos() >= 0);
+    }
+
+    private PhaseTracer createPhaseTracer() {
+        // Every time the clock is read, it advances by one tick.
+        AtomicLong nanoTime = new AtomicLong(528);
+
+        return new PhaseTracer(() -> nanoTime.getAndAdd(TICK_NANOS));
+    }
+
+    private void assertPhase(String name, int depth, long startNanos, long durationNanos, PhaseTracer.Phase phase) {
+        assertEquals(name, phase.getName());
+        assertEquals(depth, phase.getDepth());
+        assertEquals(startNanos, phase.getStartNanos());
+        assertEquals(durationNanos, phase.getDurationNanos());
+    }
+}
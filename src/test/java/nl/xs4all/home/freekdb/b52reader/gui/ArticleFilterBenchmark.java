@@ -0,0 +1,90 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.SyntheticArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.AuthorRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link ArticleFilter#test(Article)} with typical filter queries, on synthetic articles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArticleFilterBenchmark {
+    @Param({"10000", "1000000"})
+    private int articleCount;
+
+    @Param({"", "wetenschap", "author:cara is:unread", "source:nrc likes>500 OR is:starred -title:café"})
+    private String filterText;
+
+    private List<Article> articles;
+    private ArticleFilter articleFilter;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ArticleFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        articles = new SyntheticArticleSource("nrc", articleCount, SyntheticArticleSource.DEFAULT_SEED)
+            .streamArticles(new AuthorRegistry()::getOrCreate)
+            .collect(Collectors.toList());
+
+        for (int articleIndex = 0; articleIndex < articles.size(); articleIndex++) {
+            articles.get(articleIndex).setStarred(articleIndex % 10 == 0);
+            articles.get(articleIndex).setRead(articleIndex % 3 == 0);
+        }
+
+        articleFilter = new ArticleFilter(filterText);
+
+        // Initialize the lazily normalized titles, like they are after the first filter in the application.
+        articles.forEach(Article::getNormalizedTitle);
+    }
+
+    @Benchmark
+    public int test() {
+        int matchCount = 0;
+
+        for (Article article : articles) {
+            if (articleFilter.test(article)) {
+                matchCount++;
+            }
+        }
+
+        return matchCount;
+    }
+
+    @Benchmark
+    public ArticleFilter createFilter() {
+        return new ArticleFilter(filterText);
+    }
+}
@@ -6,12 +6,15 @@
 
 package nl.xs4all.home.freekdb.b52reader.gui;
 
+import java.util.Collections;
+
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -63,6 +66,28 @@ public class ArticleFilterTest {
         assertFalse(new ArticleFilter("is:read").test(article));
     }
 
+    @Test
+    public void testFilterQueryLanguage() {
+        assertTrue(new ArticleFilter("source:TEST likes>28 likes<500").test(article));
+        assertTrue(new ArticleFilter("-is:unstarred -author:albert").test(article));
+        assertTrue(new ArticleFilter("author:albert OR title:article").test(article));
+        assertTrue(new ArticleFilter("article").test(article));
+
+        assertFalse(new ArticleFilter("source:nrc").test(article));
+        assertFalse(new ArticleFilter("-is:starred").test(article));
+        assertFalse(new ArticleFilter("author:albert OR title:amazing").test(article));
+        assertFalse(new ArticleFilter("after:2017-06-28").test(article));
+    }
+
+    @Test
+    public void testFilterErrors() {
+        ArticleFilter articleFilter = new ArticleFilter("title:article is:nonsense");
+
+        assertTrue(articleFilter.test(article));
+        assertEquals(Collections.singletonList("Filter term not understood: is:nonsense"), articleFilter.getErrors());
+        assertTrue(new ArticleFilter("title:article is:starred").getErrors().isEmpty());
+    }
+
     @Test
     public void testFilterCornerCases() {
         Article articleTwo = Article.builder().url("url").sourceId("test").text("Text")
@@ -8,15 +8,18 @@ package nl.xs4all.home.freekdb.b52reader.gui;
 
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Container;
 import java.time.Month;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 
+import javax.swing.JLabel;
 import javax.swing.JTable;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+import nl.xs4all.home.freekdb.b52reader.general.Constants;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
 import org.junit.Before;
@@ -24,6 +27,7 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * Unit tests for the {@link ArticleTableCellRenderer} class.
@@ -74,4 +78,36 @@ public class ArticleTableCellRendererTest {
 
         assertEquals(configuration.getNiceLightBlue(), rendererComponent.getBackground());
     }
+
+    @Test
+    public void testGetTableCellRendererComponentReusesTexts() {
+        Mockito.when(configuration.getDateTimeFormatLonger()).thenReturn(DateTimeFormatter.ofPattern("EEE dd-MMM HH:mm"));
+
+        ZonedDateTime date = Utilities.createDate(2002, Month.FEBRUARY, 20);
+        Article article1 = Article.builder().url("u1").sourceId("test").title("t1").dateTime(date).likes(6).build();
+        Article article2 = Article.builder().url("u2").sourceId("test").title("t2").dateTime(date).likes(6).build();
+
+        article1.setStarred(true);
+
+        ArticleTableCellRenderer renderer = new ArticleTableCellRenderer(configuration);
+        JTable table = new JTable();
+
+        Container rendererComponent = (Container) renderer.getTableCellRendererComponent(table, article1, false, false,
+                                                                                          0, 0);
+        JLabel starredLabel = (JLabel) rendererComponent.getComponent(0);
+        JLabel likesLabel = (JLabel) rendererComponent.getComponent(3);
+        JLabel dateTimeLabel = (JLabel) rendererComponent.getComponent(5);
+
+        assertSame(Constants.STARRED_ICON, starredLabel.getIcon());
+        String likesText = likesLabel.getText();
+        String dateTimeText = dateTimeLabel.getText();
+        assertEquals("+6", likesText);
+
+        renderer.getTableCellRendererComponent(table, article2, false, false, 1, 0);
+
+        assertSame(Constants.UNSTARRED_ICON, starredLabel.getIcon());
+        assertSame(likesText, likesLabel.getText());
+        assertSame(dateTimeText, dateTimeLabel.getText());
+        Mockito.verify(configuration, Mockito.times(1)).getDateTimeFormatLonger();
+    }
 }
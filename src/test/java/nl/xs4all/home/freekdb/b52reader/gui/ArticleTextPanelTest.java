@@ -0,0 +1,50 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the {@link ArticleTextPanel} class.
+ */
+public class ArticleTextPanelTest {
+    @Test
+    public void testShowArticleWithContent() {
+        ArticleTextPanel articleTextPanel = new ArticleTextPanel();
+        Article article = Article.builder().url("url").title("Title").text("Short text.").build();
+
+        articleTextPanel.showArticle(article, "Full text.\n\nSecond paragraph.");
+
+        assertEquals("Title\nurl\n\nFull text.\n\nSecond paragraph.", articleTextPanel.getArticleText());
+    }
+
+    @Test
+    public void testShowArticleWithoutContent() {
+        ArticleTextPanel articleTextPanel = new ArticleTextPanel();
+
+        articleTextPanel.showArticle(Article.builder().url("url").title("Title").text("Short text.").build(), null);
+        assertEquals("Title\nurl\n\nShort text.\n\n(The full text of this article has not been fetched yet.)",
+                     articleTextPanel.getArticleText());
+
+        articleTextPanel.showArticle(Article.builder().url("url").build(), null);
+        assertEquals("url\n\n(The full text of this article has not been fetched yet.)",
+                     articleTextPanel.getArticleText());
+    }
+
+    @Test
+    public void testShowLoadingArticle() {
+        ArticleTextPanel articleTextPanel = new ArticleTextPanel();
+
+        articleTextPanel.showLoadingArticle(Article.builder().url("url").title("Title").text("Short text.").build());
+        assertEquals("Title\nurl\n\nShort text.\n\n(Loading the full text of this article...)",
+                     articleTextPanel.getArticleText());
+    }
+}
@@ -7,7 +7,14 @@
 package nl.xs4all.home.freekdb.b52reader.gui;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.swing.JTable;
+import javax.swing.event.TableModelEvent;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 
@@ -16,6 +23,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -55,6 +63,113 @@ public class ArticlesTableModelTest {
         assertNull(tableModel.getValueAt(0, 6));
     }
 
+    @Test
+    public void testSetArticlesFiresRowEvents() {
+        List<Article> articles = createArticles(10);
+        ArticlesTableModel tableModel = new ArticlesTableModel(articles);
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.getSelectionModel().setSelectionInterval(5, 5);
+
+        List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+
+        // Remove articles 1, 2, and 8; the selected article moves from row 5 to row 3.
+        List<Article> filteredArticles = filterArticles(articles, Arrays.asList(0, 3, 4, 5, 6, 7, 9));
+        tableModel.setArticles(filteredArticles);
+
+        assertEquals(2, events.size());
+        assertEvent(events.get(0), TableModelEvent.DELETE, 1, 2);
+        assertEvent(events.get(1), TableModelEvent.DELETE, 6, 6);
+        assertEquals(filteredArticles.size(), table.getRowCount());
+        assertEquals(3, table.getSelectedRow());
+
+        // Add articles 1 and 8 again and remove article 4.
+        events.clear();
+        List<Article> otherArticles = filterArticles(articles, Arrays.asList(0, 1, 3, 5, 6, 7, 8, 9));
+        tableModel.setArticles(otherArticles);
+
+        assertEquals(3, events.size());
+        assertEvent(events.get(0), TableModelEvent.INSERT, 1, 1);
+        assertEvent(events.get(1), TableModelEvent.DELETE, 3, 3);
+        assertEvent(events.get(2), TableModelEvent.INSERT, 6, 6);
+
+        for (int rowIndex = 0; rowIndex < otherArticles.size(); rowIndex++) {
+            assertSame(otherArticles.get(rowIndex), tableModel.getValueAt(rowIndex, 0));
+            assertSame(otherArticles.get(rowIndex), table.getValueAt(rowIndex, 0));
+        }
+    }
+
+    @Test
+    public void testToggleFlagFiresOneUpdateEvent() {
+        List<Article> articles = createArticles(10);
+        ArticlesTableModel tableModel = new ArticlesTableModel(articles);
+
+        List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+
+        tableModel.setArticles(new ArrayList<>(articles));
+        assertTrue(events.isEmpty());
+
+        articles.get(4).setStarred(true);
+        tableModel.setArticles(new ArrayList<>(articles));
+
+        assertEquals(1, events.size());
+        assertEvent(events.get(0), TableModelEvent.UPDATE, 4, 4);
+
+        events.clear();
+        articles.get(4).setRead(true);
+        articles.set(5, Article.builder().url("url5").sourceId("source-id").title("changed title").build());
+        tableModel.setArticles(new ArrayList<>(articles));
+
+        assertEquals(1, events.size());
+        assertEvent(events.get(0), TableModelEvent.UPDATE, 4, 5);
+    }
+
+    @Test
+    public void testSetArticlesFiresDataChanged() {
+        List<Article> articles = createArticles(1000);
+        ArticlesTableModel tableModel = new ArticlesTableModel(articles);
+
+        List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+
+        // Too many separate changes.
+        List<Article> evenArticles = filterArticles(articles, IntStream.range(0, 1000).filter(index -> index % 2 == 0)
+            .boxed().collect(Collectors.toList()));
+        tableModel.setArticles(evenArticles);
+
+        // A different order.
+        List<Article> reversedArticles = new ArrayList<>(evenArticles);
+        Collections.reverse(reversedArticles);
+        tableModel.setArticles(reversedArticles);
+
+        assertEquals(2, events.size());
+        events.forEach(event -> assertEvent(event, TableModelEvent.UPDATE, 0, Integer.MAX_VALUE));
+        assertEquals(500, tableModel.getRowCount());
+    }
+
+    private List<Article> createArticles(int articleCount) {
+        List<Article> articles = new ArrayList<>();
+
+        for (int articleIndex = 0; articleIndex < articleCount; articleIndex++) {
+            articles.add(createArticle("url" + articleIndex));
+        }
+
+        return articles;
+    }
+
+    private List<Article> filterArticles(List<Article> articles, List<Integer> indices) {
+        return indices.stream().map(articles::get).collect(Collectors.toList());
+    }
+
+    private void assertEvent(TableModelEvent event, int type, int firstRow, int lastRow) {
+        assertEquals(type, event.getType());
+        assertEquals(firstRow, event.getFirstRow());
+        assertEquals(lastRow, event.getLastRow());
+    }
+
     private Article createArticle(String url) {
         return Article.builder().url(url).sourceId("source-id").title("title")
                 .build();
@@ -0,0 +1,67 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import nl.xs4all.home.freekdb.b52reader.general.MetricsRegistry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link DiagnosticsPanel} class.
+ */
+public class DiagnosticsPanelTest {
+    @Test
+    public void testRefreshWhenVisible() {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        DiagnosticsPanel diagnosticsPanel = new DiagnosticsPanel(metricsRegistry);
+
+        assertFalse(diagnosticsPanel.isVisible());
+
+        metricsRegistry.getGauge("browsers.live").set(3);
+        diagnosticsPanel.setVisible(true);
+
+        assertTrue(diagnosticsPanel.getMetricsText().contains("browsers.live: 3"));
+
+        metricsRegistry.getGauge("browsers.live").set(4);
+        diagnosticsPanel.refreshMetrics();
+        diagnosticsPanel.setVisible(false);
+
+        assertTrue(diagnosticsPanel.getMetricsText().contains("browsers.live: 4"));
+    }
+
+    @Test
+    public void testDumpMetrics() throws IOException {
+        MetricsRegistry metricsRegistry = new MetricsRegistry();
+        metricsRegistry.getCounter("query-cache.hits").increment();
+
+        File metricsFile = File.createTempFile("b52-metrics", ".json");
+        metricsFile.deleteOnExit();
+
+        assertTrue(new DiagnosticsPanel(metricsRegistry).dumpMetrics(metricsFile));
+
+        long hits = new ObjectMapper().readTree(metricsFile).get("counters").get("query-cache.hits").asLong();
+        assertEquals(1, hits);
+    }
+
+    @Test
+    public void testDumpMetricsToDirectory() throws IOException {
+        File directory = Files.createTempDirectory("b52-metrics").toFile();
+        directory.deleteOnExit();
+
+        assertFalse(new DiagnosticsPanel(new MetricsRegistry()).dumpMetrics(directory));
+    }
+}
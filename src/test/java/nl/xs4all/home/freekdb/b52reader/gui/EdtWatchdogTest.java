@@ -0,0 +1,111 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link EdtWatchdog} class.
+ */
+public class EdtWatchdogTest {
+    private static final long THRESHOLD_MILLIS = 50;
+
+    private EdtWatchdog edtWatchdog;
+
+    @Before
+    public void setUp() {
+        edtWatchdog = new EdtWatchdog(THRESHOLD_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        edtWatchdog.stop();
+    }
+
+    @Test
+    public void testFastEvents() throws InterruptedException, InvocationTargetException {
+        edtWatchdog.start();
+
+        for (int eventIndex = 0; eventIndex < 10; eventIndex++) {
+            SwingUtilities.invokeAndWait(() -> { });
+        }
+
+        // The last event is recorded after invokeAndWait returns, so wait for one more event.
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertTrue(edtWatchdog.getHistogram().getCount() >= 10);
+        assertEquals(0, edtWatchdog.getStallCount());
+    }
+
+    @Test
+    public void testStallIsDetected() throws InterruptedException, InvocationTargetException {
+        edtWatchdog.start();
+
+        SwingUtilities.invokeAndWait(() -> sleep(4 * THRESHOLD_MILLIS));
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(1, edtWatchdog.getStallCount());
+        assertTrue(edtWatchdog.getHistogram().getMaximumNanos() >= 4 * THRESHOLD_MILLIS * 1_000_000);
+    }
+
+    @Test
+    public void testCheckForStallCapturesStackOnce() throws InterruptedException, InvocationTargetException {
+        // With a very long check interval, all checks are done by this test instead of the checking thread.
+        edtWatchdog.start(TimeUnit.HOURS.toMillis(1));
+
+        assertFalse(edtWatchdog.checkForStall());
+
+        CountDownLatch eventStarted = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            eventStarted.countDown();
+            sleep(4 * THRESHOLD_MILLIS);
+        });
+
+        eventStarted.await();
+        Thread.sleep(2 * THRESHOLD_MILLIS);
+
+        assertTrue(edtWatchdog.checkForStall());
+        assertFalse(edtWatchdog.checkForStall());
+
+        SwingUtilities.invokeAndWait(() -> { });
+        assertFalse(edtWatchdog.checkForStall());
+    }
+
+    @Test
+    public void testStopRestoresEventQueue() throws InterruptedException, InvocationTargetException {
+        edtWatchdog.start();
+        edtWatchdog.stop();
+
+        // Let an event that was already being dispatched when the watchdog stopped finish first.
+        SwingUtilities.invokeAndWait(() -> { });
+
+        long countAfterStop = edtWatchdog.getHistogram().getCount();
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(countAfterStop, edtWatchdog.getHistogram().getCount());
+    }
+
+    private static void sleep(long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,6 +8,7 @@ package nl.xs4all.home.freekdb.b52reader.gui;
 
 import com.google.common.collect.ImmutableSet;
 
+import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.event.MouseEvent;
@@ -20,13 +21,18 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import javax.swing.JFrame;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.JToggleButton;
 import javax.swing.SwingUtilities;
 import javax.swing.event.DocumentEvent;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.TableModel;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.BadLocationException;
 
@@ -38,6 +44,7 @@ import nl.xs4all.home.freekdb.b52reader.main.MainCallbacks;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import static nl.xs4all.home.freekdb.b52reader.gui.MainGuiTest.FilterTestType.CHANGE_TEXT;
@@ -48,6 +55,8 @@ import static nl.xs4all.home.freekdb.b52reader.gui.MainGuiTest.FilterTestType.RE
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -126,7 +135,7 @@ public class MainGuiTest {
         // Make sure there is enough time for handleBackgroundTasks to be called.
         Thread.sleep(2000);
 
-        assertEquals(3, mockContentPane.getComponentCount());
+        assertEquals(4, mockContentPane.getComponentCount());
     }
 
     @Test
@@ -139,7 +148,90 @@ public class MainGuiTest {
 
         waitForGuiTasks();
 
-        assertEquals(3, mockContentPane.getComponentCount());
+        assertEquals(4, mockContentPane.getComponentCount());
+    }
+
+    @Test
+    public void testToggleDiagnostics() throws InvocationTargetException, InterruptedException {
+        MainGui mainGui = new MainGui(mockManyBrowsersPanel);
+        mainGui.setMainCallbacks(mockMainCallbacks);
+
+        mainGui.initializeBackgroundBrowsersPanel(mockFrame, mockConfiguration);
+        mainGui.initializeGui(new ArrayList<>());
+
+        waitForGuiTasks();
+
+        DiagnosticsPanel diagnosticsPanel = (DiagnosticsPanel) findComponent(mockContentPane, DiagnosticsPanel.class);
+        JToggleButton diagnosticsButton = (JToggleButton) findComponent(mockContentPane, JToggleButton.class);
+        assertNotNull(diagnosticsPanel);
+        assertNotNull(diagnosticsButton);
+        assertFalse(diagnosticsPanel.isVisible());
+
+        SwingUtilities.invokeAndWait(diagnosticsButton::doClick);
+        assertTrue(diagnosticsPanel.isVisible());
+        assertTrue(diagnosticsPanel.getMetricsText().contains("counters:"));
+
+        SwingUtilities.invokeAndWait(diagnosticsButton::doClick);
+        assertFalse(diagnosticsPanel.isVisible());
+    }
+
+    @Test
+    public void testToggleTextView() throws InvocationTargetException, InterruptedException {
+        List<Article> testArticles = TestUtilities.getSixTestArticles();
+        Mockito.when(mockMainCallbacks.getArticleContent(testArticles.get(0))).thenReturn("Full text of article 1.");
+
+        MainGui mainGui = new MainGui(mockManyBrowsersPanel);
+        mainGui.setMainCallbacks(mockMainCallbacks);
+
+        mainGui.initializeBackgroundBrowsersPanel(mockFrame, mockConfiguration);
+        mainGui.initializeGui(testArticles);
+
+        waitForGuiTasks();
+
+        ArticleTextPanel articleTextPanel = (ArticleTextPanel) findComponent(mockContentPane, ArticleTextPanel.class);
+        JToggleButton textViewButton = findToggleButton(mockContentPane, "Text view");
+        assertNotNull(articleTextPanel);
+        assertNotNull(textViewButton);
+        assertEquals("", articleTextPanel.getArticleText());
+
+        SwingUtilities.invokeAndWait(textViewButton::doClick);
+
+        // The full text is read in the background and shown on the event dispatch thread afterwards.
+        String fullText = "Full text of article 1.";
+        for (int waitCount = 0; waitCount < 100 && !articleTextPanel.getArticleText().endsWith(fullText); waitCount++) {
+            Thread.sleep(100);
+            SwingUtilities.invokeAndWait(() -> { });
+        }
+        assertTrue(articleTextPanel.getArticleText().endsWith(fullText));
+
+        Mockito.clearInvocations(mockManyBrowsersPanel);
+
+        SwingUtilities.invokeAndWait(textViewButton::doClick);
+        Mockito.verify(mockManyBrowsersPanel).showBrowser(testArticles.get(0).getUrl(), true);
+    }
+
+    @Test
+    public void testUpdateArticleFlags() throws InvocationTargetException, InterruptedException,
+                                                IllegalAccessException {
+        List<Article> testArticles = TestUtilities.getSixTestArticles();
+        Article article = testArticles.get(1);
+
+        MainGui mainGui = new MainGui(mockManyBrowsersPanel);
+        mainGui.setMainCallbacks(mockMainCallbacks);
+
+        mainGui.initializeBackgroundBrowsersPanel(mockFrame, mockConfiguration);
+        mainGui.initializeGui(testArticles);
+
+        waitForGuiTasks();
+
+        SwingUtilities.invokeAndWait(() -> mainGui.updateArticleFlags(article.getUrl(), true, null, true));
+        SwingUtilities.invokeAndWait(() -> mainGui.updateArticleFlags("unknown", true, true, true));
+
+        assertTrue(article.isStarred());
+        assertTrue(article.isArchived());
+
+        // Archived articles are not shown.
+        assertFalse(((List<?>) FieldUtils.readField(mainGui, "filteredArticles", true)).contains(article));
     }
 
     @Test
@@ -162,6 +254,78 @@ public class MainGuiTest {
         testFilter(NO_MATCHES);
     }
 
+    @Test
+    public void testFilterErrors() throws BadLocationException, InterruptedException, InvocationTargetException {
+        MainGui mainGui = new MainGui(mockManyBrowsersPanel);
+        mainGui.setMainCallbacks(mockMainCallbacks);
+
+        mainGui.initializeBackgroundBrowsersPanel(mockFrame, mockConfiguration);
+        mainGui.initializeGui(TestUtilities.getSixTestArticles());
+
+        waitForGuiTasks();
+
+        JTable table = (JTable) findComponent(mockContentPane, JTable.class);
+        JTextField filterTextField = (JTextField) findComponent(mockContentPane, JTextField.class);
+        assertNotNull(table);
+        assertNotNull(filterTextField);
+        Color filterTextColor = filterTextField.getForeground();
+
+        // The articles are filtered with the valid terms, while the invalid term is shown as an error.
+        filterTextField.getDocument().insertString(0, "title:title1 likes>", null);
+
+        assertEquals(1, table.getRowCount());
+        assertEquals(Color.RED, filterTextField.getForeground());
+        assertEquals("Filter term not understood: likes>", filterTextField.getToolTipText());
+
+        filterTextField.getDocument().insertString(filterTextField.getDocument().getLength(), "0", null);
+
+        assertEquals(filterTextColor, filterTextField.getForeground());
+        assertNull(filterTextField.getToolTipText());
+    }
+
+    @Test
+    public void testRestoreSelectionManyArticles() throws BadLocationException, InterruptedException,
+                                                          InvocationTargetException {
+        int articleCount = 100000;
+        int selectedIndex = 60000;
+
+        List<Article> articles = new ArrayList<>();
+        for (int articleIndex = 0; articleIndex < articleCount; articleIndex++) {
+            articles.add(Article.builder().url("u" + articleIndex).sourceId("s").title("Title" + articleIndex).build());
+        }
+
+        MainGui mainGui = new MainGui(mockManyBrowsersPanel);
+        mainGui.setMainCallbacks(mockMainCallbacks);
+
+        mainGui.initializeBackgroundBrowsersPanel(mockFrame, mockConfiguration);
+        mainGui.initializeGui(articles);
+
+        waitForGuiTasks();
+
+        JTable table = (JTable) findComponent(mockContentPane, JTable.class);
+        assertNotNull(table);
+        assertEquals(articleCount, table.getRowCount());
+        assertEquals(selectedIndex, mainGui.getFilteredArticleIndex(articles.get(selectedIndex)));
+
+        table.getSelectionModel().setSelectionInterval(selectedIndex, selectedIndex);
+
+        JTextField filterTextField = (JTextField) findComponent(mockContentPane, JTextField.class);
+        assertNotNull(filterTextField);
+        filterTextField.getDocument().insertString(0, "title:title6", null);
+
+        List<Integer> expectedIndices = IntStream.range(0, articleCount)
+            .filter(articleIndex -> Integer.toString(articleIndex).startsWith("6"))
+            .boxed()
+            .collect(Collectors.toList());
+
+        int expectedRow = expectedIndices.indexOf(selectedIndex);
+        assertEquals(expectedIndices.size(), table.getRowCount());
+        assertEquals(expectedRow, table.getSelectedRow());
+        assertEquals(expectedRow, mainGui.getFilteredArticleIndex(articles.get(selectedIndex)));
+        assertEquals(-1, mainGui.getFilteredArticleIndex(articles.get(selectedIndex - 1)));
+        assertEquals(-1, mainGui.getFilteredArticleIndex(null));
+    }
+
     @Test
     public void testClickWithoutSelectedRow() throws InterruptedException, InvocationTargetException {
         testClickInTable(false, false, true, false, 120);
@@ -225,6 +389,21 @@ public class MainGuiTest {
         assertNotNull(table);
 
         assertEquals(fetchedValue, table.getModel().getValueAt(2, 0));
+
+        // A browser that has loaded its page results in an update of the fetched cell of that article only.
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listenerCaptor = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(mockManyBrowsersPanel).addBrowserLoadedListener(listenerCaptor.capture());
+
+        List<TableModelEvent> tableModelEvents = new ArrayList<>();
+        table.getModel().addTableModelListener(tableModelEvents::add);
+
+        SwingUtilities.invokeAndWait(() -> listenerCaptor.getValue().accept("u4"));
+
+        assertEquals(1, tableModelEvents.size());
+        assertEquals(6, tableModelEvents.get(0).getFirstRow());
+        assertEquals(6, tableModelEvents.get(0).getLastRow());
+        assertEquals(0, tableModelEvents.get(0).getColumn());
     }
 
     @Test
@@ -258,6 +437,7 @@ public class MainGuiTest {
         assertNotNull(table);
 
         assertEquals(mockConfiguration.useSpanTable() ? 12 : 6, table.getRowCount());
+        TableModel tableModel = table.getModel();
 
         JTextField filterTextField = (JTextField) findComponent(mockContentPane, JTextField.class);
         assertNotNull(filterTextField);
@@ -281,6 +461,9 @@ public class MainGuiTest {
             document.insertString(document.getLength(), "-some-nonsense", null);
         }
 
+        // The table model is reused when the articles are filtered again.
+        assertSame(tableModel, table.getModel());
+
         checkArticlesInGui(testType, mainGui, table.getRowCount());
     }
 
@@ -339,6 +522,25 @@ public class MainGuiTest {
         return result;
     }
 
+    private JToggleButton findToggleButton(Container parent, String text) {
+        JToggleButton result = null;
+
+        int componentIndex = 0;
+        while (componentIndex < parent.getComponentCount() && result == null) {
+            Component component = parent.getComponent(componentIndex);
+
+            if (component instanceof JToggleButton && text.equals(((JToggleButton) component).getText())) {
+                result = (JToggleButton) component;
+            } else if (component instanceof Container) {
+                result = findToggleButton((Container) component, text);
+            }
+
+            componentIndex++;
+        }
+
+        return result;
+    }
+
     private void testClickInTable(boolean firstStarred, boolean firstRead, boolean spanTable, boolean selectRow,
                                   int xMouseEvent)
         throws InterruptedException, InvocationTargetException {
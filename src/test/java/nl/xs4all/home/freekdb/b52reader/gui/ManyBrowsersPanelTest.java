@@ -85,6 +85,20 @@ public class ManyBrowsersPanelTest {
         assertManyBrowsersPanel(manyBrowsersPanel, mockBrowsers.get(0), false);
     }
 
+    @Test
+    public void testBrowserLoadedListener() {
+        ManyBrowsersPanel manyBrowsersPanel = new ManyBrowsersPanel(mockBrowserFactory);
+        List<String> loadedUrls = new ArrayList<>();
+
+        manyBrowsersPanel.addBrowserLoadedListener(loadedUrls::add);
+
+        manyBrowsersPanel.showBrowser("url1", false);
+        manyBrowsersPanel.showBrowser("url2", true);
+        manyBrowsersPanel.showBrowser("url1", true);
+
+        assertEquals(Arrays.asList("url1", "url2"), loadedUrls);
+    }
+
     @Test
     public void testDisposeAllBrowsers() throws IllegalAccessException {
         ManyBrowsersPanel manyBrowsersPanel = new ManyBrowsersPanel(mockBrowserFactory);
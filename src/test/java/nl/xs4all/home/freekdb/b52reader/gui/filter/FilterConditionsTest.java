@@ -0,0 +1,93 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
+
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for the {@link FilterConditions} class.
+ */
+public class FilterConditionsTest {
+    @Test
+    public void testConditions() {
+        long epochSecond = Utilities.createDate(2017, Month.JUNE, 28).toEpochSecond();
+
+        List<Article> articles = Arrays.asList(
+            Article.builder().url("u1").sourceId("nrc").author(new Author("Cara Santa Maria", 1)).title("Cosmic")
+                .dateTime(Utilities.createDate(2017, Month.JUNE, 27)).likes(6).build(),
+            Article.builder().url("u2").sourceId("test").title("Amazing")
+                .dateTime(Utilities.createDate(2017, Month.JUNE, 28)).likes(28).read(true).build(),
+            Article.builder().url("u3").sourceId("NRC").starred(true).likes(496).build()
+        );
+
+        List<FilterCondition> conditions = Arrays.asList(
+            FilterConditions.always(), FilterConditions.starred(true), FilterConditions.starred(false),
+            FilterConditions.read(true), FilterConditions.read(false), FilterConditions.likes(28, true),
+            FilterConditions.likes(28, false), FilterConditions.published(epochSecond, true),
+            FilterConditions.published(epochSecond, false), FilterConditions.source("nrc"),
+            FilterConditions.author("santa"), FilterConditions.author("neil"), FilterConditions.title("cosm"),
+            FilterConditions.not(FilterConditions.title("cosm")),
+            FilterConditions.and(Arrays.asList(FilterConditions.source("nrc"), FilterConditions.likes(28, false))),
+            FilterConditions.or(Arrays.asList(FilterConditions.read(true), FilterConditions.starred(true)))
+        );
+
+        List<List<Boolean>> expectedResults = Arrays.asList(
+            Arrays.asList(true, true, true), Arrays.asList(false, false, true), Arrays.asList(true, true, false),
+            Arrays.asList(false, true, false), Arrays.asList(true, false, true), Arrays.asList(false, false, true),
+            Arrays.asList(true, false, false), Arrays.asList(false, true, false), Arrays.asList(true, false, false),
+            Arrays.asList(true, false, true), Arrays.asList(true, true, true), Arrays.asList(false, true, true),
+            Arrays.asList(true, false, true), Arrays.asList(false, true, false), Arrays.asList(true, false, false),
+            Arrays.asList(false, true, true)
+        );
+
+        for (int conditionIndex = 0; conditionIndex < conditions.size(); conditionIndex++) {
+            FilterCondition condition = conditions.get(conditionIndex);
+
+            for (int articleIndex = 0; articleIndex < articles.size(); articleIndex++) {
+                String message = condition + " " + articleIndex;
+                boolean expectedResult = expectedResults.get(conditionIndex).get(articleIndex);
+
+                assertEquals(message, expectedResult, condition.test(articles.get(articleIndex)));
+            }
+        }
+    }
+
+    @Test
+    public void testOptimizations() {
+        FilterCondition title = FilterConditions.title("cosmic");
+        FilterCondition starred = FilterConditions.starred(true);
+        FilterCondition read = FilterConditions.read(false);
+
+        assertSame(title, FilterConditions.not(FilterConditions.not(title)));
+        assertSame(title, FilterConditions.and(Arrays.asList(FilterConditions.always(), title)));
+        assertSame(FilterConditions.always(), FilterConditions.and(Collections.emptyList()));
+        assertSame(FilterConditions.always(), FilterConditions.or(Arrays.asList(title, FilterConditions.always())));
+
+        FilterCondition nestedAnd = FilterConditions.and(Arrays.asList(
+            title, FilterConditions.and(Arrays.asList(FilterConditions.author("cara"), starred)), read
+        ));
+        assertEquals("(is:starred is:unread author:cara title:cosmic)", nestedAnd.toString());
+        assertEquals(20, nestedAnd.getCost());
+
+        FilterCondition nestedOr = FilterConditions.or(Arrays.asList(
+            title, FilterConditions.or(Arrays.asList(starred, read))
+        ));
+        assertEquals("(is:starred OR is:unread OR title:cosmic)", nestedOr.toString());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.filter;
+
+import java.lang.reflect.Constructor;
+import java.time.Month;
+import java.util.Arrays;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link QueryCompiler} class.
+ */
+public class QueryCompilerTest {
+    @Test
+    public void testPrivateConstructor() throws ReflectiveOperationException {
+        Constructor<QueryCompiler> constructor = QueryCompiler.class.getDeclaredConstructor();
+
+        assertFalse(constructor.isAccessible());
+
+        constructor.setAccessible(true);
+        assertNotNull(constructor.newInstance());
+    }
+
+    @Test
+    public void testCheapestTermsFirst() {
+        String query = "title:Cosmic author:Cara source:nrc is:starred likes>5";
+
+        assertEquals("(is:starred likes>5 source:nrc author:cara title:cosmic)",
+                     QueryCompiler.parseQuery(query).getCondition().toString());
+    }
+
+    @Test
+    public void testOr() {
+        assertEquals("(is:read OR (is:starred title:cosmic))",
+                     QueryCompiler.parseQuery("title:cosmic is:starred OR is:read").getCondition().toString());
+
+        // Empty alternatives (while typing) are ignored.
+        assertEquals("is:read", QueryCompiler.parseQuery("OR is:read OR").getCondition().toString());
+    }
+
+    @Test
+    public void testNegation() {
+        assertEquals("(is:starred -author:cara)",
+                     QueryCompiler.parseQuery("-author:Cara is:starred").getCondition().toString());
+        assertEquals("-is:read", QueryCompiler.parseQuery("-is:read").getCondition().toString());
+    }
+
+    @Test
+    public void testWordsMatchTitles() {
+        assertEquals("(title:creme title:brulee)",
+                     QueryCompiler.parseQuery("Crème  Brûlée").getCondition().toString());
+        assertEquals(QueryCompiler.parseQuery("title:Cosmic title:queries").getCondition().toString(),
+                     QueryCompiler.parseQuery("Cosmic queries").getCondition().toString());
+        assertFalse(QueryCompiler.parseQuery("Cosmic queries").hasErrors());
+    }
+
+    @Test
+    public void testDatesAndLikes() {
+        assertEquals("(likes<28 after:1498608000 before:1498694400)",
+                     QueryCompiler.parseQuery("after:2017-06-28 before:2017-06-29 likes<28").getCondition().toString());
+    }
+
+    @Test
+    public void testIncompleteTermsAreIgnored() {
+        String query = " author: title: source: is: is:nonsense after:2017-06 before:x likes> likes<many - --x ";
+
+        assertSame(FilterConditions.always(), QueryCompiler.parseQuery(query).getCondition());
+        assertSame(FilterConditions.always(), QueryCompiler.parseQuery("").getCondition());
+    }
+
+    @Test
+    public void testErrorsForIncompleteTerms() {
+        CompiledQuery compiledQuery = QueryCompiler.parseQuery("author:Cara likes> is:nonsense OR -");
+
+        assertEquals("author:cara", compiledQuery.getCondition().toString());
+        assertTrue(compiledQuery.hasErrors());
+        assertEquals(Arrays.asList("Filter term not understood: likes>", "Filter term not understood: is:nonsense",
+                                   "Filter term not understood: -"),
+                     compiledQuery.getErrors());
+
+        CompiledQuery validQuery = QueryCompiler.parseQuery(" author:Cara OR is:read ");
+        assertFalse(validQuery.hasErrors());
+        assertTrue(validQuery.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testCompiledQueriesAreCached() {
+        CompiledQuery compiledQuery = QueryCompiler.compile("author:Cara is:starred");
+
+        assertSame(compiledQuery, QueryCompiler.compile("author:Cara is:starred"));
+    }
+
+    @Test
+    public void testCompiledQuery() {
+        Article article = Article.builder().url("url").sourceId("nrc").author(new Author("Cara Santa Maria", 1))
+            .title("Cosmic queries").dateTime(Utilities.createDate(2017, Month.JUNE, 28)).likes(496)
+            .build();
+
+        assertTrue(QueryCompiler.compile("source:NRC after:2017-06-28 likes>28 cosmic").getCondition().test(article));
+        assertTrue(QueryCompiler.compile("author:neil OR is:unstarred").getCondition().test(article));
+        assertTrue(QueryCompiler.compile("-is:starred -title:amazing").getCondition().test(article));
+
+        assertFalse(QueryCompiler.compile("before:2017-06-28").getCondition().test(article));
+        assertFalse(QueryCompiler.compile("source:nrc likes<28").getCondition().test(article));
+        assertFalse(QueryCompiler.compile("author:neil OR is:starred").getCondition().test(article));
+    }
+}
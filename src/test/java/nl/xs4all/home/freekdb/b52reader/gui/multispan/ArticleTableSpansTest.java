@@ -0,0 +1,72 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.multispan;
+
+import java.awt.Dimension;
+
+import javax.swing.table.DefaultTableModel;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the {@link ArticleTableSpans} class.
+ */
+public class ArticleTableSpansTest {
+    @Test
+    public void testSpansMatchDefaultTableSpans() {
+        int rowCount = 28;
+        int columnCount = 6;
+
+        ArticleTableSpans articleTableSpans = new ArticleTableSpans(new DefaultTableModel(rowCount, columnCount), 3);
+        DefaultTableSpans defaultTableSpans = new DefaultTableSpans(rowCount, columnCount);
+
+        for (int rowIndex = 1; rowIndex < rowCount; rowIndex += 2) {
+            defaultTableSpans.combine(new int[]{rowIndex}, new int[]{3, 4, 5});
+        }
+
+        for (int rowIndex = -1; rowIndex <= rowCount; rowIndex++) {
+            for (int columnIndex = -1; columnIndex <= columnCount; columnIndex++) {
+                assertEquals(defaultTableSpans.getSpan(rowIndex, columnIndex),
+                             articleTableSpans.getSpan(rowIndex, columnIndex));
+                assertEquals(defaultTableSpans.isVisible(rowIndex, columnIndex),
+                             articleTableSpans.isVisible(rowIndex, columnIndex));
+            }
+        }
+    }
+
+    @Test
+    public void testSizeFollowsTableModel() {
+        DefaultTableModel tableModel = new DefaultTableModel(2, 6);
+        ArticleTableSpans tableSpans = new ArticleTableSpans(tableModel, 3);
+
+        assertFalse(tableSpans.isVisible(3, 4));
+
+        tableModel.setRowCount(4);
+
+        assertFalse(tableSpans.isVisible(3, 4));
+        assertTrue(tableSpans.isVisible(3, 3));
+        assertEquals(new SpanCounts(1, 3), tableSpans.getSpan(3, 3));
+    }
+
+    @Test
+    public void testModificationsAreIgnored() {
+        ArticleTableSpans tableSpans = new ArticleTableSpans(new DefaultTableModel(2, 6), 3);
+
+        tableSpans.setSize(new Dimension(8, 8));
+        tableSpans.addColumn();
+        tableSpans.addRow();
+        tableSpans.insertRow(0);
+        tableSpans.combine(new int[]{0}, new int[]{0, 1});
+
+        assertEquals(new SpanCounts(1, 1), tableSpans.getSpan(0, 0));
+        assertFalse(tableSpans.isVisible(2, 0));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.multispan;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the {@link DefaultTableSpans} class: combining cells for all articles and reading the spans back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DefaultTableSpansBenchmark {
+    private static final int COLUMN_COUNT = 6;
+    private static final int[] COMBINED_COLUMN_INDICES = {3, 4, 5};
+
+    @Param({"1000", "100000"})
+    private int articleCount;
+
+    private DefaultTableSpans combinedTableSpans;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DefaultTableSpansBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        combinedTableSpans = createCombinedTableSpans();
+    }
+
+    @Benchmark
+    public DefaultTableSpans combine() {
+        return createCombinedTableSpans();
+    }
+
+    @Benchmark
+    public void addRows(Blackhole blackhole) {
+        DefaultTableSpans tableSpans = new DefaultTableSpans(0, COLUMN_COUNT);
+
+        for (int rowIndex = 0; rowIndex < 2 * articleCount; rowIndex++) {
+            tableSpans.addRow();
+        }
+
+        blackhole.consume(tableSpans);
+    }
+
+    @Benchmark
+    public void getSpan(Blackhole blackhole) {
+        for (int rowIndex = 0; rowIndex < 2 * articleCount; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < COLUMN_COUNT; columnIndex++) {
+                blackhole.consume(combinedTableSpans.getSpan(rowIndex, columnIndex));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getSpanNumbers(Blackhole blackhole) {
+        for (int rowIndex = 0; rowIndex < 2 * articleCount; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < COLUMN_COUNT; columnIndex++) {
+                blackhole.consume(combinedTableSpans.getRowSpanNumber(rowIndex, columnIndex));
+                blackhole.consume(combinedTableSpans.getColumnSpanNumber(rowIndex, columnIndex));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isVisible(Blackhole blackhole) {
+        for (int rowIndex = 0; rowIndex < 2 * articleCount; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < COLUMN_COUNT; columnIndex++) {
+                blackhole.consume(combinedTableSpans.isVisible(rowIndex, columnIndex));
+            }
+        }
+    }
+
+    private DefaultTableSpans createCombinedTableSpans() {
+        DefaultTableSpans tableSpans = new DefaultTableSpans(2 * articleCount, COLUMN_COUNT);
+
+        for (int rowIndex = 1; rowIndex < 2 * articleCount; rowIndex += 2) {
+            tableSpans.combine(new int[]{rowIndex}, COMBINED_COLUMN_INDICES);
+        }
+
+        return tableSpans;
+    }
+}
@@ -9,6 +9,8 @@ package nl.xs4all.home.freekdb.b52reader.gui.multispan;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for the {@link DefaultTableSpans} class.
@@ -56,6 +58,45 @@ public class DefaultTableSpansTest {
         }
     }
 
+    @Test
+    public void testAddManyRowsAndColumn() {
+        int columnCount = 6;
+
+        DefaultTableSpans tableSpans = new DefaultTableSpans(0, columnCount);
+
+        for (int rowIndex = 0; rowIndex < 1000; rowIndex++) {
+            tableSpans.addRow();
+        }
+
+        tableSpans.combine(new int[]{999}, new int[]{3, 4, 5});
+        tableSpans.addColumn();
+
+        assertEquals(new SpanCounts(1, 3), tableSpans.getSpan(999, 3));
+        assertEquals(new SpanCounts(0, -2), tableSpans.getSpan(999, 5));
+        assertEquals(new SpanCounts(1, 1), tableSpans.getSpan(999, columnCount));
+        assertEquals(new SpanCounts(1, 1), tableSpans.getSpan(998, 3));
+        assertEquals(new SpanCounts(1, 1), tableSpans.getSpan(1000, 0));
+    }
+
+    @Test
+    public void testSpanNumbersAndVisibility() {
+        DefaultTableSpans tableSpans = new DefaultTableSpans(4, 4);
+
+        tableSpans.combine(new int[]{1, 2}, new int[]{1, 2});
+
+        assertEquals(2, tableSpans.getRowSpanNumber(1, 1));
+        assertEquals(2, tableSpans.getColumnSpanNumber(1, 1));
+        assertEquals(-1, tableSpans.getRowSpanNumber(2, 2));
+        assertEquals(-1, tableSpans.getColumnSpanNumber(2, 2));
+        assertEquals(1, tableSpans.getRowSpanNumber(-1, 0));
+
+        assertTrue(tableSpans.isVisible(1, 1));
+        assertFalse(tableSpans.isVisible(2, 1));
+        assertFalse(tableSpans.isVisible(1, 2));
+        assertFalse(tableSpans.isVisible(4, 0));
+        assertTrue(tableSpans.isVisible(3, 3));
+    }
+
     @Test
     public void testInsertRowFirst() {
         testInsertRow(28, 0);
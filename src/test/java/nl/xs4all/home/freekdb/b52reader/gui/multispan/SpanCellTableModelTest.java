@@ -8,19 +8,26 @@ package nl.xs4all.home.freekdb.b52reader.gui.multispan;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
+
+import javax.swing.Icon;
+import javax.swing.event.TableModelEvent;
 
 import nl.xs4all.home.freekdb.b52reader.TestUtilities;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
 import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+import nl.xs4all.home.freekdb.b52reader.general.Constants;
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for the {@link SpanCellTableModel} class.
@@ -43,65 +50,120 @@ public class SpanCellTableModelTest {
     }
 
     @Test
-    public void testAddColumnRegular() {
-        String addedColumnName = "added column";
-        String value1 = "value 1";
-        String value2 = "value 2";
-
-        tableModel.addColumn(addedColumnName, new Vector<>(Arrays.asList(value1, value2)));
-
-        int addedColumnIndex = tableModel.getColumnCount() - 1;
-        assertEquals(COLUMN_COUNT + 1, tableModel.getColumnCount());
-        assertEquals(addedColumnName, tableModel.getColumnName(addedColumnIndex));
-        assertEquals(value1, tableModel.getValueAt(0, addedColumnIndex));
-        assertEquals(value2, tableModel.getValueAt(1, addedColumnIndex));
+    public void testCountsBeforeSettingColumns() {
+        assertEquals(2 * articles.size(), tableModel.getRowCount());
+        assertEquals(COLUMN_COUNT, tableModel.getColumnCount());
+        assertEquals("A", tableModel.getColumnName(0));
+        assertEquals(Object.class, tableModel.getColumnClass(0));
     }
 
-    @Test(expected = IllegalArgumentException.class)
-    public void testAddColumnException() throws IOException {
-        tableModel.addColumn(null);
+    @Test
+    public void testColumnsAndValues() {
+        List<String> columnNames = Arrays.asList("fetched", "starred", "read", "title", "author", "date/time");
+        List<Class<?>> columnClasses = Arrays.asList(
+            String.class, Icon.class, String.class, String.class, Author.class, String.class
+        );
+
+        tableModel.setColumnsAndData(columnNames, columnClasses, articles, article -> "u2".equals(article.getUrl()));
+
+        assertEquals(2 * articles.size(), tableModel.getRowCount());
+        assertEquals(COLUMN_COUNT, tableModel.getColumnCount());
+        assertEquals("title", tableModel.getColumnName(3));
+        assertEquals(Icon.class, tableModel.getColumnClass(1));
+
+        // First row of the first article (starred and read).
+        assertEquals("", tableModel.getValueAt(0, 0));
+        assertEquals(Constants.STARRED_ICON, tableModel.getValueAt(0, 1));
+        assertEquals("", tableModel.getValueAt(0, 2));
+        assertEquals("Title1", tableModel.getValueAt(0, 3));
+        assertEquals("", tableModel.getValueAt(0, 4));
+        assertEquals("", tableModel.getValueAt(0, 5));
+
+        // Second row of the first article.
+        assertEquals("", tableModel.getValueAt(1, 0));
+        assertEquals("Text 1.", tableModel.getValueAt(1, 3));
+
+        // First row of the second article (fetched, unstarred, and unread).
+        assertEquals("fetched", tableModel.getValueAt(2, 0));
+        assertEquals(Constants.UNSTARRED_ICON, tableModel.getValueAt(2, 1));
+        assertEquals("unread", tableModel.getValueAt(2, 2));
+
+        assertNull(tableModel.getValueAt(-1, 0));
+        assertNull(tableModel.getValueAt(0, COLUMN_COUNT));
+        assertNull(tableModel.getValueAt(2 * articles.size(), 0));
     }
 
     @Test
-    public void testAddRowWithData() throws IOException {
-        String value1 = "value 1";
-        String value2 = "value 2";
-        Vector rowData = new Vector<>(Arrays.asList(value1, value2));
-        tableModel.addRow(rowData);
-
-        assertEquals(2 * (articles.size() + 1), tableModel.getRowCount());
-        assertEquals(value1, tableModel.getValueAt(2 * articles.size(), 0));
-        assertEquals(value2, tableModel.getValueAt(2 * articles.size(), 1));
+    public void testValuesReflectArticleChanges() {
+        tableModel.setColumnsAndData(null, null, articles, null);
+
+        assertEquals("unread", tableModel.getValueAt(2, 2));
+
+        articles.get(1).setRead(true);
+
+        assertEquals("", tableModel.getValueAt(2, 2));
     }
 
     @Test
-    public void testAddRowWithNull() throws IOException {
-        tableModel.addRow((Vector) null);
+    public void testTableSpans() {
+        TableSpans tableSpans = tableModel.getTableSpans();
+
+        assertTrue(tableSpans.isVisible(1, 3));
+        assertFalse(tableSpans.isVisible(1, 4));
+        assertFalse(tableSpans.isVisible(1, 5));
+        assertTrue(tableSpans.isVisible(2, 4));
 
-        assertEquals(2 * (articles.size() + 1), tableModel.getRowCount());
+        assertEquals(new SpanCounts(1, 3), tableSpans.getSpan(1, 3));
+        assertEquals(new SpanCounts(0, -2), tableSpans.getSpan(1, 5));
+        assertEquals(new SpanCounts(1, 1), tableSpans.getSpan(0, 5));
     }
 
     @Test
-    public void testInsertRowWithData() throws IOException {
-        String value1 = "value 1";
-        String value2 = "value 2";
-        Vector rowData = new Vector<>(Arrays.asList(value1, value2));
-        tableModel.insertRow(0, rowData);
-
-        assertEquals(2 * (articles.size() + 1), tableModel.getRowCount());
-        assertEquals(value1, tableModel.getValueAt(0, 0));
-        assertEquals(value2, tableModel.getValueAt(0, 1));
+    public void testFireFetchedChanged() {
+        List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+
+        tableModel.fireFetchedChanged("u3");
+        tableModel.fireFetchedChanged("unknown url");
+
+        assertEquals(1, events.size());
+        assertEquals(4, events.get(0).getFirstRow());
+        assertEquals(4, events.get(0).getLastRow());
+        assertEquals(0, events.get(0).getColumn());
+
+        tableModel.setColumnsAndData(null, null, articles.subList(3, 6), null);
+        events.clear();
+
+        tableModel.fireFetchedChanged("u5");
+
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getFirstRow());
     }
 
     @Test
-    public void testInsertRowWithNull() throws IOException {
-        tableModel.insertRow(0, (Vector) null);
-
-        assertEquals(2 * (articles.size() + 1), tableModel.getRowCount());
+    public void testStructureChangedOnlyForNewColumns() {
+        List<String> columnNames = Arrays.asList("fetched", "starred", "read", "title", "author", "date/time");
+        List<Class<?>> columnClasses = Arrays.asList(
+            String.class, Icon.class, String.class, String.class, Author.class, String.class
+        );
+
+        List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+
+        tableModel.setColumnsAndData(columnNames, columnClasses, articles, null);
+        tableModel.setColumnsAndData(new ArrayList<>(columnNames), columnClasses, articles.subList(0, 2), null);
+        tableModel.setColumnsAndData(columnNames.subList(0, 3), columnClasses.subList(0, 3), articles, null);
+
+        assertEquals(3, events.size());
+        assertEquals(TableModelEvent.HEADER_ROW, events.get(0).getFirstRow());
+        assertEquals(0, events.get(1).getFirstRow());
+        assertEquals(Integer.MAX_VALUE, events.get(1).getLastRow());
+        assertEquals(TableModelEvent.HEADER_ROW, events.get(2).getFirstRow());
+        assertEquals(3, tableModel.getColumnCount());
     }
 
     @Test
-    public void testGetArticleRegular() throws IOException {
+    public void testGetArticleRegular() {
         assertEquals(articles.get(0), tableModel.getArticle(0));
 
         assertNull(tableModel.getArticle(-1));
@@ -109,9 +171,10 @@ public class SpanCellTableModelTest {
     }
 
     @Test
-    public void testGetArticleWithNull() throws IOException {
+    public void testGetArticleWithNull() {
         tableModel.setColumnsAndData(null, null, null, null);
 
         assertNull(tableModel.getArticle(0));
+        assertEquals(0, tableModel.getRowCount());
     }
 }
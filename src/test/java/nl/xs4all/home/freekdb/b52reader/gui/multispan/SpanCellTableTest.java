@@ -0,0 +1,76 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.multispan;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import nl.xs4all.home.freekdb.b52reader.TestUtilities;
+import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the {@link SpanCellTable} class.
+ */
+public class SpanCellTableTest {
+    private static final int COLUMN_WIDTH = 75;
+
+    private SpanCellTable table;
+    private int cellWidth;
+    private int cellHeight;
+
+    @Before
+    public void setUp() throws IOException {
+        byte[] configurationLinesBytes = "".getBytes("UTF-8");
+        Configuration configuration = new Configuration(new ByteArrayInputStream(configurationLinesBytes));
+
+        table = new SpanCellTable(new SpanCellTableModel(TestUtilities.getSixTestArticles(), 6, configuration));
+        cellWidth = COLUMN_WIDTH + table.getColumnModel().getColumnMargin();
+        cellHeight = table.getRowHeight() + table.getRowMargin();
+    }
+
+    @Test
+    public void testGetCellRectRegular() {
+        assertEquals(new Rectangle(cellWidth, 2 * cellHeight, cellWidth, cellHeight), table.getCellRect(2, 1, true));
+    }
+
+    @Test
+    public void testGetCellRectCombined() {
+        Rectangle combinedRect = new Rectangle(3 * cellWidth, cellHeight, 3 * cellWidth, cellHeight);
+
+        assertEquals(combinedRect, table.getCellRect(1, 3, true));
+        assertEquals(combinedRect, table.getCellRect(1, 4, true));
+        assertEquals(combinedRect, table.getCellRect(1, 5, true));
+    }
+
+    @Test
+    public void testGetCellRectAfterWidthChange() {
+        assertEquals(new Rectangle(5 * cellWidth, 0, cellWidth, cellHeight), table.getCellRect(0, 5, true));
+
+        table.getColumnModel().getColumn(0).setWidth(2 * COLUMN_WIDTH);
+
+        assertEquals(new Rectangle(COLUMN_WIDTH + 5 * cellWidth, 0, cellWidth, cellHeight),
+                     table.getCellRect(0, 5, true));
+        assertEquals(new Rectangle(COLUMN_WIDTH + 3 * cellWidth, cellHeight, 3 * cellWidth, cellHeight),
+                     table.getCellRect(1, 5, true));
+    }
+
+    @Test
+    public void testRowAndColumnAtPoint() {
+        Point combinedPoint = new Point(5 * COLUMN_WIDTH + 1, cellHeight + 1);
+
+        assertEquals(1, table.rowAtPoint(combinedPoint));
+        assertEquals(3, table.columnAtPoint(combinedPoint));
+        assertEquals(-1, table.rowAtPoint(new Point(1, 12 * cellHeight)));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.gui.multispan;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Icon;
+
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Author;
+import nl.xs4all.home.freekdb.b52reader.general.Configuration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for repainting a viewport of a {@link SpanCellTable} with a large model. With viewport-bounded
+ * painting, the time per repaint should hardly depend on the number of articles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpanCellTableUIBenchmark {
+    private static final int VIEWPORT_WIDTH = 800;
+    private static final int VIEWPORT_HEIGHT = 600;
+
+    @Param({"1000", "100000"})
+    private int articleCount;
+
+    private SpanCellTable table;
+    private SpanCellTableUI tableUI;
+    private Graphics2D graphics;
+    private int viewportY;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SpanCellTableUIBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Article> articles = new ArrayList<>();
+        for (int articleIndex = 0; articleIndex < articleCount; articleIndex++) {
+            articles.add(Article.builder()
+                             .url("https://example.com/article/" + articleIndex)
+                             .sourceId("benchmark")
+                             .author(new Author("Author " + articleIndex % 100, articleIndex % 100))
+                             .title("Title of article " + articleIndex)
+                             .text("Text of article " + articleIndex + ", which is shown in the second row.")
+                             .build());
+        }
+
+        Configuration configuration = new Configuration(new ByteArrayInputStream("".getBytes(StandardCharsets.UTF_8)));
+        SpanCellTableModel tableModel = new SpanCellTableModel(articles, 6, configuration);
+        tableModel.setColumnsAndData(
+            Arrays.asList("fetched", "starred", "read", "title", "author", "date/time"),
+            Arrays.asList(String.class, Icon.class, String.class, String.class, Author.class, String.class),
+            articles, article -> article.getUrl().endsWith("0")
+        );
+
+        table = new SpanCellTable(tableModel);
+        tableUI = (SpanCellTableUI) table.getUI();
+        table.setSize(VIEWPORT_WIDTH, table.getPreferredSize().height);
+
+        // Paint the middle of the table, like a viewport that is scrolled halfway.
+        viewportY = table.getHeight() / 2;
+        BufferedImage image = new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        graphics.translate(0, -viewportY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public void paintViewport() {
+        graphics.setClip(0, viewportY, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+        tableUI.paint(graphics, table);
+    }
+
+    @Benchmark
+    public void getCellRects(Blackhole blackhole) {
+        int firstRowIndex = table.rowAtPoint(new Point(0, viewportY));
+        int lastRowIndex = Math.min(table.getRowCount() - 1,
+                                    firstRowIndex + VIEWPORT_HEIGHT / (table.getRowHeight() + table.getRowMargin()));
+
+        for (int rowIndex = firstRowIndex; rowIndex <= lastRowIndex; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < table.getColumnCount(); columnIndex++) {
+                Rectangle cellRect = table.getCellRect(rowIndex, columnIndex, true);
+                blackhole.consume(cellRect);
+            }
+        }
+    }
+}
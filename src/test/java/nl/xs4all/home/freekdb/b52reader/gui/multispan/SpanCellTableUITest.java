@@ -9,8 +9,10 @@ package nl.xs4all.home.freekdb.b52reader.gui.multispan;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import javax.swing.Icon;
@@ -30,6 +32,14 @@ import static org.junit.Assert.assertEquals;
  * Unit tests for the {@link SpanCellTableUI} class.
  */
 public class SpanCellTableUITest {
+    private static final List<String> COLUMN_NAMES = Arrays.asList(
+            "fetched", "starred", "read", "title", "author", "date/time"
+    );
+
+    private static final List<Class<?>> COLUMN_CLASSES = Arrays.asList(
+            String.class, Icon.class, String.class, String.class, Author.class, String.class
+    );
+
     @Test
     public void testPaint() throws IOException {
         Graphics mockGraphics1 = getMockGraphics();
@@ -62,6 +72,39 @@ public class SpanCellTableUITest {
         assertEquals(4, getDrawStringCount(mockGraphics4, "read"));
     }
 
+    @Test
+    public void testPaintOnlyVisibleCells() throws IOException {
+        int articleCount = 100_000;
+        List<Article> articles = new ArrayList<>();
+        for (int articleIndex = 0; articleIndex < articleCount; articleIndex++) {
+            articles.add(Article.builder().url("u" + articleIndex).sourceId("s").title("Title").text("Text.").build());
+        }
+
+        SpanCellTableModel tableModel = createTableModel();
+        tableModel.setColumnsAndData(COLUMN_NAMES, COLUMN_CLASSES, articles, article -> false);
+
+        SpanCellTableUI spanCellTableUI = new SpanCellTableUI();
+        SpanCellTable spyTable = Mockito.spy(new SpanCellTable(tableModel));
+        spanCellTableUI.installUI(spyTable);
+
+        // Paint ten rows (five articles) somewhere in the middle of the table.
+        int cellHeight = spyTable.getRowHeight() + spyTable.getRowMargin();
+        int clipY = 1000 * cellHeight;
+        BufferedImage image = new BufferedImage(450, 10 * cellHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics graphics = image.createGraphics();
+        graphics.translate(0, -clipY);
+        graphics.setClip(0, clipY, 450, 10 * cellHeight);
+
+        spanCellTableUI.paint(graphics, spyTable);
+
+        // Five first rows with six cells and five second rows with three regular cells and one combined cell.
+        Mockito.verify(spyTable, Mockito.times(50))
+                .prepareRenderer(Mockito.any(), Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verify(spyTable, Mockito.never())
+                .prepareRenderer(Mockito.any(), Mockito.intThat(rowIndex -> rowIndex < 1000 || rowIndex > 1009),
+                                 Mockito.anyInt());
+    }
+
     private long getDrawStringCount(Graphics mockGraphics4, String text) {
         return Mockito.mockingDetails(mockGraphics4).getInvocations().stream()
                 .filter(invocation -> invocation.toString().startsWith("graphics.drawString") &&
@@ -84,14 +127,8 @@ public class SpanCellTableUITest {
 
         Configuration configuration = new Configuration(new ByteArrayInputStream(configurationLinesBytes));
 
-        List<String> columnNames = Arrays.asList("fetched", "starred", "read", "title", "author", "date/time");
-
-        List<Class<?>> columnClasses = Arrays.asList(
-                String.class, Icon.class, String.class, String.class, Author.class, String.class
-        );
-
         SpanCellTableModel tableModel = new SpanCellTableModel(articles, 6, configuration);
-        tableModel.setColumnsAndData(columnNames, columnClasses, articles, article -> true);
+        tableModel.setColumnsAndData(COLUMN_NAMES, COLUMN_CLASSES, articles, article -> true);
 
         return tableModel;
     }
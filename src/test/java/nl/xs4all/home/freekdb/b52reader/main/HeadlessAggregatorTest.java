@@ -0,0 +1,125 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.main;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.TestDataArticleSource;
+import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.ArticleRetentionJob;
+import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
+import nl.xs4all.home.freekdb.b52reader.general.Constants;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HeadlessAggregatorTest {
+    @Test
+    public void testRunCycles() {
+        URL configurationUrl = HeadlessAggregatorTest.class.getClassLoader()
+                .getResource(Constants.CONFIGURATION_FILE_NAME);
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Mockito.when(mockPersistencyHandler.initializeDatabaseConnection(Mockito.any(Connection.class)))
+                .thenReturn(true);
+
+        HeadlessAggregator headlessAggregator = new HeadlessAggregator(configurationUrl, mockPersistencyHandler);
+
+        assertTrue(headlessAggregator.initialize());
+        Mockito.verify(mockPersistencyHandler, Mockito.times(1)).createTablesIfNeeded();
+
+        List<Article> expectedArticles = new TestDataArticleSource()
+                .getArticles(mockPersistencyHandler, null, null);
+
+        assertEquals(expectedArticles, headlessAggregator.runCycle());
+        assertEquals(expectedArticles, headlessAggregator.runCycle());
+        assertEquals(2, headlessAggregator.getCycleCount());
+
+        // The stored data is only read at initialization; the saves keep it up to date.
+        Mockito.verify(mockPersistencyHandler, Mockito.times(1)).readAuthorsAndArticles();
+        Mockito.verify(mockPersistencyHandler, Mockito.times(2)).saveAuthorsAndArticles(expectedArticles);
+    }
+
+    @Test
+    public void testRunCycleWaitsForRetention() throws IllegalAccessException {
+        URL configurationUrl = HeadlessAggregatorTest.class.getClassLoader()
+                .getResource(Constants.CONFIGURATION_FILE_NAME);
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Mockito.when(mockPersistencyHandler.initializeDatabaseConnection(Mockito.any(Connection.class)))
+                .thenReturn(true);
+        AtomicBoolean removeFinished = new AtomicBoolean();
+        Mockito.when(mockPersistencyHandler.removeOldArticles(Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    removeFinished.set(true);
+                    return 0;
+                });
+
+        HeadlessAggregator headlessAggregator = new HeadlessAggregator(configurationUrl, mockPersistencyHandler);
+        assertTrue(headlessAggregator.initialize());
+
+        ArticleRetentionJob retentionJob = new ArticleRetentionJob(mockPersistencyHandler, 30, 500);
+        FieldUtils.writeField(headlessAggregator, "retentionJob", retentionJob, true);
+
+        headlessAggregator.runCycle();
+
+        // The old articles are removed after the save, before the cycle ends.
+        assertTrue(removeFinished.get());
+
+        InOrder inOrder = Mockito.inOrder(mockPersistencyHandler);
+        inOrder.verify(mockPersistencyHandler).saveAuthorsAndArticles(Mockito.anyList());
+        inOrder.verify(mockPersistencyHandler).removeOldArticles(Mockito.any(), Mockito.eq(500));
+
+        retentionJob.stop();
+    }
+
+    @Test
+    public void testInitializeDatabaseFailure() {
+        URL configurationUrl = HeadlessAggregatorTest.class.getClassLoader()
+                .getResource(Constants.CONFIGURATION_FILE_NAME);
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Mockito.when(mockPersistencyHandler.initializeDatabaseConnection(Mockito.any(Connection.class)))
+                .thenReturn(false);
+
+        HeadlessAggregator headlessAggregator = new HeadlessAggregator(configurationUrl, mockPersistencyHandler);
+
+        assertFalse(headlessAggregator.initialize());
+        Mockito.verify(mockPersistencyHandler, Mockito.times(0)).createTablesIfNeeded();
+    }
+
+    @Test
+    public void testInitializeConfigurationFailure() throws MalformedURLException {
+        URL configurationUrl = new URL("file:/this-directory-does-not-exist/so-this-is-not-a-valid-file");
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        HeadlessAggregator headlessAggregator = new HeadlessAggregator(configurationUrl, mockPersistencyHandler);
+
+        assertFalse(headlessAggregator.initialize());
+        Mockito.verify(mockPersistencyHandler, Mockito.times(0))
+                .initializeDatabaseConnection(Mockito.any(Connection.class));
+    }
+
+    @Test
+    public void testCreateCycleStatistics() {
+        String statistics = HeadlessAggregator.createCycleStatistics(10, 4, 2_000_000_000L);
+
+        assertTrue(statistics, statistics.startsWith("10 articles (4 new) in 2.0 s (5.0 articles/s); heap: "));
+        assertTrue(statistics, statistics.contains("; gc: "));
+    }
+}
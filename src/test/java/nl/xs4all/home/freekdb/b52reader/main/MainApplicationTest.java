@@ -11,7 +11,9 @@ import java.awt.Rectangle;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.Connection;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.swing.JPanel;
 
@@ -19,6 +21,7 @@ import nl.xs4all.home.freekdb.b52reader.articlesources.testdata.TestDataArticleS
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
 import nl.xs4all.home.freekdb.b52reader.datamodel.database.PersistencyHandler;
 import nl.xs4all.home.freekdb.b52reader.general.Constants;
+import nl.xs4all.home.freekdb.b52reader.general.PhaseTracer;
 import nl.xs4all.home.freekdb.b52reader.gui.MainGui;
 
 import org.junit.Test;
@@ -48,6 +51,34 @@ public class MainApplicationTest {
         Mockito.verify(mockMainGui, Mockito.times(1)).initializeGui(expectedArticles);
     }
 
+    @Test
+    public void testCreateAndLaunchApplicationTracesPhases() {
+        MainGui mockMainGui = Mockito.mock(MainGui.class);
+        URL configurationUrl = MainApplicationTest.class.getClassLoader().getResource(Constants.CONFIGURATION_FILE_NAME);
+        PersistencyHandler mockPersistencyHandler = Mockito.mock(PersistencyHandler.class);
+
+        Mockito.when(mockPersistencyHandler.initializeDatabaseConnection(Mockito.any(Connection.class)))
+                .thenReturn(true);
+
+        PhaseTracer phaseTracer = new PhaseTracer();
+        MainApplication mainApplication = new MainApplication(mockMainGui, configurationUrl, mockPersistencyHandler,
+                                                              phaseTracer);
+
+        mainApplication.createAndLaunchApplication();
+
+        List<String> phaseNames = mainApplication.getPhaseTracer().getPhases().stream()
+                .map(phase -> phase.getDepth() + " " + phase.getName())
+                .collect(Collectors.toList());
+
+        List<String> expectedPhaseNames = Arrays.asList(
+                "0 initialize configuration", "1 create source test", "0 initialize database", "1 create tables",
+                "1 read authors and articles", "0 initialize background browsers", "0 get articles",
+                "1 get articles test", "1 sort articles", "0 initialize gui"
+        );
+
+        assertEquals(expectedPhaseNames, phaseNames);
+    }
+
     @Test
     public void testCreateAndLaunchApplicationDatabaseFailure() throws MalformedURLException {
         MainGui mockMainGui = Mockito.mock(MainGui.class);
@@ -0,0 +1,131 @@
+/*
+ * Project: B52 reader (https://github.com/FreekDB/b52-reader).
+ * License: Apache version 2 (https://www.apache.org/licenses/LICENSE-2.0).
+ */
+
+
+package nl.xs4all.home.freekdb.b52reader.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import nl.xs4all.home.freekdb.b52reader.general.NormalizedText;
+import nl.xs4all.home.freekdb.b52reader.general.Utilities;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks that compare the single-pass {@link Utilities#normalize}, {@link Utilities#estimateWordCount}, and
+ * {@link Utilities#normalizeAndCountWords} methods with the previous implementations (stripAccents/toLowerCase and
+ * trim/split). The setup verifies that both implementations give the same results for all generated titles and
+ * texts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UtilitiesBenchmark {
+    private static final int TEXT_COUNT = 1000;
+
+    private static final String[] WORDS = {
+        "Het", "kabinet", "wil", "meer", "geld", "voor", "onderzoek", "naar", "zeeën", "en", "rivieren", "café",
+        "Zürich", "Ångström", "naïeve", "Brontë", "Łódź", "crème", "brûlée", "ASCII", "tekst", "2017:", "Nieuwe",
+        "ideeën", "over", "enquête", "reünie", "Citroën", "België", "Curaçao"
+    };
+
+    private List<String> texts;
+
+    public static void main(String[] arguments) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UtilitiesBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(52);
+        texts = new ArrayList<>();
+
+        for (int textIndex = 0; textIndex < TEXT_COUNT; textIndex++) {
+            StringBuilder text = new StringBuilder(textIndex % 10 == 0 ? "  " : "");
+            int wordCount = 3 + random.nextInt(textIndex % 2 == 0 ? 10 : 40);
+
+            for (int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+                text.append(wordIndex > 0 ? (random.nextInt(8) == 0 ? " \t " : " ") : "");
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+
+            texts.add(text.toString());
+        }
+
+        for (String text : texts) {
+            NormalizedText normalizedText = Utilities.normalizeAndCountWords(text);
+
+            if (!Objects.equals(referenceNormalize(text), Utilities.normalize(text))
+                || referenceWordCount(text) != Utilities.estimateWordCount(text)
+                || !Objects.equals(referenceNormalize(text), normalizedText.getText())
+                || referenceWordCount(text) != normalizedText.getWordCount()) {
+                throw new IllegalStateException("Different results for text \"" + text + "\".");
+            }
+        }
+    }
+
+    @Benchmark
+    public void normalize(Blackhole blackhole) {
+        texts.forEach(text -> blackhole.consume(Utilities.normalize(text)));
+    }
+
+    @Benchmark
+    public void normalizeReference(Blackhole blackhole) {
+        texts.forEach(text -> blackhole.consume(referenceNormalize(text)));
+    }
+
+    @Benchmark
+    public void estimateWordCount(Blackhole blackhole) {
+        texts.forEach(text -> blackhole.consume(Utilities.estimateWordCount(text)));
+    }
+
+    @Benchmark
+    public void estimateWordCountReference(Blackhole blackhole) {
+        texts.forEach(text -> blackhole.consume(referenceWordCount(text)));
+    }
+
+    @Benchmark
+    public void normalizeAndCountWords(Blackhole blackhole) {
+        texts.forEach(text -> blackhole.consume(Utilities.normalizeAndCountWords(text)));
+    }
+
+    @Benchmark
+    public void normalizeAndCountWordsReference(Blackhole blackhole) {
+        texts.forEach(text -> {
+            blackhole.consume(referenceNormalize(text));
+            blackhole.consume(referenceWordCount(text));
+        });
+    }
+
+    private static String referenceNormalize(String text) {
+        return StringUtils.stripAccents(text).toLowerCase();
+    }
+
+    private static int referenceWordCount(String text) {
+        return text.trim().isEmpty() ? 0 : text.trim().split("\\s+").length;
+    }
+}
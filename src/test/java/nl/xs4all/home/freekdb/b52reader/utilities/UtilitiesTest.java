@@ -9,17 +9,23 @@ package nl.xs4all.home.freekdb.b52reader.utilities;
 import java.io.PrintStream;
 import java.lang.reflect.Constructor;
 import java.time.Month;
+import java.util.Arrays;
+import java.util.Locale;
 import javax.swing.Icon;
 
 import nl.xs4all.home.freekdb.b52reader.datamodel.Article;
+import nl.xs4all.home.freekdb.b52reader.general.NormalizedText;
 import nl.xs4all.home.freekdb.b52reader.general.Utilities;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * Unit tests for the {@link Utilities} class.
@@ -41,6 +47,38 @@ public class UtilitiesTest {
     @Test
     public void testNormalize() {
         assertEquals("bogdan", Utilities.normalize("Bogdán"));
+        assertEquals("creme brulee", Utilities.normalize("Crème Brûlée"));
+        assertEquals("lodz", Utilities.normalize("Łódź"));
+        assertEquals(null, Utilities.normalize(null));
+
+        String normalizedText = "already normalized";
+        assertSame(normalizedText, Utilities.normalize(normalizedText));
+    }
+
+    @Test
+    public void testNormalizeSameAsFullNormalization() {
+        for (char character = 0; character < 0x3000; character++) {
+            String text = "A" + character + "z" + character;
+            assertEquals(text, referenceNormalize(text), Utilities.normalize(text));
+        }
+
+        for (String text : Arrays.asList("", " ", "Ærøskøbing", "İstanbul", "Straße", "e\u0301", "Ångström 2017",
+                                         "ΣΟΦΟΣ", "Ǆemal", "Œuvre", "naïve café")) {
+            assertEquals(text, referenceNormalize(text), Utilities.normalize(text));
+        }
+    }
+
+    @Test
+    public void testNormalizeSpecialLowercaseLanguage() {
+        Locale defaultLocale = Locale.getDefault();
+
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+
+            assertEquals(referenceNormalize("ISTANBUL"), Utilities.normalize("ISTANBUL"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
     }
 
     @Test
@@ -48,6 +86,56 @@ public class UtilitiesTest {
         assertEquals(6, Utilities.estimateWordCount("This line is a simple test..._;-)"));
         assertEquals(0, Utilities.estimateWordCount(null));
         assertEquals(0, Utilities.estimateWordCount(""));
+        assertEquals(0, Utilities.estimateWordCount(" \t\n\u0001 "));
+        assertEquals(1, Utilities.estimateWordCount("x"));
+        assertEquals(3, Utilities.estimateWordCount("\u0001 one \t\r\n two\u0002three  four\u0003"));
+    }
+
+    @Test
+    public void testCalculateWordCountSameAsSplit() {
+        String[] parts = {"", " ", "  ", "\t", "\n", "\u000B", "\f", "\r", "\u0001", "\u00A0", "a", "bc", "é"};
+
+        for (String part1 : parts) {
+            for (String part2 : parts) {
+                for (String part3 : parts) {
+                    for (String part4 : parts) {
+                        String text = part1 + part2 + part3 + part4;
+                        assertEquals(text, referenceWordCount(text), Utilities.estimateWordCount(text));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNormalizeAndCountWords() {
+        NormalizedText normalizedText = Utilities.normalizeAndCountWords(" Crème  Brûlée\tŁódź ");
+        assertEquals(" creme  brulee\tlodz ", normalizedText.getText());
+        assertEquals(3, normalizedText.getWordCount());
+
+        // Texts with characters outside the accent folding table are normalized fully and still counted.
+        normalizedText = Utilities.normalizeAndCountWords("ΣΟΦΟΣ sophia \u0001");
+        assertEquals(referenceNormalize("ΣΟΦΟΣ sophia \u0001"), normalizedText.getText());
+        assertEquals(2, normalizedText.getWordCount());
+
+        assertNull(Utilities.normalizeAndCountWords(null).getText());
+        assertEquals(0, Utilities.normalizeAndCountWords(null).getWordCount());
+
+        String[] parts = {"", " ", "\t", "\u0001", "a", "É", "Σ"};
+
+        for (String part1 : parts) {
+            for (String part2 : parts) {
+                for (String part3 : parts) {
+                    for (String part4 : parts) {
+                        String text = part1 + part2 + part3 + part4;
+                        normalizedText = Utilities.normalizeAndCountWords(text);
+
+                        assertEquals(text, referenceNormalize(text), normalizedText.getText());
+                        assertEquals(text, referenceWordCount(text), normalizedText.getWordCount());
+                    }
+                }
+            }
+        }
     }
 
     @Test
@@ -57,6 +145,7 @@ public class UtilitiesTest {
         assertEquals(32, starIcon.getIconHeight());
 
         assertEquals(null, Utilities.getIconResource("nonsense"));
+        assertSame(starIcon, Utilities.getIconResource("32x32-Full_Star_Yellow.png"));
     }
 
     @Test
@@ -115,4 +204,12 @@ public class UtilitiesTest {
         Utilities.copyPreviousDataIfAvailable(article, previousArticle);
         assertEquals(previousArticle, article);
     }
+
+    private static String referenceNormalize(String text) {
+        return StringUtils.stripAccents(text).toLowerCase();
+    }
+
+    private static int referenceWordCount(String text) {
+        return text.trim().isEmpty() ? 0 : text.trim().split("\\s+").length;
+    }
 }